@@ -34,14 +34,13 @@
 package org.nschmidt.csg;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Random;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
@@ -56,6 +55,7 @@ import org.nschmidt.ldparteditor.data.DatFile;
 import org.nschmidt.ldparteditor.data.GColour;
 import org.nschmidt.ldparteditor.data.GData1;
 import org.nschmidt.ldparteditor.data.GData3;
+import org.nschmidt.ldparteditor.data.GL33RenderScheduler;
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
@@ -118,11 +118,27 @@ public class CSG {
 
     public static final ExecutorService EXECUTOR_SERVICE = Executors.newSingleThreadExecutor();
 
-    private SortedMap<GData3, IdAndPlane> csgResult = new TreeMap<>();
+    private volatile SortedMap<GData3, IdAndPlane> csgResult = new TreeMap<>();
+
+    private static final int MAX_BSP_TREES = 4;
 
     private List<Polygon> polygons;
     private Bounds bounds = null;
 
+    /**
+     * BSP trees of this csg, memoised per subset of its polygons. A csg never
+     * changes its polygons and a transformed body is a new csg, so a tree
+     * stays valid for the lifetime of this instance.
+     */
+    private final Map<BitSet, Node> bspTrees = new LinkedHashMap<>(4, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BitSet, Node> eldest) {
+            return size() > MAX_BSP_TREES;
+        }
+    };
+
     private CSG() {
         globalOptimizationRate = 100.0;
     }
@@ -141,17 +157,6 @@ public class CSG {
         return csg;
     }
 
-    private CSG createClone() {
-        CSG csg = new CSG();
-
-        csg.polygons = new ArrayList<>();
-        for (Polygon polygon : polygons) {
-            csg.polygons.add(polygon.createClone());
-        }
-
-        return csg;
-    }
-
     /**
      *
      * @return the polygons of this CSG
@@ -191,46 +196,16 @@ public class CSG {
      */
     public CSG union(CSG csg) {
 
-        final List<Polygon> thisPolys = this.createClone().polygons;
-        final List<Polygon> otherPolys = csg.createClone().polygons;
         final Bounds thisBounds = this.getBounds();
         final Bounds otherBounds = csg.getBounds();
 
         final List<Polygon> nonIntersectingPolys = new ArrayList<>();
+        final BitSet thisSubset = this.intersectingPolygons(otherBounds, nonIntersectingPolys);
+        final BitSet otherSubset = csg.intersectingPolygons(thisBounds, nonIntersectingPolys);
 
-        thisPolys.removeIf(poly -> {
-            final boolean result = !otherBounds.intersects(poly.getBounds());
-            if (result) {
-                nonIntersectingPolys.add(poly);
-            }
-            return result;
-        });
-
-        otherPolys.removeIf(poly -> {
-            final boolean result = !thisBounds.intersects(poly.getBounds());
-            if (result) {
-                nonIntersectingPolys.add(poly);
-            }
-            return result;
-        });
-
-        CompletableFuture<Node> f1 = CompletableFuture.supplyAsync(() -> new Node(thisPolys));
-        CompletableFuture<Node> f2 = CompletableFuture.supplyAsync(() -> new Node(otherPolys));
-        CompletableFuture.allOf(f1, f2).join();
-
-        final Node a;
-        final Node b;
-
-        try {
-            a = f1.get();
-            b = f2.get();
-        } catch (ExecutionException e) {
-            // Exceptions should (tm) already be thrown by the "join()" call.
-            throw new LDPartEditorException(e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new LDPartEditorException(e);
-        }
+        final Node[] trees = buildTrees(this, thisSubset, csg, otherSubset);
+        final Node a = trees[0];
+        final Node b = trees[1];
 
         a.clipTo(b);
         b.clipTo(a);
@@ -284,42 +259,16 @@ public class CSG {
      */
     public CSG difference(CSG csg) {
 
-        final List<Polygon> thisPolys = this.createClone().polygons;
-        final List<Polygon> otherPolys = csg.createClone().polygons;
         final Bounds thisBounds = this.getBounds();
         final Bounds otherBounds = csg.getBounds();
 
         final List<Polygon> nonIntersectingPolys = new ArrayList<>();
+        final BitSet thisSubset = this.intersectingPolygons(otherBounds, nonIntersectingPolys);
+        final BitSet otherSubset = csg.intersectingPolygons(thisBounds, null);
 
-        thisPolys.removeIf(poly -> {
-            final boolean result = !otherBounds.intersects(poly.getBounds());
-            if (result) {
-                nonIntersectingPolys.add(poly);
-            }
-            return result;
-        });
-
-        otherPolys.removeIf(poly ->
-            !thisBounds.intersects(poly.getBounds())
-        );
-
-        CompletableFuture<Node> f1 = CompletableFuture.supplyAsync(() -> new Node(thisPolys));
-        CompletableFuture<Node> f2 = CompletableFuture.supplyAsync(() -> new Node(otherPolys));
-        CompletableFuture.allOf(f1, f2).join();
-
-        final Node a;
-        final Node b;
-
-        try {
-            a = f1.get();
-            b = f2.get();
-        } catch (ExecutionException e) {
-            // Exceptions should (tm) already be thrown by the "join()" call.
-            throw new LDPartEditorException(e);
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new LDPartEditorException(ie);
-        }
+        final Node[] trees = buildTrees(this, thisSubset, csg, otherSubset);
+        final Node a = trees[0];
+        final Node b = trees[1];
 
         a.invert();
         a.clipTo(b);
@@ -374,22 +323,9 @@ public class CSG {
      */
     public CSG intersect(CSG csg) {
 
-        CompletableFuture<Node> f1 = CompletableFuture.supplyAsync(() -> new Node(this.createClone().polygons));
-        CompletableFuture<Node> f2 = CompletableFuture.supplyAsync(() -> new Node(csg.createClone().polygons));
-        CompletableFuture.allOf(f1, f2).join();
-
-        final Node a;
-        final Node b;
-
-        try {
-            a = f1.get();
-            b = f2.get();
-        } catch (ExecutionException e) {
-            throw new LDPartEditorException(e);
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new LDPartEditorException(ie);
-        }
+        final Node[] trees = buildTrees(this, this.allPolygons(), csg, csg.allPolygons());
+        final Node a = trees[0];
+        final Node b = trees[1];
 
         a.invert();
         b.clipTo(a);
@@ -411,6 +347,84 @@ public class CSG {
         return CSG.fromPolygons(a.allPolygons(new ArrayList<>()));
     }
 
+    /**
+     * Builds (or copies from the memo) the BSP trees of two operands in
+     * parallel.
+     *
+     * @return private copies of both trees, which may be modified
+     */
+    private static Node[] buildTrees(CSG first, BitSet firstSubset, CSG second, BitSet secondSubset) {
+
+        CompletableFuture<Node> f1 = CompletableFuture.supplyAsync(() -> first.bspTree(firstSubset));
+        CompletableFuture<Node> f2 = CompletableFuture.supplyAsync(() -> second.bspTree(secondSubset));
+        CompletableFuture.allOf(f1, f2).join();
+
+        try {
+            return new Node[] { f1.get(), f2.get() };
+        } catch (ExecutionException e) {
+            // Exceptions should (tm) already be thrown by the "join()" call.
+            throw new LDPartEditorException(e);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new LDPartEditorException(ie);
+        }
+    }
+
+    /**
+     * Returns the subset of polygons which intersect the specified bounds.
+     *
+     * @param otherBounds
+     *            the bounds of the other operand
+     * @param nonIntersectingPolys
+     *            receives copies of the remaining polygons (can be {@code null})
+     * @return the indices of the intersecting polygons
+     */
+    private BitSet intersectingPolygons(Bounds otherBounds, List<Polygon> nonIntersectingPolys) {
+        final BitSet result = new BitSet(polygons.size());
+        int i = 0;
+        for (Polygon poly : polygons) {
+            if (otherBounds.intersects(poly.getBounds())) {
+                result.set(i);
+            } else if (nonIntersectingPolys != null) {
+                nonIntersectingPolys.add(poly.createClone());
+            }
+            i++;
+        }
+        return result;
+    }
+
+    private BitSet allPolygons() {
+        final BitSet result = new BitSet(polygons.size());
+        result.set(0, polygons.size());
+        return result;
+    }
+
+    /**
+     * Returns a copy of the BSP tree for a subset of the polygons of this csg.
+     * The tree itself is built only once per subset.
+     *
+     * @param subset
+     *            the indices of the polygons
+     * @return a copy of the tree, which may be modified
+     */
+    private Node bspTree(BitSet subset) {
+        Node tree;
+        synchronized (bspTrees) {
+            tree = bspTrees.get(subset);
+        }
+        if (tree == null) {
+            final List<Polygon> subsetPolys = new ArrayList<>(subset.cardinality());
+            for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+                subsetPolys.add(polygons.get(i).createClone());
+            }
+            tree = new Node(subsetPolys);
+            synchronized (bspTrees) {
+                bspTrees.put(subset, tree);
+            }
+        }
+        return tree.createClone();
+    }
+
     /**
      * Returns this csg as list of LDraw triangles
      *
@@ -431,6 +445,9 @@ public class CSG {
         GData1 g1 = new GData1(-1, col.getR(), col.getG(), col.getB(), 1f, id, View.ACCURATE_ID, new ArrayList<>(), null, null, 1, false, id, View.ACCURATE_ID, null, View.DUMMY_REFERENCE, true, false,
                 new HashSet<>(), View.DUMMY_REFERENCE);
         this.csgResult = toLDrawTriangles(g1);
+        optimization = null;
+        optimizedResult = null;
+        shouldOptimize = true;
         return g1;
     }
 
@@ -448,26 +465,14 @@ public class CSG {
 
     private volatile boolean shouldOptimize = true;
     private volatile SortedMap<GData3, IdAndPlane> optimizedResult = null;
-    private volatile SortedMap<GData3, IdAndPlane> optimizedTriangles = new TreeMap<>();
-    private final Random rnd = new Random(12345678L);
+    private volatile CSGOptimization optimization = null;
     public static volatile long timeOfLastOptimization = -1;
     public static volatile double globalOptimizationRate = 100.0;
-
-    private volatile double optimizationTries = 1.0;
-    private volatile double optimizationSuccess = 1.0;
-    private volatile double failureStrike = 0;
-    private volatile int tjunctionPause = 0;
-    private volatile int flipPause = 0;
-
-    private final Map<GData3, Map<GData3, Boolean>> flipCache = new HashMap<>();
+    /** The maximum duration of one optimisation step in milliseconds */
+    public static volatile long optimizationTimeBudget = 100;
 
     public SortedMap<GData3, IdAndPlane> getResult(DatFile df) {
 
-        if (optimizedTriangles.isEmpty() && df != null && df.isOptimizingCSG()) {
-            optimizedTriangles = new TreeMap<>();
-            optimizedTriangles.putAll(csgResult);
-        }
-
         if (shouldOptimize && df != null && df.isOptimizingCSG()) {
             final Composite3D lastC3d = DatFile.getLastHoveredComposite();
             if (lastC3d != null) {
@@ -475,91 +480,36 @@ public class CSG {
             }
 
             shouldOptimize = false;
+            final SortedMap<GData3, IdAndPlane> triangles = csgResult;
             EXECUTOR_SERVICE.execute(() -> {
 
-                SortedMap<GData3, IdAndPlane> optimization = new TreeMap<>();
-                if (optimizedResult != null) {
-                    optimization.putAll(optimizedResult);
-                } else {
-                    optimization.putAll(optimizedTriangles);
+                CSGOptimization opt = optimization;
+                if (opt == null) {
+                    opt = new CSGOptimization(triangles);
+                    optimization = opt;
                 }
 
-                // Optimize for each plane
-                SortedMap<Plane, List<GData3>> trianglesPerPlane = new TreeMap<>();
-                List<GData3> obsoleteTriangles = new ArrayList<>();
-                for (Entry<GData3, IdAndPlane> entry : optimization.entrySet()) {
-                    IdAndPlane id = entry.getValue();
-                    if (id == null) {
-                        obsoleteTriangles.add(entry.getKey());
-                        continue;
-                    }
-                    final Plane p = id.plane;
-                    List<GData3> triangles = trianglesPerPlane.get(p);
-                    if (triangles == null) {
-                        triangles = new ArrayList<>();
-                        triangles.add(entry.getKey());
-                        trianglesPerPlane.put(p, triangles);
-                    } else {
-                        triangles.add(entry.getKey());
-                    }
-                }
-                for (GData3 g : obsoleteTriangles) {
-                    optimization.remove(g);
-                }
-
-                int action = rnd.nextInt(3);
-                boolean foundOptimization = false;
-
-                if (action == 0 || action == 2) {
-                    if (tjunctionPause > 0) {
-                        tjunctionPause--;
-                        action = 2;
-                    } else {
-                        foundOptimization = CSGOptimizerTJunction.optimize(trianglesPerPlane, optimization);
-                        if (!foundOptimization) {
-                            tjunctionPause = 1000;
-                        }
-                    }
+                final SortedMap<GData3, IdAndPlane> optimized = opt.step(optimizationTimeBudget);
+                if (opt != optimization || triangles != csgResult) {
+                    // The body was compiled again in the meantime
+                    shouldOptimize = true;
+                    return;
                 }
 
-                if (action == 1) {
-                    if (flipPause > 0) {
-                        flipPause--;
-                        action = 2;
-                    } else {
-                        foundOptimization = CSGOptimizerFlipTriangle.optimize(rnd, trianglesPerPlane, optimization, flipCache);
-                        if (!foundOptimization) {
-                            flipPause = 1000;
-                        }
-                    }
+                if (optimized != null) {
+                    optimizedResult = optimized;
                 }
 
-                if (action == 2 && tjunctionPause > 0) {
-                    foundOptimization = CSGOptimizerEdgeCollapse.optimize(trianglesPerPlane, optimization);
-                    if (!foundOptimization) {
-                        flipPause = 0;
-                    }
-                }
+                globalOptimizationRate = opt.getProgress();
+                timeOfLastOptimization = System.currentTimeMillis();
 
-                if (foundOptimization) {
-                    optimizationSuccess++;
-                    failureStrike = 0;
-                } else if (optimizationSuccess > 0) {
-                    optimizationSuccess--;
-                    if (failureStrike < 100) {
-                        failureStrike++;
-                    }
-                }
-                optimizationTries++;
+                // Stop at the fixpoint
+                shouldOptimize = !opt.isConverged();
 
-                final double rate = Math.max(1.0 - optimizationSuccess / optimizationTries, failureStrike / 100.0) * 100.0;
-                if (rate < 99.0 && failureStrike < 100) {
-                    globalOptimizationRate = rate;
-                    timeOfLastOptimization = System.currentTimeMillis();
+                // The next step starts when the views fetch the result again
+                if (optimized != null || shouldOptimize) {
+                    GL33RenderScheduler.requestRebuild(df);
                 }
-
-                optimizedResult = optimization;
-                shouldOptimize = true;
             });
         }
 
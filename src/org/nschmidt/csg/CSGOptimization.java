@@ -0,0 +1,152 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.csg;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.nschmidt.ldparteditor.data.GData3;
+import org.nschmidt.ldparteditor.data.WorkerPool;
+
+/**
+ * Optimises the triangles of a compiled CSG body. The triangles are kept in
+ * buckets per plane. The optimisers work on one plane at a time, so the planes
+ * are independent from each other and are processed in parallel. A plane stays
+ * on the work list until no optimiser finds anything to do (fixpoint).
+ */
+final class CSGOptimization {
+
+    /** The maximum number of optimisations of one plane in one step */
+    private static final int MAX_STEPS_PER_PLANE = 16;
+
+    private final SortedMap<GData3, IdAndPlane> triangles = new TreeMap<>();
+    private final Map<Plane, PlaneState> planes = new TreeMap<>();
+    private final SortedSet<Plane> workList = new TreeSet<>();
+
+    private static final class PlaneState {
+        private List<GData3> triangles = new ArrayList<>();
+        private final Map<GData3, Map<GData3, Boolean>> flipCache = new HashMap<>();
+        private final Random rnd = new Random(12345678L);
+    }
+
+    private record PlaneResult(SortedMap<GData3, IdAndPlane> triangles, boolean changed, boolean converged) { }
+
+    CSGOptimization(Map<GData3, IdAndPlane> csgResult) {
+        for (Entry<GData3, IdAndPlane> entry : csgResult.entrySet()) {
+            final IdAndPlane id = entry.getValue();
+            if (id == null) {
+                // Obsolete triangle
+                continue;
+            }
+            triangles.put(entry.getKey(), id);
+            planes.computeIfAbsent(id.plane, p -> new PlaneState()).triangles.add(entry.getKey());
+        }
+        workList.addAll(planes.keySet());
+    }
+
+    boolean isConverged() {
+        return workList.isEmpty();
+    }
+
+    /**
+     * @return the share of planes which can't be optimised any further (in
+     *         percent)
+     */
+    double getProgress() {
+        if (planes.isEmpty()) {
+            return 100.0;
+        }
+        return (planes.size() - workList.size()) * 100.0 / planes.size();
+    }
+
+    /**
+     * Optimises all planes from the work list in parallel.
+     *
+     * @param timeBudget
+     *            the maximum duration of this step in milliseconds
+     * @return a copy of the optimised triangles or {@code null} if nothing has
+     *         changed
+     */
+    SortedMap<GData3, IdAndPlane> step(long timeBudget) {
+        final long deadline = System.currentTimeMillis() + timeBudget;
+        final List<Plane> planesToProcess = new ArrayList<>(workList);
+        final PlaneResult[] results = new PlaneResult[planesToProcess.size()];
+
+        WorkerPool.parallelFor(0, results.length, (start, end) -> {
+            for (int i = start; i < end; i++) {
+                results[i] = optimize(planesToProcess.get(i), deadline);
+            }
+        }).await();
+
+        boolean changed = false;
+        for (int i = 0; i < results.length; i++) {
+            final Plane plane = planesToProcess.get(i);
+            final PlaneResult result = results[i];
+            if (result == null) {
+                // The task has failed, the plane can't be optimised
+                workList.remove(plane);
+                continue;
+            }
+            if (result.changed()) {
+                final PlaneState state = planes.get(plane);
+                for (GData3 tri : state.triangles) {
+                    triangles.remove(tri);
+                }
+                triangles.putAll(result.triangles());
+                state.triangles = new ArrayList<>(result.triangles().keySet());
+                changed = true;
+            }
+            if (result.converged()) {
+                workList.remove(plane);
+            }
+        }
+
+        return changed ? new TreeMap<>(triangles) : null;
+    }
+
+    private PlaneResult optimize(Plane plane, long deadline) {
+        final PlaneState state = planes.get(plane);
+        final SortedMap<GData3, IdAndPlane> optimization = new TreeMap<>();
+        for (GData3 tri : state.triangles) {
+            optimization.put(tri, triangles.get(tri));
+        }
+
+        // The optimisers expect the triangles grouped by plane
+        final Map<Plane, List<GData3>> trianglesPerPlane = new TreeMap<>();
+        boolean changed = false;
+        for (int i = 0; i < MAX_STEPS_PER_PLANE && System.currentTimeMillis() < deadline; i++) {
+            trianglesPerPlane.put(plane, new ArrayList<>(optimization.keySet()));
+            // T-junctions have to be removed before edges can be collapsed
+            if (CSGOptimizerTJunction.optimize(trianglesPerPlane, optimization)
+                    || CSGOptimizerEdgeCollapse.optimize(trianglesPerPlane, optimization)
+                    || CSGOptimizerFlipTriangle.optimize(state.rnd, trianglesPerPlane, optimization, state.flipCache)) {
+                changed = true;
+            } else {
+                return new PlaneResult(optimization, changed, true);
+            }
+        }
+
+        return new PlaneResult(optimization, changed, false);
+    }
+}
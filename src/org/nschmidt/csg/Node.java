@@ -39,6 +39,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RecursiveAction;
 
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -52,6 +53,15 @@ import org.nschmidt.ldparteditor.logger.NLogger;
  */
 final class Node {
 
+    /**
+     * Maximum number of partitioning steps for one tree.
+     */
+    private static final int MAX_BUILD_STEPS = 10000;
+    /**
+     * Subtrees with fewer polygons are built on the current thread.
+     */
+    private static final int PARALLEL_BUILD_THRESHOLD = 256;
+
     /**
      * Polygons.
      */
@@ -80,17 +90,7 @@ final class Node {
     public Node(List<Polygon> polygons) {
         this.polygons = new ArrayList<>();
         if (polygons != null) {
-            Deque<NodePolygon> st = new LinkedList<>();
-            st.push(new NodePolygon(this, polygons));
-            int it = 0;
-            while (!st.isEmpty() && it < 10000) {
-                it++;
-                NodePolygon np = st.pop();
-                List<NodePolygon> npr = np.node().build(np.polygons());
-                for (NodePolygon np2 : npr) {
-                    st.push(np2);
-                }
-            }
+            new BuildTask(this, polygons, MAX_BUILD_STEPS).invoke();
         }
     }
 
@@ -101,6 +101,100 @@ final class Node {
         this.polygons = new ArrayList<>();
     }
 
+    /**
+     * Creates a deep copy of this BSP tree. The polygons of the copy keep the
+     * exact planes of the original polygons.
+     *
+     * @return the copy of this tree
+     */
+    public Node createClone() {
+        final Node result = new Node();
+        final Deque<Node[]> st = new LinkedList<>();
+        st.push(new Node[] { this, result });
+        while (!st.isEmpty()) {
+            final Node[] pair = st.pop();
+            final Node src = pair[0];
+            final Node dst = pair[1];
+            if (src.plane != null) {
+                dst.plane = src.plane.createClone();
+            }
+            for (Polygon polygon : src.polygons) {
+                List<VectorCSGd> newVertices = new ArrayList<>(polygon.vertices.size());
+                for (VectorCSGd vertex : polygon.vertices) {
+                    newVertices.add(vertex.createClone());
+                }
+                dst.polygons.add(new Polygon(polygon.df, newVertices, polygon));
+            }
+            if (src.front != null) {
+                dst.front = new Node();
+                st.push(new Node[] { src.front, dst.front });
+            }
+            if (src.back != null) {
+                dst.back = new Node();
+                st.push(new Node[] { src.back, dst.back });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds a subtree. The front and back subtrees of a node are independent
+     * from each other, so large ones are forked to the pool of the calling
+     * thread. Small subtrees are built without recursion. Each subtree gets its
+     * own share of the partitioning steps, so the tree does not depend on the
+     * order in which the subtasks are executed.
+     */
+    private static final class BuildTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Node node;
+        private final transient List<Polygon> polygons;
+        private final int steps;
+
+        private BuildTask(Node node, List<Polygon> polygons, int steps) {
+            this.node = node;
+            this.polygons = polygons;
+            this.steps = steps;
+        }
+
+        @Override
+        protected void compute() {
+            if (steps <= 0) {
+                return;
+            }
+            if (polygons.size() < PARALLEL_BUILD_THRESHOLD) {
+                final Deque<NodePolygon> st = new LinkedList<>();
+                st.push(new NodePolygon(node, polygons));
+                int it = 0;
+                while (!st.isEmpty() && it < steps) {
+                    it++;
+                    NodePolygon np = st.pop();
+                    List<NodePolygon> npr = np.node().build(np.polygons());
+                    for (NodePolygon np2 : npr) {
+                        st.push(np2);
+                    }
+                }
+            } else {
+                final List<NodePolygon> npr = node.build(polygons);
+                int polygonCount = 0;
+                for (NodePolygon np : npr) {
+                    polygonCount += np.polygons().size();
+                }
+                // The remaining steps are split in proportion to the polygon count of the subtrees
+                int remainingSteps = steps - 1;
+                final List<BuildTask> subtasks = new ArrayList<>(npr.size());
+                for (int i = 0; i < npr.size(); i++) {
+                    final NodePolygon np = npr.get(i);
+                    final int share = i == npr.size() - 1 ? remainingSteps : (int) ((steps - 1L) * np.polygons().size() / polygonCount);
+                    remainingSteps -= share;
+                    subtasks.add(new BuildTask(np.node(), np.polygons(), share));
+                }
+                invokeAll(subtasks);
+            }
+        }
+    }
+
     /**
      * Converts solid space to empty space and vice verca.
      */
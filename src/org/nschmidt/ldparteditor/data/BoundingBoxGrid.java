@@ -0,0 +1,168 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.nschmidt.ldparteditor.helper.math.GridHelper;
+
+/**
+ * A uniform grid over the (slightly enlarged) axis-aligned bounding boxes of
+ * lines and surfaces. It is used as the broad phase for the pairwise
+ * intersection tests. The grid is immutable and can be queried from multiple
+ * threads.
+ */
+final class BoundingBoxGrid {
+
+    /** Boxes which span more cells than this are tested on every query */
+    private static final int MAX_CELLS_PER_BOX = 64;
+    /** Queries which span more cells than this test all boxes */
+    private static final int MAX_CELLS_PER_QUERY = 4096;
+
+    /** minX, minY, minZ, maxX, maxY, maxZ for each entry */
+    private final float[] boxes;
+    private final int size;
+    private final float cellSize;
+    private final Map<Long, int[]> cells = new HashMap<>();
+    private final int[] oversizedEntries;
+
+    BoundingBoxGrid(List<Vertex[]> shapes) {
+        size = shapes.size();
+        boxes = new float[size * 6];
+        double extentSum = 0.0;
+        for (int i = 0; i < size; i++) {
+            extentSum += GridHelper.calculateBox(shapes.get(i), boxes, i * 6);
+        }
+        final float averageExtent = size > 0 ? (float) (extentSum / size) : 0f;
+        cellSize = averageExtent > 0f && Float.isFinite(averageExtent) ? averageExtent : 1f;
+
+        final Map<Long, List<Integer>> cellLists = new HashMap<>();
+        final List<Integer> oversized = new ArrayList<>();
+        final int[] range = new int[6];
+        for (int i = 0; i < size; i++) {
+            if (cellRange(boxes, i * 6, range) > MAX_CELLS_PER_BOX) {
+                oversized.add(i);
+                continue;
+            }
+            for (int x = range[0]; x <= range[3]; x++) {
+                for (int y = range[1]; y <= range[4]; y++) {
+                    for (int z = range[2]; z <= range[5]; z++) {
+                        cellLists.computeIfAbsent(GridHelper.cellKey(x, y, z), k -> new ArrayList<>(4)).add(i);
+                    }
+                }
+            }
+        }
+        GridHelper.toCellArrays(cellLists, cells);
+        oversizedEntries = oversized.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the indices of all entries whose box overlaps with the box of
+     *         the given entry (in ascending order, including the entry itself)
+     */
+    int[] getOverlapping(int index) {
+        return getOverlapping(boxes, index * 6);
+    }
+
+    /**
+     * @return the indices of all entries whose box overlaps with the box of
+     *         the given shape (in ascending order)
+     */
+    int[] getOverlapping(Vertex[] shape) {
+        final float[] box = new float[6];
+        GridHelper.calculateBox(shape, box, 0);
+        return getOverlapping(box, 0);
+    }
+
+    private int[] getOverlapping(float[] box, int offset) {
+        final int[] range = new int[6];
+        if (cellRange(box, offset, range) > MAX_CELLS_PER_QUERY) {
+            final int[] result = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (overlaps(box, offset, i)) {
+                    result[count++] = i;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        int[] result = new int[16];
+        int count = 0;
+        for (int x = range[0]; x <= range[3]; x++) {
+            for (int y = range[1]; y <= range[4]; y++) {
+                for (int z = range[2]; z <= range[5]; z++) {
+                    final int[] entries = cells.get(GridHelper.cellKey(x, y, z));
+                    if (entries == null) continue;
+                    for (int i : entries) {
+                        if (overlaps(box, offset, i)) {
+                            if (count == result.length) result = Arrays.copyOf(result, count * 2);
+                            result[count++] = i;
+                        }
+                    }
+                }
+            }
+        }
+        for (int i : oversizedEntries) {
+            if (overlaps(box, offset, i)) {
+                if (count == result.length) result = Arrays.copyOf(result, count * 2);
+                result[count++] = i;
+            }
+        }
+
+        // An entry can be found in multiple cells
+        Arrays.sort(result, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || result[unique - 1] != result[i]) {
+                result[unique++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    private boolean overlaps(float[] box, int offset, int index) {
+        final int o = index * 6;
+        return box[offset] <= boxes[o + 3] && box[offset + 3] >= boxes[o]
+                && box[offset + 1] <= boxes[o + 4] && box[offset + 4] >= boxes[o + 1]
+                && box[offset + 2] <= boxes[o + 5] && box[offset + 5] >= boxes[o + 2];
+    }
+
+    /**
+     * @return the number of cells which are covered by the box
+     */
+    private long cellRange(float[] box, int offset, int[] range) {
+        long count = 1;
+        for (int i = 0; i < 3; i++) {
+            range[i] = cellIndex(box[offset + i]);
+            range[i + 3] = cellIndex(box[offset + i + 3]);
+            count *= (long) range[i + 3] - range[i] + 1;
+        }
+        return count;
+    }
+
+    private int cellIndex(float value) {
+        return GridHelper.cellIndex(value, cellSize);
+    }
+}
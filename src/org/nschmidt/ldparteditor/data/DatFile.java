@@ -33,7 +33,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CTabItem;
@@ -58,6 +60,7 @@ import org.nschmidt.ldparteditor.helper.math.HashBiMap;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
+import org.nschmidt.ldparteditor.opengl.OpenGLRenderer20;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.resource.ResourceManager;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -66,6 +69,8 @@ import org.nschmidt.ldparteditor.shell.editor3d.toolitem.InsertAtCursorPositionT
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 import org.nschmidt.ldparteditor.text.DatParser;
 import org.nschmidt.ldparteditor.text.LDParsingException;
+import org.nschmidt.ldparteditor.text.LibraryPathIndex;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
 import org.nschmidt.ldparteditor.text.StringHelper;
 import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
 import org.nschmidt.ldparteditor.text.UTF8PrintWriter;
@@ -78,6 +83,8 @@ import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 public final class DatFile {
 
     private static final Pattern pattern = Pattern.compile("\r?\n|\r"); //$NON-NLS-1$
+    /** Files with fewer lines are always parsed sequentially */
+    private static final int PARALLEL_PARSE_THRESHOLD = 1000;
 
     private final boolean readOnly;
     private final boolean fromPartReview;
@@ -131,6 +138,7 @@ public final class DatFile {
     private DuplicateManager duplicate = new DuplicateManager(this);
     private DatHeaderManager datHeader = new DatHeaderManager(this);
     private final BinaryDataRegistry binaryData = new BinaryDataRegistry();
+    private final LineStyleCache lineStyleCache = new LineStyleCache();
 
     public static DatFile createDatFileForReview(String path) {
         return new DatFile(path, true);
@@ -178,13 +186,30 @@ public final class DatFile {
 
         GDataCSG.resetCSG(this, c3d.getManipulator().isModified());
 
-        GData data2draw = drawChainAnchor;
         int renderMode = c3d.getRenderMode();
         if (!c3d.isDrawingSolidMaterials() && renderMode != 5)
             vertices.drawGL20(c3d);
 
         if (AddToolItem.isAddingCondlines())
             renderMode = 6;
+
+        final GL20DrawCache cache = ((OpenGLRenderer20) c3d.getRenderer()).getDrawCache();
+        if (!cache.replay(c3d, this, renderMode)) {
+            final boolean compiling = cache.begin(c3d, this, renderMode);
+            drawChain(c3d, renderMode);
+            if (compiling) {
+                cache.end(c3d, ViewIdleManager.pause[0].get());
+            }
+        }
+
+        GDataCSG.finishCacheCleanup(c3d.getLockableDatFileReference());
+
+        if (c3d.isDrawingSolidMaterials() && renderMode != 5)
+            vertices.showHidden();
+    }
+
+    private void drawChain(Composite3D c3d, int renderMode) {
+        GData data2draw = drawChainAnchor;
         switch (renderMode) {
         case -1: // Wireframe
             data2draw.drawGL20Wireframe(c3d);
@@ -280,11 +305,6 @@ public final class DatFile {
         default:
             break;
         }
-
-        GDataCSG.finishCacheCleanup(c3d.getLockableDatFileReference());
-
-        if (c3d.isDrawingSolidMaterials() && renderMode != 5)
-            vertices.showHidden();
     }
 
     synchronized void getBFCorientationMap(Map<GData, BFC> bfcMap) {
@@ -569,6 +589,7 @@ public final class DatFile {
 
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         GData.CACHE_warningsAndErrors.clear();
 
@@ -776,6 +797,7 @@ public final class DatFile {
 
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
 
         String line;
@@ -927,14 +949,13 @@ public final class DatFile {
         if (!duplicates.getItems().isEmpty() || !GData.CACHE_duplicates.isEmpty()) {
             int position;
             duplicates.getItems().clear();
-            Set<GData> entriesToRemove = new HashSet<>();
             SortedMap<Integer, ParsingResult> results = new TreeMap<>();
 
+            // The cache contains the duplicates of all open files.
+            // Only the DuplicateManager of a file removes its entries.
             for (Entry<GData, ParsingResult> entry : GData.CACHE_duplicates.entrySet()) {
                 Integer lineNumber2 = drawPerLine.getKey(entry.getKey());
-                if (lineNumber2 == null) {
-                    entriesToRemove.add(entry.getKey());
-                } else {
+                if (lineNumber2 != null) {
                     results.put(lineNumber2, entry.getValue());
                 }
             }
@@ -958,9 +979,6 @@ public final class DatFile {
                 trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
                 trtmNewTreeitem.setData(position);
             }
-            for (GData gd2 : entriesToRemove) {
-                GData.CACHE_duplicates.remove(gd2);
-            }
             compositeText.update();
             compositeText.redraw();
             return true;
@@ -1064,6 +1082,7 @@ public final class DatFile {
 
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         GData.CACHE_warningsAndErrors.clear();
 
@@ -1190,15 +1209,23 @@ public final class DatFile {
 
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         drawPerLine.clear();
         vertices.clear(); // The vertex structure needs a re-build
 
+        final GData[] parsedData = parseInParallel(lines, col16, alreadyParsed);
+
         GData gdata;
         int lineNumber = 1;
         for (String line : lines) {
 
-            if (isNotBlank(line)) {
+            if (parsedData != null && parsedData[lineNumber - 1] != null) {
+                gdata = parsedData[lineNumber - 1];
+                anchorData.setNext(gdata);
+                anchorData = gdata;
+                drawPerLine.put(lineNumber, gdata);
+            } else if (isNotBlank(line)) {
                 results = DatParser.parseLine(line, lineNumber, 0, col16.getR(), col16.getG(), col16.getB(), 1.1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, this, false, alreadyParsed);
 
                 gdata = results.get(0).getGraphicalData();
@@ -1236,6 +1263,52 @@ public final class DatFile {
         setDrawSelection(tmpDrawSelection);
     }
 
+    /**
+     * Parses the geometry lines (type 1 to 5) of a big file on the common
+     * fork-join pool. The lines don't depend on each other, as long as there is
+     * no constant declaration. Meta commands are left to the sequential parse
+     * in {@link #parseForData(boolean)}, which also links the data in order.
+     *
+     * @return the parsed data per line (index = line number - 1, {@code null}
+     *         for lines which were not parsed) or {@code null} if the file
+     *         should be parsed sequentially
+     */
+    private GData[] parseInParallel(String[] lines, GColour col16, Set<String> alreadyParsed) {
+        if (lines.length < PARALLEL_PARSE_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            return null;
+        }
+        for (String line : lines) {
+            if (line.trim().startsWith("0 !LPE CONST")) { //$NON-NLS-1$
+                return null;
+            }
+        }
+        final GData[] result = new GData[lines.length];
+        IntStream.range(0, lines.length).parallel().forEach(i -> {
+            final String line = lines[i];
+            if (isGeometry(line)) {
+                // Each line needs its own set, because the parser adds and removes the referenced files
+                final List<ParsingResult> results = DatParser.parseLine(line, i + 1, 0, col16.getR(), col16.getG(), col16.getB(), 1.1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, this, false, new HashSet<>(alreadyParsed));
+                GData gdata = results.get(0).getGraphicalData();
+                if (gdata == null) {
+                    gdata = new GData0(line, View.DUMMY_REFERENCE);
+                } else {
+                    gdata.setText(line);
+                }
+                result[i] = gdata;
+            }
+        });
+        return result;
+    }
+
+    private static boolean isGeometry(String line) {
+        final String trimmed = line.trim();
+        if (trimmed.length() < 2) {
+            return false;
+        }
+        final char type = trimmed.charAt(0);
+        return type >= '1' && type <= '5' && Character.isWhitespace(trimmed.charAt(1));
+    }
+
     public HashBiMap<Integer, GData> getDrawPerLine() {
         return drawPerLine.copy();
     }
@@ -1620,6 +1693,7 @@ public final class DatFile {
             setVirtual(false);
             originalText = text;
             oldName = newName;
+            LibraryPathIndex.fileCreated(newName);
             setLastSavedOpened(new Date());
             lastModified = new File(getNewName()).lastModified();
             Project.removeUnsavedFile(this);
@@ -1671,6 +1745,7 @@ public final class DatFile {
             setVirtual(false);
             originalText = text;
             oldName = newName;
+            LibraryPathIndex.fileCreated(newName);
             setLastSavedOpened(new Date());
             lastModified = new File(getNewName()).lastModified();
             Project.removeUnsavedFile(this);
@@ -1761,6 +1836,7 @@ public final class DatFile {
                 r.println(line);
             }
             r.flush();
+            LibraryPathIndex.fileCreated(newName);
             return true;
         } catch (Exception ex) {
             return false;
@@ -1909,6 +1985,9 @@ public final class DatFile {
 
     public void setDrawSelection(boolean drawSelection) {
         this.drawSelection = drawSelection;
+        if (drawSelection) {
+            GL33RenderScheduler.requestRender(this);
+        }
     }
 
     public void setProjectFile(boolean projectFile) {
@@ -2055,4 +2134,8 @@ public final class DatFile {
     public BinaryDataRegistry getBinaryData() {
         return binaryData;
     }
+
+    public LineStyleCache getLineStyleCache() {
+        return lineStyleCache;
+    }
 }
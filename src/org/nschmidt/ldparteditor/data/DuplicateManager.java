@@ -16,8 +16,12 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.data;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -33,6 +37,7 @@ import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
+import org.nschmidt.ldparteditor.text.LineTokenizer;
 
 public class DuplicateManager {
 
@@ -44,6 +49,29 @@ public class DuplicateManager {
 
     private volatile Queue<GData> workQueue = new ConcurrentLinkedQueue<>();
 
+    /** The state of a line since the last duplicate check */
+    private static final class LineInfo {
+        private final GData data;
+        private int position;
+        /** The canonical key of the geometry (or {@code null}) */
+        private String key;
+        /** The normalised text of a meta command line (or {@code null}) */
+        private String text;
+        private boolean invisible;
+
+        private LineInfo(GData data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+    }
+
+    // The following fields are only accessed by the worker thread
+    private GData lastAnchor = null;
+    private final List<LineInfo> lineInfos = new ArrayList<>();
+    /** All lines with the same geometry (sorted by their position) */
+    private final Map<String, List<LineInfo>> linesByKey = new HashMap<>();
+    private final LineTokenizer tokenizer = new LineTokenizer();
+
     DuplicateManager(DatFile df) {
         this.df = df;
     }
@@ -79,498 +107,13 @@ public class DuplicateManager {
             try {
                 GData newEntry = workQueue.poll();
                 if (newEntry != null) {
-                    NLogger.debug(getClass(), "Started duplicate check..."); //$NON-NLS-1$
-
-                    final Set<GData> allKeys = new HashSet<>();
-                    String lastCommentLine = null;
-                    final Map<String, Integer> lines = new HashMap<>();
-
-                    allKeys.addAll(GData.CACHE_duplicates.threadsafeKeySet());
-                    GData gd = newEntry;
-                    int lineNumber = 1;
-                    while ((gd = gd.next) != null) {
-                        boolean[] registered = new boolean[]{false};
-                        int type = gd.type();
-                        String trimmedLine = gd.toString().trim();
-                        String[] dataSegments = trimmedLine.split("\\s+"); //$NON-NLS-1$
-
-                        // Remove double spaces (essential for complex types)
-                        String normalizedLine;
-                        if (type > 6 || type < 2) {
-                            StringBuilder normalized = new StringBuilder();
-                            int i = 0;
-                            for (String string : dataSegments) {
-                                if (i != 1) {
-                                    normalized.append(string);
-                                    normalized.append(" "); //$NON-NLS-1$
-                                }
-                                i++;
-                            }
-                            normalizedLine = normalized.toString().trim();
-                        } else {
-                            normalizedLine = trimmedLine;
-                        }
-
-                        switch (type) {
-                        case 0:
-                            break;
-                        case 1:
-
-                            GData invertNextData = gd.getBefore();
-                            normalizedLine = normalizedLine + ((GData1) gd).shortName;
-                            // Check if a INVERTNEXT is present
-                            while (invertNextData != null && invertNextData.type() != 1 && (invertNextData.type() != 6 || ((GDataBFC) invertNextData).type != BFC.INVERTNEXT)) {
-                                invertNextData = invertNextData.getBefore();
-                            }
-                            if (invertNextData != null && invertNextData.type() == 6) {
-                                normalizedLine = "IV" + normalizedLine; //$NON-NLS-1$
-                                if (lines.containsKey(normalizedLine)) {
-                                    lastCommentLine = "0 BFC INVERTNEXT"; //$NON-NLS-1$
-                                    registerDuplicate(gd, lines.get(normalizedLine), registered);
-                                } else {
-                                    lastCommentLine = null;
-                                    lines.put(normalizedLine, lineNumber);
-                                }
-                            } else {
-                                normalizedLine = "NIV" + normalizedLine; //$NON-NLS-1$
-                                if (lines.containsKey(normalizedLine)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine), registered);
-                                } else {
-                                    lastCommentLine = null;
-                                    lines.put(normalizedLine, lineNumber);
-                                }
-                            }
-                            break;
-                        case 2:
-                        {
-                            if (!((GData2) gd).isLine) {
-                                break;
-                            }
-                            if (lines.containsKey(normalizedLine)) {
-                                registerDuplicate(gd, lines.get(normalizedLine), registered);
-                            } else {
-                                lines.put(normalizedLine, lineNumber);
-                                StringBuilder normalized1 = new StringBuilder();
-
-                                normalized1.append(dataSegments[0]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[2]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[3]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[4]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[5]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[6]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[7]);
-
-                                String normalizedLine1 = normalized1.toString().trim();
-
-                                if (lines.containsKey(normalizedLine1)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine1), registered);
-                                } else {
-                                    lines.put(normalizedLine1, lineNumber);
-                                    lastCommentLine = null;
-
-                                    StringBuilder normalized2 = new StringBuilder();
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        lastCommentLine = null;
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 3:
-                        {
-                            if (!((GData3) gd).isTriangle) {
-                                break;
-                            }
-                            if (lines.containsKey(normalizedLine)) {
-                                registerDuplicate(gd, lines.get(normalizedLine), registered);
-                            } else {
-                                lines.put(normalizedLine, lineNumber);
-                                StringBuilder normalized1 = new StringBuilder();
-
-                                normalized1.append(dataSegments[0]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[2]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[3]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[4]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[5]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[6]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[7]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[8]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[9]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[10]);
-
-                                String normalizedLine1 = normalized1.toString().trim();
-
-                                if (lines.containsKey(normalizedLine1)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine1), registered);
-                                } else {
-                                    lines.put(normalizedLine1, lineNumber);
-                                    StringBuilder normalized2 = new StringBuilder();
-
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[8]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[9]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[10]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        StringBuilder normalized3 = new StringBuilder();
-
-                                        normalized3.append(dataSegments[0]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[5]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[6]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[7]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[8]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[9]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[10]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[2]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[3]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[4]);
-
-                                        String normalizedLine3 = normalized3.toString().trim();
-                                        if (lines.containsKey(normalizedLine3)) {
-                                            registerDuplicate(gd, lines.get(normalizedLine3), registered);
-                                        } else {
-                                            lines.put(normalizedLine3, lineNumber);
-                                            lastCommentLine = null;
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 4:
-                        {
-                            if (lines.containsKey(normalizedLine)) {
-                                registerDuplicate(gd, lineNumber, registered);
-                            } else {
-                                lines.put(normalizedLine, lineNumber);
-                                StringBuilder normalized1 = new StringBuilder();
-
-                                normalized1.append(dataSegments[0]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[2]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[3]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[4]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[5]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[6]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[7]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[8]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[9]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[10]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[11]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[12]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[13]);
-
-                                String normalizedLine1 = normalized1.toString().trim();
-
-                                if (lines.containsKey(normalizedLine1)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine1), registered);
-                                } else {
-                                    lines.put(normalizedLine1, lineNumber);
-                                    StringBuilder normalized2 = new StringBuilder();
-
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[11]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[12]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[13]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[8]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[9]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[10]);
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        StringBuilder normalized3 = new StringBuilder();
-
-                                        normalized3.append(dataSegments[0]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[8]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[9]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[10]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[11]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[12]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[13]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[2]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[3]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[4]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[5]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[6]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[7]);
-
-                                        String normalizedLine3 = normalized3.toString().trim();
-                                        if (lines.containsKey(normalizedLine3)) {
-                                            registerDuplicate(gd, lines.get(normalizedLine3), registered);
-                                        } else {
-                                            lines.put(normalizedLine3, lineNumber);
-                                            StringBuilder normalized4 = new StringBuilder();
-
-                                            normalized4.append(dataSegments[0]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[5]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[6]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[7]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[8]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[9]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[10]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[11]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[12]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[13]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[2]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[3]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[4]);
-
-                                            String normalizedLine4 = normalized4.toString().trim();
-                                            if (lines.containsKey(normalizedLine4)) {
-                                                registerDuplicate(gd, lines.get(normalizedLine4), registered);
-                                            } else {
-                                                lines.put(normalizedLine4, lineNumber);
-                                                lastCommentLine = null;
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 5:
-                        {
-                            GData5 gd5 = (GData5) gd;
-
-                            Vector4f p1 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3);
-                            Vector4f p2 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x4, gd5.y4, gd5.z4);
-
-                            Vector3f pa1 = Vector3f.sub(new Vector3f(gd5.x3, gd5.y3, gd5.z3), new Vector3f(p1.x, p1.y, p1.z), null);
-                            Vector3f pa2 = Vector3f.sub(new Vector3f(gd5.x4, gd5.y4, gd5.z4), new Vector3f(p2.x, p2.y, p2.z), null);
-
-                            float a = (float) (Vector3f.angle(pa1, pa2) / Math.PI * 180.0);
-
-
-                            if (a > Threshold.CONDLINE_ANGLE_MAXIMUM) {
-                                registerInvisibleCondline(gd, registered);
-                            } else {
-                                StringBuilder normalized3 = new StringBuilder();
-
-                                normalized3.append(dataSegments[0]);
-                                normalized3.append(" "); //$NON-NLS-1$
-
-                                normalized3.append(dataSegments[2]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[3]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[4]);
-                                normalized3.append(" "); //$NON-NLS-1$
-
-                                normalized3.append(dataSegments[5]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[6]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[7]);
-                                normalized3.append(" "); //$NON-NLS-1$
-
-                                String normalizedLine3 = normalized3.toString().trim();
-
-                                if (lines.containsKey(normalizedLine3)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine3), registered);
-                                } else {
-                                    lines.put(normalizedLine3, lineNumber);
-                                    StringBuilder normalized2 = new StringBuilder();
-
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        lastCommentLine = null;
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 6:
-                            break;
-                        default:
-                            if (!trimmedLine.isEmpty()) {
-                                if (lastCommentLine != null && lastCommentLine.equals(normalizedLine)) {
-                                    registerDuplicate(gd, lineNumber - 1, registered);
-                                } else {
-                                    lastCommentLine = normalizedLine;
-                                }
-                            }
-                            break;
-                        }
-                        if (registered[0]) {
-                            allKeys.remove(gd);
-                        }
-                        lineNumber += 1;
-                    }
-
-                    for (GData gd2 : allKeys) {
-                        GData.CACHE_duplicates.remove(gd2);
+                    // Only the most recent state of the file is relevant
+                    GData nextEntry;
+                    while ((nextEntry = workQueue.poll()) != null) {
+                        newEntry = nextEntry;
                     }
-
+                    NLogger.debug(getClass(), "Started duplicate check..."); //$NON-NLS-1$
+                    updateDuplicates(newEntry);
                 }
                 if (workQueue.isEmpty()) Thread.sleep(100);
             } catch (InterruptedException ie) {
@@ -581,12 +124,303 @@ public class DuplicateManager {
                 // because it SHOULD be avoided!!
                 NLogger.error(getClass(), "The DuplicateManager cycle was throwing an exception :("); //$NON-NLS-1$
                 NLogger.error(getClass(), e);
+                // Start from scratch on the next check
+                lastAnchor = null;
+            }
+        }
+        // The file was closed
+        for (LineInfo info : lineInfos) {
+            GData.CACHE_duplicates.remove(info.data);
+        }
+    }
+
+    /**
+     * Updates the duplicate index with the lines which were changed since the
+     * last check. Unchanged lines are only compared by their identity.
+     */
+    private void updateDuplicates(GData anchor) {
+        final List<GData> chain = new ArrayList<>(lineInfos.size() + 16);
+        GData gd = anchor;
+        while ((gd = gd.next) != null) {
+            chain.add(gd);
+        }
+
+        if (anchor != lastAnchor) {
+            for (LineInfo info : lineInfos) {
+                GData.CACHE_duplicates.remove(info.data);
+            }
+            lineInfos.clear();
+            linesByKey.clear();
+            lastAnchor = anchor;
+        }
+
+        final int oldSize = lineInfos.size();
+        final int newSize = chain.size();
+        final int minSize = Math.min(oldSize, newSize);
+        int prefix = 0;
+        while (prefix < minSize && lineInfos.get(prefix).data == chain.get(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix && lineInfos.get(oldSize - 1 - suffix).data == chain.get(newSize - 1 - suffix)) {
+            suffix++;
+        }
+        if (prefix == oldSize && prefix == newSize) {
+            return;
+        }
+
+        final int end = newSize - suffix;
+        final Set<List<LineInfo>> dirtyGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<LineInfo> dirtyTexts = new ArrayList<>();
+
+        // 1. Remove the old lines
+        final List<LineInfo> removedLines = lineInfos.subList(prefix, oldSize - suffix);
+        for (LineInfo info : removedLines) {
+            unindex(info, dirtyGroups);
+            GData.CACHE_duplicates.remove(info.data);
+        }
+        removedLines.clear();
+
+        // 2. Insert the new lines
+        final List<LineInfo> addedLines = new ArrayList<>(end - prefix);
+        for (int i = prefix; i < end; i++) {
+            addedLines.add(new LineInfo(chain.get(i), i));
+        }
+        lineInfos.addAll(prefix, addedLines);
+
+        // 3. Move the following lines (their line numbers are part of the messages)
+        if (newSize != oldSize) {
+            for (int i = end; i < newSize; i++) {
+                final LineInfo info = lineInfos.get(i);
+                info.position = i;
+                if (info.key != null) {
+                    final List<LineInfo> group = linesByKey.get(info.key);
+                    if (group.size() > 1 && group.get(0) == info) {
+                        dirtyGroups.add(group);
+                    }
+                } else if (info.text != null && GData.CACHE_duplicates.containsKey(info.data)) {
+                    dirtyTexts.add(info);
+                }
+            }
+        }
+
+        for (LineInfo info : addedLines) {
+            analyse(info);
+            index(info, dirtyGroups);
+            if (info.text != null) {
+                dirtyTexts.add(info);
+            }
+        }
+
+        // 4. The INVERTNEXT state and the predecessor of the following lines can change
+        boolean checkReference = true;
+        boolean checkText = true;
+        for (int i = end; i < newSize && (checkReference || checkText); i++) {
+            final LineInfo info = lineInfos.get(i);
+            if (checkReference && info.data.type() == 1) {
+                checkReference = false;
+                final String oldKey = info.key;
+                analyse(info);
+                if (!info.key.equals(oldKey)) {
+                    final String newKey = info.key;
+                    info.key = oldKey;
+                    unindex(info, dirtyGroups);
+                    info.key = newKey;
+                    index(info, dirtyGroups);
+                }
+            }
+            if (checkText && (info.text != null || info.key != null)) {
+                checkText = false;
+                if (info.text != null) {
+                    dirtyTexts.add(info);
+                }
+            }
+        }
+
+        // 5. Register the results
+        for (List<LineInfo> group : dirtyGroups) {
+            if (group.isEmpty()) {
+                continue;
+            }
+            group.sort(Comparator.comparingInt(info -> info.position));
+            final LineInfo first = group.get(0);
+            GData.CACHE_duplicates.remove(first.data);
+            final int size = group.size();
+            for (int i = 1; i < size; i++) {
+                registerDuplicate(group.get(i).data, first.position + 1);
+            }
+        }
+
+        for (LineInfo info : dirtyTexts) {
+            int i = info.position - 1;
+            while (i > -1 && lineInfos.get(i).text == null && lineInfos.get(i).key == null) {
+                i--;
+            }
+            if (i > -1 && info.text.equals(lineInfos.get(i).text)) {
+                registerDuplicate(info.data, info.position);
+            } else {
+                GData.CACHE_duplicates.remove(info.data);
+            }
+        }
+    }
+
+    private void index(LineInfo info, Set<List<LineInfo>> dirtyGroups) {
+        if (info.invisible) {
+            registerInvisibleCondline(info.data);
+        } else if (info.key != null) {
+            final List<LineInfo> group = linesByKey.computeIfAbsent(info.key, k -> new ArrayList<>(1));
+            group.add(info);
+            dirtyGroups.add(group);
+        }
+    }
+
+    private void unindex(LineInfo info, Set<List<LineInfo>> dirtyGroups) {
+        if (info.key != null) {
+            final List<LineInfo> group = linesByKey.get(info.key);
+            group.remove(info);
+            if (group.isEmpty()) {
+                linesByKey.remove(info.key);
+            }
+            dirtyGroups.add(group);
+        }
+    }
+
+    /**
+     * Calculates the canonical key of a line. Lines and condlines are equal if
+     * they share the same two vertices, triangles and quads are equal if the
+     * vertices are in the same winding order (regardless of the start vertex).
+     * The colour is not relevant.
+     */
+    private void analyse(LineInfo info) {
+        final GData gd = info.data;
+        info.key = null;
+        info.text = null;
+        info.invisible = false;
+        switch (gd.type()) {
+        case 0, 6:
+            break;
+        case 1:
+        {
+            final String[] dataSegments = tokenizer.tokenize(gd.toString()).toArray();
+            final StringBuilder normalized = new StringBuilder();
+            normalized.append(isInverted(info.position) ? "IV" : "NIV"); //$NON-NLS-1$ //$NON-NLS-2$
+            normalized.append(dataSegments[0]);
+            for (int i = 2; i < dataSegments.length; i++) {
+                normalized.append(' ');
+                normalized.append(dataSegments[i]);
+            }
+            normalized.append(((GData1) gd).shortName);
+            info.key = normalized.toString();
+        }
+        break;
+        case 2:
+            if (((GData2) gd).isLine) {
+                info.key = canonicalKey(tokenizer.tokenize(gd.toString()).toArray(), 2);
+            }
+            break;
+        case 3:
+            if (((GData3) gd).isTriangle) {
+                info.key = canonicalKey(tokenizer.tokenize(gd.toString()).toArray(), 3);
+            }
+            break;
+        case 4:
+            info.key = canonicalKey(tokenizer.tokenize(gd.toString()).toArray(), 4);
+            break;
+        case 5:
+        {
+            GData5 gd5 = (GData5) gd;
+
+            Vector4f p1 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3);
+            Vector4f p2 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x4, gd5.y4, gd5.z4);
+
+            Vector3f pa1 = Vector3f.sub(new Vector3f(gd5.x3, gd5.y3, gd5.z3), new Vector3f(p1.x, p1.y, p1.z), null);
+            Vector3f pa2 = Vector3f.sub(new Vector3f(gd5.x4, gd5.y4, gd5.z4), new Vector3f(p2.x, p2.y, p2.z), null);
+
+            float a = (float) (Vector3f.angle(pa1, pa2) / Math.PI * 180.0);
+
+            if (a > Threshold.CONDLINE_ANGLE_MAXIMUM) {
+                info.invisible = true;
+            } else {
+                info.key = canonicalKey(tokenizer.tokenize(gd.toString()).toArray(), 2);
+            }
+        }
+        break;
+        default:
+        {
+            final String[] dataSegments = tokenizer.tokenize(gd.toString()).toArray();
+            if (!dataSegments[0].isEmpty()) {
+                // Remove double spaces and the second token
+                final StringBuilder normalized = new StringBuilder();
+                for (int i = 0; i < dataSegments.length; i++) {
+                    if (i != 1) {
+                        if (!normalized.isEmpty()) {
+                            normalized.append(' ');
+                        }
+                        normalized.append(dataSegments[i]);
+                    }
+                }
+                info.text = normalized.toString();
+            }
+        }
+        break;
+        }
+    }
+
+    /**
+     * @return {@code true} if the reference at the given position is preceded
+     *         by a "0 BFC INVERTNEXT"
+     */
+    private boolean isInverted(int position) {
+        for (int i = position - 1; i > -1; i--) {
+            final GData gd = lineInfos.get(i).data;
+            final int type = gd.type();
+            if (type == 1) {
+                return false;
+            } else if (type == 6 && ((GDataBFC) gd).type == BFC.INVERTNEXT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the line type and the vertices, starting with the smallest
+     *         rotation of the vertex list
+     */
+    private static String canonicalKey(String[] dataSegments, int vertexCount) {
+        int start = 0;
+        for (int rotation = 1; rotation < vertexCount; rotation++) {
+            if (compareRotation(dataSegments, vertexCount, rotation, start) < 0) {
+                start = rotation;
+            }
+        }
+        final StringBuilder normalized = new StringBuilder();
+        normalized.append(dataSegments[0]);
+        for (int v = 0; v < vertexCount; v++) {
+            final int offset = 2 + (start + v) % vertexCount * 3;
+            for (int i = offset; i < offset + 3; i++) {
+                normalized.append(' ');
+                normalized.append(dataSegments[i]);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static int compareRotation(String[] dataSegments, int vertexCount, int rotationA, int rotationB) {
+        for (int v = 0; v < vertexCount; v++) {
+            final int offsetA = 2 + (rotationA + v) % vertexCount * 3;
+            final int offsetB = 2 + (rotationB + v) % vertexCount * 3;
+            for (int i = 0; i < 3; i++) {
+                final int result = dataSegments[offsetA + i].compareTo(dataSegments[offsetB + i]);
+                if (result != 0) {
+                    return result;
+                }
             }
         }
+        return 0;
     }
 
-    private void registerDuplicate(GData gd, int lineNumber, boolean[] registered) {
-        registered[0] = true;
+    private void registerDuplicate(GData gd, int lineNumber) {
         Object[] messageArguments = {lineNumber};
         MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
         formatter.setLocale(MyLanguage.getLocale());
@@ -594,8 +428,7 @@ public class DuplicateManager {
         GData.CACHE_duplicates.put(gd, new ParsingResult(formatter.format(messageArguments), "[E01] " + I18n.DATPARSER_LOGIC_ERROR, ResultType.ERROR)); //$NON-NLS-1$
     }
 
-    private void registerInvisibleCondline(GData gd, boolean[] registered) {
-        registered[0] = true;
+    private void registerInvisibleCondline(GData gd) {
         GData.CACHE_duplicates.put(gd, new ParsingResult(I18n.DATPARSER_INVISIBLE_LINE, "[E01] " + I18n.DATPARSER_LOGIC_ERROR, ResultType.ERROR)); //$NON-NLS-1$
     }
 }
@@ -62,8 +62,10 @@ public abstract class GData implements Comparable<GData> {
     public static final Map<GData1, Matrix4f> CACHE_viewByProjection = new HashMap<>(1000);
 
     // Cleared before parse
-    public static final Map<String, List<String>> CACHE_parsedFilesSource = new HashMap<>(1000);
-    public static final Map<String, GData> parsedLines = new HashMap<>(1000);
+    public static final Map<String, List<String>> CACHE_parsedFilesSource = new ThreadsafeHashMap<>(1000);
+    public static final Map<String, GData> parsedLines = new ThreadsafeHashMap<>(1000);
+    // Parse time only, the references still copy every template line
+    public static final Map<String, GData[]> CACHE_subfileTemplates = new ThreadsafeHashMap<>(1000);
 
     public static final Map<GData, List<ParsingResult>> CACHE_warningsAndErrors = new HashMap<>(1000); // Cleared
     public static final ThreadsafeHashMap<GData, ParsingResult> CACHE_duplicates = new ThreadsafeHashMap<>(1000); // Cleared
@@ -46,6 +46,7 @@ import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.text.DatParser;
+import org.nschmidt.ldparteditor.text.LibraryCache;
 import org.nschmidt.ldparteditor.text.TexMapParser;
 
 public final class GData1 extends GData {
@@ -166,120 +167,78 @@ public final class GData1 extends GData {
 
             GData anchorData = myGData;
 
-            for (String line : lines) {
-                if (isNotBlank(line)) {
-
-                    StringBuilder keyBuilder2 = new StringBuilder();
-                    keyBuilder2.append(key);
-                    keyBuilder2.append(line);
-                    keyBuilder2.append(colourNumber);
-                    String key3 = keyBuilder2.toString();
-
-                    if (GData.parsedLines.containsKey(key3)) {
-                        GData gdata = GData.parsedLines.get(key3);
-                        final GData resGData;
-                        switch (gdata.type()) {
-                        case 0:
-                            resGData = new GData0(line, this);
-                            break;
-                        case 1:
-                            GData1 gd1 = (GData1) gdata;
-                            alreadyParsed.add(gd1.shortName);
-                            GData1 newGdata1 = new GData1(gd1.colourNumber, gd1.r, gd1.g, gd1.b, gd1.a, new Matrix4f(gd1.localMatrix), gd1.accurateLocalMatrix,
-                                    GData.CACHE_parsedFilesSource.get(gd1.name), gd1.name, gd1.shortName, depth, gd1.negativeDeterminant, Matrix4f.mul(this.productMatrix, gd1.localMatrix, null),
-                                    Matrix.mul(this.accurateProductMatrix, gd1.accurateLocalMatrix), datFile, this.firstRef, false, errorCheckOnly, alreadyParsed, this);
-                            alreadyParsed.remove(gd1.shortName);
-                            if (newGdata1.boundingBoxMin.x != Float.MAX_VALUE) {
-                                this.boundingBoxMin.x = Math.min(this.boundingBoxMin.x, newGdata1.boundingBoxMin.x);
-                                this.boundingBoxMin.y = Math.min(this.boundingBoxMin.y, newGdata1.boundingBoxMin.y);
-                                this.boundingBoxMin.z = Math.min(this.boundingBoxMin.z, newGdata1.boundingBoxMin.z);
-                                this.boundingBoxMin.x = Math.min(this.boundingBoxMin.x, newGdata1.boundingBoxMax.x);
-                                this.boundingBoxMin.y = Math.min(this.boundingBoxMin.y, newGdata1.boundingBoxMax.y);
-                                this.boundingBoxMin.z = Math.min(this.boundingBoxMin.z, newGdata1.boundingBoxMax.z);
-                                this.boundingBoxMax.x = Math.max(this.boundingBoxMax.x, newGdata1.boundingBoxMin.x);
-                                this.boundingBoxMax.y = Math.max(this.boundingBoxMax.y, newGdata1.boundingBoxMin.y);
-                                this.boundingBoxMax.z = Math.max(this.boundingBoxMax.z, newGdata1.boundingBoxMin.z);
-                                this.boundingBoxMax.x = Math.max(this.boundingBoxMax.x, newGdata1.boundingBoxMax.x);
-                                this.boundingBoxMax.y = Math.max(this.boundingBoxMax.y, newGdata1.boundingBoxMax.y);
-                                this.boundingBoxMax.z = Math.max(this.boundingBoxMax.z, newGdata1.boundingBoxMax.z);
-                            }
-                            resGData = newGdata1;
-                            break;
-                        case 2:
-                            GData2 gd2 = (GData2) gdata;
-                            GData2 newGdata2 = new GData2(this, gd2.colourNumber, gd2.r, gd2.g, gd2.b, gd2.a, gd2.x1p, gd2.y1p, gd2.z1p, gd2.x2p, gd2.y2p, gd2.z2p, gd2.x1, gd2.y1, gd2.z1, gd2.x2, gd2.y2,
-                                    gd2.z2, datFile, gd2.isLine);
-                            resGData = newGdata2;
-                            break;
-                        case 3:
-                            GData3 gd3 = (GData3) gdata;
-                            GData3 newGdata3 = new GData3(gd3.colourNumber, gd3.r, gd3.g, gd3.b, gd3.a, gd3.x1p, gd3.y1p, gd3.z1p, gd3.x2p, gd3.y2p, gd3.z2p, gd3.x3p, gd3.y3p, gd3.z3p, gd3.x1, gd3.y1, gd3.z1,
-                                    gd3.x2, gd3.y2, gd3.z2, gd3.x3, gd3.y3, gd3.z3, gd3.xn, gd3.yn, gd3.zn, this, datFile, gd3.isTriangle);
-                            resGData = newGdata3;
-                            break;
-                        case 4:
-                            GData4 gd4 = (GData4) gdata;
-                            GData4 newGdata4 = new GData4(gd4.colourNumber, gd4.r, gd4.g, gd4.b, gd4.a, gd4.x1p, gd4.y1p, gd4.z1p, gd4.x2p, gd4.y2p, gd4.z2p, gd4.x3p, gd4.y3p, gd4.z3p, gd4.x4p, gd4.y4p, gd4.z4p,
-                                    gd4.x1, gd4.y1, gd4.z1, gd4.x2, gd4.y2, gd4.z2, gd4.x3, gd4.y3, gd4.z3, gd4.x4, gd4.y4, gd4.z4, gd4.xn, gd4.yn, gd4.zn, this, datFile);
-                            resGData = newGdata4;
-                            break;
-                        case 5:
-                            GData5 gd5 = (GData5) gdata;
-                            GData5 newGdata5 = new GData5(gd5.colourNumber, gd5.r, gd5.g, gd5.b, gd5.a, gd5.x1p, gd5.y1p, gd5.z1p, gd5.x2p, gd5.y2p, gd5.z2p, gd5.x3p, gd5.y3p, gd5.z3p, gd5.x4p, gd5.y4p, gd5.z4p,
-                                    gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3, gd5.x4, gd5.y4, gd5.z4, this, datFile);
-                            resGData = newGdata5;
-                            break;
-                        case 6:
-                            GDataBFC gd6 = (GDataBFC) gdata;
-                            resGData = new GDataBFC(gd6.type, this);
-                            break;
-                        case 8:
-                            GDataCSG gd8 = (GDataCSG) gdata;
-                            resGData = new GDataCSG(datFile, gd8.type, gd8.text, this);
-                            break;
-                        case 9:
-                            GDataTEX gd9 = (GDataTEX) gdata;
-                            resGData = new GDataTEX(gd9.linkedData, gd9.text, gd9.meta, gd9.linkedTexture, this);
-                            break;
-                        default:
-                            NLogger.debug(getClass(), "CACHE ERROR"); //$NON-NLS-1$
+            // The template holds the parsed (matrix independent) data for each line of the subfile.
+            // It saves the key building and the parsing for further references, not the memory:
+            // each reference still gets its own copy of every line (only the text and the
+            // BigDecimal coordinates are shared), since its parent and chain are its own.
+            final String templateKey = key + '|' + colourNumber;
+            final GData[] cachedTemplate = GData.CACHE_subfileTemplates.get(templateKey);
+            final int lineCount = lines.size();
+            final LibraryCache.ParsedLines cachedLines = lines instanceof LibraryCache.ParsedLines pl ? pl : null;
+
+            if (cachedTemplate != null && cachedTemplate.length == lineCount) {
+                for (int i = 0; i < lineCount; i++) {
+                    final String line = lines.get(i);
+                    final GData templateData = cachedTemplate[i];
+                    final GData resGData;
+                    if (templateData == null) {
+                        resGData = new GData0(line, this);
+                    } else {
+                        resGData = copyCachedData(templateData, line, depth, datFile, errorCheckOnly, alreadyParsed);
+                        if (resGData == null) {
                             return;
                         }
+                    }
+                    anchorData.setNext(resGData);
+                    anchorData = resGData;
+                }
+            } else {
+                final GData[] template = new GData[lineCount];
+                boolean cacheTemplate = true;
+                for (int i = 0; i < lineCount; i++) {
+                    final String line = lines.get(i);
+                    if (isNotBlank(line)) {
+
+                        StringBuilder keyBuilder2 = new StringBuilder();
+                        keyBuilder2.append(key);
+                        keyBuilder2.append(line);
+                        keyBuilder2.append(colourNumber);
+                        String key3 = keyBuilder2.toString();
+
+                        if (GData.parsedLines.containsKey(key3)) {
+                            GData gdata = GData.parsedLines.get(key3);
+                            final GData resGData = copyCachedData(gdata, line, depth, datFile, errorCheckOnly, alreadyParsed);
+                            if (resGData == null) {
+                                return;
+                            }
+                            template[i] = gdata;
+                            anchorData.setNext(resGData);
+                            anchorData = resGData;
 
-                        anchorData.setNext(resGData);
-                        anchorData = resGData;
-
-                    } else {
-                        GData gdata = DatParser.parseLine(line, 0, depth, r, g, b, a, this, pMatrix, accurateProductMatrix, datFile, errorCheckOnly, alreadyParsed).get(0).getGraphicalData();
-                        if (gdata != null) {
-                            GData.parsedLines.put(key3, gdata);
-                            if (gdata.type() == 1) {
-                                GData1 newGdata1 = (GData1) gdata;
-                                if (newGdata1.boundingBoxMin.x != Float.MAX_VALUE) {
-                                    this.boundingBoxMin.x = Math.min(this.boundingBoxMin.x, newGdata1.boundingBoxMin.x);
-                                    this.boundingBoxMin.y = Math.min(this.boundingBoxMin.y, newGdata1.boundingBoxMin.y);
-                                    this.boundingBoxMin.z = Math.min(this.boundingBoxMin.z, newGdata1.boundingBoxMin.z);
-                                    this.boundingBoxMin.x = Math.min(this.boundingBoxMin.x, newGdata1.boundingBoxMax.x);
-                                    this.boundingBoxMin.y = Math.min(this.boundingBoxMin.y, newGdata1.boundingBoxMax.y);
-                                    this.boundingBoxMin.z = Math.min(this.boundingBoxMin.z, newGdata1.boundingBoxMax.z);
-                                    this.boundingBoxMax.x = Math.max(this.boundingBoxMax.x, newGdata1.boundingBoxMin.x);
-                                    this.boundingBoxMax.y = Math.max(this.boundingBoxMax.y, newGdata1.boundingBoxMin.y);
-                                    this.boundingBoxMax.z = Math.max(this.boundingBoxMax.z, newGdata1.boundingBoxMin.z);
-                                    this.boundingBoxMax.x = Math.max(this.boundingBoxMax.x, newGdata1.boundingBoxMax.x);
-                                    this.boundingBoxMax.y = Math.max(this.boundingBoxMax.y, newGdata1.boundingBoxMax.y);
-                                    this.boundingBoxMax.z = Math.max(this.boundingBoxMax.z, newGdata1.boundingBoxMax.z);
+                        } else {
+                            // A constant changes the meaning of the following lines
+                            cacheTemplate = cacheTemplate && !line.trim().startsWith("0 !LPE CONST"); //$NON-NLS-1$
+                            GData gdata = DatParser.parseLine(line, cachedLines == null ? null : cachedLines.getDecimals(i), 0, depth, r, g, b, a, this, pMatrix, accurateProductMatrix, datFile, errorCheckOnly, alreadyParsed).get(0).getGraphicalData();
+                            if (gdata != null) {
+                                GData.parsedLines.put(key3, gdata);
+                                template[i] = gdata;
+                                if (gdata.type() == 1) {
+                                    mergeBoundingBox((GData1) gdata);
                                 }
+                            } else {
+                                gdata = new GData0(line, this);
                             }
-                        } else {
-                            gdata = new GData0(line, this);
+                            anchorData.setNext(gdata);
+                            anchorData = gdata;
                         }
+                    } else {
+                        GData0 gdata = new GData0(line, this);
                         anchorData.setNext(gdata);
                         anchorData = gdata;
                     }
-                } else {
-                    GData0 gdata = new GData0(line, this);
-                    anchorData.setNext(gdata);
-                    anchorData = gdata;
+                }
+                if (cacheTemplate) {
+                    GData.CACHE_subfileTemplates.put(templateKey, template);
                 }
             }
 
@@ -403,6 +362,72 @@ public final class GData1 extends GData {
         }
     }
 
+    /**
+     * Creates a copy of already parsed data for this subfile reference
+     *
+     * @return the copy or {@code null} if the data could not be copied
+     */
+    private GData copyCachedData(GData gdata, String line, int depth, DatFile datFile, boolean errorCheckOnly, Set<String> alreadyParsed) {
+        switch (gdata.type()) {
+        case 0:
+            return new GData0(line, this);
+        case 1:
+            GData1 gd1 = (GData1) gdata;
+            alreadyParsed.add(gd1.shortName);
+            GData1 newGdata1 = new GData1(gd1.colourNumber, gd1.r, gd1.g, gd1.b, gd1.a, new Matrix4f(gd1.localMatrix), gd1.accurateLocalMatrix,
+                    GData.CACHE_parsedFilesSource.get(gd1.name), gd1.name, gd1.shortName, depth, gd1.negativeDeterminant, Matrix4f.mul(this.productMatrix, gd1.localMatrix, null),
+                    Matrix.mul(this.accurateProductMatrix, gd1.accurateLocalMatrix), datFile, this.firstRef, false, errorCheckOnly, alreadyParsed, this);
+            alreadyParsed.remove(gd1.shortName);
+            mergeBoundingBox(newGdata1);
+            return newGdata1;
+        case 2:
+            GData2 gd2 = (GData2) gdata;
+            return new GData2(this, gd2.colourNumber, gd2.r, gd2.g, gd2.b, gd2.a, gd2.x1p, gd2.y1p, gd2.z1p, gd2.x2p, gd2.y2p, gd2.z2p, gd2.x1, gd2.y1, gd2.z1, gd2.x2, gd2.y2,
+                    gd2.z2, datFile, gd2.isLine);
+        case 3:
+            GData3 gd3 = (GData3) gdata;
+            return new GData3(gd3.colourNumber, gd3.r, gd3.g, gd3.b, gd3.a, gd3.x1p, gd3.y1p, gd3.z1p, gd3.x2p, gd3.y2p, gd3.z2p, gd3.x3p, gd3.y3p, gd3.z3p, gd3.x1, gd3.y1, gd3.z1,
+                    gd3.x2, gd3.y2, gd3.z2, gd3.x3, gd3.y3, gd3.z3, gd3.xn, gd3.yn, gd3.zn, this, datFile, gd3.isTriangle);
+        case 4:
+            GData4 gd4 = (GData4) gdata;
+            return new GData4(gd4.colourNumber, gd4.r, gd4.g, gd4.b, gd4.a, gd4.x1p, gd4.y1p, gd4.z1p, gd4.x2p, gd4.y2p, gd4.z2p, gd4.x3p, gd4.y3p, gd4.z3p, gd4.x4p, gd4.y4p, gd4.z4p,
+                    gd4.x1, gd4.y1, gd4.z1, gd4.x2, gd4.y2, gd4.z2, gd4.x3, gd4.y3, gd4.z3, gd4.x4, gd4.y4, gd4.z4, gd4.xn, gd4.yn, gd4.zn, this, datFile);
+        case 5:
+            GData5 gd5 = (GData5) gdata;
+            return new GData5(gd5.colourNumber, gd5.r, gd5.g, gd5.b, gd5.a, gd5.x1p, gd5.y1p, gd5.z1p, gd5.x2p, gd5.y2p, gd5.z2p, gd5.x3p, gd5.y3p, gd5.z3p, gd5.x4p, gd5.y4p, gd5.z4p,
+                    gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3, gd5.x4, gd5.y4, gd5.z4, this, datFile);
+        case 6:
+            GDataBFC gd6 = (GDataBFC) gdata;
+            return new GDataBFC(gd6.type, this);
+        case 8:
+            GDataCSG gd8 = (GDataCSG) gdata;
+            return new GDataCSG(datFile, gd8.type, gd8.text, this);
+        case 9:
+            GDataTEX gd9 = (GDataTEX) gdata;
+            return new GDataTEX(gd9.linkedData, gd9.text, gd9.meta, gd9.linkedTexture, this);
+        default:
+            NLogger.debug(getClass(), "CACHE ERROR"); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    private void mergeBoundingBox(GData1 gd1) {
+        if (gd1.boundingBoxMin.x != Float.MAX_VALUE) {
+            this.boundingBoxMin.x = Math.min(this.boundingBoxMin.x, gd1.boundingBoxMin.x);
+            this.boundingBoxMin.y = Math.min(this.boundingBoxMin.y, gd1.boundingBoxMin.y);
+            this.boundingBoxMin.z = Math.min(this.boundingBoxMin.z, gd1.boundingBoxMin.z);
+            this.boundingBoxMin.x = Math.min(this.boundingBoxMin.x, gd1.boundingBoxMax.x);
+            this.boundingBoxMin.y = Math.min(this.boundingBoxMin.y, gd1.boundingBoxMax.y);
+            this.boundingBoxMin.z = Math.min(this.boundingBoxMin.z, gd1.boundingBoxMax.z);
+            this.boundingBoxMax.x = Math.max(this.boundingBoxMax.x, gd1.boundingBoxMin.x);
+            this.boundingBoxMax.y = Math.max(this.boundingBoxMax.y, gd1.boundingBoxMin.y);
+            this.boundingBoxMax.z = Math.max(this.boundingBoxMax.z, gd1.boundingBoxMin.z);
+            this.boundingBoxMax.x = Math.max(this.boundingBoxMax.x, gd1.boundingBoxMax.x);
+            this.boundingBoxMax.y = Math.max(this.boundingBoxMax.y, gd1.boundingBoxMax.y);
+            this.boundingBoxMax.z = Math.max(this.boundingBoxMax.z, gd1.boundingBoxMax.z);
+        }
+    }
+
     public Matrix4f getProductMatrix() {
         return productMatrix;
     }
@@ -477,9 +502,9 @@ public final class GData1 extends GData {
             boolean tempNegativeDeterminant = GData.globalNegativeDeterminant;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -562,9 +587,9 @@ public final class GData1 extends GData {
             boolean tempNegativeDeterminant = GData.globalNegativeDeterminant;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -653,9 +678,9 @@ public final class GData1 extends GData {
             GData.localWinding = BFC.NOCERTIFY;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -751,9 +776,9 @@ public final class GData1 extends GData {
             boolean tempNegativeDeterminant = GData.globalNegativeDeterminant;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -846,9 +871,9 @@ public final class GData1 extends GData {
             GData.localWinding = BFC.NOCERTIFY;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -946,9 +971,9 @@ public final class GData1 extends GData {
             GData.localWinding = BFC.NOCERTIFY;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -1048,9 +1073,9 @@ public final class GData1 extends GData {
             GData.localWinding = BFC.NOCERTIFY;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GData.globalFoundTEXMAPStack.push(false);
 
@@ -1148,9 +1173,9 @@ public final class GData1 extends GData {
             GData.localWinding = BFC.NOCERTIFY;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -1255,9 +1280,9 @@ public final class GData1 extends GData {
             boolean tempNegativeDeterminant = GData.globalNegativeDeterminant;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -1340,9 +1365,9 @@ public final class GData1 extends GData {
             boolean tempNegativeDeterminant = GData.globalNegativeDeterminant;
             GData.globalNegativeDeterminant = GData.globalNegativeDeterminant ^ negativeDeterminant;
 
-            if (boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
+            if (GL20DrawCache.isVisible(boundingBox.intersects(bounds) || boundingBox.contains(0, 0) || boundingBox.contains(bounds.width, bounds.height) || boundingBox.contains(bounds.width, 0)
                     || boundingBox.contains(0, bounds.height) || bounds.contains(boundingBox.x, boundingBox.y) || bounds.contains(boundingBox.x, boundingBox.y + boundingBox.height)
-                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height)) {
+                    || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y) || bounds.contains(boundingBox.x + boundingBox.width, boundingBox.y + boundingBox.height))) {
 
                 GL11.glPushMatrix();
                 GL11.glMultMatrixf(matrix);
@@ -1494,6 +1519,7 @@ public final class GData1 extends GData {
         }
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         untransformedSubfile = (GData1) DatParser
                 .parseLine("1 " + colourBuilder.toString() + " 0 0 0 1 0 0 0 1 0 0 0 1 " + this.shortName , 0, 0, col16.getR(), col16.getG(), col16.getB(), 1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, df, false, //$NON-NLS-1$ //$NON-NLS-2$
@@ -1503,6 +1529,7 @@ public final class GData1 extends GData {
         }
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         boolean plainOnX = untransformedSubfile.boundingBoxMin.x - untransformedSubfile.boundingBoxMax.x == 0f;
         boolean plainOnY = untransformedSubfile.boundingBoxMin.y - untransformedSubfile.boundingBoxMax.y == 0f;
@@ -137,12 +137,12 @@ public final class GData2 extends GData {
         this.x2 = v2.x;
         this.y2 = v2.y;
         this.z2 = v2.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
         this.isLine = isLine;
         datFile.getVertexManager().add(this);
         this.lGeom = MathHelper.getLineVertices(new Vector3f(x1, y1, z1), new Vector3f(x2, y2, z2), parent.productMatrix);
@@ -170,12 +170,12 @@ public final class GData2 extends GData {
         this.x2 = v2.x;
         this.y2 = v2.y;
         this.z2 = v2.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
         this.isLine = isLine;
         this.lGeom = null;
     }
@@ -705,6 +705,7 @@ public final class GData2 extends GData {
     }
 
     void drawDistanceGL20(Composite3D c3d, BigDecimal x1c, BigDecimal y1c, BigDecimal z1c, BigDecimal x2c, BigDecimal y2c, BigDecimal z2c) {
+        GL20DrawCache.markViewDependent();
         final java.text.DecimalFormat numberFormat4f = new java.text.DecimalFormat(View.NUMBER_FORMAT4F, new DecimalFormatSymbols(MyLanguage.getLocale()));
         final OpenGLRenderer20 renderer = (OpenGLRenderer20) c3d.getRenderer();
         final float zoom = 1f / c3d.getZoom();
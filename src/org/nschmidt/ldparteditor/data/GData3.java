@@ -169,15 +169,15 @@ public final class GData3 extends GData {
         this.x3 = v3.x;
         this.y3 = v3.y;
         this.z3 = v3.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
-        this.x3p = v3.xp;
-        this.y3p = v3.yp;
-        this.z3p = v3.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
+        this.x3p = v3.xp();
+        this.y3p = v3.yp();
+        this.z3p = v3.zp();
         this.xn = (y3 - y1) * (z2 - z1) - (z3 - z1) * (y2 - y1);
         this.yn = (z3 - z1) * (x2 - x1) - (x3 - x1) * (z2 - z1);
         this.zn = (x3 - x1) * (y2 - y1) - (y3 - y1) * (x2 - x1);
@@ -211,15 +211,15 @@ public final class GData3 extends GData {
         this.x3 = v3.x;
         this.y3 = v3.y;
         this.z3 = v3.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
-        this.x3p = v3.xp;
-        this.y3p = v3.yp;
-        this.z3p = v3.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
+        this.x3p = v3.xp();
+        this.y3p = v3.yp();
+        this.z3p = v3.zp();
         this.xn = (y3 - y1) * (z2 - z1) - (z3 - z1) * (y2 - y1);
         this.yn = (z3 - z1) * (x2 - x1) - (x3 - x1) * (z2 - z1);
         this.zn = (x3 - x1) * (y2 - y1) - (y3 - y1) * (x2 - x1);
@@ -1591,6 +1591,7 @@ public final class GData3 extends GData {
 
     @SuppressWarnings("java:S2111")
     void drawProtractorGL20(boolean selected, Composite3D c3d, BigDecimal x1c, BigDecimal y1c, BigDecimal z1c, BigDecimal x2c, BigDecimal y2c, BigDecimal z2c, BigDecimal x3c, BigDecimal y3c, BigDecimal z3c) {
+        GL20DrawCache.markViewDependent();
         final java.text.DecimalFormat numberFormat4f = new java.text.DecimalFormat(View.NUMBER_FORMAT4F, new DecimalFormatSymbols(MyLanguage.getLocale()));
         final OpenGLRenderer20 renderer = (OpenGLRenderer20) c3d.getRenderer();
         final float zoom = 1f / c3d.getZoom();
@@ -192,18 +192,18 @@ public final class GData4 extends GData {
         this.x4 = v4.x;
         this.y4 = v4.y;
         this.z4 = v4.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
-        this.x3p = v3.xp;
-        this.y3p = v3.yp;
-        this.z3p = v3.zp;
-        this.x4p = v4.xp;
-        this.y4p = v4.yp;
-        this.z4p = v4.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
+        this.x3p = v3.xp();
+        this.y3p = v3.yp();
+        this.z3p = v3.zp();
+        this.x4p = v4.xp();
+        this.y4p = v4.yp();
+        this.z4p = v4.zp();
         final Vector3f[] normals = new Vector3f[] { new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f() };
         {
             final Vector3f[] lineVectors = new Vector3f[] { new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f() };
@@ -246,18 +246,18 @@ public final class GData4 extends GData {
         this.x4 = v4.x;
         this.y4 = v4.y;
         this.z4 = v4.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
-        this.x3p = v3.xp;
-        this.y3p = v3.yp;
-        this.z3p = v3.zp;
-        this.x4p = v4.xp;
-        this.y4p = v4.yp;
-        this.z4p = v4.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
+        this.x3p = v3.xp();
+        this.y3p = v3.yp();
+        this.z3p = v3.zp();
+        this.x4p = v4.xp();
+        this.y4p = v4.yp();
+        this.z4p = v4.zp();
         final Vector3f[] normals = new Vector3f[] { new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f() };
         {
             final Vector3f[] lineVectors = new Vector3f[] { new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f() };
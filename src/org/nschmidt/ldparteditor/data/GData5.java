@@ -218,18 +218,18 @@ public final class GData5 extends GData {
         this.x4 = v4.x;
         this.y4 = v4.y;
         this.z4 = v4.z;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
-        this.x3p = v3.xp;
-        this.y3p = v3.yp;
-        this.z3p = v3.zp;
-        this.x4p = v4.xp;
-        this.y4p = v4.yp;
-        this.z4p = v4.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
+        this.x3p = v3.xp();
+        this.y3p = v3.yp();
+        this.z3p = v3.zp();
+        this.x4p = v4.xp();
+        this.y4p = v4.yp();
+        this.z4p = v4.zp();
         this.lGeom = null;
     }
 
@@ -296,18 +296,18 @@ public final class GData5 extends GData {
         this.g = g;
         this.b = b;
         this.a = a;
-        this.x1p = v1.xp;
-        this.y1p = v1.yp;
-        this.z1p = v1.zp;
-        this.x2p = v2.xp;
-        this.y2p = v2.yp;
-        this.z2p = v2.zp;
-        this.x3p = v3.xp;
-        this.y3p = v3.yp;
-        this.z3p = v3.zp;
-        this.x4p = v4.xp;
-        this.y4p = v4.yp;
-        this.z4p = v4.zp;
+        this.x1p = v1.xp();
+        this.y1p = v1.yp();
+        this.z1p = v1.zp();
+        this.x2p = v2.xp();
+        this.y2p = v2.yp();
+        this.z2p = v2.zp();
+        this.x3p = v3.xp();
+        this.y3p = v3.yp();
+        this.z3p = v3.zp();
+        this.x4p = v4.xp();
+        this.y4p = v4.yp();
+        this.z4p = v4.zp();
         this.x1 = v1.x;
         this.y1 = v1.y;
         this.z1 = v1.z;
@@ -348,6 +348,12 @@ public final class GData5 extends GData {
                 GL11.glEnable(GL11.GL_LIGHTING);
             return;
         }
+        if (GL20DrawCache.recordCondline(this, parent.productMatrix, false)) {
+            // The visibility depends on the camera, the condline is drawn after the cached chain
+            if (c3d.isLightOn() && (next == null || next.type() != 2 && next.type() != 5))
+                GL11.glEnable(GL11.GL_LIGHTING);
+            return;
+        }
 
         float result;
         float zoom = c3d.getZoom();
@@ -476,6 +482,12 @@ public final class GData5 extends GData {
                 GL11.glEnable(GL11.GL_LIGHTING);
             return;
         }
+        if (GL20DrawCache.recordCondline(this, parent.productMatrix, true)) {
+            // The visibility depends on the camera, the condline is drawn after the cached chain
+            if (c3d.isLightOn() && (next == null || next.type() != 2 && next.type() != 5))
+                GL11.glEnable(GL11.GL_LIGHTING);
+            return;
+        }
 
         final Matrix4f m2 = GData.CACHE_viewByProjection.get(parent);
         if (m2 == null) {
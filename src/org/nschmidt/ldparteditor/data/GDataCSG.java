@@ -19,6 +19,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
@@ -111,6 +112,14 @@ public final class GDataCSG extends GData {
     private volatile CSG compiledCSG = null;
     private CSG dataCSG = null;
 
+    /**
+     * The result of the last evaluation of this line and the inputs it was
+     * computed from (see {@link #memoKey}). An unchanged body reuses it.
+     */
+    private List<Object> memoKey = null;
+    private CSG memoCSG = null;
+    private Integer memoId = null;
+
     private final GColour colour;
     final Matrix4f matrix;
 
@@ -359,6 +368,7 @@ public final class GDataCSG extends GData {
     }
 
     private void drawAndParse(Composite3D c3d) {
+        GL20DrawCache.markViewDependent();
         final DatFile df = c3d.getLockableDatFileReference();
         drawAndParse(c3d, df, true);
     }
@@ -393,7 +403,11 @@ public final class GDataCSG extends GData {
             try {
                 compiledCSG = null;
                 tmpRegisteredData.add(this);
-                if (ref1 != null) {
+                final List<Object> key = memoKey(df, modified && isSelected(df) ? m : null, tmpLinkedCSG);
+                if (key != null && key.equals(memoKey)) {
+                    reuseMemo(tmpIdToGDataCSG, tmpLinkedCSG);
+                } else if (ref1 != null) {
+                    memoKey = null;
                     switch (type) {
                     case QUAD, CIRCLE, ELLIPSOID, CUBOID, CYLINDER, CONE, MESH, EXTRUDE:
                         if (matrix != null) {
@@ -558,6 +572,9 @@ public final class GDataCSG extends GData {
                     default:
                         break;
                     }
+                    if (key != null) {
+                        storeMemo(key, tmpIdToGDataCSG, tmpLinkedCSG);
+                    }
                 }
             } catch (Exception e) {
                 // StackOverflowError is not possible anymore...
@@ -573,6 +590,91 @@ public final class GDataCSG extends GData {
         }
     }
 
+    /**
+     * Returns everything the result of this line depends on: its text, the
+     * global quality and epsilon, the manipulator transformation (if it is
+     * applied) and the identity of the operand bodies. Mesh and extrusion
+     * bodies depend on other lines and are never memoised.
+     *
+     * @return the key or {@code null} if the result can't be reused
+     */
+    private List<Object> memoKey(DatFile df, Matrix4f manipulation, Map<String, CSG> tmpLinkedCSG) {
+        if (ref1 == null) {
+            return null;
+        }
+        final List<Float> manipulationKey = manipulation == null ? null : Arrays.asList(
+                manipulation.m00, manipulation.m01, manipulation.m02, manipulation.m03,
+                manipulation.m10, manipulation.m11, manipulation.m12, manipulation.m13,
+                manipulation.m20, manipulation.m21, manipulation.m22, manipulation.m23,
+                manipulation.m30, manipulation.m31, manipulation.m32, manipulation.m33);
+        switch (type) {
+        case QUAD, CIRCLE, ELLIPSOID, CUBOID, CYLINDER, CONE:
+            if (matrix == null) {
+                return null;
+            }
+            return Arrays.asList(type, text, quality, Plane.epsilon, manipulationKey);
+        case COMPILE:
+            if (!tmpLinkedCSG.containsKey(ref1)) {
+                return null;
+            }
+            return Arrays.asList(type, text, tmpLinkedCSG.get(ref1));
+        case DIFFERENCE, INTERSECTION, UNION:
+            if (!tmpLinkedCSG.containsKey(ref1) || !tmpLinkedCSG.containsKey(ref2)) {
+                return null;
+            }
+            return Arrays.asList(type, text, Plane.epsilon, tmpLinkedCSG.get(ref1), tmpLinkedCSG.get(ref2));
+        case TRANSFORM:
+            if (!tmpLinkedCSG.containsKey(ref1) || matrix == null) {
+                return null;
+            }
+            return Arrays.asList(type, text, tmpLinkedCSG.get(ref1), manipulationKey);
+        default:
+            return null;
+        }
+    }
+
+    private void storeMemo(List<Object> key, HashBiMap<Integer, GDataCSG> tmpIdToGDataCSG, Map<String, CSG> tmpLinkedCSG) {
+        switch (type) {
+        case COMPILE:
+            memoCSG = compiledCSG;
+            memoId = null;
+            break;
+        case DIFFERENCE, INTERSECTION, UNION:
+            memoCSG = tmpLinkedCSG.get(ref3);
+            memoId = null;
+            break;
+        default:
+            memoId = tmpIdToGDataCSG.getKey(this);
+            memoCSG = memoId == null ? null : dataCSG;
+            break;
+        }
+        if (memoCSG != null) {
+            memoKey = key;
+        }
+    }
+
+    private void reuseMemo(HashBiMap<Integer, GDataCSG> tmpIdToGDataCSG, Map<String, CSG> tmpLinkedCSG) {
+        switch (type) {
+        case COMPILE:
+            // The body is already compiled (and maybe optimised)
+            compiledCSG = memoCSG;
+            break;
+        case DIFFERENCE, INTERSECTION, UNION:
+            tmpLinkedCSG.put(ref3, memoCSG);
+            break;
+        case TRANSFORM:
+            tmpIdToGDataCSG.put(memoId, this);
+            dataCSG = memoCSG;
+            tmpLinkedCSG.put(ref2, memoCSG);
+            break;
+        default:
+            tmpIdToGDataCSG.put(memoId, this);
+            dataCSG = memoCSG;
+            tmpLinkedCSG.put(ref1, memoCSG);
+            break;
+        }
+    }
+
     private CSG transformWithManipulator(CSG csg, Matrix4f transformation4f, Matrix4f myMatrix) {
         return csg.transformed(myMatrix).transformed(transformation4f);
     }
@@ -106,6 +106,7 @@ public final class GDataPNG extends GData {
     @Override
     public void drawGL20(Composite3D c3d) {
 
+        GL20DrawCache.markViewDependent();
         final boolean selected = this.equals(c3d.getLockableDatFileReference().getVertexManager().getSelectedBgPicture());
 
         Vector4f[] gen = c3d.getGenerator();
@@ -480,11 +481,11 @@ public final class GDataPNG extends GData {
     public String getString(Vertex offset, BigDecimal angleA, BigDecimal angleB, BigDecimal angleC, Vertex scale, String texturePath) {
         StringBuilder lineBuilder = new StringBuilder();
         lineBuilder.append("0 !LPE PNG "); //$NON-NLS-1$
-        lineBuilder.append(bigDecimalToString(offset.xp));
+        lineBuilder.append(bigDecimalToString(offset.xp()));
         lineBuilder.append(" "); //$NON-NLS-1$
-        lineBuilder.append(bigDecimalToString(offset.yp));
+        lineBuilder.append(bigDecimalToString(offset.yp()));
         lineBuilder.append(" "); //$NON-NLS-1$
-        lineBuilder.append(bigDecimalToString(offset.zp));
+        lineBuilder.append(bigDecimalToString(offset.zp()));
         lineBuilder.append(" "); //$NON-NLS-1$
         lineBuilder.append(bigDecimalToString(angleA));
         lineBuilder.append(" "); //$NON-NLS-1$
@@ -492,9 +493,9 @@ public final class GDataPNG extends GData {
         lineBuilder.append(" "); //$NON-NLS-1$
         lineBuilder.append(bigDecimalToString(angleC));
         lineBuilder.append(" "); //$NON-NLS-1$
-        lineBuilder.append(bigDecimalToString(scale.xp));
+        lineBuilder.append(bigDecimalToString(scale.xp()));
         lineBuilder.append(" "); //$NON-NLS-1$
-        lineBuilder.append(bigDecimalToString(scale.yp));
+        lineBuilder.append(bigDecimalToString(scale.yp()));
         lineBuilder.append(" "); //$NON-NLS-1$
         lineBuilder.append(texturePath);
         return lineBuilder.toString();
@@ -0,0 +1,243 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.composite.Composite3D;
+import org.nschmidt.ldparteditor.enumtype.GL20Primitives;
+import org.nschmidt.ldparteditor.enumtype.View;
+
+/**
+ * Keeps the draw chain of the OpenGL 2.0 renderer in display lists (one for
+ * each material pass). The chain is walked only once after the file, the
+ * hide/show state or the view settings have changed. Later frames replay the
+ * list with a single call. Condlines depend on the camera and are drawn every
+ * frame from the recorded list. Files with view dependent elements (meters,
+ * protractors, background pictures and CSG) are always drawn immediately.
+ * Subfiles outside of the view are culled while compiling, too. Such a list is
+ * compiled again when the camera changes.
+ */
+public final class GL20DrawCache {
+
+    /** The cache which is compiling a display list at the moment */
+    private static GL20DrawCache compiling = null;
+
+    private final int[] lists = new int[2];
+    private final DatFile[] files = new DatFile[2];
+    private final State[] states = new State[2];
+    private final boolean[] viewDependent = new boolean[2];
+    /** {@code true} if a subfile was culled, the list is only valid for the camera */
+    private final boolean[] cameraDependent = new boolean[2];
+    private final float[][] cameras = new float[2][];
+    private final List<List<Condline>> condlines = List.of(new ArrayList<>(), new ArrayList<>());
+    private final Map<Matrix4f, FloatBuffer> productMatrices = new IdentityHashMap<>();
+
+    private int pass;
+
+    /**
+     * Replays the cached draw chain of the file.
+     *
+     * @return {@code false} if the chain has to be walked
+     */
+    boolean replay(Composite3D c3d, DatFile df, int renderMode) {
+        if (!isCacheable(c3d, renderMode)) return false;
+        final int p = pass(c3d);
+        if (files[p] != df || viewDependent[p] || !state(c3d, df, renderMode).equals(states[p])) return false;
+        if (cameraDependent[p] && !Arrays.equals(camera(c3d), cameras[p])) return false;
+        GL11.glCallList(lists[p]);
+        drawCondlines(c3d, p);
+        return true;
+    }
+
+    /**
+     * Starts to compile the draw chain of the file, if the chain can be
+     * cached.
+     *
+     * @return {@code true} if {@link #end(Composite3D, boolean)} must be called
+     *         after the chain was walked
+     */
+    boolean begin(Composite3D c3d, DatFile df, int renderMode) {
+        if (!isCacheable(c3d, renderMode)) return false;
+        final int p = pass(c3d);
+        final State state = state(c3d, df, renderMode);
+        final float[] camera = camera(c3d);
+        // A view dependent chain is not compiled again until it changes
+        if (files[p] == df && state.equals(states[p]) && (!cameraDependent[p] || Arrays.equals(camera, cameras[p]))) return false;
+        if (lists[p] == 0) lists[p] = GL11.glGenLists(1);
+        files[p] = df;
+        states[p] = state;
+        cameras[p] = camera;
+        viewDependent[p] = false;
+        cameraDependent[p] = false;
+        condlines.get(p).clear();
+        productMatrices.clear();
+        pass = p;
+        compiling = this;
+        GL11.glNewList(lists[p], GL11.GL_COMPILE_AND_EXECUTE);
+        return true;
+    }
+
+    /**
+     * Finishes the display list and draws the recorded condlines.
+     *
+     * @param interrupted
+     *            {@code true} if the walk was paused before the end of the
+     *            chain
+     */
+    void end(Composite3D c3d, boolean interrupted) {
+        GL11.glEndList();
+        compiling = null;
+        if (interrupted) {
+            files[pass] = null;
+        }
+        drawCondlines(c3d, pass);
+    }
+
+    /**
+     * Remembers a culled subfile of the compiled list.
+     *
+     * @param visible
+     *            the result of the culling test
+     * @return the result of the culling test
+     */
+    static boolean isVisible(boolean visible) {
+        final GL20DrawCache cache = compiling;
+        if (!visible && cache != null) {
+            cache.cameraDependent[cache.pass] = true;
+        }
+        return visible;
+    }
+
+    /**
+     * Adds the condline to the list which is drawn every frame.
+     *
+     * @return {@code true} if the condline was recorded and must not be drawn
+     *         now
+     */
+    static boolean recordCondline(GData5 condline, Matrix4f productMatrix, boolean randomColours) {
+        final GL20DrawCache cache = compiling;
+        if (cache == null || cache.viewDependent[cache.pass]) return false;
+        final FloatBuffer matrix = cache.productMatrices.computeIfAbsent(productMatrix, m -> {
+            final FloatBuffer result = BufferUtils.createFloatBuffer(16);
+            m.store(result);
+            result.position(0);
+            return result;
+        });
+        cache.condlines.get(cache.pass).add(new Condline(condline, matrix, GData.globalNegativeDeterminant, randomColours));
+        return true;
+    }
+
+    /**
+     * Marks the compiled chain as view dependent. It will be drawn immediately
+     * until it changes.
+     */
+    static void markViewDependent() {
+        final GL20DrawCache cache = compiling;
+        if (cache != null) {
+            cache.viewDependent[cache.pass] = true;
+        }
+    }
+
+    public void dispose() {
+        for (int p = 0; p < 2; p++) {
+            if (lists[p] != 0) {
+                GL11.glDeleteLists(lists[p], 1);
+                lists[p] = 0;
+            }
+            files[p] = null;
+            states[p] = null;
+            cameras[p] = null;
+            condlines.get(p).clear();
+        }
+        productMatrices.clear();
+    }
+
+    private void drawCondlines(Composite3D c3d, int p) {
+        final List<Condline> toDraw = condlines.get(p);
+        if (toDraw.isEmpty()) return;
+        FloatBuffer lastMatrix = null;
+        for (Condline cl : toDraw) {
+            if (cl.matrix != lastMatrix) {
+                if (lastMatrix != null) GL11.glPopMatrix();
+                GL11.glPushMatrix();
+                GL11.glMultMatrixf(cl.matrix);
+                lastMatrix = cl.matrix;
+            }
+            GData.globalNegativeDeterminant = cl.negativeDeterminant;
+            if (cl.randomColours) {
+                cl.condline.drawGL20RandomColours(c3d);
+            } else {
+                cl.condline.drawGL20(c3d);
+            }
+        }
+        GL11.glPopMatrix();
+        GData.globalNegativeDeterminant = false;
+        if (c3d.isLightOn()) {
+            GL11.glEnable(GL11.GL_LIGHTING);
+        } else {
+            GL11.glDisable(GL11.GL_LIGHTING);
+        }
+    }
+
+    private static boolean isCacheable(Composite3D c3d, int renderMode) {
+        // Textures and "Add condlines" need the chain, a transformation hides the data it moves
+        return renderMode != 5 && renderMode != 6 && !c3d.getManipulator().isModified();
+    }
+
+    private static int pass(Composite3D c3d) {
+        return c3d.isDrawingSolidMaterials() ? 0 : 1;
+    }
+
+    /**
+     * @return the viewport and the size of the view (the culling of the subfiles depends on it)
+     */
+    private static float[] camera(Composite3D c3d) {
+        final Matrix4f m = c3d.getViewport();
+        final Point size = c3d.getSize();
+        final Rectangle bounds = c3d.getClientArea();
+        return new float[] {
+                m.m00, m.m01, m.m02, m.m03,
+                m.m10, m.m11, m.m12, m.m13,
+                m.m20, m.m21, m.m22, m.m23,
+                m.m30, m.m31, m.m32, m.m33,
+                size.x, size.y, bounds.width, bounds.height };
+    }
+
+    /**
+     * @return the data and the view settings which have an influence on the
+     *         draw chain. The revision counts every added, removed, changed or
+     *         hidden line of the file.
+     */
+    private static State state(Composite3D c3d, DatFile df, int renderMode) {
+        return new State(df.getVertexManager().getRevision(), renderMode, c3d.getLineMode(), c3d.isShowingLogo(), c3d.isLightOn(),
+                c3d.getZoom() > View.edgeThreshold, View.lineWidthGL, GL20Primitives.sphere);
+    }
+
+    private record State(int revision, int renderMode, int lineMode, boolean showingLogo, boolean lightOn, boolean thickLines, float lineWidth, Object sphere) {}
+
+    private record Condline(GData5 condline, FloatBuffer matrix, boolean negativeDeterminant, boolean randomColours) {}
+}
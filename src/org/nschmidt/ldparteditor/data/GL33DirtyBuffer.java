@@ -0,0 +1,83 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.Arrays;
+
+import org.lwjgl.opengl.GL15;
+
+/**
+ * Keeps the float data of one VBO and remembers if it has changed since the
+ * last upload. The render thread compares a new array with
+ * {@link #diff(float[])} and publishes it with {@link #apply(Change)}, the GL
+ * thread calls {@link #upload()} with the VBO bound. An unchanged array is not
+ * uploaded again. A changed array is always uploaded as a whole.
+ */
+final class GL33DirtyBuffer {
+
+    /**
+     * A new array and whether it differs from the array of the buffer
+     */
+    record Change(float[] data, boolean changed) {}
+
+    private volatile float[] data;
+    private boolean dirty = true;
+
+    GL33DirtyBuffer(float[] initialData) {
+        data = initialData;
+    }
+
+    float[] getData() {
+        return data;
+    }
+
+    /**
+     * Compares a new array with the array of this buffer. It does not change
+     * the buffer, so the (linear) comparison can run on the thread which built
+     * the array without holding the renderer lock. Only the thread which
+     * publishes the arrays of this buffer may call it.
+     */
+    Change diff(float[] newData) {
+        final float[] oldData = data;
+        if (oldData == newData) {
+            return new Change(newData, false);
+        }
+        return new Change(newData, oldData == null || newData == null || !Arrays.equals(oldData, newData));
+    }
+
+    /**
+     * Publishes the array of the change. Must be called while holding the
+     * renderer lock.
+     */
+    void apply(Change change) {
+        data = change.data();
+        if (change.changed()) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Transfers a changed array to the currently bound {@code GL_ARRAY_BUFFER}.
+     * Must be called on the GL thread while holding the renderer lock.
+     */
+    void upload() {
+        if (data == null || !dirty) {
+            return;
+        }
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
+        dirty = false;
+    }
+}
@@ -0,0 +1,79 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.lwjgl.util.vector.Matrix4f;
+
+/**
+ * The geometry which one {@link GL33ModelRenderer} has built for a file. All
+ * views of the file with an equal {@link State} re-use it instead of building
+ * the same arrays again. The arrays must not be modified after the snapshot
+ * was published.
+ */
+record GL33GeometrySnapshot(
+        State state, boolean usesCSG, boolean preview,
+        List<GDataPNG> images, List<GData2> distanceMeters, List<GData3> protractors, Map<GData, Vertex[]> measureVertices,
+        List<Matrix4f> stud1Matrices, List<Matrix4f> stud2Matrices,
+        float[] triangleData, int solidTriangleSize, int transparentTriangleSize,
+        float[] vertexData, int vertexSize, int selectedVerticesSize,
+        float[] lineData, int lineSize,
+        float[] condlineData, int condlineSize,
+        float[] tempLineData, int tempLineSize,
+        float[] selectionLineData, int selectionSize,
+        float[] csgSelectionData, int selectionCSGsize,
+        float[] triangleFlags, float[] lineFlags, float[] tempLineFlags,
+        float[] selectionLineFlags, float[] condlineFlags, float[] vertexFlags) {
+
+    /**
+     * Everything which has an influence on the built geometry (without the
+     * camera). The transformation of the manipulator is {@code null} if it is
+     * not modified.
+     */
+    record State(
+            int renderMode, int lineMode, boolean showingLogo, boolean smoothShading,
+            boolean meshLines, boolean subMeshLines, boolean showingCondlineControlPoints,
+            boolean smoothVertices, boolean moveAdjacentData,
+            int revision, int selectionRevision, float[] transformation) {
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof State other
+                    && renderMode == other.renderMode && lineMode == other.lineMode
+                    && showingLogo == other.showingLogo && smoothShading == other.smoothShading
+                    && meshLines == other.meshLines && subMeshLines == other.subMeshLines
+                    && showingCondlineControlPoints == other.showingCondlineControlPoints
+                    && smoothVertices == other.smoothVertices && moveAdjacentData == other.moveAdjacentData
+                    && revision == other.revision && selectionRevision == other.selectionRevision
+                    && Arrays.equals(transformation, other.transformation);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * revision + selectionRevision;
+            result = 31 * result + renderMode;
+            return 31 * result + Arrays.hashCode(transformation);
+        }
+
+        @Override
+        public String toString() {
+            return "State [revision=" + revision + ", selectionRevision=" + selectionRevision + ", renderMode=" + renderMode + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        }
+    }
+}
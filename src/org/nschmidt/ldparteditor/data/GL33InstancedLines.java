@@ -0,0 +1,119 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.opengl.GLShader;
+
+/**
+ * A static line mesh (position and colour) which is drawn once per model
+ * matrix, e.g. the stud logo. The mesh is uploaded only once. The matrices are
+ * stored in an instance buffer (a {@code mat4} attribute at the locations 4 to
+ * 7) and all copies are drawn with a single {@code glDrawArraysInstanced()}
+ * call. Instanced arrays are part of OpenGL 3.3, which the GL 3.3 renderers
+ * require anyway (the GL 2.0 renderer is the fallback for older drivers). Must
+ * be used on the GL thread. Only the stud logos use it. The primitives of
+ * subfiles are still expanded into the scene buffers in world coordinates.
+ */
+final class GL33InstancedLines {
+
+    private static final int INSTANCE_ATTRIBUTE = 4;
+    private static final int MATRIX_SIZE = 16;
+
+    private final int vertexCount;
+
+    private final int vao;
+    private final int vbo;
+    private final int vboInstances;
+
+    /** The matrix list which was uploaded last, the render thread always publishes a new list */
+    private List<Matrix4f> uploadedMatrices = null;
+    private FloatBuffer instanceData = null;
+
+    GL33InstancedLines(float[] lineData, int vertexCount) {
+        this.vertexCount = vertexCount;
+
+        vao = GL30.glGenVertexArrays();
+        vbo = GL15.glGenBuffers();
+        GL30.glBindVertexArray(vao);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, lineData, GL15.GL_STATIC_DRAW);
+
+        GL20.glEnableVertexAttribArray(0);
+        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, (3 + 4) * 4, 0);
+
+        GL20.glEnableVertexAttribArray(2);
+        GL20.glVertexAttribPointer(2, 4, GL11.GL_FLOAT, false, (3 + 4) * 4, 3 * 4l);
+
+        vboInstances = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboInstances);
+        // One column of the matrix per attribute location, advancing once per instance
+        for (int column = 0; column < 4; column++) {
+            final int location = INSTANCE_ATTRIBUTE + column;
+            GL20.glEnableVertexAttribArray(location);
+            GL20.glVertexAttribPointer(location, 4, GL11.GL_FLOAT, false, MATRIX_SIZE * 4, column * 4 * 4l);
+            GL33.glVertexAttribDivisor(location, 1);
+        }
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL30.glBindVertexArray(0);
+    }
+
+    void draw(GLShader shader, List<Matrix4f> matrices) {
+        if (matrices.isEmpty()) {
+            return;
+        }
+        GL30.glBindVertexArray(vao);
+        if (matrices != uploadedMatrices) {
+            upload(matrices);
+        }
+        shader.instancingOn();
+        GL31.glDrawArraysInstanced(GL11.GL_LINES, 0, vertexCount, matrices.size());
+        shader.instancingOff();
+    }
+
+    private void upload(List<Matrix4f> matrices) {
+        final int size = matrices.size() * MATRIX_SIZE;
+        if (instanceData == null || instanceData.capacity() < size) {
+            instanceData = BufferUtils.createFloatBuffer(Math.max(size, 64 * MATRIX_SIZE));
+        }
+        instanceData.clear();
+        for (Matrix4f m : matrices) {
+            m.store(instanceData);
+        }
+        instanceData.flip();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboInstances);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, instanceData, GL15.GL_DYNAMIC_DRAW);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        uploadedMatrices = matrices;
+    }
+
+    void dispose() {
+        GL30.glDeleteVertexArrays(vao);
+        GL15.glDeleteBuffers(vbo);
+        GL15.glDeleteBuffers(vboInstances);
+    }
+}
@@ -16,7 +16,9 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.data;
 
 import java.math.BigDecimal;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,12 +31,11 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
@@ -111,30 +112,37 @@ public class GL33ModelRenderer {
     private int vaoCSG;
     private int vboCSG;
 
-    private int vaoStudLogo1;
-    private int vboStudLogo1;
-
-    private int vaoStudLogo2;
-    private int vboStudLogo2;
+    private GL33InstancedLines studLogo1;
+    private GL33InstancedLines studLogo2;
 
     private volatile Lock lock = new ReentrantLock();
     private static volatile Lock staticLock = new ReentrantLock();
-    private static volatile AtomicInteger idGen = new AtomicInteger(0);
-    private static volatile AtomicInteger idCount = new AtomicInteger(0);
-
-    private static volatile CopyOnWriteArrayList<Integer> idList = new CopyOnWriteArrayList<>();
+    private volatile GL33RenderScheduler.Ticket renderTicket;
     private volatile AtomicBoolean calculateCSG = new AtomicBoolean(true);
+    private final AtomicBoolean csgOutdated = new AtomicBoolean(false);
 
     private volatile AtomicBoolean calculateCondlineControlPoints = new AtomicBoolean(true);
     private volatile SortedSet<Vertex> pureCondlineControlPoints = new TreeSet<>();
-    private volatile float[] dataTriangles = null;
-    private volatile float[] dataLines = new float[]{0f};
-    private volatile float[] dataTempLines = new float[]{0f};
-    private volatile float[] dataVertices = null;
-    private volatile float[] dataCondlines = new float[]{0f};
+    // The buffers remember what has changed since the last upload (only changed ranges are uploaded again)
+    private final GL33DirtyBuffer dataTriangles = new GL33DirtyBuffer(null);
+    private final GL33DirtyBuffer dataLines = new GL33DirtyBuffer(new float[]{0f});
+    private final GL33DirtyBuffer dataTempLines = new GL33DirtyBuffer(new float[]{0f});
+    private final GL33DirtyBuffer dataVertices = new GL33DirtyBuffer(null);
+    private final GL33DirtyBuffer dataCondlines = new GL33DirtyBuffer(new float[]{0f});
+    private final GL33DirtyBuffer dataCSG = new GL33DirtyBuffer(new float[]{0f});
     private volatile float[] dataSelectionLines = new float[]{0f};
-    private volatile float[] dataCSG = new float[]{0f};
     private volatile float[] dataSelectionCSG = new float[]{0f};
+    // While a drag with "Move Adjacent Data" is previewed, the shaders move the flagged vertices
+    private GL33PreviewFlags previewTriangles;
+    private GL33PreviewFlags previewLines;
+    private GL33PreviewFlags previewTempLines;
+    private GL33PreviewFlags previewVertices;
+    private GL33PreviewFlags previewSelectionLines;
+    private GL33PreviewFlags previewCondlines;
+    /** {@code true} if the published buffers are untransformed and carry the preview flags */
+    private volatile boolean gpuPreview = false;
+    private final Matrix4f previewTransformation = new Matrix4f();
+    private final FloatBuffer previewTransformationBuffer = BufferUtils.createFloatBuffer(16);
     private volatile int solidTriangleSize = 0;
     private volatile int transparentTriangleOffset = 0;
     private volatile int transparentTriangleSize = 0;
@@ -155,6 +163,8 @@ public class GL33ModelRenderer {
     private volatile Map<GData, Vertex[]> sharedVertexMap = new HashMap<>();
 
     private volatile boolean usesCSG = false;
+    /** The state of the last geometry which was published for this view ({@code null} forces a new build) */
+    private volatile GL33GeometrySnapshot.State lastBuildState = null;
 
     private volatile List<Matrix4f> stud1MatricesResult = new ArrayList<>();
     private volatile List<Matrix4f> stud2MatricesResult = new ArrayList<>();
@@ -210,35 +220,8 @@ public class GL33ModelRenderer {
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         GL30.glBindVertexArray(0);
 
-        vaoStudLogo1 = GL30.glGenVertexArrays();
-        vboStudLogo1 = GL15.glGenBuffers();
-        GL30.glBindVertexArray(vaoStudLogo1);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboStudLogo1);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, StudLogo.getStudLogoData1(), GL15.GL_STATIC_DRAW);
-
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, (3 + 4) * 4, 0);
-
-        GL20.glEnableVertexAttribArray(2);
-        GL20.glVertexAttribPointer(2, 4, GL11.GL_FLOAT, false, (3 + 4) * 4, 3 * 4l);
-
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL30.glBindVertexArray(0);
-
-        vaoStudLogo2 = GL30.glGenVertexArrays();
-        vboStudLogo2 = GL15.glGenBuffers();
-        GL30.glBindVertexArray(vaoStudLogo2);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboStudLogo2);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, StudLogo.getStudLogoData2(), GL15.GL_STATIC_DRAW);
-
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, (3 + 4) * 4, 0);
-
-        GL20.glEnableVertexAttribArray(2);
-        GL20.glVertexAttribPointer(2, 4, GL11.GL_FLOAT, false, (3 + 4) * 4, 3 * 4l);
-
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL30.glBindVertexArray(0);
+        studLogo1 = new GL33InstancedLines(StudLogo.getStudLogoData1(), 320);
+        studLogo2 = new GL33InstancedLines(StudLogo.getStudLogoData2(), 320);
 
         vaoTempLines = GL30.glGenVertexArrays();
         vboTempLines = GL15.glGenBuffers();
@@ -301,6 +284,15 @@ public class GL33ModelRenderer {
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         GL30.glBindVertexArray(0);
 
+        // Location 8 of renderer.vert and location 5 (four points) of condline.vert
+        previewTriangles = new GL33PreviewFlags(8, 1);
+        previewLines = new GL33PreviewFlags(8, 1);
+        previewTempLines = new GL33PreviewFlags(8, 1);
+        previewVertices = new GL33PreviewFlags(8, 1);
+        previewSelectionLines = new GL33PreviewFlags(8, 1);
+        previewCondlines = new GL33PreviewFlags(5, 4);
+
+        renderTicket = GL33RenderScheduler.register(c3d);
         new Thread(this::renderThread).start();
     }
 
@@ -317,51 +309,72 @@ public class GL33ModelRenderer {
         final Set<GData> hiddenSet = new HashSet<>();
         final List<GDataAndWinding> dataInOrder = new ArrayList<>();
         final Map<GData, Vertex[]> vertexMap = new HashMap<>();
-        final Map<GData, Vertex[]> vertexMap2 = new HashMap<>();
         final Map<GData, float[]> normalMap = new HashMap<>();
         final ThreadsafeHashMap<GData1, Matrix4f> cacheViewByProjection = new ThreadsafeHashMap<>(1000);
         final Map<GData1, Matrix4f> matrixMap = new HashMap<>();
-        final Integer myID = idGen.getAndIncrement();
         matrixMap.put(View.DUMMY_REFERENCE, View.ID);
-        idList.add(myID);
+        int lastPreviewState = 0;
         while (isRunning.get()) {
 
-            boolean myTurn;
+            // Sleep until there is something new to render
             try {
-                myTurn = myID.equals(idList.get(idCount.get()));
-            } catch (IndexOutOfBoundsException iob) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+                renderTicket.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new LDPartEditorException(ie);
             }
 
-            if (!myTurn) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+            if (!isRunning.get()) {
+                break;
             }
 
             final int renderMode = c3d.getRenderMode();
 
+            // The condline mode stores the visibility per view in the shared GData5 objects.
+            // All other modes can build their geometry in parallel.
+            final boolean exclusive = renderMode == 6;
+
+            Lock geometryLock = null;
+
             // Skip render mode 5
             if (renderMode != 5) try {
-                staticLock.lock();
+                if (exclusive) staticLock.lock();
 
                 // First we have to get links to the sets from the model
                 final DatFile df = c3d.getLockableDatFileReference();
                 // Just to speed up things in some cases...
                 if (df == null || !df.isDrawSelection()) {
-                    continue; // static_lock.unlock(); on finally
+                    continue; // staticLock.unlock(); on finally (if exclusive)
                 }
                 final VertexManager vm = df.getVertexManager();
+                // The buffers of a drag preview stay valid until the drag is committed
+                final int previewState = previewState(vm);
+                if (gpuPreview && c3d.getManipulator().isModified() && previewState == lastPreviewState) {
+                    continue; // staticLock.unlock(); on finally (if exclusive)
+                }
+                // All views of the file with the same settings share one geometry.
+                // The condline mode depends on the camera and builds its own geometry.
+                final GL33GeometrySnapshot.State buildState = exclusive ? null : buildState(vm);
+                if (renderTicket.takeRebuild()) {
+                    lastBuildState = null;
+                }
+                if (!exclusive) {
+                    // Nothing has changed since the last build of this view
+                    if (buildState.equals(lastBuildState)) {
+                        continue;
+                    }
+                    geometryLock = vm.getGeometryLock();
+                    geometryLock.lock();
+                    final GL33GeometrySnapshot snapshot = vm.getGeometrySnapshot();
+                    // CSG data is calculated asynchronously per view and is not shared
+                    if (snapshot != null && buildState.equals(snapshot.state()) && !snapshot.usesCSG()) {
+                        usesCSG = false;
+                        publish(snapshot);
+                        if (snapshot.preview()) lastPreviewState = previewState;
+                        lastBuildState = buildState;
+                        continue; // geometryLock.unlock(); on finally
+                    }
+                }
                 final Lock maniLock = vm.getManifestationLock();
                 final Set<GData> mainFileContent = vm.lineLinkedToVertices.keySet();
                 // For the declared vertices, we have to use shallow copy
@@ -394,6 +407,10 @@ public class GL33ModelRenderer {
                         }
                         pureCondlineControlPoints = tmpPureCondlineControlPoints;
                         calculateCondlineControlPoints.set(true);
+                        // The vertex data depends on the control points
+                        lastBuildState = null;
+                        vm.setGeometrySnapshot(null);
+                        renderTicket.signal();
                     });
                 }
 
@@ -540,7 +557,10 @@ public class GL33ModelRenderer {
                     }
                 }
 
-                if (calculateCSG.compareAndSet(true, false)) {
+                if (!calculateCSG.compareAndSet(true, false)) {
+                    // The running calculation uses the old data
+                    csgOutdated.set(true);
+                } else {
                     boolean modified2 = true;
                     if (!c3d.getManipulator().isModified()) {
                         modified2 = false;
@@ -653,8 +673,9 @@ public class GL33ModelRenderer {
                                 }
                             }
 
+                            final GL33DirtyBuffer.Change csgChange = dataCSG.diff(tmpCsgData);
                             lock.lock();
-                            dataCSG = tmpCsgData;
+                            dataCSG.apply(csgChange);
                             solidCSGsize= csgIndex;
                             transparentCSGoffset = csgIndex;
                             transparentCSGsize = csgTransVertexCount;
@@ -664,6 +685,10 @@ public class GL33ModelRenderer {
                         } finally {
                             GDataCSG.staticLock.unlock();
                             calculateCSG.set(true);
+                            // A build has skipped the calculation while it was running
+                            if (csgOutdated.getAndSet(false)) {
+                                renderTicket.requestRebuild();
+                            }
                         }
                     });
                 }
@@ -763,6 +788,11 @@ public class GL33ModelRenderer {
                     localVerticesSize += transformedVertices.size();
                 }
 
+                // The shaders can move the vertices, if all data at the moved positions is moved, too
+                final boolean preview = isTransforming && moveAdjacentData && !smoothVertices && !usesCSG && !condlineMode
+                        && tmpDistanceMeters.isEmpty() && tmpProtractors.isEmpty()
+                        && canPreview(dataInOrder, vertexMap, selectedData, ltv, transformedVerts);
+
                 // Only do "heavy" CPU condline computing with the special condline mode
                 // (if the condline was not shown before)
                 if (condlineMode) {
@@ -786,7 +816,7 @@ public class GL33ModelRenderer {
 
                     // If anything is transformed, transform it here
                     // and update the vertex positions (vertexMap) and normals for it (normalMap)
-                    if (isTransforming && type > 1) {
+                    if (isTransforming && type > 1 && !preview) {
                         if (moveAdjacentData) {
                             if (selected || ltv.containsKey(gd)) {
                                 boolean needNormal = false;
@@ -1129,7 +1159,8 @@ public class GL33ModelRenderer {
                     }
 
                     if (isTransforming && moveAdjacentData) {
-                        for(Vertex v : transformedVertices) {
+                        // The preview shows the untransformed copies, the shader moves them
+                        for(Vertex v : preview ? transformedVerts.keySet() : transformedVertices) {
                             vertexData[i] = v.x;
                             vertexData[i + 1] = v.y;
                             vertexData[i + 2] = v.z;
@@ -2151,62 +2182,126 @@ public class GL33ModelRenderer {
                     }
                 }
 
-                if (drawStudLogo) {
-                    lock.lock();
-                    stud1MatricesResult = stud1Matrices;
-                    stud2MatricesResult = stud2Matrices;
-                    lock.unlock();
+                for (GData gd : dataToRemove) {
+                    vertexMap.remove(gd);
                 }
 
-                if (vertexMap2.size() != vertexMap.size() || !dataToRemove.isEmpty() || isTransforming) {
-                    for (GData gd : dataToRemove) {
-                        vertexMap.remove(gd);
-                        vertexMap2.remove(gd);
-                    }
-                    vertexMap2.putAll(vertexMap);
-                    sharedVertexMap = vertexMap2;
+                // The draw method needs the vertices of the meters and protractors
+                final Map<GData, Vertex[]> measureVertices = new HashMap<>();
+                for (GData2 gd2 : tmpDistanceMeters) {
+                    measureVertices.put(gd2, vertexMap.get(gd2));
+                }
+                for (GData3 gd3 : tmpProtractors) {
+                    measureVertices.put(gd3, vertexMap.get(gd3));
                 }
-                lock.lock();
-                images = pngImages;
-                distanceMeters = tmpDistanceMeters;
-                protractors = tmpProtractors;
-                dataTriangles = triangleData;
-                solidTriangleSize = triangleVertexCount;
-                transparentTriangleSize = transparentTriangleVertexCount;
-                transparentTriangleOffset = triangleVertexCount;
-                vertexSize = localVerticesSize;
-                selectedVerticesSize = localSelectedVerticesSize;
-                dataVertices = vertexData;
-                lineSize = lineVertexCount;
-                dataLines = lineData;
-                condlineSize = condlineVertexCount;
-                dataCondlines = condlineData;
-                tempLineSize = tempLineVertexCount;
-                dataTempLines = tempLineData;
-                selectionSize = selectionLineVertexCount;
-                dataSelectionLines = selectionLineData;
-                dataSelectionCSG = tmpCsgSelectionData;
-                selectionCSGsize = csgSelectionVertexSize;
-                lock.unlock();
+
+                float[] triangleFlags = null;
+                float[] lineFlags = null;
+                float[] tempLineFlags = null;
+                float[] selectionLineFlags = null;
+                float[] condlineFlags = null;
+                float[] vertexFlags = null;
+                if (preview) {
+                    final Set<Vertex> movedVertices = new HashSet<>(transformedVerts.keySet());
+                    triangleFlags = previewFlags(triangleData, 10, 1, movedVertices);
+                    lineFlags = previewFlags(lineData, 7, 1, movedVertices);
+                    tempLineFlags = previewFlags(tempLineData, 7, 1, movedVertices);
+                    selectionLineFlags = previewFlags(selectionLineData, 7, 1, movedVertices);
+                    condlineFlags = previewFlags(condlineData, 15, 4, movedVertices);
+                    // Only the copies at the end of the vertex array are moved
+                    vertexFlags = new float[localVerticesSize];
+                    Arrays.fill(vertexFlags, localVerticesSize - transformedVertices.size(), localVerticesSize, 1f);
+                    lastPreviewState = previewState;
+                }
+
+                final GL33GeometrySnapshot snapshot = new GL33GeometrySnapshot(
+                        buildState, usesCSG, preview,
+                        pngImages, tmpDistanceMeters, tmpProtractors, measureVertices,
+                        stud1Matrices, stud2Matrices,
+                        triangleData, triangleVertexCount, transparentTriangleVertexCount,
+                        vertexData, localVerticesSize, localSelectedVerticesSize,
+                        lineData, lineVertexCount,
+                        condlineData, condlineVertexCount,
+                        tempLineData, tempLineVertexCount,
+                        selectionLineData, selectionLineVertexCount,
+                        tmpCsgSelectionData, csgSelectionVertexSize,
+                        triangleFlags, lineFlags, tempLineFlags,
+                        selectionLineFlags, condlineFlags, vertexFlags);
+                publish(snapshot);
+                if (!exclusive) {
+                    vm.setGeometrySnapshot(snapshot);
+                }
+                lastBuildState = buildState;
 
             } catch (Exception ex) {
                 if (NLogger.debugging) {
                     NLogger.debug(GL33ModelRenderer.class,"Exception: " + ex.getMessage()); //$NON-NLS-1$
                 }
             } finally {
-                staticLock.unlock();
+                if (exclusive) staticLock.unlock();
+                if (geometryLock != null) geometryLock.unlock();
             }
-            if (idCount.incrementAndGet() >= idList.size()) {
-                idCount.set(0);
+        }
+    }
+
+    /**
+     * Makes the geometry available to the draw method of this view.
+     */
+    private void publish(GL33GeometrySnapshot snapshot) {
+        // The buffers are compared before the lock is held, so drawing does not have to wait for it
+        final GL33DirtyBuffer.Change triangles = dataTriangles.diff(snapshot.triangleData());
+        final GL33DirtyBuffer.Change vertices = dataVertices.diff(snapshot.vertexData());
+        final GL33DirtyBuffer.Change lines = dataLines.diff(snapshot.lineData());
+        final GL33DirtyBuffer.Change condlines = dataCondlines.diff(snapshot.condlineData());
+        final GL33DirtyBuffer.Change tempLines = dataTempLines.diff(snapshot.tempLineData());
+        final GL33DirtyBuffer.Change triangleFlags = previewTriangles.diff(snapshot.triangleFlags());
+        final GL33DirtyBuffer.Change lineFlags = previewLines.diff(snapshot.lineFlags());
+        final GL33DirtyBuffer.Change tempLineFlags = previewTempLines.diff(snapshot.tempLineFlags());
+        final GL33DirtyBuffer.Change selectionLineFlags = previewSelectionLines.diff(snapshot.selectionLineFlags());
+        final GL33DirtyBuffer.Change condlineFlags = previewCondlines.diff(snapshot.condlineFlags());
+        final GL33DirtyBuffer.Change vertexFlags = previewVertices.diff(snapshot.vertexFlags());
+        lock.lock();
+        try {
+            if (snapshot.stud1Matrices() != null) {
+                stud1MatricesResult = snapshot.stud1Matrices();
+                stud2MatricesResult = snapshot.stud2Matrices();
             }
+            sharedVertexMap = snapshot.measureVertices();
+            images = snapshot.images();
+            distanceMeters = snapshot.distanceMeters();
+            protractors = snapshot.protractors();
+            dataTriangles.apply(triangles);
+            solidTriangleSize = snapshot.solidTriangleSize();
+            transparentTriangleSize = snapshot.transparentTriangleSize();
+            transparentTriangleOffset = snapshot.solidTriangleSize();
+            vertexSize = snapshot.vertexSize();
+            selectedVerticesSize = snapshot.selectedVerticesSize();
+            dataVertices.apply(vertices);
+            lineSize = snapshot.lineSize();
+            dataLines.apply(lines);
+            condlineSize = snapshot.condlineSize();
+            dataCondlines.apply(condlines);
+            tempLineSize = snapshot.tempLineSize();
+            dataTempLines.apply(tempLines);
+            selectionSize = snapshot.selectionSize();
+            dataSelectionLines = snapshot.selectionLineData();
+            dataSelectionCSG = snapshot.csgSelectionData();
+            selectionCSGsize = snapshot.selectionCSGsize();
+            previewTriangles.apply(triangleFlags);
+            previewLines.apply(lineFlags);
+            previewTempLines.apply(tempLineFlags);
+            previewSelectionLines.apply(selectionLineFlags);
+            previewCondlines.apply(condlineFlags);
+            previewVertices.apply(vertexFlags);
+            gpuPreview = snapshot.preview();
+        } finally {
+            lock.unlock();
         }
-        idCount.set(0);
-        idList.remove(myID);
-        idCount.set(0);
     }
 
     public void dispose() {
         isRunning.set(false);
+        GL33RenderScheduler.unregister(renderTicket);
         GL30.glDeleteVertexArrays(vao);
         GL15.glDeleteBuffers(vbo);
         GL30.glDeleteVertexArrays(vaoVertices);
@@ -2221,10 +2316,14 @@ public class GL33ModelRenderer {
         GL15.glDeleteBuffers(vboCondlines);
         GL30.glDeleteVertexArrays(vaoCSG);
         GL15.glDeleteBuffers(vboCSG);
-        GL30.glDeleteVertexArrays(vaoStudLogo1);
-        GL15.glDeleteBuffers(vboStudLogo1);
-        GL30.glDeleteVertexArrays(vaoStudLogo2);
-        GL15.glDeleteBuffers(vboStudLogo2);
+        studLogo1.dispose();
+        studLogo2.dispose();
+        previewTriangles.dispose();
+        previewLines.dispose();
+        previewTempLines.dispose();
+        previewVertices.dispose();
+        previewSelectionLines.dispose();
+        previewCondlines.dispose();
     }
 
     private int ts;
@@ -2236,15 +2335,111 @@ public class GL33ModelRenderer {
     private int toCSG;
     private int tsCSG;
 
+    private int lastViewState;
+
+    /**
+     * @return a hash over the data, the selection and the view settings which have an influence on the generated geometry
+     */
+    private int viewState() {
+        final int renderMode = c3d.getRenderMode();
+        final Manipulator manipulator = c3d.getManipulator();
+        int result = settingsState();
+        final DatFile df = c3d.getLockableDatFileReference();
+        if (df != null) {
+            final VertexManager vm = df.getVertexManager();
+            result = 31 * result + vm.getRevision();
+            result = 31 * result + vm.getSelectionRevision();
+        }
+        if (manipulator.isModified()) {
+            // The GPU applies the transformation of a previewed drag, the geometry stays the same
+            result = 31 * result + (gpuPreview ? 1 : GL33RenderScheduler.hash(manipulator.getTempTransformation4f()));
+        }
+        if (renderMode == 6) {
+            // Only the condline mode depends on the camera
+            result = 31 * result + Float.floatToIntBits(c3d.getZoom());
+            result = 31 * result + GL33RenderScheduler.hash(c3d.getViewport());
+        }
+        return result;
+    }
+
+    /**
+     * @return a hash over the data and the settings which have an influence on a previewed drag
+     */
+    private int previewState(VertexManager vm) {
+        int result = settingsState();
+        result = 31 * result + vm.getRevision();
+        result = 31 * result + vm.selectedData.size();
+        return 31 * result + vm.selectedVertices.size();
+    }
+
+    /**
+     * @return the data, the selection and the view settings which have an
+     *         influence on the built geometry (without the camera)
+     */
+    private GL33GeometrySnapshot.State buildState(VertexManager vm) {
+        final Manipulator manipulator = c3d.getManipulator();
+        float[] transformation = null;
+        if (manipulator.isModified()) {
+            final Matrix4f m = manipulator.getTempTransformation4f();
+            transformation = new float[] {
+                    m.m00, m.m01, m.m02, m.m03,
+                    m.m10, m.m11, m.m12, m.m13,
+                    m.m20, m.m21, m.m22, m.m23,
+                    m.m30, m.m31, m.m32, m.m33 };
+        }
+        return new GL33GeometrySnapshot.State(
+                c3d.getRenderMode(), c3d.getLineMode(), c3d.isShowingLogo(), c3d.isSmoothShading(),
+                c3d.isMeshLines(), c3d.isSubMeshLines(), c3d.isShowingCondlineControlPoints(),
+                OpenGLRenderer.getSmoothing().get(), MiscToggleToolItem.isMovingAdjacentData(),
+                vm.getRevision(), vm.getSelectionRevision(), transformation);
+    }
+
+    /**
+     * @return a hash over the view settings (without the manipulator and the camera)
+     */
+    private int settingsState() {
+        int result = c3d.getRenderMode();
+        result = 31 * result + c3d.getLineMode();
+        result = 31 * result + System.identityHashCode(c3d.getLockableDatFileReference());
+        result = 31 * result + (c3d.isShowingLogo() ? 1 : 0);
+        result = 31 * result + (c3d.isSmoothShading() ? 1 : 0);
+        result = 31 * result + (c3d.isMeshLines() ? 1 : 0);
+        result = 31 * result + (c3d.isSubMeshLines() ? 1 : 0);
+        result = 31 * result + (c3d.isShowingCondlineControlPoints() ? 1 : 0);
+        result = 31 * result + (OpenGLRenderer.getSmoothing().get() ? 1 : 0);
+        return 31 * result + (MiscToggleToolItem.isMovingAdjacentData() ? 1 : 0);
+    }
+
     public void draw(GLMatrixStack stack, GLShader mainShader, GLShader condlineShader, GLShader glyphShader, boolean drawSolidMaterials) {
 
         Matrix4f vm = c3d.getViewport();
         Matrix4f ivm = c3d.getViewportInverse();
 
-        if (dataTriangles == null || dataLines == null || dataVertices == null) {
+        final int viewState = viewState();
+        if (viewState != lastViewState) {
+            lastViewState = viewState;
+            renderTicket.signal();
+        }
+
+        if (dataTriangles.getData() == null || dataLines.getData() == null || dataVertices.getData() == null) {
             return;
         }
 
+        // The shaders apply the transformation of a previewed drag.
+        // After the drag, the last transformation is kept until the new buffers are published.
+        final boolean preview = gpuPreview;
+        if (preview) {
+            final Manipulator manipulator = c3d.getManipulator();
+            if (manipulator.isModified()) {
+                previewTransformation.load(manipulator.getTempTransformation4f());
+            }
+            previewTransformationBuffer.clear();
+            previewTransformation.store(previewTransformationBuffer);
+            previewTransformationBuffer.flip();
+            GL20.glUniformMatrix4fv(mainShader.getUniformLocation("preview"), false, previewTransformationBuffer); //$NON-NLS-1$
+        }
+        GL20.glUniform1f(mainShader.getUniformLocation("previewing"), preview ? 1f : 0f); //$NON-NLS-1$
+
         final float zoom = c3d.getZoom();
         final boolean drawLines = View.lineWidthGL > 0.01f;
         final boolean studlogo = c3d.isShowingLogo();
@@ -2263,7 +2458,7 @@ public class GL33ModelRenderer {
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboCSG);
                 lock.lock();
                 // I can't use glBufferSubData() it creates a memory leak!!!
-                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataCSG, GL15.GL_STATIC_DRAW);
+                dataCSG.upload();
                 final int ssCSG = solidCSGsize;
                 toCSG = transparentCSGoffset;
                 tsCSG = transparentCSGsize;
@@ -2296,7 +2491,8 @@ public class GL33ModelRenderer {
             GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
             lock.lock();
             // I can't use glBufferSubData() it creates a memory leak!!!
-            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataTriangles, GL15.GL_STATIC_DRAW);
+            dataTriangles.upload();
+            previewTriangles.upload(preview, vbo);
             ss = solidTriangleSize;
             to = transparentTriangleOffset;
             ts = transparentTriangleSize;
@@ -2329,7 +2525,8 @@ public class GL33ModelRenderer {
                 GL30.glBindVertexArray(vaoLines);
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboLines);
                 lock.lock();
-                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataLines, GL15.GL_STATIC_DRAW);
+                dataLines.upload();
+                previewLines.upload(preview, vboLines);
                 ls = lineSize;
                 lock.unlock();
 
@@ -2354,27 +2551,15 @@ public class GL33ModelRenderer {
 
                 GL11.glLineWidth(3f);
 
-                stack.glPushMatrix();
-
                 {
                     lock.lock();
                     List<Matrix4f> stud1Matrices = stud1MatricesResult;
                     List<Matrix4f> stud2Matrices = stud2MatricesResult;
                     lock.unlock();
-                    GL30.glBindVertexArray(vaoStudLogo1);
-                    for (Matrix4f m : stud1Matrices) {
-                        stack.glLoadMatrix(m);
-                        GL11.glDrawArrays(GL11.GL_LINES, 0, 320);
-                    }
-                    GL30.glBindVertexArray(vaoStudLogo2);
-                    for (Matrix4f m : stud2Matrices) {
-                        stack.glLoadMatrix(m);
-                        GL11.glDrawArrays(GL11.GL_LINES, 0, 320);
-                    }
+                    studLogo1.draw(mainShader, stud1Matrices);
+                    studLogo2.draw(mainShader, stud2Matrices);
                 }
 
-                stack.glPopMatrix();
-
                 GL11.glLineWidth(1f);
             }
 
@@ -2382,7 +2567,8 @@ public class GL33ModelRenderer {
                 GL30.glBindVertexArray(vaoTempLines);
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboTempLines);
                 lock.lock();
-                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataTempLines, GL15.GL_STATIC_DRAW);
+                dataTempLines.upload();
+                previewTempLines.upload(preview, vboTempLines);
                 tls = tempLineSize;
                 lock.unlock();
 
@@ -2416,7 +2602,8 @@ public class GL33ModelRenderer {
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboVertices);
                 lock.lock();
                 // I can't use glBufferSubData() it creates a memory leak!!!
-                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataVertices, GL15.GL_STATIC_DRAW);
+                dataVertices.upload();
+                previewVertices.upload(preview, vboVertices);
                 final int vs = vertexSize;
                 final int svs = selectedVerticesSize;
                 lock.unlock();
@@ -2457,11 +2644,16 @@ public class GL33ModelRenderer {
 
                 GL20.glUniform1f(condlineShader.getUniformLocation("showAll"), c3d.getLineMode() == 1 ? 1f : 0f); //$NON-NLS-1$
                 GL20.glUniform1f(condlineShader.getUniformLocation("condlineMode"), c3d.getRenderMode() == 6 ? 1f : 0f); //$NON-NLS-1$
+                if (preview) {
+                    GL20.glUniformMatrix4fv(condlineShader.getUniformLocation("preview"), false, previewTransformationBuffer); //$NON-NLS-1$
+                }
+                GL20.glUniform1f(condlineShader.getUniformLocation("previewing"), preview ? 1f : 0f); //$NON-NLS-1$
 
                 GL30.glBindVertexArray(vaoCondlines);
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboCondlines);
                 lock.lock();
-                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataCondlines, GL15.GL_STATIC_DRAW);
+                dataCondlines.upload();
+                previewCondlines.upload(preview, vboCondlines);
                 final int cls = condlineSize;
                 lock.unlock();
 
@@ -2507,6 +2699,7 @@ public class GL33ModelRenderer {
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboSelectionLines);
                 lock.lock();
                 GL15.glBufferData(GL15.GL_ARRAY_BUFFER, dataSelectionLines, GL15.GL_STATIC_DRAW);
+                previewSelectionLines.upload(preview, vboSelectionLines);
                 sls = selectionSize;
                 lock.unlock();
 
@@ -2553,7 +2746,7 @@ public class GL33ModelRenderer {
                 for (GData2 dm : distanceMeters) {
                     Vertex[] verts = sharedVertexMap.get(dm);
                     if (verts != null) {
-                        if (verts[0].xp == null || verts[1].xp == null) {
+                        if (verts[0].xp() == null || verts[1].xp() == null) {
                             dm.drawDistanceGL33(
                                     c3d,
                                     glyphShader,
@@ -2569,12 +2762,12 @@ public class GL33ModelRenderer {
                             dm.drawDistanceGL33(
                                     c3d,
                                     glyphShader,
-                                    verts[0].xp,
-                                    verts[0].yp,
-                                    verts[0].zp,
-                                    verts[1].xp,
-                                    verts[1].yp,
-                                    verts[1].zp,
+                                    verts[0].xp(),
+                                    verts[0].yp(),
+                                    verts[0].zp(),
+                                    verts[1].xp(),
+                                    verts[1].yp(),
+                                    verts[1].zp(),
                                     false
                                     );
                         }
@@ -2583,7 +2776,7 @@ public class GL33ModelRenderer {
                 for (GData3 pt : protractors) {
                     Vertex[] verts = sharedVertexMap.get(pt);
                     if (verts != null) {
-                        if (verts[0].xp == null || verts[1].xp == null) {
+                        if (verts[0].xp() == null || verts[1].xp() == null) {
                             pt.drawProtractorGL33(
                                     c3d,
                                     glyphShader,
@@ -2601,15 +2794,15 @@ public class GL33ModelRenderer {
                             pt.drawProtractorGL33(
                                     c3d,
                                     glyphShader,
-                                    verts[0].xp,
-                                    verts[0].yp,
-                                    verts[0].zp,
-                                    verts[1].xp,
-                                    verts[1].yp,
-                                    verts[1].zp,
-                                    verts[2].xp,
-                                    verts[2].yp,
-                                    verts[2].zp
+                                    verts[0].xp(),
+                                    verts[0].yp(),
+                                    verts[0].zp(),
+                                    verts[1].xp(),
+                                    verts[1].yp(),
+                                    verts[1].zp(),
+                                    verts[2].xp(),
+                                    verts[2].yp(),
+                                    verts[2].zp()
                                     );
                         }
                     }
@@ -2856,6 +3049,50 @@ public class GL33ModelRenderer {
         }
     }
 
+    /**
+     * @return {@code true} if the moved vertices are not shared with data which
+     *         stays where it is (e.g. the content of an unselected subfile),
+     *         because the shaders can only move a position as a whole
+     */
+    private boolean canPreview(List<GDataAndWinding> dataInOrder, Map<GData, Vertex[]> vertexMap,
+            Set<GData> selectedData, ThreadsafeHashMap<GData, Set<VertexInfo>> ltv, SortedMap<Vertex, Vector4f> transformedVerts) {
+        for (GDataAndWinding gw : dataInOrder) {
+            final GData gd = gw.data;
+            if (gd.type() < 2 || selectedData.contains(gd) || ltv.containsKey(gd)) {
+                continue;
+            }
+            final Vertex[] verts = vertexMap.get(gd);
+            if (verts != null) {
+                for (Vertex v : verts) {
+                    if (transformedVerts.containsKey(v)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return one flag for each of the {@code points} positions of a vertex in
+     *         the buffer (1 if the position is moved by the preview)
+     */
+    private float[] previewFlags(float[] vertexData, int stride, int points, Set<Vertex> movedVertices) {
+        final int count = vertexData.length / stride;
+        final float[] result = new float[count * points];
+        WorkerPool.parallelFor(0, count, (start, end) -> {
+            for (int i = start; i < end; i++) {
+                for (int j = 0; j < points; j++) {
+                    final int pos = i * stride + j * 3;
+                    if (movedVertices.contains(new Vertex(vertexData[pos], vertexData[pos + 1], vertexData[pos + 2], true))) {
+                        result[i * points + j] = 1f;
+                    }
+                }
+            }
+        }).await();
+        return result;
+    }
+
     private void pointAt(int offset, float x, float y, float z,
             float[] vertexData, int i) {
         int pos = (offset + i) * 10;
@@ -26,9 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -89,18 +87,11 @@ public class GL33ModelRendererLDrawStandard {
     private int vaoCondlines;
     private int vboCondlines;
 
-    private int vaoStudLogo1;
-    private int vboStudLogo1;
-
-    private int vaoStudLogo2;
-    private int vboStudLogo2;
+    private GL33InstancedLines studLogo1;
+    private GL33InstancedLines studLogo2;
 
     private volatile Lock lock = new ReentrantLock();
-    private static volatile Lock staticLock = new ReentrantLock();
-    private static volatile AtomicInteger idGen = new AtomicInteger(0);
-    private static volatile AtomicInteger idCount = new AtomicInteger(0);
-
-    private static volatile CopyOnWriteArrayList<Integer> idList = new CopyOnWriteArrayList<>();
+    private volatile GL33RenderScheduler.Ticket renderTicket;
 
     private volatile float[] dataTriangles = null;
     private volatile float[] dataLines = new float[]{0f};
@@ -157,35 +148,8 @@ public class GL33ModelRendererLDrawStandard {
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         GL30.glBindVertexArray(0);
 
-        vaoStudLogo1 = GL30.glGenVertexArrays();
-        vboStudLogo1 = GL15.glGenBuffers();
-        GL30.glBindVertexArray(vaoStudLogo1);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboStudLogo1);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, StudLogo.getStudLogoData1(), GL15.GL_STATIC_DRAW);
-
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, (3 + 4) * 4, 0);
-
-        GL20.glEnableVertexAttribArray(2);
-        GL20.glVertexAttribPointer(2, 4, GL11.GL_FLOAT, false, (3 + 4) * 4, 3 * 4l);
-
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL30.glBindVertexArray(0);
-
-        vaoStudLogo2 = GL30.glGenVertexArrays();
-        vboStudLogo2 = GL15.glGenBuffers();
-        GL30.glBindVertexArray(vaoStudLogo2);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboStudLogo2);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, StudLogo.getStudLogoData2(), GL15.GL_STATIC_DRAW);
-
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, (3 + 4) * 4, 0);
-
-        GL20.glEnableVertexAttribArray(2);
-        GL20.glVertexAttribPointer(2, 4, GL11.GL_FLOAT, false, (3 + 4) * 4, 3 * 4l);
-
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL30.glBindVertexArray(0);
+        studLogo1 = new GL33InstancedLines(StudLogo.getStudLogoData1(), 320);
+        studLogo2 = new GL33InstancedLines(StudLogo.getStudLogoData2(), 320);
 
         vaoCondlines = GL30.glGenVertexArrays();
         vboCondlines = GL15.glGenBuffers();
@@ -206,6 +170,7 @@ public class GL33ModelRendererLDrawStandard {
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         GL30.glBindVertexArray(0);
 
+        renderTicket = GL33RenderScheduler.register(c3d);
         new Thread(this::renderThread).start();
     }
 
@@ -224,45 +189,31 @@ public class GL33ModelRendererLDrawStandard {
         final Map<GData, float[]> normalMap = new HashMap<>();
         final ThreadsafeHashMap<GData1, Matrix4f> cacheViewByProjection = new ThreadsafeHashMap<>(1000);
         final Map<GData1, Matrix4f> matrixMap = new HashMap<>();
-        final Integer myID = idGen.getAndIncrement();
         matrixMap.put(View.DUMMY_REFERENCE, View.ID);
-        idList.add(myID);
         while (isRunning.get()) {
 
-            boolean myTurn;
+            // Sleep until there is something new to render
             try {
-                myTurn = myID.equals(idList.get(idCount.get()));
-            } catch (IndexOutOfBoundsException iob) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+                renderTicket.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new LDPartEditorException(ie);
             }
 
-            if (!myTurn) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+            if (!isRunning.get()) {
+                break;
             }
 
             final int renderMode = c3d.getRenderMode();
 
             // Only process render mode 5
             if (renderMode == 5) try {
-                staticLock.lock();
 
                 // First we have to get links to the sets from the model
                 final DatFile df = c3d.getLockableDatFileReference();
                 // Just to speed up things in some cases...
                 if (df == null || !df.isDrawSelection()) {
-                    continue; // static_lock.unlock(); on finally
+                    continue;
                 }
                 final VertexManager vm = df.getVertexManager();
 
@@ -1225,30 +1176,21 @@ public class GL33ModelRendererLDrawStandard {
                 if (NLogger.debugging) {
                     NLogger.debug(GL33ModelRendererLDrawStandard.class, "Exception: " + ex.getMessage()); //$NON-NLS-1$
                 }
-            } finally {
-                staticLock.unlock();
-            }
-            if (idCount.incrementAndGet() >= idList.size()) {
-                idCount.set(0);
             }
         }
-        idCount.set(0);
-        idList.remove(myID);
-        idCount.set(0);
     }
 
     public void dispose() {
         isRunning.set(false);
+        GL33RenderScheduler.unregister(renderTicket);
         GL30.glDeleteVertexArrays(vao);
         GL15.glDeleteBuffers(vbo);
         GL30.glDeleteVertexArrays(vaoLines);
         GL15.glDeleteBuffers(vboLines);
         GL30.glDeleteVertexArrays(vaoCondlines);
         GL15.glDeleteBuffers(vboCondlines);
-        GL30.glDeleteVertexArrays(vaoStudLogo1);
-        GL15.glDeleteBuffers(vboStudLogo1);
-        GL30.glDeleteVertexArrays(vaoStudLogo2);
-        GL15.glDeleteBuffers(vboStudLogo2);
+        studLogo1.dispose();
+        studLogo2.dispose();
     }
 
     private int ts;
@@ -1256,15 +1198,38 @@ public class GL33ModelRendererLDrawStandard {
     private int to;
     private int ls;
 
+    private int lastViewState;
+
+    /**
+     * @return a hash over the view settings which have an influence on the generated geometry
+     */
+    private int viewState() {
+        int result = c3d.getRenderMode();
+        result = 31 * result + c3d.getLineMode();
+        result = 31 * result + System.identityHashCode(c3d.getLockableDatFileReference());
+        result = 31 * result + (c3d.isShowingLogo() ? 1 : 0);
+        result = 31 * result + (c3d.isSmoothShading() ? 1 : 0);
+        return 31 * result + GL33RenderScheduler.hash(c3d.getViewport());
+    }
+
     public void draw(GLMatrixStack stack, GLShader mainShader, GLShader condlineShader, boolean drawSolidMaterials) {
 
         Matrix4f vm = c3d.getViewport();
         Matrix4f ivm = c3d.getViewportInverse();
 
+        final int viewState = viewState();
+        if (viewState != lastViewState) {
+            lastViewState = viewState;
+            renderTicket.signal();
+        }
+
         if (dataTriangles == null || dataLines == null) {
             return;
         }
 
+        // This renderer has no drag preview (see GL33PreviewFlags)
+        GL20.glUniform1f(mainShader.getUniformLocation("previewing"), 0f); //$NON-NLS-1$
+
         final float zoom = c3d.getZoom();
         final boolean drawLines = View.lineWidthGL > 0.01f;
         final boolean studlogo = c3d.isShowingLogo();
@@ -1357,27 +1322,15 @@ public class GL33ModelRendererLDrawStandard {
 
                 GL11.glLineWidth(3f);
 
-                stack.glPushMatrix();
-
                 {
                     lock.lock();
                     List<Matrix4f> stud1Matrices = stud1MatricesResult;
                     List<Matrix4f> stud2Matrices = stud2MatricesResult;
                     lock.unlock();
-                    GL30.glBindVertexArray(vaoStudLogo1);
-                    for (Matrix4f m : stud1Matrices) {
-                        stack.glLoadMatrix(m);
-                        GL11.glDrawArrays(GL11.GL_LINES, 0, 320);
-                    }
-                    GL30.glBindVertexArray(vaoStudLogo2);
-                    for (Matrix4f m : stud2Matrices) {
-                        stack.glLoadMatrix(m);
-                        GL11.glDrawArrays(GL11.GL_LINES, 0, 320);
-                    }
+                    studLogo1.draw(mainShader, stud1Matrices);
+                    studLogo2.draw(mainShader, stud2Matrices);
                 }
 
-                stack.glPopMatrix();
-
                 GL11.glLineWidth(1f);
             }
 
@@ -1397,6 +1350,7 @@ public class GL33ModelRendererLDrawStandard {
 
             GL20.glUniform1f(condlineShader.getUniformLocation("showAll"), c3d.getLineMode() == 1 ? 1f : 0f); //$NON-NLS-1$
             GL20.glUniform1f(condlineShader.getUniformLocation("condlineMode"), c3d.getRenderMode() == 6 ? 1f : 0f); //$NON-NLS-1$
+            GL20.glUniform1f(condlineShader.getUniformLocation("previewing"), 0f); //$NON-NLS-1$
 
             GL30.glBindVertexArray(vaoCondlines);
             GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboCondlines);
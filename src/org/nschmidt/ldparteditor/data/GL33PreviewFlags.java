@@ -0,0 +1,90 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+
+/**
+ * The "moving" flags of the vertices in one VBO, while the GPU previews a
+ * manipulator drag (see {@code preview} in renderer.vert and condline.vert).
+ * The flags are stored in their own VBO, so the layout of the geometry buffer
+ * does not change. Without a preview, the attribute array is disabled. A
+ * disabled array reads (0, 0, 0, 1), so the shaders ignore the flags unless
+ * the {@code previewing} uniform is set.
+ */
+final class GL33PreviewFlags {
+
+    private final int location;
+    private final int size;
+    private final int vbo;
+    private final GL33DirtyBuffer data = new GL33DirtyBuffer(null);
+
+    /**
+     * @param location
+     *            the attribute location in the shader
+     * @param size
+     *            the number of flags per vertex
+     */
+    GL33PreviewFlags(int location, int size) {
+        this.location = location;
+        this.size = size;
+        vbo = GL15.glGenBuffers();
+    }
+
+    /**
+     * Compares the flags of the next build ({@code null} if there is no
+     * preview) with the current flags (see {@link GL33DirtyBuffer#diff(float[])}).
+     */
+    GL33DirtyBuffer.Change diff(float[] flags) {
+        return data.diff(flags);
+    }
+
+    /**
+     * Publishes the flags of the next build. Must be called while holding the
+     * renderer lock.
+     */
+    void apply(GL33DirtyBuffer.Change change) {
+        data.apply(change);
+    }
+
+    /**
+     * Uploads the flags and sets the attribute pointer of the bound VAO. Must
+     * be called on the GL thread while holding the renderer lock, because the
+     * flags have to match the geometry.
+     *
+     * @param preview
+     *            {@code true} if the preview transformation was set for this frame
+     * @param geometryVbo
+     *            the VBO which is bound again afterwards
+     */
+    void upload(boolean preview, int geometryVbo) {
+        if (!preview || data.getData() == null) {
+            GL20.glDisableVertexAttribArray(location);
+            return;
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        data.upload();
+        GL20.glEnableVertexAttribArray(location);
+        GL20.glVertexAttribPointer(location, size, GL11.GL_FLOAT, false, size * 4, 0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, geometryVbo);
+    }
+
+    void dispose() {
+        GL15.glDeleteBuffers(vbo);
+    }
+}
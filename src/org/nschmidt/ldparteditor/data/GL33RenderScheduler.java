@@ -0,0 +1,172 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.composite.Composite3D;
+
+/**
+ * Wakes the render threads of the OpenGL 3.3 model renderers only if there is
+ * something new to render (a changed DatFile, camera or selection). The
+ * geometry of independent views is built in parallel, only the GL upload is
+ * serialised (it happens on the UI thread).
+ */
+public enum GL33RenderScheduler {
+    INSTANCE;
+
+    private static final Set<Ticket> tickets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The registration of one render thread
+     */
+    static final class Ticket {
+        private final Composite3D c3d;
+        private final Lock lock = new ReentrantLock();
+        private final Condition wakeUp = lock.newCondition();
+        private boolean pending = true;
+        /** Set if the geometry has to be built even if the view state is unchanged */
+        private final AtomicBoolean rebuild = new AtomicBoolean(false);
+
+        private Ticket(Composite3D c3d) {
+            this.c3d = c3d;
+        }
+
+        /**
+         * Requests a new geometry build which ignores the last build state
+         * (for results which are calculated asynchronously)
+         */
+        void requestRebuild() {
+            rebuild.set(true);
+            signal();
+        }
+
+        /**
+         * @return {@code true} if a rebuild was requested since the last call
+         */
+        boolean takeRebuild() {
+            return rebuild.getAndSet(false);
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                pending = true;
+                wakeUp.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Blocks until the next render request for this view arrives
+         */
+        void await() throws InterruptedException {
+            lock.lock();
+            try {
+                while (!pending) {
+                    wakeUp.await();
+                }
+                pending = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static Ticket register(Composite3D c3d) {
+        final Ticket ticket = new Ticket(c3d);
+        tickets.add(ticket);
+        return ticket;
+    }
+
+    static void unregister(Ticket ticket) {
+        tickets.remove(ticket);
+        ticket.signal();
+    }
+
+    /**
+     * Requests a new geometry build for all views of the given 3D editor
+     */
+    public static void requestRender(Composite3D c3d) {
+        for (Ticket ticket : tickets) {
+            if (ticket.c3d == c3d) {
+                ticket.signal();
+            }
+        }
+    }
+
+    /**
+     * Requests a new geometry build for all views which are showing the given file
+     */
+    public static void requestRender(DatFile df) {
+        for (Ticket ticket : tickets) {
+            if (ticket.c3d.getLockableDatFileReference() == df) {
+                ticket.signal();
+            }
+        }
+    }
+
+    /**
+     * Requests a new geometry build for all views which are showing the given
+     * file, even if the data and the settings are unchanged (e.g. for an
+     * asynchronously optimised CSG result)
+     */
+    public static void requestRebuild(DatFile df) {
+        for (Ticket ticket : tickets) {
+            if (ticket.c3d.getLockableDatFileReference() == df) {
+                ticket.requestRebuild();
+            }
+        }
+    }
+
+    /**
+     * Requests a new geometry build for all views
+     */
+    public static void requestRenderAll() {
+        for (Ticket ticket : tickets) {
+            ticket.signal();
+        }
+    }
+
+    /**
+     * @return a hash over all elements of the matrix (used to detect camera changes)
+     */
+    static int hash(Matrix4f m) {
+        int result = Float.floatToIntBits(m.m00);
+        result = 31 * result + Float.floatToIntBits(m.m01);
+        result = 31 * result + Float.floatToIntBits(m.m02);
+        result = 31 * result + Float.floatToIntBits(m.m03);
+        result = 31 * result + Float.floatToIntBits(m.m10);
+        result = 31 * result + Float.floatToIntBits(m.m11);
+        result = 31 * result + Float.floatToIntBits(m.m12);
+        result = 31 * result + Float.floatToIntBits(m.m13);
+        result = 31 * result + Float.floatToIntBits(m.m20);
+        result = 31 * result + Float.floatToIntBits(m.m21);
+        result = 31 * result + Float.floatToIntBits(m.m22);
+        result = 31 * result + Float.floatToIntBits(m.m23);
+        result = 31 * result + Float.floatToIntBits(m.m30);
+        result = 31 * result + Float.floatToIntBits(m.m31);
+        result = 31 * result + Float.floatToIntBits(m.m32);
+        return 31 * result + Float.floatToIntBits(m.m33);
+    }
+}
@@ -19,16 +19,12 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.BufferOverflowException;
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,22 +44,29 @@ import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
-import de.matthiasmann.twl.util.PNGDecoder;
-import de.matthiasmann.twl.util.PNGDecoder.Format;
-
 public class GTexture {
 
     static final GTexture NO_TEXTURE = new GTexture();
 
     private long accessTime = System.currentTimeMillis();
 
-    private Map<OpenGLRenderer, Integer> openGlId = new HashMap<>();
-    private Map<OpenGLRenderer, Integer> openGlIdGlossmap = new HashMap<>();
-    private Map<OpenGLRenderer, Integer> openGlIdCubemap = new HashMap<>();
-    private Map<OpenGLRenderer, Integer> openGlIdCubemapMatte = new HashMap<>();
-    private Map<OpenGLRenderer, Integer> openGlIdCubemapMetal = new HashMap<>();
-    private Map<OpenGLRenderer, Integer> openGlIdCubemapPearl = new HashMap<>();
-    private Map<OpenGLRenderer, Boolean> openGlDisposed = new HashMap<>();
+    /** Indices of the texture ids, which are stored per renderer */
+    private static final int BASE = 0;
+    private static final int GLOSSMAP = 1;
+    private static final int CUBEMAP = 2;
+    private static final int CUBEMAP_MATTE = 3;
+    private static final int CUBEMAP_METAL = 4;
+    private static final int CUBEMAP_PEARL = 5;
+
+    private static final String[] CUBEMAP_FILES = new String[] { "cmap.png", "matte_metal.png", "metal.png", "pearl.png" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    private static final int[] TEXTURE_UNITS = new int[] { GL13.GL_TEXTURE0, GL13.GL_TEXTURE1, GL13.GL_TEXTURE2, GL13.GL_TEXTURE3, GL13.GL_TEXTURE4, GL13.GL_TEXTURE4 };
+
+    /** The texture ids of each renderer, {@code TextureCache.PENDING} while the image is decoding */
+    private Map<OpenGLRenderer, int[]> openGlIds = new HashMap<>();
+
+    /** The resolved image sources of the file names */
+    private Map<String, TextureCache.Source> sources = new HashMap<>();
+    private DatFile sourcesDatFile = null;
 
     private String texture = ""; //$NON-NLS-1$
     private String glossmap = ""; //$NON-NLS-1$
@@ -441,35 +444,27 @@ public class GTexture {
     }
 
     public void dispose(OpenGLRenderer renderer) {
-        if (openGlDisposed.containsKey(renderer)) {
-            boolean disposed = openGlDisposed.get(renderer);
-            int id = openGlId.get(renderer);
-            int idGlossmap = openGlIdGlossmap.get(renderer);
-            int idCubemap = openGlIdCubemap.get(renderer);
-            int idCubemapMatte = openGlIdCubemapMatte.get(renderer);
-            int isCubemapMetal = openGlIdCubemapMetal.get(renderer);
-            if (!disposed) {
-                uvCache.clear();
-                cacheUsage.clear();
-                if (id != -1)
-                    GL11.glDeleteTextures(id);
-                if (idGlossmap != -1)
-                    GL11.glDeleteTextures(idGlossmap);
-                if (renderer.containsOnlyCubeMaps() && renderer.getC3D().getRenderMode() != 5) {
-                    if (idCubemap != -1) GL11.glDeleteTextures(idCubemap);
-                    if (idCubemapMatte != -1) GL11.glDeleteTextures(idCubemapMatte);
-                    if (isCubemapMetal != -1) GL11.glDeleteTextures(isCubemapMetal);
-                }
-                openGlDisposed.put(renderer, true);
-                openGlId.put(renderer, -1);
-                openGlIdGlossmap.put(renderer, -1);
-                openGlIdCubemap.put(renderer, -1);
-                openGlIdCubemapMatte.put(renderer, -1);
-                openGlIdCubemapMetal.put(renderer, -1);
+        final int[] ids = openGlIds.remove(renderer);
+        if (ids != null) {
+            uvCache.clear();
+            cacheUsage.clear();
+            deleteTexture(ids[BASE]);
+            deleteTexture(ids[GLOSSMAP]);
+            if (renderer.containsOnlyCubeMaps() && renderer.getC3D().getRenderMode() != 5) {
+                deleteTexture(ids[CUBEMAP]);
+                deleteTexture(ids[CUBEMAP_MATTE]);
+                deleteTexture(ids[CUBEMAP_METAL]);
+                deleteTexture(ids[CUBEMAP_PEARL]);
             }
+            sources.clear();
         }
     }
 
+    private static void deleteTexture(int id) {
+        if (id >= 0)
+            GL11.glDeleteTextures(id);
+    }
+
     void refreshCache() {
         if (!cacheUsage.isEmpty()) {
             Set<GData> isolatedIDs = new HashSet<>(uvCache.keySet());
@@ -481,75 +476,69 @@ public class GTexture {
         }
     }
 
-    void bind(boolean drawSolidMaterials, boolean normalSwitch, boolean lightOn, OpenGLRenderer20 renderer, int useCubeMap) {
-
-        int id = -1;
-        int idGlossmap = -1;
-        int idCubemap = -1;
-        int idCubemapMatte = -1;
-        int idCubemapMetal = -1;
-        int idCubemapPearl = -1;
-        boolean disposed = true;
-
-        if (openGlDisposed.containsKey(renderer)) {
-            disposed = openGlDisposed.get(renderer);
-            id = openGlId.get(renderer);
-            idGlossmap = openGlIdGlossmap.get(renderer);
-            idCubemap = openGlIdCubemap.get(renderer);
-            idCubemapMatte = openGlIdCubemapMatte.get(renderer);
-            idCubemapMetal = openGlIdCubemapMetal.get(renderer);
-            idCubemapPearl = openGlIdCubemapPearl.get(renderer);
-        } else {
-            openGlDisposed.put(renderer, true);
+    /**
+     * Returns the texture ids of the renderer and uploads the decoded images,
+     * which are ready now.
+     */
+    private int[] textureIds(OpenGLRenderer renderer, boolean loadGlossmap) {
+        int[] ids = openGlIds.get(renderer);
+        if (ids == null) {
+            ids = new int[] { -1, -1, -1, -1, -1, -1 };
+            ids[BASE] = TextureCache.PENDING;
+            if (loadGlossmap && glossy)
+                ids[GLOSSMAP] = TextureCache.PENDING;
+            if (cubeMapIndex > 0 && cubeMapIndex <= CUBEMAP_FILES.length)
+                ids[CUBEMAP + cubeMapIndex - 1] = TextureCache.PENDING;
+            openGlIds.put(renderer, ids);
+            renderer.registerTexture(this);
         }
-
-        if (disposed) {
-
-            DatFile df = renderer.getC3D().getLockableDatFileReference();
-
-            id = loadPNGTexture(texture, GL13.GL_TEXTURE0, df);
-            if (glossy)
-                idGlossmap = loadPNGTexture(glossmap, GL13.GL_TEXTURE1, df);
-            if (cubeMapIndex > 0) {
-                switch (cubeMapIndex) {
-                case 1:
-                    idCubemap = loadPNGTexture("cmap.png", GL13.GL_TEXTURE2, df ); //$NON-NLS-1$
-                    break;
-                case 2:
-                    idCubemapMatte = loadPNGTexture("matte_metal.png", GL13.GL_TEXTURE3, df); //$NON-NLS-1$
+        DatFile df = null;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == TextureCache.PENDING) {
+                if (df == null)
+                    df = renderer.getC3D().getLockableDatFileReference();
+                final String filename;
+                switch (i) {
+                case BASE:
+                    filename = texture;
                     break;
-                case 3:
-                    idCubemapMetal = loadPNGTexture("metal.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
-                    break;
-                case 4:
-                    idCubemapPearl = loadPNGTexture("pearl.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
+                case GLOSSMAP:
+                    filename = glossmap;
                     break;
                 default:
+                    filename = CUBEMAP_FILES[i - CUBEMAP];
                     break;
                 }
+                ids[i] = loadPNGTexture(filename, TEXTURE_UNITS[i], df);
             }
-            openGlDisposed.put(renderer, false);
-            renderer.registerTexture(this);
-            openGlId.put(renderer, id);
-            openGlIdGlossmap.put(renderer, idGlossmap);
-            openGlIdCubemap.put(renderer, idCubemap);
-            openGlIdCubemapMatte.put(renderer, idCubemapMatte);
-            openGlIdCubemapMetal.put(renderer, idCubemapMetal);
-            openGlIdCubemapPearl.put(renderer, idCubemapPearl);
-        } else if (id != -1) {
+        }
+        return ids;
+    }
+
+    /** Substitutes the texture of an image which is still decoding with a transparent placeholder */
+    private static int boundId(int id, OpenGLRenderer renderer) {
+        return id == TextureCache.PENDING ? renderer.getPlaceholderTexture() : id;
+    }
+
+    void bind(boolean drawSolidMaterials, boolean normalSwitch, boolean lightOn, OpenGLRenderer20 renderer, int useCubeMap) {
+
+        final int[] ids = textureIds(renderer, true);
+        final int id = ids[BASE];
+
+        if (id != -1) {
             accessTime = System.currentTimeMillis();
             GL13.glActiveTexture(GL13.GL_TEXTURE0 + 0);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(id, renderer));
             GL20.glUniform1f(renderer.getAlphaSwitchLoc(), drawSolidMaterials ? 1f : 0f); // Draw transparent
             GL20.glUniform1f(renderer.getNormalSwitchLoc(), normalSwitch ? 1f : 0f); // Draw transparent
             GL20.glUniform1i(renderer.getBaseImageLoc(), 0); // Texture unit 0 is for base images.
-            GL20.glUniform1f(renderer.getNoTextureSwitch(), 0f);
+            GL20.glUniform1f(renderer.getNoTextureSwitch(), id == TextureCache.PENDING ? 1f : 0f); // Draw the plain colour until the image is ready
             GL20.glUniform1f(renderer.getNoLightSwitch(), lightOn ? 0f : 1f);
             GL20.glUniform1f(renderer.getCubeMapSwitch(), useCubeMap);
 
-            if (glossy) {
+            if (glossy && ids[GLOSSMAP] != TextureCache.PENDING) {
                 GL13.glActiveTexture(GL13.GL_TEXTURE0 + 2);
-                GL11.glBindTexture(GL11.GL_TEXTURE_2D, idGlossmap);
+                GL11.glBindTexture(GL11.GL_TEXTURE_2D, ids[GLOSSMAP]);
                 GL20.glUniform1i(renderer.getGlossMapLoc(), 2); // Texture unit 2 is for gloss maps.
                 GL20.glUniform1f(renderer.getNoGlossMapSwitch(), 0f);
             } else {
@@ -559,22 +548,22 @@ public class GTexture {
                 switch (cubeMapIndex) {
                 case 1:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 4);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemap);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP], renderer));
                     GL20.glUniform1i(renderer.getCubeMapLoc(), 4); // Texture unit 4 is for cube maps.
                     break;
                 case 2:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 8);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemapMatte);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP_MATTE], renderer));
                     GL20.glUniform1i(renderer.getCubeMapMatteLoc(), 8); // Texture unit 8 is for cube maps.
                     break;
                 case 3:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 16);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemapMetal);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP_METAL], renderer));
                     GL20.glUniform1i(renderer.getCubeMapMetalLoc(), 16); // Texture unit 16 is for cube maps.
                     break;
                 case 4:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 32);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemapPearl);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP_PEARL], renderer));
                     GL20.glUniform1i(renderer.getCubeMapPearlLoc(), 32); // Texture unit 32 is for cube maps.
                     break;
                 default:
@@ -586,83 +575,35 @@ public class GTexture {
 
     void bindGL33(OpenGLRenderer renderer, GLShader shader) {
 
-        int id = -1;
-        int idGlossmap = -1;
-        int idCubemap = -1;
-        int idCubemapMatte = -1;
-        int idCubemapMetal = -1;
-        int idCubemapPearl = -1;
-        boolean disposed = true;
-
-        if (openGlDisposed.containsKey(renderer)) {
-            disposed = openGlDisposed.get(renderer);
-            id = openGlId.get(renderer);
-            idGlossmap = openGlIdGlossmap.get(renderer);
-            idCubemap = openGlIdCubemap.get(renderer);
-            idCubemapMatte = openGlIdCubemapMatte.get(renderer);
-            idCubemapMetal = openGlIdCubemapMetal.get(renderer);
-            idCubemapPearl = openGlIdCubemapPearl.get(renderer);
-        } else {
-            openGlDisposed.put(renderer, true);
-        }
+        final int[] ids = textureIds(renderer, false);
+        final int id = ids[BASE];
 
-        if (disposed) {
-
-            DatFile df = renderer.getC3D().getLockableDatFileReference();
-
-            id = loadPNGTexture(texture, GL13.GL_TEXTURE0, df);
-            if (cubeMapIndex > 0) {
-                switch (cubeMapIndex) {
-                case 1:
-                    idCubemap = loadPNGTexture("cmap.png", GL13.GL_TEXTURE2, df ); //$NON-NLS-1$
-                    break;
-                case 2:
-                    idCubemapMatte = loadPNGTexture("matte_metal.png", GL13.GL_TEXTURE3, df); //$NON-NLS-1$
-                    break;
-                case 3:
-                    idCubemapMetal = loadPNGTexture("metal.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
-                    break;
-                case 4:
-                    idCubemapPearl = loadPNGTexture("pearl.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
-                    break;
-                default:
-                    break;
-                }
-            }
-            openGlDisposed.put(renderer, false);
-            renderer.registerTexture(this);
-            openGlId.put(renderer, id);
-            openGlIdGlossmap.put(renderer, idGlossmap);
-            openGlIdCubemap.put(renderer, idCubemap);
-            openGlIdCubemapMatte.put(renderer, idCubemapMatte);
-            openGlIdCubemapMetal.put(renderer, idCubemapMetal);
-            openGlIdCubemapPearl.put(renderer, idCubemapPearl);
-        } else if (id != -1) {
+        if (id != -1) {
             accessTime = System.currentTimeMillis();
             GL13.glActiveTexture(GL13.GL_TEXTURE0 + 0);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(id, renderer));
             GL20.glUniform1i(shader.getUniformLocation("ldpePngSampler"), 0); // Texture unit 0 is for base images. //$NON-NLS-1$
 
             if (cubeMapIndex > 0) {
                 switch (cubeMapIndex) {
                 case 1:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 4);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemap);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP], renderer));
                     GL20.glUniform1i(shader.getUniformLocation("cubeMap"), 4); // Texture unit 4 is for cube maps. //$NON-NLS-1$
                     break;
                 case 2:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 8);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemapMatte);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP_MATTE], renderer));
                     GL20.glUniform1i(shader.getUniformLocation("cubeMapMatte"), 8); // Texture unit 8 is for cube maps. //$NON-NLS-1$
                     break;
                 case 3:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 16);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemapMetal);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP_METAL], renderer));
                     GL20.glUniform1i(shader.getUniformLocation("cubeMapMetal"), 16); // Texture unit 16 is for cube maps. //$NON-NLS-1$
                     break;
                 case 4:
                     GL13.glActiveTexture(GL13.GL_TEXTURE0 + 32);
-                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, idCubemapPearl);
+                    GL11.glBindTexture(GL11.GL_TEXTURE_2D, boundId(ids[CUBEMAP_PEARL], renderer));
                     GL20.glUniform1i(shader.getUniformLocation("cubeMapPearl"), 32); // Texture unit 32 is for cube maps. //$NON-NLS-1$
                     break;
                 default:
@@ -681,260 +622,132 @@ public class GTexture {
      * @param filename
      * @param textureUnit
      *            e.g. GL13.GL_TEXTURE0
-     * @return
+     * @return the texture id, {@code -1} if there is no image or
+     *         {@code TextureCache.PENDING} if the image is still decoding
      */
     private int loadPNGTexture(String filename, int textureUnit, DatFile datFile) {
 
-        int max = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
-
-        ByteBuffer buf = null;
-        int tWidth = 1;
-        int tHeight = 1;
-
+        final TextureCache.Texels texels;
         if ("".equals(filename)) { //$NON-NLS-1$
-            buf = ByteBuffer.allocateDirect(4);
-            final byte[] bytes = new byte[] { 0, 0, 0, -1 };
-            buf.put(bytes);
-            buf.flip();
+            texels = TextureCache.EMPTY;
         } else {
-            // Check folders
-            File fileToOpen;
-            String oTex = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + filename;
-            String oTexU = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
-            String oTexL = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
-            String uTex = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + filename;
-            String uTexU = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
-            String uTexL = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
-            String pTex = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + filename;
-            String pTexU = Project.getProjectPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
-            String pTexL = Project.getProjectPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
-            String fTex = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + filename;
-            String fTexU = Project.getProjectPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
-            String fTexL = Project.getProjectPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
-            if (datFile != null && !datFile.isProjectFile() && !View.DUMMY_DATFILE.equals(datFile)) {
-                File dff = new File(datFile.getOldName()).getParentFile();
-                if (dff != null && dff.exists() && dff.isDirectory()) {
-                    String ap = dff.getAbsolutePath();
-                    fTex = ap + File.separator + filename;
-                    fTexU = ap + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
-                    fTexL = ap + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
-                }
+            int max = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
+            final boolean padded = textureUnit != GL13.GL_TEXTURE2 && textureUnit != GL13.GL_TEXTURE3 && textureUnit != GL13.GL_TEXTURE4 && (type == TexType.CYLINDRICAL || type == TexType.SPHERICAL);
+            texels = TextureCache.request(source(filename, datFile), padded ? type : TexType.NONE, a, b, max);
+            if (texels == null) {
+                return TextureCache.PENDING;
             }
+        }
 
-            String tex = filename;
-
-            File officialTexture = new File(oTex);
-            File officialTextureU = new File(oTexU);
-            File officialTextureL = new File(oTexL);
-            File unofficialTexture = new File(uTex);
-            File unofficialTextureU = new File(uTexU);
-            File unofficialTextureL = new File(uTexL);
-            File projectTexture = new File(pTex);
-            File projectTextureU = new File(pTexU);
-            File projectTextureL = new File(pTexL);
-            File localTexture = new File(fTex);
-            File localTextureU = new File(fTexU);
-            File localTextureL = new File(fTexL);
-            File textureFile = new File(tex);
-
-            boolean fileExists = (
-                    (fileToOpen = FileHelper.exist(localTexture)) != null
-                    || (fileToOpen = FileHelper.exist(localTextureU)) != null
-                    || (fileToOpen = FileHelper.exist(localTextureL)) != null
-                    || (fileToOpen = FileHelper.exist(projectTexture)) != null
-                    || (fileToOpen = FileHelper.exist(projectTextureU)) != null
-                    || (fileToOpen = FileHelper.exist(projectTextureL)) != null
-                    || (fileToOpen = FileHelper.exist(unofficialTexture)) != null
-                    || (fileToOpen = FileHelper.exist(unofficialTextureU)) != null
-                    || (fileToOpen = FileHelper.exist(unofficialTextureL)) != null
-                    || (fileToOpen = FileHelper.exist(officialTexture)) != null
-                    || (fileToOpen = FileHelper.exist(officialTextureU)) != null
-                    || (fileToOpen = FileHelper.exist(officialTextureL)) != null
-                    || (fileToOpen = FileHelper.exist(textureFile)) != null)
-                    && fileToOpen.isFile();
-
-            InputStream in = null;
-            try {
-                // Try to download the png file from the parts tracker if part review mode is enabled
-                if (Editor3DWindow.getWindow().isReviewingAPart()) {
-                    try {
-                        final URL url = new URI("https://library.ldraw.org/library/unofficial/parts/textures/" + filename).toURL(); //$NON-NLS-1$
-                        in = url.openStream();
-                    } catch (IOException | URISyntaxException ioe) {
-                        NLogger.debug(GTexture.class, ioe);
-                    }
-                }
-
-                if (in == null) {
-                    if (datFile.getBinaryData().hasFile(filename)) {
-                        final byte[] source = datFile.getBinaryData().getFileBytes(filename);
-                        in = new ByteArrayInputStream(source);
-                    } else if (fileExists) {
-                        // Open the PNG file as an FileInputStream
-                        filename = fileToOpen.getAbsolutePath();
-                        in = new FileInputStream(filename);
-                    } else {
-                        // Try to get PNG file from org.nschmidt.ldparteditor.opengl
-                        in = GLShader.class.getResourceAsStream(filename);
-
-                        if (in == null) {
-                            return -1;
-                        }
-                    }
-                }
-
-                // Link the PNG decoder to this stream
-                PNGDecoder decoder = new PNGDecoder(in);
-
-                // Get the width and height of the texture
-                tWidth = decoder.getWidth();
-                tHeight = decoder.getHeight();
-
-                this.width = tWidth;
-                this.height = tHeight;
-
-                if (tWidth > max)
-                    throw new OutOfMemoryError();
-                if (tHeight > max)
-                    throw new OutOfMemoryError();
-
-                // Decode the PNG file in a ByteBuffer
-                buf = ByteBuffer.allocateDirect(4 * tWidth * tHeight);
-                decoder.decode(buf, tWidth * 4, Format.RGBA);
-                buf.flip();
-
-                final List<Byte> bytes;
-                {
-                    final byte[] tbytes = new byte[buf.remaining()];
-                    buf.get(tbytes);
-                    bytes = new ArrayList<>(tbytes.length);
-                    for (final byte bt : tbytes) {
-                        bytes.add(bt);
-                    }
-                }
+        if (textureUnit == GL13.GL_TEXTURE0 && texels.getSourceWidth() > 0) {
+            this.width = texels.getSourceWidth();
+            this.height = texels.getSourceHeight();
+        }
 
-                // TODO angle dependent adjustment (alpha fill)
-                if (textureUnit != GL13.GL_TEXTURE2 && textureUnit != GL13.GL_TEXTURE3 && textureUnit != GL13.GL_TEXTURE4 && (type == TexType.CYLINDRICAL || type == TexType.SPHERICAL)) {
+        return texels.upload(textureUnit);
+    }
 
-                    int delta = (int) (tWidth * (Math.PI / a - 1f) / 2f);
-                    if (tWidth + delta > max || delta / a > max)
-                        throw new OutOfMemoryError();
+    /**
+     * Resolves where the image data of a file name comes from. The result is
+     * cached until the texture gets disposed.
+     */
+    private TextureCache.Source source(String filename, DatFile datFile) {
+        if (datFile != sourcesDatFile) {
+            sources.clear();
+            sourcesDatFile = datFile;
+        }
+        TextureCache.Source result = sources.get(filename);
+        if (result == null) {
+            result = resolveSource(filename, datFile);
+            sources.put(filename, result);
+        }
+        return result;
+    }
 
-                    List<Byte> stride = new ArrayList<>(tWidth);
-                    final int strideLength = tWidth * 4;
-                    for (int j = 0; j < delta; j++) {
-                        stride.add((byte) 0x00);
-                        stride.add((byte) 0x00);
-                        stride.add((byte) 0x00);
-                        stride.add((byte) 0x00);
-                    }
-                    final int strideLength2 = stride.size();
-                    int index = 0;
-                    for (int i = 0; i < tHeight && index + 1 <= bytes.size(); i++) {
-                        bytes.addAll(index, stride);
-                        index += strideLength + strideLength2;
-                        if (index + 1 > bytes.size()) {
-                            if (index == bytes.size()) {
-                                bytes.addAll(stride);
-                            } else {
-                                break;
-                            }
-                        } else {
-                            bytes.addAll(index, stride);
-                        }
-                        index += strideLength2;
-                    }
-                    tWidth = tWidth + delta * 2;
-                    if (type == TexType.SPHERICAL) {
-                        int delta2 = (int) (tHeight * (Math.PI / (b * 2f) - 1f) / 2f);
-                        if (tHeight + delta2 > max || delta2 / b > max)
-                            throw new OutOfMemoryError();
-                        stride.clear();
-                        for (int j = 0; j < tWidth; j++) {
-                            stride.add((byte) 0x00);
-                            stride.add((byte) 0x00);
-                            stride.add((byte) 0x00);
-                            stride.add((byte) 0x00);
-                        }
-                        for (int i = 0; i < delta2; i++) {
-                            bytes.addAll(0, stride);
-                            bytes.addAll(stride);
-                        }
-                        tHeight = tHeight + delta2 * 2;
-                    }
-                }
+    private static TextureCache.Source resolveSource(final String filename, DatFile datFile) {
+        // Check folders
+        File fileToOpen;
+        String oTex = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + filename;
+        String oTexU = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
+        String oTexL = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
+        String uTex = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + filename;
+        String uTexU = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
+        String uTexL = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
+        String pTex = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + filename;
+        String pTexU = Project.getProjectPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
+        String pTexL = Project.getProjectPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
+        String fTex = WorkbenchManager.getUserSettingState().getUnofficialFolderPath() + File.separator + filename;
+        String fTexU = Project.getProjectPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
+        String fTexL = Project.getProjectPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
+        if (datFile != null && !datFile.isProjectFile() && !View.DUMMY_DATFILE.equals(datFile)) {
+            File dff = new File(datFile.getOldName()).getParentFile();
+            if (dff != null && dff.exists() && dff.isDirectory()) {
+                String ap = dff.getAbsolutePath();
+                fTex = ap + File.separator + filename;
+                fTexU = ap + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
+                fTexL = ap + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
+            }
+        }
 
-                int c = 0;
-                final int as = bytes.size();
-                for (int i = 0; i < as; i++) {
-                    c++;
-                    byte bt = bytes.get(i);
-                    if (c < 4) {
-                        if (bt == (byte) 0xFF)
-                            bytes.set(i, (byte) 0xFE);
-                        if (bt == (byte) 0x01)
-                            bytes.set(i, (byte) 0x02);
-                        if (bt == (byte) 0x00)
-                            bytes.set(i, (byte) 0x02);
-                    } else {
-                        c = 0;
-                    }
-                }
-                {
-                    byte[] tmp = new byte[bytes.size()];
-                    c = 0;
-                    for (final byte bt : bytes) {
-                        tmp[c] = bt;
-                        c++;
-                    }
-                    buf = ByteBuffer.allocateDirect(4 * tWidth * tHeight);
-                    buf.put(tmp);
-                    buf.flip();
-                }
+        String tex = filename;
+
+        File officialTexture = new File(oTex);
+        File officialTextureU = new File(oTexU);
+        File officialTextureL = new File(oTexL);
+        File unofficialTexture = new File(uTex);
+        File unofficialTextureU = new File(uTexU);
+        File unofficialTextureL = new File(uTexL);
+        File projectTexture = new File(pTex);
+        File projectTextureU = new File(pTexU);
+        File projectTextureL = new File(pTexL);
+        File localTexture = new File(fTex);
+        File localTextureU = new File(fTexU);
+        File localTextureL = new File(fTexL);
+        File textureFile = new File(tex);
+
+        boolean fileExists = (
+                (fileToOpen = FileHelper.exist(localTexture)) != null
+                || (fileToOpen = FileHelper.exist(localTextureU)) != null
+                || (fileToOpen = FileHelper.exist(localTextureL)) != null
+                || (fileToOpen = FileHelper.exist(projectTexture)) != null
+                || (fileToOpen = FileHelper.exist(projectTextureU)) != null
+                || (fileToOpen = FileHelper.exist(projectTextureL)) != null
+                || (fileToOpen = FileHelper.exist(unofficialTexture)) != null
+                || (fileToOpen = FileHelper.exist(unofficialTextureU)) != null
+                || (fileToOpen = FileHelper.exist(unofficialTextureL)) != null
+                || (fileToOpen = FileHelper.exist(officialTexture)) != null
+                || (fileToOpen = FileHelper.exist(officialTextureU)) != null
+                || (fileToOpen = FileHelper.exist(officialTextureL)) != null
+                || (fileToOpen = FileHelper.exist(textureFile)) != null)
+                && fileToOpen.isFile();
+
+        final TextureCache.Source source;
+        if (datFile.getBinaryData().hasFile(filename)) {
+            final byte[] bytes = datFile.getBinaryData().getFileBytes(filename);
+            source = new TextureCache.Source("data:" + filename, Arrays.hashCode(bytes), () -> new ByteArrayInputStream(bytes)); //$NON-NLS-1$
+        } else if (fileExists) {
+            // Open the PNG file as an FileInputStream
+            final String path = fileToOpen.getAbsolutePath();
+            source = new TextureCache.Source(path, fileToOpen.lastModified(), () -> new FileInputStream(path));
+        } else {
+            // Try to get PNG file from org.nschmidt.ldparteditor.opengl
+            source = new TextureCache.Source("resource:" + filename, 0L, () -> GLShader.class.getResourceAsStream(filename)); //$NON-NLS-1$
+        }
 
-                in.close();
-            } catch (OutOfMemoryError | BufferOverflowException e) {
-                tWidth = 1;
-                tHeight = 1;
-                buf = ByteBuffer.allocateDirect(4);
-                final byte[] bytes = new byte[] { 0, 0, 0, -1 };
-                buf.put(bytes);
-                buf.flip();
+        // Try to download the png file from the parts tracker if part review mode is enabled
+        if (Editor3DWindow.getWindow().isReviewingAPart()) {
+            return new TextureCache.Source("review:" + source.name(), source.modified(), () -> { //$NON-NLS-1$
                 try {
-                    in.close();
-                } catch (Exception consumed) {
-                    NLogger.debug(GTexture.class, consumed);
+                    final URL url = new URI("https://library.ldraw.org/library/unofficial/parts/textures/" + filename).toURL(); //$NON-NLS-1$
+                    return url.openStream();
+                } catch (IOException | URISyntaxException ioe) {
+                    NLogger.debug(GTexture.class, ioe);
                 }
-            } catch (IOException e) {
-                try {
-                    in.close();
-                } catch (Exception consumed) {
-                    NLogger.debug(GTexture.class, consumed);
-                }
-                return -1;
-            }
+                return source.opener().call();
+            });
         }
 
-        // Create a new texture object in memory and bind it
-        int texId = GL11.glGenTextures();
-        GL13.glActiveTexture(textureUnit);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texId);
-
-        // All RGB bytes are aligned to each other and each component is 1 byte
-        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
-
-        // Upload the texture data
-        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, tWidth, tHeight, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buf);
-
-        // Setup the ST coordinate system
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
-
-        // Setup what to do when the texture has to be scaled
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
-
-        return texId;
+        return source;
     }
 
     public float getWidth() {
@@ -78,7 +78,7 @@ class HistoryManager {
 
     @SuppressWarnings("unchecked")
     private void processHistory() {
-        final int MAX_ITEM_COUNT = 100; // default is 100
+        final long maxByteCount = WorkbenchManager.getUserSettingState().getUndoHistoryLimit() * 1024L * 1024L;
 
         int pointer = 0;
         int pointerMax = 0;
@@ -86,8 +86,8 @@ class HistoryManager {
         final List<Integer> historySelectionStart = new ArrayList<>();
         final List<Integer> historySelectionEnd = new ArrayList<>();
         final List<Integer> historyTopIndex = new ArrayList<>();
-        final List<String> historyFullText = new ArrayList<>();
-        final List<String[]> historyText = new ArrayList<>();
+        final List<Long> historyByteSize = new ArrayList<>();
+        final HistoryTextStore historyText = new HistoryTextStore();
         final List<Map<String, List<Boolean>>> historySelectedData = new ArrayList<>();
         final List<Map<String, List<Boolean>>> historyHiddenData = new ArrayList<>();
         final List<Vertex[]> historySelectedVertices = new ArrayList<>();
@@ -148,29 +148,35 @@ class HistoryManager {
                         removeFromListAboveOrEqualIndex(historyHiddenData, pointer + 1);
                         removeFromListAboveOrEqualIndex(historySelectedVertices, pointer + 1);
                         removeFromListAboveOrEqualIndex(historyHiddenVertices, pointer + 1);
-                        removeFromListAboveOrEqualIndex(historyText, pointer + 1);
-                        removeFromListAboveOrEqualIndex(historyFullText, pointer + 1);
+                        removeFromListAboveOrEqualIndex(historyByteSize, pointer + 1);
+                        historyText.removeAboveOrEqualIndex(pointer + 1);
                         removeFromListAboveOrEqualIndex(historyTopIndex, pointer + 1);
                         pointerMax = pointer + 1;
                     }
-                    // Dont store more than MAX_ITEM_COUNT undo/redo entries
+                    // Dont store more undo/redo entries than the memory limit allows
                     {
-                        final int item_count = historyText.size();
-                        if (item_count > MAX_ITEM_COUNT) {
-                            int delta = item_count - MAX_ITEM_COUNT;
+                        final int itemCount = historyText.size();
+                        long byteCount = 0L;
+                        for (int i = 0; i < itemCount; i++) {
+                            byteCount += historyByteSize.get(i) + historyText.getByteSize(i);
+                        }
+                        int delta = 0;
+                        while (byteCount > maxByteCount && delta < itemCount - 1) {
+                            byteCount -= historyByteSize.get(delta) + historyText.getByteSize(delta);
+                            delta++;
+                        }
+                        if (delta > 0) {
                             removeFromListLessIndex(historySelectionStart, delta + 1);
                             removeFromListLessIndex(historySelectionEnd, delta + 1);
                             removeFromListLessIndex(historySelectedData, delta + 1);
                             removeFromListLessIndex(historyHiddenData, delta + 1);
                             removeFromListLessIndex(historySelectedVertices, delta + 1);
                             removeFromListLessIndex(historyHiddenVertices, delta + 1);
-                            removeFromListLessIndex(historyText, delta + 1);
-                            removeFromListLessIndex(historyFullText, delta + 1);
+                            removeFromListLessIndex(historyByteSize, delta + 1);
+                            historyText.removeFirst(delta);
                             removeFromListLessIndex(historyTopIndex, delta + 1);
                             pointerMax = pointerMax - delta;
-                            if (pointer > MAX_ITEM_COUNT) {
-                                pointer = pointer - delta;
-                            }
+                            pointer = Math.max(pointer - delta, 0);
                         }
                     }
 
@@ -181,14 +187,15 @@ class HistoryManager {
                     historyTopIndex.add((Integer) newEntry[6]);
                     historyHiddenData.add((Map<String, List<Boolean>>) newEntry[7]);
                     historyHiddenVertices.add((Vertex[]) newEntry[8]);
-                    historyText.add(result);
-                    historyFullText.add(resultFullText);
+                    historyByteSize.add(estimateByteSize((Map<String, List<Boolean>>) newEntry[4]) + estimateByteSize((Map<String, List<Boolean>>) newEntry[7])
+                            + estimateByteSize((Vertex[]) newEntry[5]) + estimateByteSize((Vertex[]) newEntry[8]));
+                    historyText.add(result, resultFullText, StringHelper.getLineDelimiter());
 
                     // 1. Cleanup duplicated text entries
 
                     if (pointer > 0) {
                         int pStart = historySelectionStart.get(pointer - 1);
-                        String[] previous = historyText.get(pointer - 1);
+                        String[] previous = historyText.getLines(pointer - 1);
                         if (Arrays.equals(previous, result) && !AddToolItem.isAddingSomething() && pStart != -1) {
                             if ((Integer) newEntry[2] == 0) {
                                 // Skip saving this entry since only the cursor was moved
@@ -198,8 +205,8 @@ class HistoryManager {
                                 removeFromListAboveOrEqualIndex(historyHiddenData, pointer);
                                 removeFromListAboveOrEqualIndex(historySelectedVertices, pointer);
                                 removeFromListAboveOrEqualIndex(historyHiddenVertices, pointer);
-                                removeFromListAboveOrEqualIndex(historyText, pointer);
-                                removeFromListAboveOrEqualIndex(historyFullText, pointer);
+                                removeFromListAboveOrEqualIndex(historyByteSize, pointer);
+                                historyText.removeAboveOrEqualIndex(pointer);
                                 removeFromListAboveOrEqualIndex(historyTopIndex, pointer);
                             } else {
                                 // Remove the previous entry, because it only contains a new text selection
@@ -209,8 +216,8 @@ class HistoryManager {
                                 historyHiddenData.remove(pointer - 1);
                                 historySelectedVertices.remove(pointer - 1);
                                 historyHiddenVertices.remove(pointer - 1);
+                                historyByteSize.remove(pointer - 1);
                                 historyText.remove(pointer - 1);
-                                historyFullText.remove(pointer - 1);
                                 historyTopIndex.remove(pointer - 1);
                             }
                             pointerMax--;
@@ -273,8 +280,8 @@ class HistoryManager {
                             final int start = historySelectionStart.get(pointer);
                             final int end = historySelectionEnd.get(pointer);
                             final int topIndex = historyTopIndex.get(pointer);
-                            final String fullText = historyFullText.get(pointer);
-                            final String[] lines = historyText.get(pointer);
+                            final String fullText = historyText.getFullText(pointer);
+                            final String[] lines = historyText.getLines(pointer);
                             Map<String, List<Boolean>> selection = historySelectedData.get(pointer);
                             Map<String, List<Boolean>> hiddenSelection = historyHiddenData.get(pointer);
                             final Vertex[] verts = historySelectedVertices.get(pointer);
@@ -583,6 +590,20 @@ class HistoryManager {
         NLogger.debug(getClass(), "done."); //$NON-NLS-1$
     }
 
+    private static long estimateByteSize(Map<String, List<Boolean>> selection) {
+        long result = 48L;
+        if (selection != null) {
+            for (Map.Entry<String, List<Boolean>> entry : selection.entrySet()) {
+                result += 96L + 2L * entry.getKey().length() + 4L * entry.getValue().size();
+            }
+        }
+        return result;
+    }
+
+    private static long estimateByteSize(Vertex[] vertices) {
+        return vertices == null ? 0L : 16L + 8L * vertices.length;
+    }
+
     private void removeFromListAboveOrEqualIndex(List<?> l, int i) {
         i--;
         for (int j = l.size() - 1; j > i; j--) {
@@ -0,0 +1,322 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+
+/**
+ * Holds the text snapshots of the undo/redo history. A snapshot is stored as
+ * the range of lines which differ from the previous snapshot. Every
+ * {@link #CHECKPOINT_INTERVAL}-th snapshot (and the first one) is a compressed
+ * copy of all lines. The lines of a snapshot are reconstructed on demand.
+ */
+final class HistoryTextStore {
+
+    private static final int CHECKPOINT_INTERVAL = 16;
+    /** Rough memory usage of an object / array header (in bytes) */
+    private static final int OVERHEAD = 48;
+
+    private static final class Snapshot {
+        /** The compressed lines, if this snapshot is a checkpoint */
+        private byte[] checkpoint;
+        /** The number of lines which are equal to the previous snapshot (at the start) */
+        private int prefix;
+        /** The number of lines which are equal to the previous snapshot (at the end) */
+        private int suffix;
+        /** The new lines between prefix and suffix */
+        private String[] middle;
+        /** The compressed full text, {@code null} if it is equal to the joined lines */
+        private final byte[] fullText;
+        private final String lineDelimiter;
+
+        private Snapshot(byte[] fullText, String lineDelimiter) {
+            this.fullText = fullText;
+            this.lineDelimiter = lineDelimiter;
+        }
+
+        private boolean isCheckpoint() {
+            return checkpoint != null;
+        }
+
+        private long getByteSize() {
+            long result = OVERHEAD * 2L;
+            if (checkpoint != null) {
+                result += checkpoint.length;
+            } else {
+                for (String line : middle) {
+                    result += OVERHEAD + 2L * line.length();
+                }
+            }
+            if (fullText != null) {
+                result += fullText.length;
+            }
+            return result;
+        }
+    }
+
+    private final List<Snapshot> snapshots = new ArrayList<>();
+
+    /** The most recently reconstructed snapshot */
+    private int cachedIndex = -1;
+    private String[] cachedLines = null;
+
+    int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * Adds a new snapshot after the last one
+     *
+     * @param lines
+     *            the lines of the file (the array must not be changed
+     *            afterwards)
+     * @param fullText
+     *            the text of the file
+     * @param lineDelimiter
+     *            the line delimiter of the text
+     */
+    void add(String[] lines, String fullText, String lineDelimiter) {
+        final byte[] compressedFullText = fullText.equals(String.join(lineDelimiter, lines)) ? null : compress(fullText);
+        final Snapshot snapshot = new Snapshot(compressedFullText, lineDelimiter);
+        final int index = snapshots.size();
+        snapshots.add(snapshot);
+        encode(index, lines);
+        cachedIndex = index;
+        cachedLines = lines;
+    }
+
+    String[] getLines(int index) {
+        if (index == cachedIndex) {
+            return cachedLines;
+        }
+        int start = index;
+        while (!snapshots.get(start).isCheckpoint()) {
+            start--;
+        }
+        String[] lines;
+        if (cachedIndex >= start && cachedIndex < index) {
+            start = cachedIndex;
+            lines = cachedLines;
+        } else {
+            lines = decompressLines(snapshots.get(start).checkpoint);
+        }
+        for (int i = start + 1; i <= index; i++) {
+            lines = applyDelta(lines, snapshots.get(i));
+        }
+        cachedIndex = index;
+        cachedLines = lines;
+        return lines;
+    }
+
+    String getFullText(int index) {
+        final Snapshot snapshot = snapshots.get(index);
+        if (snapshot.fullText == null) {
+            return String.join(snapshot.lineDelimiter, getLines(index));
+        }
+        return decompress(snapshot.fullText);
+    }
+
+    long getByteSize(int index) {
+        return snapshots.get(index).getByteSize();
+    }
+
+    /**
+     * Removes a snapshot. The following snapshot is encoded against the
+     * predecessor of the removed snapshot.
+     */
+    void remove(int index) {
+        final boolean hasFollower = index + 1 < snapshots.size();
+        final String[] followingLines = hasFollower ? getLines(index + 1) : null;
+        snapshots.remove(index);
+        invalidateCache();
+        if (hasFollower) {
+            encode(index, followingLines);
+            cachedIndex = index;
+            cachedLines = followingLines;
+        }
+    }
+
+    /**
+     * Removes all snapshots with an index greater than or equal to the given
+     * index
+     */
+    void removeAboveOrEqualIndex(int index) {
+        while (snapshots.size() > Math.max(index, 0)) {
+            snapshots.remove(snapshots.size() - 1);
+        }
+        if (cachedIndex >= snapshots.size()) {
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Removes the first snapshots. The new first snapshot becomes a
+     * checkpoint.
+     */
+    void removeFirst(int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (count >= snapshots.size()) {
+            snapshots.clear();
+            invalidateCache();
+            return;
+        }
+        final String[] firstLines = getLines(count);
+        snapshots.subList(0, count).clear();
+        invalidateCache();
+        encode(0, firstLines);
+        cachedIndex = 0;
+        cachedLines = firstLines;
+    }
+
+    private void invalidateCache() {
+        cachedIndex = -1;
+        cachedLines = null;
+    }
+
+    /**
+     * Encodes the lines of a snapshot as a checkpoint or as a delta to the
+     * previous snapshot
+     */
+    private void encode(int index, String[] lines) {
+        final Snapshot snapshot = snapshots.get(index);
+        snapshot.checkpoint = null;
+        snapshot.middle = null;
+        if (index % CHECKPOINT_INTERVAL == 0 || index == 0) {
+            snapshot.checkpoint = compressLines(lines);
+            return;
+        }
+        final String[] previous = getLines(index - 1);
+        final int maxCommon = Math.min(previous.length, lines.length);
+        int prefix = 0;
+        while (prefix < maxCommon && previous[prefix].equals(lines[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxCommon - prefix && previous[previous.length - 1 - suffix].equals(lines[lines.length - 1 - suffix])) {
+            suffix++;
+        }
+        final int middleLength = lines.length - prefix - suffix;
+        if (middleLength > lines.length / 2 && lines.length > CHECKPOINT_INTERVAL) {
+            // Most of the file has changed, a checkpoint is smaller
+            snapshot.checkpoint = compressLines(lines);
+            return;
+        }
+        snapshot.prefix = prefix;
+        snapshot.suffix = suffix;
+        snapshot.middle = new String[middleLength];
+        System.arraycopy(lines, prefix, snapshot.middle, 0, middleLength);
+    }
+
+    private static String[] applyDelta(String[] previous, Snapshot snapshot) {
+        if (snapshot.isCheckpoint()) {
+            return decompressLines(snapshot.checkpoint);
+        }
+        final String[] middle = snapshot.middle;
+        final int prefix = snapshot.prefix;
+        final int suffix = snapshot.suffix;
+        final String[] result = new String[prefix + middle.length + suffix];
+        System.arraycopy(previous, 0, result, 0, prefix);
+        System.arraycopy(middle, 0, result, prefix, middle.length);
+        System.arraycopy(previous, previous.length - suffix, result, prefix + middle.length, suffix);
+        return result;
+    }
+
+    private static byte[] compressLines(String[] lines) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // A DeflaterOutputStream does not end a deflater which was passed to it
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(lines.length);
+            for (String line : lines) {
+                final byte[] utf8 = line.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+        } catch (IOException ioe) {
+            throw new LDPartEditorException(ioe);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String[] decompressLines(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            final String[] lines = new String[in.readInt()];
+            for (int i = 0; i < lines.length; i++) {
+                final byte[] utf8 = new byte[in.readInt()];
+                in.readFully(utf8);
+                lines[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            return lines;
+        } catch (IOException ioe) {
+            throw new LDPartEditorException(ioe);
+        }
+    }
+
+    private static byte[] compress(String text) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                bytes.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return bytes.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String decompress(byte[] data) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                final int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+                bytes.write(buffer, 0, count);
+            }
+            return bytes.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException dfe) {
+            throw new LDPartEditorException(dfe);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Reduces a mesh by collapsing edges on a snapshot of its faces. It does not
+ * touch the {@link VertexManager}, so it can run outside of the UI thread. The
+ * collapses are ordered by their cost (the largest normal deviation of the
+ * adjacent faces, then the edge length), so flat regions are reduced first.
+ * The result is a map from each removed vertex to the vertex which replaces
+ * it.
+ */
+final class MeshReducer {
+
+    /** A collapse is rejected when a face normal turns by more than this angle (in radians) */
+    private static final double MAX_NORMAL_ANGLE = Math.toRadians(3.0);
+
+    private final boolean ignoreColours;
+
+    private final SortedMap<Vertex, Integer> vertexIndex = new TreeMap<>();
+    private final List<int[]> faceVertices = new ArrayList<>();
+    private final List<GColour> faceColours = new ArrayList<>();
+    private final List<Boolean> faceMovable = new ArrayList<>();
+
+    private Vertex[] vertices;
+    private double[] positions;
+    private Set<Integer>[] vertexFaces;
+    private boolean[] locked;
+    private int[] stamps;
+    private int[] replacedBy;
+
+    private record Candidate(double cost, double length, int v, int t, int stampV, int stampT) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate o) {
+            int result = Double.compare(cost, o.cost);
+            if (result == 0) result = Double.compare(length, o.length);
+            if (result == 0) result = Integer.compare(v, o.v);
+            if (result == 0) result = Integer.compare(t, o.t);
+            return result;
+        }
+    }
+
+    MeshReducer(boolean ignoreColours) {
+        this.ignoreColours = ignoreColours;
+    }
+
+    /**
+     * Adds a triangle or a quad to the snapshot
+     *
+     * @param verts
+     *            the vertices of the face
+     * @param colour
+     *            the colour of the face
+     * @param movable
+     *            {@code false} if the face can't be modified (e.g. it is part
+     *            of a subfile). Its vertices will be kept.
+     */
+    void addFace(Vertex[] verts, GColour colour, boolean movable) {
+        final int[] face = new int[verts.length];
+        for (int i = 0; i < verts.length; i++) {
+            face[i] = vertexIndex.computeIfAbsent(verts[i], v -> vertexIndex.size());
+        }
+        faceVertices.add(face);
+        faceColours.add(colour);
+        faceMovable.add(movable);
+    }
+
+    int getVertexCount() {
+        return vertexIndex.size();
+    }
+
+    /**
+     * Collapses edges until there is no valid collapse left or the monitor was
+     * cancelled.
+     *
+     * @return the removed vertices with the vertices which replace them, in
+     *         the order of the collapses
+     */
+    @SuppressWarnings("unchecked")
+    Map<Vertex, Vertex> reduce(IProgressMonitor monitor) {
+        final int vertexCount = vertexIndex.size();
+        vertices = new Vertex[vertexCount];
+        positions = new double[vertexCount * 3];
+        vertexFaces = new Set[vertexCount];
+        locked = new boolean[vertexCount];
+        stamps = new int[vertexCount];
+        replacedBy = new int[vertexCount];
+        Arrays.fill(replacedBy, -1);
+        vertexIndex.forEach((v, i) -> {
+            vertices[i] = v;
+            positions[i * 3] = v.x;
+            positions[i * 3 + 1] = v.y;
+            positions[i * 3 + 2] = v.z;
+            vertexFaces[i] = new HashSet<>();
+        });
+        for (int f = 0; f < faceVertices.size(); f++) {
+            final boolean movable = faceMovable.get(f);
+            for (int v : faceVertices.get(f)) {
+                vertexFaces[v].add(f);
+                if (!movable) locked[v] = true;
+            }
+        }
+
+        // The initial candidates are independent from each other
+        final List<Candidate>[] initial = new List[vertexCount];
+        WorkerPool.parallelFor(0, vertexCount, (start, end) -> {
+            for (int v = start; v < end; v++) {
+                final List<Candidate> candidates = new ArrayList<>();
+                for (int t : ring(v)) {
+                    final Candidate c = evaluate(v, t);
+                    if (c != null) candidates.add(c);
+                }
+                initial[v] = candidates;
+            }
+        }).await();
+
+        final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        for (List<Candidate> candidates : initial) {
+            if (candidates != null) queue.addAll(candidates);
+        }
+
+        final Map<Vertex, Vertex> result = new LinkedHashMap<>();
+        while (!queue.isEmpty() && !monitor.isCanceled()) {
+            final Candidate c = queue.poll();
+            if (stamps[c.v] != c.stampV || stamps[c.t] != c.stampT) {
+                // Outdated, the neighbourhood has changed in the meantime
+                continue;
+            }
+
+            final Set<Integer> affected = ring(c.v);
+            collapse(c.v, c.t);
+            result.put(vertices[c.v], vertices[c.t]);
+            monitor.worked(1);
+
+            stamps[c.v]++;
+            for (int a : affected) {
+                stamps[a]++;
+            }
+            for (int a : affected) {
+                for (int u : ring(a)) {
+                    final Candidate c1 = evaluate(a, u);
+                    if (c1 != null) queue.add(c1);
+                    final Candidate c2 = evaluate(u, a);
+                    if (c2 != null) queue.add(c2);
+                }
+            }
+        }
+
+        // Vertices can be replaced by vertices which were removed later
+        for (Map.Entry<Vertex, Vertex> entry : result.entrySet()) {
+            int target = vertexIndex.get(entry.getValue());
+            while (replacedBy[target] != -1) {
+                target = replacedBy[target];
+            }
+            entry.setValue(vertices[target]);
+        }
+        return result;
+    }
+
+    private Set<Integer> ring(int v) {
+        final Set<Integer> result = new HashSet<>();
+        for (int f : vertexFaces[v]) {
+            for (int u : faceVertices.get(f)) {
+                result.add(u);
+            }
+        }
+        result.remove(v);
+        return result;
+    }
+
+    /**
+     * Checks if the vertex {@code v} can be moved onto its neighbour {@code t}
+     *
+     * @return the collapse or {@code null} if it is not allowed
+     */
+    private Candidate evaluate(int v, int t) {
+        if (locked[v]) {
+            return null;
+        }
+        final Set<Integer> surfs = vertexFaces[v];
+        if (surfs.isEmpty()) {
+            return null;
+        }
+
+        // 1. All adjacent faces need the same colour
+        if (!ignoreColours) {
+            GColour colour = null;
+            for (int f : surfs) {
+                final GColour col = faceColours.get(f);
+                if (colour == null) {
+                    colour = col;
+                } else if (!colour.equals(col)) {
+                    return null;
+                }
+            }
+        }
+
+        // 2. The faces have to form a closed fan around v
+        final Set<Integer> verts = ring(v);
+        int delta = 1;
+        for (int f : surfs) {
+            if (faceVertices.get(f).length == 4) {
+                delta += 1;
+            }
+        }
+        if (verts.size() + 1 - delta != surfs.size() || !verts.contains(t)) {
+            return null;
+        }
+
+        // 3. t has to share two faces with v
+        int shared = 0;
+        for (int f : vertexFaces[t]) {
+            if (surfs.contains(f)) {
+                shared++;
+            }
+        }
+        if (shared != 2) {
+            return null;
+        }
+
+        // 4. t may only share two adjacent vertices with v
+        int sharedVertices = 0;
+        for (int u : ring(t)) {
+            if (verts.contains(u)) {
+                sharedVertices++;
+            }
+        }
+        if (sharedVertices != 2) {
+            return null;
+        }
+
+        // 5. The normals must not flip
+        double cost = 0.0;
+        for (int f : surfs) {
+            final int[] face = faceVertices.get(f);
+            boolean containsT = false;
+            int start = 0;
+            for (int i = 0; i < face.length; i++) {
+                if (face[i] == t) containsT = true;
+                if (face[i] == v) start = i;
+            }
+            if (containsT) {
+                continue;
+            }
+            final int a = face[start];
+            final int b = face[(start + 1) % face.length];
+            final int c = face[(start + 2) % face.length];
+            final double angle = angle(normal(a, b, c), normal(t, b, c));
+            if (angle > MAX_NORMAL_ANGLE) {
+                return null;
+            }
+            if (angle > cost) {
+                cost = angle;
+            }
+        }
+
+        final double dx = positions[v * 3] - positions[t * 3];
+        final double dy = positions[v * 3 + 1] - positions[t * 3 + 1];
+        final double dz = positions[v * 3 + 2] - positions[t * 3 + 2];
+        return new Candidate(cost, dx * dx + dy * dy + dz * dz, v, t, stamps[v], stamps[t]);
+    }
+
+    private void collapse(int v, int t) {
+        for (int f : vertexFaces[v]) {
+            final int[] face = faceVertices.get(f);
+            boolean containsT = false;
+            for (int u : face) {
+                if (u == t) containsT = true;
+            }
+            if (containsT) {
+                // The face loses a corner, a triangle vanishes
+                final int[] reduced = new int[face.length - 1];
+                int i = 0;
+                for (int u : face) {
+                    if (u != v) {
+                        reduced[i] = u;
+                        i++;
+                    }
+                }
+                if (reduced.length < 3) {
+                    for (int u : reduced) {
+                        vertexFaces[u].remove(f);
+                    }
+                } else {
+                    faceVertices.set(f, reduced);
+                }
+            } else {
+                for (int i = 0; i < face.length; i++) {
+                    if (face[i] == v) face[i] = t;
+                }
+                vertexFaces[t].add(f);
+            }
+        }
+        vertexFaces[v].clear();
+        replacedBy[v] = t;
+    }
+
+    private double[] normal(int a, int b, int c) {
+        final double ux = positions[b * 3] - positions[a * 3];
+        final double uy = positions[b * 3 + 1] - positions[a * 3 + 1];
+        final double uz = positions[b * 3 + 2] - positions[a * 3 + 2];
+        final double vx = positions[c * 3] - positions[a * 3];
+        final double vy = positions[c * 3 + 1] - positions[a * 3 + 1];
+        final double vz = positions[c * 3 + 2] - positions[a * 3 + 2];
+        return new double[] { uy * vz - uz * vy, uz * vx - ux * vz, ux * vy - uy * vx };
+    }
+
+    private static double angle(double[] n1, double[] n2) {
+        final double length = Math.sqrt((n1[0] * n1[0] + n1[1] * n1[1] + n1[2] * n1[2]) * (n2[0] * n2[0] + n2[1] * n2[1] + n2[2] * n2[2]));
+        final double cos = (n1[0] * n2[0] + n1[1] * n2[1] + n1[2] * n2[2]) / length;
+        return Math.acos(Math.max(-1.0, Math.min(1.0, cos)));
+    }
+}
@@ -213,9 +213,9 @@ public enum ProtractorHelper {
             }
         }
 
-        result[0] = pMin.xp;
-        result[1] = pMin.yp;
-        result[2] = pMin.zp;
+        result[0] = pMin.xp();
+        result[1] = pMin.yp();
+        result[2] = pMin.zp();
         return result;
     }
 
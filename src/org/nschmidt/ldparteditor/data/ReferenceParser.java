@@ -34,6 +34,7 @@ import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
+import org.nschmidt.ldparteditor.text.LibraryPathIndex;
 import org.nschmidt.ldparteditor.text.References;
 import org.nschmidt.ldparteditor.widget.TreeItem;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
@@ -421,10 +422,9 @@ public enum ReferenceParser {
                     }
                     for (int a3 = 0; a3 < suffix.length; a3++) {
                         String s3 = suffix[a3];
-                        File f = new File(s1 + s2 + s3);
-                        fileExists = f.exists() && f.isFile();
+                        fileExists = LibraryPathIndex.isFile(s1, s2 + s3);
                         if (fileExists) {
-                            fileToOpen = f;
+                            fileToOpen = new File(s1 + s2 + s3);
                             break;
                         }
                     }
@@ -477,8 +477,7 @@ public enum ReferenceParser {
                     String s2 = middle[a2];
                     for (int a3 = 0; a3 < suffix.length; a3++) {
                         String s3 = suffix[a3];
-                        File f = new File(s1 + s2 + s3);
-                        fileExists = f.exists() && f.isFile();
+                        fileExists = LibraryPathIndex.isFile(s1, s2 + s3);
                         if (fileExists) break;
                     }
                     if (fileExists) break;
@@ -65,12 +65,12 @@ public enum Rounder {
             GDataCSG.forceRecompile(datFile);
             Vertex vOld = new Vertex(cts.getToReplaceX(), cts.getToReplaceY(), cts.getToReplaceZ());
             int coordsDecimalPlaces = userSettings.getCoordsPrecision();
-            Vertex vNew = new Vertex(onX ? vOld.xp.setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.xp, onY ? vOld.yp.setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.yp, onZ ? vOld.zp.setScale(coordsDecimalPlaces,
-                    RoundingMode.HALF_UP) : vOld.zp);
+            Vertex vNew = new Vertex(onX ? vOld.xp().setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.xp(), onY ? vOld.yp().setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.yp(), onZ ? vOld.zp().setScale(coordsDecimalPlaces,
+                    RoundingMode.HALF_UP) : vOld.zp());
             vm.changeVertexDirectFast(vOld, vNew, true);
-            cts.setToReplaceX(vNew.xp);
-            cts.setToReplaceY(vNew.yp);
-            cts.setToReplaceZ(vNew.zp);
+            cts.setToReplaceX(vNew.xp());
+            cts.setToReplaceY(vNew.yp());
+            cts.setToReplaceZ(vNew.zp());
             vm.setVertexToReplace(vNew);
             vm.setModifiedNoSync();
             datFile.getVertexManager().restoreHideShowState();
@@ -0,0 +1,97 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A selection set which counts its modifications in a revision counter, which
+ * is shared by all selection sets of a file. The 3D views use the counter to
+ * detect a changed selection without iterating the sets.
+ */
+final class SelectionSet<E> extends AbstractSet<E> {
+
+    private final Set<E> delegate;
+    private final AtomicInteger revision;
+
+    SelectionSet(Set<E> delegate, AtomicInteger revision) {
+        this.delegate = delegate;
+        this.revision = revision;
+    }
+
+    @Override
+    public boolean add(E e) {
+        final boolean result = delegate.add(e);
+        if (result) revision.incrementAndGet();
+        return result;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        final boolean result = delegate.remove(o);
+        if (result) revision.incrementAndGet();
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        if (!delegate.isEmpty()) {
+            delegate.clear();
+            revision.incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return delegate.contains(o);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<E> it = delegate.iterator();
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+                revision.incrementAndGet();
+            }
+        };
+    }
+}
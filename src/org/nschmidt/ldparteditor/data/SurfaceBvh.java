@@ -0,0 +1,324 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.nschmidt.ldparteditor.helper.math.GridHelper;
+
+/**
+ * A bounding volume hierarchy over the triangles and quads of a vertex manager
+ * for picking. It is built on the first pick. After that, removed surfaces are
+ * only marked as dead and new surfaces are kept in a small list until the next
+ * call of {@link #update(Map, Map)} rebuilds the tree because too much has
+ * changed. Queries are always exact, the visitor sees every live surface whose
+ * box is hit by the ray.
+ */
+final class SurfaceBvh {
+
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * @return {@code true} to stop the query
+         */
+        boolean visit(GData gdata, Vertex[] verts);
+    }
+
+    private static final int LEAF_SIZE = 4;
+    /** The tree is rebuilt when more surfaces were changed (or a quarter of the tree) */
+    private static final int MIN_CHANGES_FOR_REBUILD = 256;
+
+    private final ReadWriteLock rwl = new ReentrantReadWriteLock();
+    private final Lock rl = rwl.readLock();
+    private final Lock wl = rwl.writeLock();
+
+    private boolean built = false;
+
+    private GData[] surfaces = new GData[0];
+    private Vertex[][] surfaceVertices = new Vertex[0][];
+    private boolean[] dead = new boolean[0];
+    private int deadCount = 0;
+    private final Map<GData, Integer> indexOf = new HashMap<>();
+    private final Map<GData, Vertex[]> pending = new LinkedHashMap<>();
+
+    /** minX, minY, minZ, maxX, maxY, maxZ for each node */
+    private float[] nodeBoxes = new float[0];
+    /** Inner nodes: left and right child. Leaves: -(first surface + 1) and the surface count */
+    private int[] nodeChildren = new int[0];
+    private int nodeCount = 0;
+
+    void add(GData gdata, Vertex[] verts) {
+        wl.lock();
+        try {
+            if (!built) return;
+            kill(gdata);
+            pending.put(gdata, verts);
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    void remove(GData gdata) {
+        wl.lock();
+        try {
+            if (!built) return;
+            if (pending.remove(gdata) == null) {
+                kill(gdata);
+            }
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    void clear() {
+        wl.lock();
+        try {
+            built = false;
+            reset(0);
+            pending.clear();
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    /**
+     * Builds the tree on the first call and rebuilds it when too many surfaces
+     * were added or removed since the last build.
+     */
+    void update(Map<GData3, Vertex[]> triangles, Map<GData4, Vertex[]> quads) {
+        wl.lock();
+        try {
+            final List<GData> newSurfaces = new ArrayList<>();
+            final List<Vertex[]> newVertices = new ArrayList<>();
+            if (!built) {
+                for (Map.Entry<GData3, Vertex[]> entry : triangles.entrySet()) {
+                    newSurfaces.add(entry.getKey());
+                    newVertices.add(entry.getValue());
+                }
+                for (Map.Entry<GData4, Vertex[]> entry : quads.entrySet()) {
+                    newSurfaces.add(entry.getKey());
+                    newVertices.add(entry.getValue());
+                }
+            } else if (pending.size() + deadCount > Math.max(MIN_CHANGES_FOR_REBUILD, surfaces.length / 4)) {
+                for (int i = 0; i < surfaces.length; i++) {
+                    if (!dead[i]) {
+                        newSurfaces.add(surfaces[i]);
+                        newVertices.add(surfaceVertices[i]);
+                    }
+                }
+                for (Map.Entry<GData, Vertex[]> entry : pending.entrySet()) {
+                    newSurfaces.add(entry.getKey());
+                    newVertices.add(entry.getValue());
+                }
+            } else {
+                return;
+            }
+            build(newSurfaces, newVertices);
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    /**
+     * Visits all surfaces whose bounding box is hit by the ray
+     *
+     * @param halfLine
+     *            {@code true} if the ray starts at the origin,
+     *            {@code false} if it is an infinite line
+     * @return {@code true} if the visitor stopped the query
+     */
+    boolean visitRay(float ox, float oy, float oz, float dx, float dy, float dz, boolean halfLine, Visitor visitor) {
+        rl.lock();
+        try {
+            if (nodeCount > 0) {
+                final double[] origin = new double[] { ox, oy, oz };
+                final double[] dir = new double[] { dx, dy, dz };
+                int[] stack = new int[64];
+                int top = 0;
+                stack[top++] = 0;
+                while (top > 0) {
+                    final int node = stack[--top];
+                    if (!hitsBox(node, origin, dir, halfLine)) continue;
+                    final int first = nodeChildren[node * 2];
+                    final int second = nodeChildren[node * 2 + 1];
+                    if (first < 0) {
+                        final int start = -first - 1;
+                        for (int i = start; i < start + second; i++) {
+                            if (!dead[i] && visitor.visit(surfaces[i], surfaceVertices[i])) {
+                                return true;
+                            }
+                        }
+                    } else {
+                        if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                        stack[top++] = second;
+                        stack[top++] = first;
+                    }
+                }
+            }
+            for (Map.Entry<GData, Vertex[]> entry : pending.entrySet()) {
+                if (visitor.visit(entry.getKey(), entry.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            rl.unlock();
+        }
+    }
+
+    private void kill(GData gdata) {
+        final Integer index = indexOf.remove(gdata);
+        if (index != null && !dead[index]) {
+            dead[index] = true;
+            deadCount++;
+        }
+    }
+
+    private void reset(int size) {
+        surfaces = new GData[size];
+        surfaceVertices = new Vertex[size][];
+        dead = new boolean[size];
+        deadCount = 0;
+        indexOf.clear();
+        nodeBoxes = new float[Math.max(size * 2 - 1, 0) * 6];
+        nodeChildren = new int[Math.max(size * 2 - 1, 0) * 2];
+        nodeCount = 0;
+    }
+
+    private void build(List<GData> newSurfaces, List<Vertex[]> newVertices) {
+        final int size = newSurfaces.size();
+        final float[] boxes = new float[size * 6];
+        final float[] centers = new float[size * 3];
+        for (int i = 0; i < size; i++) {
+            GridHelper.calculateBox(newVertices.get(i), boxes, i * 6);
+            for (int a = 0; a < 3; a++) {
+                centers[i * 3 + a] = (boxes[i * 6 + a] + boxes[i * 6 + a + 3]) * 0.5f;
+            }
+        }
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        reset(size);
+        pending.clear();
+        built = true;
+        if (size > 0) {
+            buildNode(order, 0, size, boxes, centers);
+        }
+        for (int i = 0; i < size; i++) {
+            surfaces[i] = newSurfaces.get(order[i]);
+            surfaceVertices[i] = newVertices.get(order[i]);
+            indexOf.put(surfaces[i], i);
+        }
+    }
+
+    private int buildNode(int[] order, int start, int end, float[] boxes, float[] centers) {
+        final int node = nodeCount++;
+        final int o = node * 6;
+        Arrays.fill(nodeBoxes, o, o + 3, Float.POSITIVE_INFINITY);
+        Arrays.fill(nodeBoxes, o + 3, o + 6, Float.NEGATIVE_INFINITY);
+        float[] centerMin = new float[] { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY };
+        float[] centerMax = new float[] { Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+        for (int i = start; i < end; i++) {
+            final int b = order[i] * 6;
+            for (int a = 0; a < 3; a++) {
+                nodeBoxes[o + a] = Math.min(nodeBoxes[o + a], boxes[b + a]);
+                nodeBoxes[o + a + 3] = Math.max(nodeBoxes[o + a + 3], boxes[b + a + 3]);
+                final float c = centers[order[i] * 3 + a];
+                centerMin[a] = Math.min(centerMin[a], c);
+                centerMax[a] = Math.max(centerMax[a], c);
+            }
+        }
+
+        if (end - start <= LEAF_SIZE) {
+            nodeChildren[node * 2] = -start - 1;
+            nodeChildren[node * 2 + 1] = end - start;
+            return node;
+        }
+
+        int axis = 0;
+        for (int a = 1; a < 3; a++) {
+            if (centerMax[a] - centerMin[a] > centerMax[axis] - centerMin[axis]) {
+                axis = a;
+            }
+        }
+        final int mid = (start + end) >>> 1;
+        select(order, start, end - 1, mid, centers, axis);
+        nodeChildren[node * 2] = buildNode(order, start, mid, boxes, centers);
+        nodeChildren[node * 2 + 1] = buildNode(order, mid, end, boxes, centers);
+        return node;
+    }
+
+    /**
+     * Partially sorts the range, so that the k-th element is at its place and
+     * all elements before it have a smaller or equal center (quickselect)
+     */
+    private static void select(int[] order, int left, int right, int k, float[] centers, int axis) {
+        while (left < right) {
+            final float pivot = centers[order[(left + right) >>> 1] * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (centers[order[i] * 3 + axis] < pivot) i++;
+                while (centers[order[j] * 3 + axis] > pivot) j--;
+                if (i <= j) {
+                    final int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean hitsBox(int node, double[] origin, double[] dir, boolean halfLine) {
+        final int o = node * 6;
+        double tMin = halfLine ? 0.0 : Double.NEGATIVE_INFINITY;
+        double tMax = Double.POSITIVE_INFINITY;
+        for (int a = 0; a < 3; a++) {
+            final double min = nodeBoxes[o + a];
+            final double max = nodeBoxes[o + a + 3];
+            if (dir[a] == 0.0) {
+                if (origin[a] < min || origin[a] > max) return false;
+            } else {
+                final double inv = 1.0 / dir[a];
+                final double t1 = (min - origin[a]) * inv;
+                final double t2 = (max - origin[a]) * inv;
+                tMin = Math.max(tMin, Math.min(t1, t2));
+                tMax = Math.min(tMax, Math.max(t1, t2));
+                if (tMin > tMax) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,340 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.nschmidt.ldparteditor.logger.NLogger;
+
+import de.matthiasmann.twl.util.PNGDecoder;
+import de.matthiasmann.twl.util.PNGDecoder.Format;
+
+/**
+ * The process-wide cache for decoded texture images. The PNG files are decoded
+ * on the {@link WorkerPool}, so the render loop never waits for them. Every
+ * OpenGL context uploads the cached texels on its own, once they are ready.
+ */
+enum TextureCache {
+    INSTANCE;
+
+    /** The texture id of a texture whose image is still decoding */
+    static final int PENDING = -2;
+
+    /** The decoded texels will be evicted (LRU) when they exceed this size */
+    private static final long MEMORY_BUDGET = 256L * 1024L * 1024L;
+    /** Released buffers up to this size will be reused for the next images */
+    private static final int MAX_POOLED_BUFFER = 16 * 1024 * 1024;
+    private static final long MAX_POOLED_BYTES = 64L * 1024L * 1024L;
+
+    /** Black opaque texel, e.g. for an empty file name or for an image which is too large */
+    static final Texels EMPTY = new Texels(new byte[] { 0, 0, 0, -1 });
+    private static final Texels MISSING = new Texels(new byte[0]);
+    private static final Texels DECODING = new Texels(new byte[0]);
+
+    private static final LinkedHashMap<Key, Texels> CACHE = new LinkedHashMap<>(16, .75f, true);
+    private static long cachedBytes = 0L;
+
+    private static final Map<Integer, Deque<ByteBuffer>> BUFFER_POOL = new HashMap<>();
+    private static long pooledBytes = 0L;
+
+    /**
+     * Where the image data comes from. The name and the modification time
+     * identify the image.
+     */
+    record Source(String name, long modified, Callable<InputStream> opener) {
+    }
+
+    /**
+     * Identifies a decoded image. Cylindrical and spherical textures are
+     * padded with transparent texels, which depends on their angles.
+     */
+    private record Key(String name, long modified, TexType padding, float a, float b) {
+    }
+
+    /**
+     * The decoded (RGBA) texels of an image.
+     */
+    static final class Texels {
+        private final int width;
+        private final int height;
+        private final int sourceWidth;
+        private final int sourceHeight;
+        private final boolean pooled;
+        private ByteBuffer buffer;
+
+        private Texels(byte[] rgba) {
+            this(1, 1, 0, 0, ByteBuffer.allocateDirect(rgba.length).put(rgba).flip(), false);
+        }
+
+        private Texels(int width, int height, int sourceWidth, int sourceHeight, ByteBuffer buffer, boolean pooled) {
+            this.width = width;
+            this.height = height;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.buffer = buffer;
+            this.pooled = pooled;
+        }
+
+        /** @return the width of the image file, or {@code 0} if it is unknown */
+        int getSourceWidth() {
+            return sourceWidth;
+        }
+
+        /** @return the height of the image file, or {@code 0} if it is unknown */
+        int getSourceHeight() {
+            return sourceHeight;
+        }
+
+        private long size() {
+            return buffer == null ? 0L : buffer.capacity();
+        }
+
+        /**
+         * Uploads the texels into a new texture object of the current OpenGL
+         * context.
+         *
+         * @param textureUnit
+         *            e.g. GL13.GL_TEXTURE0
+         * @return the texture id, {@code -1} if there is no image or
+         *         {@link TextureCache#PENDING} if the texels were evicted in
+         *         the meantime
+         */
+        synchronized int upload(int textureUnit) {
+            if (this == MISSING) {
+                return -1;
+            }
+            if (buffer == null) {
+                return PENDING;
+            }
+
+            // Create a new texture object in memory and bind it
+            int texId = GL11.glGenTextures();
+            GL13.glActiveTexture(textureUnit);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, texId);
+
+            // All RGB bytes are aligned to each other and each component is 1 byte
+            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+
+            // Upload the texture data
+            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
+
+            // Setup the ST coordinate system
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+
+            // Setup what to do when the texture has to be scaled
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+
+            return texId;
+        }
+
+        private synchronized void release() {
+            if (pooled && buffer != null) {
+                releaseBuffer(buffer);
+            }
+            buffer = null;
+        }
+    }
+
+    /**
+     * Returns the decoded texels of an image and starts to decode them in the
+     * background if they are not cached.
+     *
+     * @param source
+     *            the image source
+     * @param padding
+     *            {@code TexType.CYLINDRICAL} or {@code TexType.SPHERICAL} to
+     *            pad the image for the given angles, otherwise
+     *            {@code TexType.NONE}
+     * @param maxTextureSize
+     *            the maximum texture size of the OpenGL context
+     * @return the texels or {@code null} if the image is still decoding
+     */
+    static Texels request(Source source, TexType padding, float a, float b, int maxTextureSize) {
+        final Key key = padding == TexType.NONE ? new Key(source.name(), source.modified(), padding, 0f, 0f) : new Key(source.name(), source.modified(), padding, a, b);
+        synchronized (CACHE) {
+            final Texels texels = CACHE.get(key);
+            if (texels != null) {
+                return texels == DECODING ? null : texels;
+            }
+            CACHE.put(key, DECODING);
+        }
+        WorkerPool.run(() -> store(key, decode(key, source.opener(), maxTextureSize)));
+        return null;
+    }
+
+    private static void store(Key key, Texels texels) {
+        synchronized (CACHE) {
+            if (CACHE.get(key) != DECODING) {
+                texels.release();
+                return;
+            }
+            CACHE.put(key, texels);
+            cachedBytes += texels.size();
+            for (Iterator<Entry<Key, Texels>> it = CACHE.entrySet().iterator(); cachedBytes > MEMORY_BUDGET && it.hasNext();) {
+                final Entry<Key, Texels> entry = it.next();
+                final Texels eldest = entry.getValue();
+                if (eldest != DECODING && eldest != texels) {
+                    it.remove();
+                    cachedBytes -= eldest.size();
+                    eldest.release();
+                }
+            }
+        }
+    }
+
+    private static Texels decode(Key key, Callable<InputStream> opener, int max) {
+        int tWidth = 0;
+        int tHeight = 0;
+        try (InputStream in = opener.call()) {
+            if (in == null) {
+                return MISSING;
+            }
+
+            // Link the PNG decoder to this stream
+            PNGDecoder decoder = new PNGDecoder(in);
+
+            // Get the width and height of the texture
+            tWidth = decoder.getWidth();
+            tHeight = decoder.getHeight();
+
+            if (tWidth > max || tHeight > max)
+                return fallback(tWidth, tHeight);
+
+            int delta = 0;
+            int delta2 = 0;
+            // TODO angle dependent adjustment (alpha fill)
+            if (key.padding() != TexType.NONE) {
+                final float a = key.a();
+                delta = (int) (tWidth * (Math.PI / a - 1f) / 2f);
+                if (tWidth + delta > max || delta / a > max)
+                    return fallback(tWidth, tHeight);
+                if (key.padding() == TexType.SPHERICAL) {
+                    final float b = key.b();
+                    delta2 = (int) (tHeight * (Math.PI / (b * 2f) - 1f) / 2f);
+                    if (tHeight + delta2 > max || delta2 / b > max)
+                        return fallback(tWidth, tHeight);
+                }
+                // A negative padding does not fit into the texture
+                if (delta < 0 || delta2 < 0)
+                    return fallback(tWidth, tHeight);
+            }
+
+            // Decode the PNG file in a ByteBuffer
+            final int stride = tWidth * 4;
+            final ByteBuffer raw = acquireBuffer(stride * tHeight);
+            final int width = tWidth + delta * 2;
+            final int height = tHeight + delta2 * 2;
+            final ByteBuffer buf = acquireBuffer(4 * width * height);
+            try {
+                decoder.decode(raw, stride, Format.RGBA);
+                raw.flip();
+
+                // The padding is transparent, its colour is clamped like the colour of the image
+                final byte[] paddingRow = new byte[width * 4];
+                for (int i = 0; i < paddingRow.length; i += 4) {
+                    paddingRow[i] = 2;
+                    paddingRow[i + 1] = 2;
+                    paddingRow[i + 2] = 2;
+                }
+                final byte[] row = new byte[stride];
+                for (int y = 0; y < delta2; y++) {
+                    buf.put(paddingRow);
+                }
+                for (int y = 0; y < tHeight; y++) {
+                    raw.get(row);
+                    for (int i = 0; i < stride; i += 4) {
+                        clamp(row, i);
+                        clamp(row, i + 1);
+                        clamp(row, i + 2);
+                    }
+                    buf.put(paddingRow, 0, delta * 4);
+                    buf.put(row);
+                    buf.put(paddingRow, 0, delta * 4);
+                }
+                for (int y = 0; y < delta2; y++) {
+                    buf.put(paddingRow);
+                }
+                buf.flip();
+            } catch (Exception | OutOfMemoryError e) {
+                releaseBuffer(buf);
+                throw e;
+            } finally {
+                releaseBuffer(raw);
+            }
+            return new Texels(width, height, tWidth, tHeight, buf, true);
+        } catch (OutOfMemoryError | BufferOverflowException | IllegalArgumentException e) {
+            return fallback(tWidth, tHeight);
+        } catch (Exception e) {
+            NLogger.debug(TextureCache.class, e);
+            return MISSING;
+        }
+    }
+
+    private static void clamp(byte[] rgba, int i) {
+        final byte bt = rgba[i];
+        if (bt == (byte) 0xFF) {
+            rgba[i] = (byte) 0xFE;
+        } else if (bt == (byte) 0x01 || bt == (byte) 0x00) {
+            rgba[i] = (byte) 0x02;
+        }
+    }
+
+    private static Texels fallback(int sourceWidth, int sourceHeight) {
+        return new Texels(1, 1, sourceWidth, sourceHeight, ByteBuffer.allocateDirect(4).put(new byte[] { 0, 0, 0, -1 }).flip(), false);
+    }
+
+    private static ByteBuffer acquireBuffer(int size) {
+        if (size > MAX_POOLED_BUFFER) {
+            return ByteBuffer.allocateDirect(size);
+        }
+        final int capacity = Math.max(Integer.highestOneBit(size - 1) << 1, 4);
+        synchronized (BUFFER_POOL) {
+            final Deque<ByteBuffer> buffers = BUFFER_POOL.get(capacity);
+            if (buffers != null && !buffers.isEmpty()) {
+                pooledBytes -= capacity;
+                return buffers.pop().clear().limit(size);
+            }
+        }
+        return ByteBuffer.allocateDirect(capacity).limit(size);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if (capacity > MAX_POOLED_BUFFER || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        synchronized (BUFFER_POOL) {
+            if (pooledBytes + capacity <= MAX_POOLED_BYTES) {
+                BUFFER_POOL.computeIfAbsent(capacity, c -> new ArrayDeque<>()).push(buffer);
+                pooledBytes += capacity;
+            }
+        }
+    }
+}
@@ -69,7 +69,7 @@ class VM00Base {
     protected final ThreadsafeSortedMap<Vertex, Set<VertexManifestation>> vertexLinkedToPositionInFile = new ThreadsafeSortedMap<>();
 
     // 1 Vertex kann keinem oder mehreren Subfiles angehören
-    protected final ThreadsafeSortedMap<Vertex, Set<GData1>> vertexLinkedToSubfile = new ThreadsafeSortedMap<>();
+    protected final ThreadsafeHashMap<Vertex, Set<GData1>> vertexLinkedToSubfile = new ThreadsafeHashMap<>();
 
     // Auf Dateiebene: 1 Vertex kann an mehreren Stellen (GData1-5 + position)
     // manifestiert sein, ist er auch im Subfile, so gibt VertexInfo dies an
@@ -80,6 +80,15 @@ class VM00Base {
         return lineLinkedToVertices;
     }
 
+    /**
+     * Undirected edge table: the lines, condlines (without their control
+     * points) and faces (with the diagonals of quads), which connect two
+     * vertices. A face appears once for every pair of its corners, like in
+     * {@code vertexLinkedToPositionInFile}. Guarded by the manifestation lock
+     * for writes, the arrays are never modified.
+     */
+    protected final ThreadsafeHashMap<VertexPair, GData[]> edgeLinkedToData = new ThreadsafeHashMap<>();
+
     private final ThreadsafeSortedMap<Vertex, float[]> vertexLinkedToNormalCACHE = new ThreadsafeSortedMap<>();
     protected final ThreadsafeHashMap<GData, float[]> dataLinkedToNormalCACHE = new ThreadsafeHashMap<>();
 
@@ -90,18 +99,23 @@ class VM00Base {
     protected final ThreadsafeHashMap<GData3, Vertex[]> triangles = new ThreadsafeHashMap<>();
     protected final ThreadsafeHashMap<GData4, Vertex[]> quads = new ThreadsafeHashMap<>();
     protected final ThreadsafeHashMap<GData5, Vertex[]> condlines = new ThreadsafeHashMap<>();
+    /** Picking structure over {@link #triangles} and {@link #quads} */
+    protected final SurfaceBvh surfaceBvh = new SurfaceBvh();
 
     protected final Vertex[] vArray = new Vertex[4];
     protected final VertexManifestation[] vdArray = new VertexManifestation[4];
 
-    protected final Set<Vertex> selectedVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
+    /** Counts the changes of the selection (used to detect outdated render buffers) */
+    private final AtomicInteger selectionRevision = new AtomicInteger(0);
+
+    protected final Set<Vertex> selectedVertices = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeSortedMap<>()), selectionRevision);
 
-    protected final Set<GData> selectedData = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData1> selectedSubfiles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData2> selectedLines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData3> selectedTriangles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData4> selectedQuads = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData5> selectedCondlines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+    protected final Set<GData> selectedData = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeHashMap<>()), selectionRevision);
+    protected final Set<GData1> selectedSubfiles = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeHashMap<>()), selectionRevision);
+    protected final Set<GData2> selectedLines = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeHashMap<>()), selectionRevision);
+    protected final Set<GData3> selectedTriangles = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeHashMap<>()), selectionRevision);
+    protected final Set<GData4> selectedQuads = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeHashMap<>()), selectionRevision);
+    protected final Set<GData5> selectedCondlines = new SelectionSet<>(Collections.newSetFromMap(new ThreadsafeHashMap<>()), selectionRevision);
 
     protected final Set<Vertex> backupSelectedVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
 
@@ -133,6 +147,8 @@ class VM00Base {
 
     private boolean modified = false;
     private boolean updated = true;
+    /** Counts the changes of the data (used to detect outdated render buffers) */
+    private volatile int revision = 0;
 
     private final AtomicBoolean skipSyncWithTextEditor = new AtomicBoolean(false);
 
@@ -152,6 +168,9 @@ class VM00Base {
     private volatile AtomicInteger openThreads = new AtomicInteger(0);
     private volatile Lock lock = new ReentrantLock();
     private volatile Lock manifestationLock = new ReentrantLock();
+    /** The geometry which the 3D views of this file share (see GL33GeometrySnapshot) */
+    private volatile GL33GeometrySnapshot geometrySnapshot = null;
+    private final Lock geometryLock = new ReentrantLock();
 
     protected VM00Base(DatFile linkedDatFile) {
         this.linkedDatFile = linkedDatFile;
@@ -161,7 +180,10 @@ class VM00Base {
         this.updated = updated;
         if (updated) {
             ViewIdleManager.renderLDrawStandard[0].set(true);
+        } else {
+            revision++;
         }
+        GL33RenderScheduler.requestRender(linkedDatFile);
     }
 
     public final synchronized void setModifiedNoSync() {
@@ -179,12 +201,31 @@ class VM00Base {
             syncWithTextEditors(addHistory);
         }
         this.modified = modified;
+        GL33RenderScheduler.requestRender(linkedDatFile);
     }
 
     public final synchronized boolean isUpdated() {
         return updated;
     }
 
+    public final int getRevision() {
+        return revision;
+    }
+
+    public final int getSelectionRevision() {
+        return selectionRevision.get();
+    }
+
+    /** Counts a change of the hide/show state as a change of the data */
+    protected final synchronized void visibilityChanged() {
+        revision++;
+    }
+
+    /** Counts an added or removed line (the text editor does not call {@link #setUpdated(boolean)} with {@code false}) */
+    protected final synchronized void dataChanged() {
+        revision++;
+    }
+
     protected final String bigDecimalToString(BigDecimal bd) {
         String result;
         if (bd.compareTo(BigDecimal.ZERO) == 0)
@@ -541,6 +582,7 @@ class VM00Base {
                 }
             }
             hiddenData.addAll(tmpDataToHide);
+            visibilityChanged();
         }
     }
 
@@ -654,6 +696,7 @@ class VM00Base {
     public final synchronized boolean remove(final GData gdata) {
         if (gdata == null)
             return false;
+        dataChanged();
         final Set<VertexInfo> lv = lineLinkedToVertices.get(gdata);
         Set<VertexManifestation> vd;
         getManifestationLock().lock();
@@ -691,7 +734,7 @@ class VM00Base {
                     }
                     break;
                 case 2:
-                    lines.remove(linkedData);
+                    unlinkEdges(linkedData, lines.remove(linkedData));
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -700,7 +743,8 @@ class VM00Base {
                     }
                     break;
                 case 3:
-                    triangles.remove(linkedData);
+                    unlinkEdges(linkedData, triangles.remove(linkedData));
+                    surfaceBvh.remove(linkedData);
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -710,7 +754,8 @@ class VM00Base {
                     }
                     break;
                 case 4:
-                    quads.remove(linkedData);
+                    unlinkEdges(linkedData, quads.remove(linkedData));
+                    surfaceBvh.remove(linkedData);
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -721,7 +766,7 @@ class VM00Base {
                     }
                     break;
                 case 5:
-                    condlines.remove(linkedData);
+                    unlinkEdges(linkedData, condlines.remove(linkedData));
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -744,7 +789,7 @@ class VM00Base {
             }
             break;
         case 2: // Line
-            lines.remove(gdata);
+            unlinkEdges(gdata, lines.remove(gdata));
             lineLinkedToVertices.remove(gdata);
             if (lv == null)
                 break;
@@ -758,7 +803,8 @@ class VM00Base {
             }
             break;
         case 3: // Triangle
-            triangles.remove(gdata);
+            unlinkEdges(gdata, triangles.remove(gdata));
+            surfaceBvh.remove(gdata);
             lineLinkedToVertices.remove(gdata);
             if (lv == null)
                 break;
@@ -772,7 +818,8 @@ class VM00Base {
             }
             break;
         case 4: // Quad
-            quads.remove(gdata);
+            unlinkEdges(gdata, quads.remove(gdata));
+            surfaceBvh.remove(gdata);
             lineLinkedToVertices.remove(gdata);
             if (lv == null)
                 break;
@@ -786,7 +833,7 @@ class VM00Base {
             }
             break;
         case 5: // Optional Line
-            condlines.remove(gdata);
+            unlinkEdges(gdata, condlines.remove(gdata));
             lineLinkedToVertices.remove(gdata);
             if (lv == null)
                 break;
@@ -1037,11 +1084,11 @@ class VM00Base {
                 GData2 newLin = null;
                 switch (mani.position()) {
                 case 0:
-                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, newVertex.xp, newVertex.yp, newVertex.zp, oldLin.x2p, oldLin.y2p, oldLin.z2p, oldLin.parent,
+                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, newVertex.xp(), newVertex.yp(), newVertex.zp(), oldLin.x2p, oldLin.y2p, oldLin.z2p, oldLin.parent,
                             linkedDatFile, oldLin.isLine);
                     break;
                 case 1:
-                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, oldLin.x1p, oldLin.y1p, oldLin.z1p, newVertex.xp, newVertex.yp, newVertex.zp, oldLin.parent,
+                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, oldLin.x1p, oldLin.y1p, oldLin.z1p, newVertex.xp(), newVertex.yp(), newVertex.zp(), oldLin.parent,
                             linkedDatFile, oldLin.isLine);
                     break;
                 default:
@@ -1201,11 +1248,11 @@ class VM00Base {
                 GData2 newLin = null;
                 switch (mani.position()) {
                 case 0:
-                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, newVertex.xp, newVertex.yp, newVertex.zp, oldLin.x2p, oldLin.y2p, oldLin.z2p, oldLin.parent,
+                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, newVertex.xp(), newVertex.yp(), newVertex.zp(), oldLin.x2p, oldLin.y2p, oldLin.z2p, oldLin.parent,
                             linkedDatFile, oldLin.isLine);
                     break;
                 case 1:
-                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, oldLin.x1p, oldLin.y1p, oldLin.z1p, newVertex.xp, newVertex.yp, newVertex.zp, oldLin.parent,
+                    newLin = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, oldLin.x1p, oldLin.y1p, oldLin.z1p, newVertex.xp(), newVertex.yp(), newVertex.zp(), oldLin.parent,
                             linkedDatFile, oldLin.isLine);
                     break;
                 default:
@@ -1335,7 +1382,8 @@ class VM00Base {
         if (vertex == null) {
             vertex = new Vertex(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
         }
-        final GData0 vertexTag = new GData0("0 !LPE VERTEX " + bigDecimalToString(vertex.xp) + " " + bigDecimalToString(vertex.yp) + " " + bigDecimalToString(vertex.zp), View.DUMMY_REFERENCE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$)
+        dataChanged();
+        final GData0 vertexTag = new GData0("0 !LPE VERTEX " + bigDecimalToString(vertex.xp()) + " " + bigDecimalToString(vertex.yp()) + " " + bigDecimalToString(vertex.zp()), View.DUMMY_REFERENCE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$)
         getManifestationLock().lock();
         Set<VertexManifestation> manifestations = vertexLinkedToPositionInFile.computeIfAbsent(vertex, v -> Collections.newSetFromMap(new ThreadsafeHashMap<>()));
         manifestations.add(new VertexManifestation(0, vertexTag));
@@ -1772,15 +1820,92 @@ class VM00Base {
         return resetTimer;
     }
 
+    /**
+     * Adds the edges of a line, condline or face to the edge table. The
+     * manifestation lock has to be held by the caller.
+     */
+    protected final void linkEdges(GData gdata, Vertex[] verts) {
+        final int type = gdata.type();
+        if (type == 2 || type == 5) {
+            if (!verts[0].equals(verts[1])) {
+                linkEdge(VertexPair.of(verts[0], verts[1]), gdata);
+            }
+        } else if (type == 4 || type == 3 && ((GData3) gdata).isTriangle) {
+            for (int i = 0; i < verts.length; i++) {
+                for (int j = i + 1; j < verts.length; j++) {
+                    if (!verts[i].equals(verts[j])) {
+                        linkEdge(VertexPair.of(verts[i], verts[j]), gdata);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the edges of a line, condline or face from the edge table. The
+     * manifestation lock has to be held by the caller.
+     */
+    protected final void unlinkEdges(GData gdata, Vertex[] verts) {
+        if (verts == null) {
+            return;
+        }
+        for (int i = 0; i < verts.length; i++) {
+            for (int j = i + 1; j < verts.length; j++) {
+                if (!verts[i].equals(verts[j])) {
+                    unlinkEdge(VertexPair.of(verts[i], verts[j]), gdata);
+                }
+            }
+        }
+    }
+
+    private void linkEdge(VertexPair edge, GData gdata) {
+        final GData[] linked = edgeLinkedToData.get(edge);
+        if (linked == null) {
+            edgeLinkedToData.put(edge, new GData[] { gdata });
+        } else {
+            final GData[] result = Arrays.copyOf(linked, linked.length + 1);
+            result[linked.length] = gdata;
+            edgeLinkedToData.put(edge, result);
+        }
+    }
+
+    private void unlinkEdge(VertexPair edge, GData gdata) {
+        final GData[] linked = edgeLinkedToData.get(edge);
+        if (linked == null) {
+            return;
+        }
+        int count = 0;
+        for (GData g : linked) {
+            if (g != gdata) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            edgeLinkedToData.remove(edge);
+        } else if (count < linked.length) {
+            final GData[] result = new GData[count];
+            int i = 0;
+            for (GData g : linked) {
+                if (g != gdata) {
+                    result[i] = g;
+                    i++;
+                }
+            }
+            edgeLinkedToData.put(edge, result);
+        }
+    }
+
     public final Set<Vertex> getVertices() {
         return vertexLinkedToPositionInFile.keySet();
     }
 
     public final synchronized void clear() {
         final Editor3DWindow win = Editor3DWindow.getWindow();
+        dataChanged();
         vertexCountInSubfile.clear();
         getManifestationLock().lock();
         vertexLinkedToPositionInFile.clear();
+        edgeLinkedToData.clear();
         getManifestationLock().unlock();
         vertexLinkedToSubfile.clear();
         lineLinkedToVertices.clear();
@@ -1788,6 +1913,7 @@ class VM00Base {
         lines.clear();
         triangles.clear();
         quads.clear();
+        surfaceBvh.clear();
         condlines.clear();
         selectedItemIndex = -1;
         win.disableSelectionTab();
@@ -1808,4 +1934,16 @@ class VM00Base {
     public Lock getManifestationLock() {
         return manifestationLock;
     }
+
+    final Lock getGeometryLock() {
+        return geometryLock;
+    }
+
+    final GL33GeometrySnapshot getGeometrySnapshot() {
+        return geometrySnapshot;
+    }
+
+    final void setGeometrySnapshot(GL33GeometrySnapshot geometrySnapshot) {
+        this.geometrySnapshot = geometrySnapshot;
+    }
 }
@@ -68,6 +68,7 @@ class VM01Select extends VM00Snapshot {
         selectedCondlines.clear();
         lastSelectedVertex = null;
         GDataCSG.clearSelection(linkedDatFile);
+        GL33RenderScheduler.requestRender(linkedDatFile);
     }
 
     public synchronized void clearSelection2() {
@@ -85,6 +86,7 @@ class VM01Select extends VM00Snapshot {
         selectedCondlines.clear();
         lastSelectedVertex = null;
         GDataCSG.clearSelection(linkedDatFile);
+        GL33RenderScheduler.requestRender(linkedDatFile);
     }
 
     public synchronized void selectAll(SelectorSettings ss, boolean includeHidden) {
@@ -701,6 +703,7 @@ class VM01Select extends VM00Snapshot {
                 break;
             }
         }
+        GL33RenderScheduler.requestRender(linkedDatFile);
     }
 
     public void reSelectSubFiles() {
@@ -28,7 +28,6 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
@@ -71,6 +70,9 @@ class VM01SelectHelper extends VM01Select {
     public synchronized boolean selectVertices(final Composite3D c3d, boolean addSomething, boolean forceRayTest) {
         final boolean noTrans = MiscToggleToolItem.hasNoTransparentSelection();
         final boolean noCondlineVerts = !c3d.isShowingCondlineControlPoints();
+        if (!c3d.isShowingHiddenVertices()) {
+            surfaceBvh.update(triangles, quads);
+        }
         if (!(c3d.getKeys().isCtrlPressed() || (Cocoa.IS_COCOA && c3d.getKeys().isCmdPressed())) && !addSomething || addSomething) {
             clearSelection2();
         }
@@ -110,106 +112,23 @@ class VM01SelectHelper extends VM01Select {
                 }
             } else { // Multithreaded selection for many faces
                 backupSelection();
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        Vector4f result = new Vector4f();
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
-                            if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
-                                if (dialogCanceled.get()) return;
-                                selectVerticesHelper(c3d, vertex, selectionDepth, powerRay, noTrans, needRayTest);
-                            }
+                final WorkerPool.Job job = WorkerPool.newJob();
+                job.parallelFor(0, verts.length, (s, e) -> {
+                    final PowerRay powerRay = new PowerRay();
+                    Vector4f result = new Vector4f();
+                    for (int k = s; k < e; k++) {
+                        Vertex vertex = verts[k];
+                        if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                            continue;
+                        MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
+                        if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
+                            if (job.isCancelled()) return;
+                            selectVerticesHelper(c3d, vertex, selectionDepth, powerRay, noTrans, needRayTest);
                         }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
-                    }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
-                    {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive()) {
-                                                isRunning = true;
-                                            }
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        restoreSelection();
-                                    } else {
-                                        backupSelectionClear();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    } catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
                     }
-                    linkedDatFile.setDrawSelection(true);
-                }
+                });
+                awaitSelection(job, true);
             }
         } else {
             selectionDepth = new Vector4f();
@@ -250,121 +169,39 @@ class VM01SelectHelper extends VM01Select {
                 }
             } else { // Multithreaded selection for many, many faces
                 backupSelection();
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        float[][] a = new float[3][3];
-                        float[] b = new float[3];
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            a[0][0] = selectionWidth.x;
-                            a[1][0] = selectionWidth.y;
-                            a[2][0] = selectionWidth.z;
-
-                            a[0][1] = selectionHeight.x;
-                            a[1][1] = selectionHeight.y;
-                            a[2][1] = selectionHeight.z;
-
-                            a[0][2] = selectionDepth.x;
-                            a[1][2] = selectionDepth.y;
-                            a[2][2] = selectionDepth.z;
-
-                            b[0] = vertex.x - selectionStart.x;
-                            b[1] = vertex.y - selectionStart.y;
-                            b[2] = vertex.z - selectionStart.z;
-                            float[] c = MathHelper.gaussianElimination(a, b);
-                            if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
-                                if (dialogCanceled.get()) return;
-                                selectVerticesHelper(c3d, vertex, selectionDepth, powerRay, noTrans, needRayTest);
-                            }
+                final WorkerPool.Job job = WorkerPool.newJob();
+                job.parallelFor(0, verts.length, (s, e) -> {
+                    final PowerRay powerRay = new PowerRay();
+                    float[][] a = new float[3][3];
+                    float[] b = new float[3];
+                    for (int k = s; k < e; k++) {
+                        Vertex vertex = verts[k];
+                        if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                            continue;
+                        a[0][0] = selectionWidth.x;
+                        a[1][0] = selectionWidth.y;
+                        a[2][0] = selectionWidth.z;
+
+                        a[0][1] = selectionHeight.x;
+                        a[1][1] = selectionHeight.y;
+                        a[2][1] = selectionHeight.z;
+
+                        a[0][2] = selectionDepth.x;
+                        a[1][2] = selectionDepth.y;
+                        a[2][2] = selectionDepth.z;
+
+                        b[0] = vertex.x - selectionStart.x;
+                        b[1] = vertex.y - selectionStart.y;
+                        b[2] = vertex.z - selectionStart.z;
+                        float[] c = MathHelper.gaussianElimination(a, b);
+                        if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
+                            if (job.isCancelled()) return;
+                            selectVerticesHelper(c3d, vertex, selectionDepth, powerRay, noTrans, needRayTest);
                         }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
                     }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
-                    }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
-                    {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive())
-                                                isRunning = true;
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        restoreSelection();
-                                    } else {
-                                        backupSelectionClear();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    } catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    linkedDatFile.setDrawSelection(true);
-                }
+                });
+                awaitSelection(job, true);
             }
         }
         if (addSomething) {
@@ -495,6 +332,9 @@ class VM01SelectHelper extends VM01Select {
     private synchronized void selectVertices2(final Composite3D c3d) {
         final boolean noTrans = MiscToggleToolItem.hasNoTransparentSelection();
         final boolean noCondlineVerts = !c3d.isShowingCondlineControlPoints();
+        if (!c3d.isShowingHiddenVertices()) {
+            surfaceBvh.update(triangles, quads);
+        }
 
         final Vector4f selectionStart = new Vector4f(c3d.getSelectionStart());
         final Vector4f selectionWidth = new Vector4f(c3d.getSelectionWidth());
@@ -527,103 +367,23 @@ class VM01SelectHelper extends VM01Select {
                     }
                 }
             } else { // Multithreaded selection for many faces
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        Vector4f result = new Vector4f();
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
-                            if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
-                                if (dialogCanceled.get()) return;
-                                selectVertices2Helper(c3d, vertex, selectionDepth, powerRay, noTrans);
-                            }
+                final WorkerPool.Job job = WorkerPool.newJob();
+                job.parallelFor(0, verts.length, (s, e) -> {
+                    final PowerRay powerRay = new PowerRay();
+                    Vector4f result = new Vector4f();
+                    for (int k = s; k < e; k++) {
+                        Vertex vertex = verts[k];
+                        if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                            continue;
+                        MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
+                        if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
+                            if (job.isCancelled()) return;
+                            selectVertices2Helper(c3d, vertex, selectionDepth, powerRay, noTrans);
                         }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
                     }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
-                    }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
-                    {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive())
-                                                isRunning = true;
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        clearSelection2();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    } catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    linkedDatFile.setDrawSelection(true);
-                }
+                });
+                awaitSelection(job, false);
             }
         } else {
             selectionDepth = new Vector4f();
@@ -664,128 +424,102 @@ class VM01SelectHelper extends VM01Select {
                 }
             } else { // Multithreaded selection for many faces
                 backupSelection();
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        float[][] a = new float[3][3];
-                        float[] b = new float[3];
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            a[0][0] = selectionWidth.x;
-                            a[1][0] = selectionWidth.y;
-                            a[2][0] = selectionWidth.z;
-
-                            a[0][1] = selectionHeight.x;
-                            a[1][1] = selectionHeight.y;
-                            a[2][1] = selectionHeight.z;
-
-                            a[0][2] = selectionDepth.x;
-                            a[1][2] = selectionDepth.y;
-                            a[2][2] = selectionDepth.z;
-
-                            b[0] = vertex.x - selectionStart.x;
-                            b[1] = vertex.y - selectionStart.y;
-                            b[2] = vertex.z - selectionStart.z;
-                            float[] c = MathHelper.gaussianElimination(a, b);
-                            if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
-                                if (dialogCanceled.get()) return;
-                                selectVertices2Helper(c3d, vertex, selectionDepth, powerRay, noTrans);
-                            }
+                final WorkerPool.Job job = WorkerPool.newJob();
+                job.parallelFor(0, verts.length, (s, e) -> {
+                    final PowerRay powerRay = new PowerRay();
+                    float[][] a = new float[3][3];
+                    float[] b = new float[3];
+                    for (int k = s; k < e; k++) {
+                        Vertex vertex = verts[k];
+                        if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                            continue;
+                        a[0][0] = selectionWidth.x;
+                        a[1][0] = selectionWidth.y;
+                        a[2][0] = selectionWidth.z;
+
+                        a[0][1] = selectionHeight.x;
+                        a[1][1] = selectionHeight.y;
+                        a[2][1] = selectionHeight.z;
+
+                        a[0][2] = selectionDepth.x;
+                        a[1][2] = selectionDepth.y;
+                        a[2][2] = selectionDepth.z;
+
+                        b[0] = vertex.x - selectionStart.x;
+                        b[1] = vertex.y - selectionStart.y;
+                        b[2] = vertex.z - selectionStart.z;
+                        float[] c = MathHelper.gaussianElimination(a, b);
+                        if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
+                            if (job.isCancelled()) return;
+                            selectVertices2Helper(c3d, vertex, selectionDepth, powerRay, noTrans);
                         }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
                     }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
+                });
+                awaitSelection(job, true);
+            }
+        }
+    }
+
+    /**
+     * Waits for the parallel selection. A progress dialog is shown when this
+     * takes more than five seconds.
+     *
+     * @param restoreOnCancel
+     *            {@code true} if the backup of the selection should be
+     *            restored on cancel, {@code false} if the selection should be
+     *            cleared
+     */
+    private void awaitSelection(final WorkerPool.Job job, final boolean restoreOnCancel) {
+        // The callers are synchronized, wait() releases their monitor while the workers are running
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            try {
+                this.wait(10);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new LDPartEditorException(ie);
+            }
+        }
+        if (job.isDone()) return;
+        linkedDatFile.setDrawSelection(false);
+        try
+        {
+            new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
+            {
+                @Override
+                public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
+                {
                     try
                     {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive())
-                                                isRunning = true;
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        restoreSelection();
-                                    } else {
-                                        backupSelectionClear();
-                                    }
-                                    m.done();
-                                }
+                        m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
+                        job.awaitOrCancel(m);
+                    }
+                    finally
+                    {
+                        if (m.isCanceled()) {
+                            if (restoreOnCancel) {
+                                restoreSelection();
+                            } else {
+                                clearSelection2();
                             }
-                        });
-                    }catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
+                        } else if (restoreOnCancel) {
+                            backupSelectionClear();
+                        }
+                        m.done();
                     }
-                    linkedDatFile.setDrawSelection(true);
                 }
-            }
+            });
+        } catch (InvocationTargetException ite) {
+            NLogger.error(VM01SelectHelper.class, ite);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new LDPartEditorException(ie);
         }
+        linkedDatFile.setDrawSelection(true);
     }
 
     private void selectVerticesHelper(final Composite3D c3d, final Vertex vertex, final Vector4f rayDirection, PowerRay powerRay, boolean noTrans, boolean needRayTest) {
-        final Set<GData3> tris = triangles.keySet();
-        final Set<GData4> qs = quads.keySet();
         if (c3d.isShowingHiddenVertices()) {
             if (selectedVertices.contains(vertex)) {
                 if (needRayTest || c3d.getKeys().isAltPressed())  {
@@ -796,30 +530,7 @@ class VM01SelectHelper extends VM01Select {
                 if (WorkingTypeToolItem.getWorkingType() == ObjectMode.VERTICES) lastSelectedVertex = vertex;
             }
         } else {
-            final Vector4f point = vertex.toVector4f();
-            boolean vertexIsShown = true;
-            for (GData3 triangle : tris) {
-                if (noTrans && triangle.a < 1f || hiddenData.contains(triangle))
-                    continue;
-                Vertex[] tverts = triangles.get(triangle);
-                if (!tverts[0].equals(vertex) && !tverts[1].equals(vertex) && !tverts[2].equals(vertex) && powerRay.triangleIntersect(point, rayDirection, tverts[0], tverts[1], tverts[2])) {
-                    vertexIsShown = false;
-                    break;
-                }
-            }
-            if (vertexIsShown) {
-                for (GData4 quad : qs) {
-                    if (noTrans && quad.a < 1f || hiddenData.contains(quad))
-                        continue;
-                    Vertex[] tverts = quads.get(quad);
-                    if (!tverts[0].equals(vertex) && !tverts[1].equals(vertex) && !tverts[2].equals(vertex) && !tverts[3].equals(vertex) && (powerRay.triangleIntersect(point, rayDirection, tverts[0], tverts[1], tverts[2])
-                                || powerRay.triangleIntersect(point, rayDirection, tverts[2], tverts[3], tverts[0]))) {
-                        vertexIsShown = false;
-                        break;
-                    }
-                }
-            }
-            if (vertexIsShown) {
+            if (!isOccluded(vertex, rayDirection, powerRay, noTrans)) {
                 if (selectedVertices.contains(vertex)) {
                     if (needRayTest || c3d.getKeys().isAltPressed()) {
                         selectedVertices.remove(vertex);
@@ -833,66 +544,41 @@ class VM01SelectHelper extends VM01Select {
     }
 
     private void selectVertices2Helper(final Composite3D c3d, final Vertex vertex, final Vector4f rayDirection, PowerRay powerRay, boolean noTrans) {
-        final Set<GData3> tris = triangles.keySet();
-        final Set<GData4> qs = quads.keySet();
         if (c3d.isShowingHiddenVertices()) {
             selectedVerticesForSubfile.add(vertex);
         } else {
-            final Vector4f point = vertex.toVector4f();
-            boolean vertexIsShown = true;
-            for (GData3 triangle : tris) {
-                if (noTrans && triangle.a < 1f || hiddenData.contains(triangle))
-                    continue;
-                Vertex[] tverts = triangles.get(triangle);
-                if (!tverts[0].equals(vertex) && !tverts[1].equals(vertex) && !tverts[2].equals(vertex) && powerRay.triangleIntersect(point, rayDirection, tverts[0], tverts[1], tverts[2])) {
-                    vertexIsShown = false;
-                    break;
-                }
-            }
-            if (vertexIsShown) {
-                for (GData4 quad : qs) {
-                    if (noTrans && quad.a < 1f || hiddenData.contains(quad))
-                        continue;
-                    Vertex[] tverts = quads.get(quad);
-                    if (!tverts[0].equals(vertex) && !tverts[1].equals(vertex) && !tverts[2].equals(vertex) && !tverts[3].equals(vertex) && (powerRay.triangleIntersect(point, rayDirection, tverts[0], tverts[1], tverts[2])
-                                || powerRay.triangleIntersect(point, rayDirection, tverts[2], tverts[3], tverts[0]))) {
-                        vertexIsShown = false;
-                        break;
-                    }
-                }
-            }
-            if (vertexIsShown) {
+            if (!isOccluded(vertex, rayDirection, powerRay, noTrans)) {
                 selectedVerticesForSubfile.add(vertex);
             }
         }
     }
 
     private boolean isVertexVisible(Composite3D c3d, Vertex vertex, Vector4f rayDirection, boolean noTrans) {
-        if (!c3d.isShowingHiddenVertices()) {
-            final Vector4f point = vertex.toVector4f();
-            Vertex[] triQuadVerts;
-            for (Entry<GData3, Vertex[]> entry : triangles.entrySet()) {
-                GData3 triangle = entry.getKey();
+        return c3d.isShowingHiddenVertices() || !isOccluded(vertex, rayDirection, powerRay, noTrans);
+    }
+
+    /**
+     * @return {@code true} if a (visible) triangle or quad is between the vertex
+     *         and the viewer
+     */
+    private boolean isOccluded(final Vertex vertex, final Vector4f rayDirection, final PowerRay powerRay, final boolean noTrans) {
+        final Vector4f point = vertex.toVector4f();
+        // The same ray origin as in PowerRay.triangleIntersect(...)
+        return surfaceBvh.visitRay(point.x + rayDirection.x * 100f, point.y + rayDirection.y * 100f, point.z + rayDirection.z * 100f,
+                rayDirection.x, rayDirection.y, rayDirection.z, true, (gdata, tverts) -> {
+            if (gdata.type() == 3) {
+                GData3 triangle = (GData3) gdata;
                 if (noTrans && triangle.a < 1f || hiddenData.contains(triangle))
-                    continue;
-                triQuadVerts = entry.getValue();
-                if (!triQuadVerts[0].equals(vertex) && !triQuadVerts[1].equals(vertex) && !triQuadVerts[2].equals(vertex) && powerRay.triangleIntersect(point, rayDirection, triQuadVerts[0], triQuadVerts[1], triQuadVerts[2])) {
                     return false;
-                }
-            }
-
-            for (Entry<GData4, Vertex[]> entry : quads.entrySet()) {
-                GData4 quad = entry.getKey();
+                return !tverts[0].equals(vertex) && !tverts[1].equals(vertex) && !tverts[2].equals(vertex) && powerRay.triangleIntersect(point, rayDirection, tverts[0], tverts[1], tverts[2]);
+            } else {
+                GData4 quad = (GData4) gdata;
                 if (noTrans && quad.a < 1f || hiddenData.contains(quad))
-                    continue;
-                triQuadVerts = entry.getValue();
-                if (!triQuadVerts[0].equals(vertex) && !triQuadVerts[1].equals(vertex) && !triQuadVerts[2].equals(vertex) && !triQuadVerts[3].equals(vertex) && (powerRay.triangleIntersect(point, rayDirection, triQuadVerts[0], triQuadVerts[1], triQuadVerts[2])
-                            || powerRay.triangleIntersect(point, rayDirection, triQuadVerts[2], triQuadVerts[3], triQuadVerts[0]))) {
                     return false;
-                }
+                return !tverts[0].equals(vertex) && !tverts[1].equals(vertex) && !tverts[2].equals(vertex) && !tverts[3].equals(vertex) && (powerRay.triangleIntersect(point, rayDirection, tverts[0], tverts[1], tverts[2])
+                        || powerRay.triangleIntersect(point, rayDirection, tverts[2], tverts[3], tverts[0]));
             }
-        }
-        return true;
+        });
     }
 
     public synchronized void selectLines(Composite3D c3d, SelectorSettings sels) {
@@ -1592,32 +1278,47 @@ class VM01SelectHelper extends VM01Select {
         Vector4f rayDirection = (Vector4f) new Vector4f(zAxis4f.x, zAxis4f.y, zAxis4f.z, 0f).normalise();
         rayDirection.w = 1f;
 
-        Vertex[] triQuadVerts;
         Vector4f orig = perspective.get3DCoordinatesFromScreen(event.x, event.y);
         Vector4f point = new Vector4f(orig);
 
+        // Collect the surfaces on the ray first, the triangles are tested before the quads
+        final List<GData3> hitTriangles = new ArrayList<>();
+        final List<GData4> hitQuads = new ArrayList<>();
+        surfaceBvh.update(triangles, quads);
+        surfaceBvh.visitRay(orig.x, orig.y, orig.z, rayDirection.x, rayDirection.y, rayDirection.z, false, (gdata, verts) -> {
+            if (gdata.type() == 3) {
+                hitTriangles.add((GData3) gdata);
+            } else {
+                hitQuads.add((GData4) gdata);
+            }
+            return false;
+        });
+
+        Vertex[] triQuadVerts;
         double minDist = Double.MAX_VALUE;
         final double[] dist = new double[1];
         GData result = null;
-        for (Entry<GData3, Vertex[]> entry : triangles.entrySet()) {
-            GData3 triangle = entry.getKey();
+        for (GData3 triangle : hitTriangles) {
             if (hiddenData.contains(triangle))
                 continue;
             if (noTrans && triangle.a < 1f && !c3d.isShowingHiddenVertices())
                 continue;
-            triQuadVerts = entry.getValue();
+            triQuadVerts = triangles.get(triangle);
+            if (triQuadVerts == null)
+                continue;
             if (powerRay.triangleIntersect(orig, rayDirection, triQuadVerts[0], triQuadVerts[1], triQuadVerts[2], point, dist) && dist[0] < minDist) {
                 if (triangle.isTriangle) minDist = dist[0];
                 if (triangle.isTriangle || result == null) result = triangle;
             }
         }
-        for (Entry<GData4, Vertex[]> entry : quads.entrySet()) {
-            GData4 quad = entry.getKey();
+        for (GData4 quad : hitQuads) {
             if (hiddenData.contains(quad))
                 continue;
             if (noTrans && quad.a < 1f && !c3d.isShowingHiddenVertices())
                 continue;
-            triQuadVerts = entry.getValue();
+            triQuadVerts = quads.get(quad);
+            if (triQuadVerts == null)
+                continue;
             if ((powerRay.triangleIntersect(orig, rayDirection, triQuadVerts[0], triQuadVerts[1], triQuadVerts[2], point, dist)
                     || powerRay.triangleIntersect(orig, rayDirection, triQuadVerts[2], triQuadVerts[3], triQuadVerts[0], point, dist)) && dist[0] < minDist) {
                 minDist = dist[0];
@@ -1866,9 +1567,9 @@ class VM01SelectHelper extends VM01Select {
                 BigDecimal sumY = BigDecimal.ZERO;
                 BigDecimal sumZ = BigDecimal.ZERO;
                 for (Vertex vertex : objectVertices) {
-                    sumX = sumX.add(vertex.xp);
-                    sumY = sumY.add(vertex.yp);
-                    sumZ = sumZ.add(vertex.zp);
+                    sumX = sumX.add(vertex.xp());
+                    sumY = sumY.add(vertex.yp());
+                    sumZ = sumZ.add(vertex.zp());
                 }
                 return new Vector3d(sumX.divide(c, Threshold.MC), sumY.divide(c, Threshold.MC), sumZ.divide(c, Threshold.MC));
             }
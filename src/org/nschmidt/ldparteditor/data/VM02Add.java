@@ -51,6 +51,7 @@ class VM02Add extends VM01SelectHelper {
             vertexTag = new GData0("0 !LPE VERTEX 0 0 0", View.DUMMY_REFERENCE); //$NON-NLS-1$
             vertex = new Vertex(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
         }
+        dataChanged();
         getManifestationLock().lock();
         Set<VertexManifestation> manifestations = vertexLinkedToPositionInFile.computeIfAbsent(vertex, v -> Collections.newSetFromMap(new ThreadsafeHashMap<>()));
         manifestations.add(new VertexManifestation(0, vertexTag));
@@ -62,6 +63,7 @@ class VM02Add extends VM01SelectHelper {
     }
 
     public synchronized GData0 addSubfileVertex(Vertex vertex, GData0 vertexTag, GData1 subfile) {
+        dataChanged();
         int vertexCount = vertexCountInSubfile.computeIfAbsent(subfile, s -> 0);
         vertexCount--;
         getManifestationLock().lock();
@@ -78,10 +80,12 @@ class VM02Add extends VM01SelectHelper {
     }
 
     public synchronized void add(GData gdata) {
+        dataChanged();
 
         final GData originalData = gdata;
         final boolean subVertex;
         final int max;
+        final Vertex[] previous;
         switch (gdata.type()) {
         case 2: // Line
             GData2 gd2 = (GData2) gdata;
@@ -105,16 +109,14 @@ class VM02Add extends VM01SelectHelper {
             } else {
                 if (subVertex) {
                     Matrix matrix = parent2.accurateProductMatrix;
-                    BigDecimal[] p1 = matrix.transform(gd2.x1p, gd2.y1p, gd2.z1p);
-                    BigDecimal[] p2 = matrix.transform(gd2.x2p, gd2.y2p, gd2.z2p);
-                    vArray[0] = new Vertex(p1[0], p1[1], p1[2], lv[0]);
-                    vArray[1] = new Vertex(p2[0], p2[1], p2[2], lv[1]);
+                    vArray[0] = new Vertex(gd2.x1p, gd2.y1p, gd2.z1p, matrix, lv[0]);
+                    vArray[1] = new Vertex(gd2.x2p, gd2.y2p, gd2.z2p, matrix, lv[1]);
                 } else {
                     vArray[0] = new Vertex(gd2.x1p, gd2.y1p, gd2.z1p, lv[0]);
                     vArray[1] = new Vertex(gd2.x2p, gd2.y2p, gd2.z2p, lv[1]);
                 }
             }
-            lines.put(gd2, Arrays.copyOf(vArray, 2));
+            previous = lines.put(gd2, Arrays.copyOf(vArray, 2));
             max = 2;
             break;
         case 3: // Triangle
@@ -143,19 +145,18 @@ class VM02Add extends VM01SelectHelper {
             } else {
                 if (subVertex) {
                     Matrix matrix = parent3.accurateProductMatrix;
-                    BigDecimal[] p1 = matrix.transform(gd3.x1p, gd3.y1p, gd3.z1p);
-                    BigDecimal[] p2 = matrix.transform(gd3.x2p, gd3.y2p, gd3.z2p);
-                    BigDecimal[] p3 = matrix.transform(gd3.x3p, gd3.y3p, gd3.z3p);
-                    vArray[0] = new Vertex(p1[0], p1[1], p1[2], tv[0]);
-                    vArray[1] = new Vertex(p2[0], p2[1], p2[2], tv[1]);
-                    vArray[2] = new Vertex(p3[0], p3[1], p3[2], tv[2]);
+                    vArray[0] = new Vertex(gd3.x1p, gd3.y1p, gd3.z1p, matrix, tv[0]);
+                    vArray[1] = new Vertex(gd3.x2p, gd3.y2p, gd3.z2p, matrix, tv[1]);
+                    vArray[2] = new Vertex(gd3.x3p, gd3.y3p, gd3.z3p, matrix, tv[2]);
                 } else {
                     vArray[0] = new Vertex(gd3.x1p, gd3.y1p, gd3.z1p, tv[0]);
                     vArray[1] = new Vertex(gd3.x2p, gd3.y2p, gd3.z2p, tv[1]);
                     vArray[2] = new Vertex(gd3.x3p, gd3.y3p, gd3.z3p, tv[2]);
                 }
             }
-            triangles.put(gd3, Arrays.copyOf(vArray, 3));
+            final Vertex[] triangleVertices = Arrays.copyOf(vArray, 3);
+            previous = triangles.put(gd3, triangleVertices);
+            surfaceBvh.add(gd3, triangleVertices);
             max = 3;
             break;
         case 4: // Quad
@@ -188,14 +189,10 @@ class VM02Add extends VM01SelectHelper {
             } else {
                 if (subVertex) {
                     Matrix matrix = parent4.accurateProductMatrix;
-                    BigDecimal[] p1 = matrix.transform(gd4.x1p, gd4.y1p, gd4.z1p);
-                    BigDecimal[] p2 = matrix.transform(gd4.x2p, gd4.y2p, gd4.z2p);
-                    BigDecimal[] p3 = matrix.transform(gd4.x3p, gd4.y3p, gd4.z3p);
-                    BigDecimal[] p4 = matrix.transform(gd4.x4p, gd4.y4p, gd4.z4p);
-                    vArray[0] = new Vertex(p1[0], p1[1], p1[2], qv[0]);
-                    vArray[1] = new Vertex(p2[0], p2[1], p2[2], qv[1]);
-                    vArray[2] = new Vertex(p3[0], p3[1], p3[2], qv[2]);
-                    vArray[3] = new Vertex(p4[0], p4[1], p4[2], qv[3]);
+                    vArray[0] = new Vertex(gd4.x1p, gd4.y1p, gd4.z1p, matrix, qv[0]);
+                    vArray[1] = new Vertex(gd4.x2p, gd4.y2p, gd4.z2p, matrix, qv[1]);
+                    vArray[2] = new Vertex(gd4.x3p, gd4.y3p, gd4.z3p, matrix, qv[2]);
+                    vArray[3] = new Vertex(gd4.x4p, gd4.y4p, gd4.z4p, matrix, qv[3]);
                 } else {
                     vArray[0] = new Vertex(gd4.x1p, gd4.y1p, gd4.z1p, qv[0]);
                     vArray[1] = new Vertex(gd4.x2p, gd4.y2p, gd4.z2p, qv[1]);
@@ -203,7 +200,9 @@ class VM02Add extends VM01SelectHelper {
                     vArray[3] = new Vertex(gd4.x4p, gd4.y4p, gd4.z4p, qv[3]);
                 }
             }
-            quads.put(gd4, Arrays.copyOf(vArray, 4));
+            final Vertex[] quadVertices = Arrays.copyOf(vArray, 4);
+            previous = quads.put(gd4, quadVertices);
+            surfaceBvh.add(gd4, quadVertices);
             max = 4;
             break;
         case 5: // Optional Line
@@ -236,14 +235,10 @@ class VM02Add extends VM01SelectHelper {
             } else {
                 if (subVertex) {
                     Matrix matrix = parent5.accurateProductMatrix;
-                    BigDecimal[] p1 = matrix.transform(gd5.x1p, gd5.y1p, gd5.z1p);
-                    BigDecimal[] p2 = matrix.transform(gd5.x2p, gd5.y2p, gd5.z2p);
-                    BigDecimal[] p3 = matrix.transform(gd5.x3p, gd5.y3p, gd5.z3p);
-                    BigDecimal[] p4 = matrix.transform(gd5.x4p, gd5.y4p, gd5.z4p);
-                    vArray[0] = new Vertex(p1[0], p1[1], p1[2], ov[0]);
-                    vArray[1] = new Vertex(p2[0], p2[1], p2[2], ov[1]);
-                    vArray[2] = new Vertex(p3[0], p3[1], p3[2], ov[2]);
-                    vArray[3] = new Vertex(p4[0], p4[1], p4[2], ov[3]);
+                    vArray[0] = new Vertex(gd5.x1p, gd5.y1p, gd5.z1p, matrix, ov[0]);
+                    vArray[1] = new Vertex(gd5.x2p, gd5.y2p, gd5.z2p, matrix, ov[1]);
+                    vArray[2] = new Vertex(gd5.x3p, gd5.y3p, gd5.z3p, matrix, ov[2]);
+                    vArray[3] = new Vertex(gd5.x4p, gd5.y4p, gd5.z4p, matrix, ov[3]);
                 } else {
                     vArray[0] = new Vertex(gd5.x1p, gd5.y1p, gd5.z1p, ov[0]);
                     vArray[1] = new Vertex(gd5.x2p, gd5.y2p, gd5.z2p, ov[1]);
@@ -251,16 +246,21 @@ class VM02Add extends VM01SelectHelper {
                     vArray[3] = new Vertex(gd5.x4p, gd5.y4p, gd5.z4p, ov[3]);
                 }
             }
-            condlines.put(gd5, Arrays.copyOf(vArray, 4));
+            previous = condlines.put(gd5, Arrays.copyOf(vArray, 4));
             max = 4;
             break;
         default:
             max = 0;
             subVertex = false;
+            previous = null;
             break;
         }
 
         getManifestationLock().lock();
+        if (max > 0) {
+            unlinkEdges(originalData, previous);
+            linkEdges(originalData, Arrays.copyOf(vArray, max));
+        }
         if (subVertex) {
             if (!vertexCountInSubfile.containsKey(gdata)) {
                 vertexCountInSubfile.put((GData1) gdata, 0);
@@ -38,6 +38,8 @@ import org.nschmidt.ldparteditor.text.DatParser;
 
 class VM03Adjacency extends VM02Add {
 
+    private static final GData[] NO_DATA = new GData[0];
+
     protected VM03Adjacency(DatFile linkedDatFile) {
         super(linkedDatFile);
     }
@@ -166,6 +168,14 @@ class VM03Adjacency extends VM02Add {
     }
 
     public GData2 hasEdge(Vertex v1, Vertex v2) {
+        if (!v1.equals(v2)) {
+            for (GData g : linkedData(v1, v2)) {
+                if (g.type() == 2 && lineLinkedToVertices.containsKey(g)) {
+                    return (GData2) g;
+                }
+            }
+            return null;
+        }
         Set<VertexManifestation> m1 = vertexLinkedToPositionInFile.get(v1);
         Set<VertexManifestation> m2 = vertexLinkedToPositionInFile.get(v2);
         if (m1 == null || m2 == null) {
@@ -183,6 +193,14 @@ class VM03Adjacency extends VM02Add {
     }
 
     public GData5 hasCondline(Vertex v1, Vertex v2) {
+        if (!v1.equals(v2)) {
+            for (GData g : linkedData(v1, v2)) {
+                if (g.type() == 5 && lineLinkedToVertices.containsKey(g)) {
+                    return (GData5) g;
+                }
+            }
+            return null;
+        }
         Set<VertexManifestation> m1 = vertexLinkedToPositionInFile.get(v1);
         Set<VertexManifestation> m2 = vertexLinkedToPositionInFile.get(v2);
         if (m1 == null || m2 == null) {
@@ -209,6 +227,17 @@ class VM03Adjacency extends VM02Add {
 
     public boolean hasCondlineAndNoEdge(Vertex v1, Vertex v2) {
         boolean hasCondline = false;
+        if (!v1.equals(v2)) {
+            for (GData g : linkedData(v1, v2)) {
+                final int type = g.type();
+                if (type == 5) {
+                    hasCondline = true;
+                } else if (type == 2) {
+                    return false;
+                }
+            }
+            return hasCondline;
+        }
         Set<VertexManifestation> m1 = vertexLinkedToPositionInFile.get(v1);
         Set<VertexManifestation> m2 = vertexLinkedToPositionInFile.get(v2);
         if (m1 == null || m2 == null) {
@@ -263,6 +292,15 @@ class VM03Adjacency extends VM02Add {
 
     public List<GData> linkedCommonFaces(Vertex v1, Vertex v2) {
         List<GData> result = new ArrayList<>();
+        if (!v1.equals(v2)) {
+            for (GData g : linkedData(v1, v2)) {
+                final int type = g.type();
+                if (type == 3 || type == 4) {
+                    result.add(g);
+                }
+            }
+            return result;
+        }
         Set<VertexManifestation> m1 = vertexLinkedToPositionInFile.get(v1);
         Set<VertexManifestation> m2 = vertexLinkedToPositionInFile.get(v2);
         if (m1 == null || m2 == null) {
@@ -284,6 +322,15 @@ class VM03Adjacency extends VM02Add {
         return result;
     }
 
+    /**
+     * Looks up the lines, condlines and faces which connect two different
+     * vertices in the edge table.
+     */
+    private GData[] linkedData(Vertex v1, Vertex v2) {
+        final GData[] result = edgeLinkedToData.get(VertexPair.of(v1, v2));
+        return result == null ? NO_DATA : result;
+    }
+
     public boolean isNeighbour(Vertex v1, Vertex v2) {
         Set<VertexManifestation> m1 = vertexLinkedToPositionInFile.get(v1);
         Set<VertexManifestation> m2 = vertexLinkedToPositionInFile.get(v2);
@@ -825,8 +872,8 @@ class VM03Adjacency extends VM02Add {
                 setModifiedNoSync();
             }
             for (Vertex vOld : singleVertices) {
-                Vertex vNew = new Vertex(onX ? vOld.xp.setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.xp, onY ? vOld.yp.setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.yp, onZ ? vOld.zp.setScale(coordsDecimalPlaces,
-                        RoundingMode.HALF_UP) : vOld.zp);
+                Vertex vNew = new Vertex(onX ? vOld.xp().setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.xp(), onY ? vOld.yp().setScale(coordsDecimalPlaces, RoundingMode.HALF_UP) : vOld.yp(), onZ ? vOld.zp().setScale(coordsDecimalPlaces,
+                        RoundingMode.HALF_UP) : vOld.zp());
                 changeVertexDirectFast(vOld, vNew, moveAdjacentData);
             }
 
@@ -258,8 +258,7 @@ class VM07PathTruder extends VM06Edger2 {
                             monitor.beginTask(I18n.VM_PATH_TRUDER, IProgressMonitor.UNKNOWN);
 
                             final GColour col16 = LDConfig.getColour16();
-                            final Thread[] threads = new Thread[1];
-                            threads[0] = new Thread(() -> {
+                            WorkerPool.run(() -> {
 
                                 if (monitor.isCanceled()) {
                                     return;
@@ -840,20 +839,7 @@ class VM07PathTruder extends VM06Edger2 {
                                         }
                                     }
                                 }
-                            });
-                            threads[0].start();
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                if (threads[0].isAlive())
-                                    isRunning = true;
-                            }
+                            }).awaitOrCancel(monitor);
                             if (monitor.isCanceled()) {
                                 selectedLines.addAll(originalSelection);
                                 selectedData.addAll(originalSelection);
@@ -872,8 +858,7 @@ class VM07PathTruder extends VM06Edger2 {
             }
         } else {
             final GColour col16 = LDConfig.getColour16();
-            final Thread[] threads = new Thread[1];
-            threads[0] = new Thread(() -> {
+            WorkerPool.run(() -> {
 
                 final GColour bodyColour = DatParser.validateColour(16, col16.getR(), col16.getG(), col16.getB(), 1f).createClone();
 
@@ -1422,20 +1407,7 @@ class VM07PathTruder extends VM06Edger2 {
                         }
                     }
                 }
-            });
-            threads[0].start();
-            boolean isRunning = true;
-            while (isRunning) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                isRunning = false;
-                if (threads[0].isAlive())
-                    isRunning = true;
-            }
+            }).await();
         }
 
         if (!syncWithEditor) {
@@ -147,64 +147,38 @@ class VM08SlicerPro extends VM07PathTruder {
                                 final Set<List<IntersectionInfo>> intersectionSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
 
                                 final int iterations = originSurfs.size();
-                                final int chunks = View.NUM_CORES;
-                                final Thread[] threads = new Thread[chunks];
 
                                 final String surfCount = "/" + iterations;//$NON-NLS-1$
                                 final AtomicInteger counter2 = new AtomicInteger(0);
 
-                                int lastend = 0;
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { lastend };
-                                    lastend = iterations / chunks * (j + 1);
-                                    final int[] end = new int[] { lastend };
-                                    if (j == chunks - 1) {
-                                        end[0] = iterations;
-                                    }
-                                    threads[j] = new Thread(() -> {
-                                        for (int k = start[0]; k < end[0]; k++) {
-                                            monitor.subTask(counter2.toString() + surfCount);
-                                            GData o = originSurfs.get(k);
-                                            /* Check if the monitor has been canceled */
-                                            if (monitor.isCanceled()) {
-                                                isCancelled[0] = 1;
-                                                return;
-                                            }
-                                            counter2.incrementAndGet();
-                                            for (GData t : targetSurfs) {
-                                                List<IntersectionInfo> ii = getIntersectionInfo(o, t, dirN, m, minv, pc);
-                                                if (!ii.isEmpty()) {
-                                                    intersectionSet.add(ii);
-                                                    switch (t.type()) {
-                                                    case 3:
-                                                        trisToDelete.add((GData3) t);
-                                                        break;
-                                                    case 4:
-                                                        quadsToDelete.add((GData4) t);
-                                                        break;
-                                                    default:
-                                                        break;
-                                                    }
+                                WorkerPool.parallelFor(0, iterations, (start, end) -> {
+                                    for (int k = start; k < end; k++) {
+                                        monitor.subTask(counter2.toString() + surfCount);
+                                        GData o = originSurfs.get(k);
+                                        /* Check if the monitor has been canceled */
+                                        if (monitor.isCanceled()) {
+                                            isCancelled[0] = 1;
+                                            return;
+                                        }
+                                        counter2.incrementAndGet();
+                                        for (GData t : targetSurfs) {
+                                            List<IntersectionInfo> ii = getIntersectionInfo(o, t, dirN, m, minv, pc);
+                                            if (!ii.isEmpty()) {
+                                                intersectionSet.add(ii);
+                                                switch (t.type()) {
+                                                case 3:
+                                                    trisToDelete.add((GData3) t);
+                                                    break;
+                                                case 4:
+                                                    quadsToDelete.add((GData4) t);
+                                                    break;
+                                                default:
+                                                    break;
                                                 }
                                             }
                                         }
-                                    });
-                                    threads[j].start();
-                                }
-                                boolean isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
                                     }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
-                                    }
-                                }
+                                }).awaitOrCancel(monitor);
                                 intersections.addAll(intersectionSet);
                             }
 
@@ -214,89 +188,63 @@ class VM08SlicerPro extends VM07PathTruder {
 
                             {
                                 final int iterations = intersections.size();
-                                final int chunks = View.NUM_CORES;
-                                final Thread[] threads = new Thread[chunks];
 
 
                                 final String maxIterations = "/" + iterations;//$NON-NLS-1$
                                 final AtomicInteger counter2 = new AtomicInteger(0);
 
-                                int lastend = 0;
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { lastend };
-                                    lastend = iterations / chunks * (j + 1);
-                                    final int[] end = new int[] { lastend };
-                                    if (j == chunks - 1) {
-                                        end[0] = iterations;
-                                    }
-                                    threads[j] = new Thread(() -> {
-                                        for (int k = start[0]; k < end[0]; k++) {
-                                            monitor.subTask(counter2.toString() + maxIterations);
-                                            List<IntersectionInfo> ii = intersections.get(k);
-                                            if (monitor.isCanceled()) {
-                                                isCancelled[0] = 2;
-                                                return;
+                                WorkerPool.parallelFor(0, iterations, (start, end) -> {
+                                    for (int k = start; k < end; k++) {
+                                        monitor.subTask(counter2.toString() + maxIterations);
+                                        List<IntersectionInfo> ii = intersections.get(k);
+                                        if (monitor.isCanceled()) {
+                                            isCancelled[0] = 2;
+                                            return;
+                                        }
+                                        counter2.incrementAndGet();
+                                        for (IntersectionInfo info : ii) {
+                                            final int pointsToTriangulate = info.getAllVertices().size();
+                                            final List<Vector3d> av = info.getAllVertices();
+
+                                            final float R;
+                                            final float G;
+                                            final float B;
+                                            final float A;
+                                            final int CN;
+                                            GData origin2 = info.getOrigin();
+                                            if (origin2.type() == 3) {
+                                                GData3 origin = (GData3) origin2;
+                                                CN = origin.colourNumber;
+                                                R = origin.r;
+                                                G = origin.g;
+                                                B = origin.b;
+                                                A = origin.a;
+                                            } else {
+                                                GData4 origin = (GData4) origin2;
+                                                CN = origin.colourNumber;
+                                                R = origin.r;
+                                                G = origin.g;
+                                                B = origin.b;
+                                                A = origin.a;
                                             }
-                                            counter2.incrementAndGet();
-                                            for (IntersectionInfo info : ii) {
-                                                final int pointsToTriangulate = info.getAllVertices().size();
-                                                final List<Vector3d> av = info.getAllVertices();
-
-                                                final float R;
-                                                final float G;
-                                                final float B;
-                                                final float A;
-                                                final int CN;
-                                                GData origin2 = info.getOrigin();
-                                                if (origin2.type() == 3) {
-                                                    GData3 origin = (GData3) origin2;
-                                                    CN = origin.colourNumber;
-                                                    R = origin.r;
-                                                    G = origin.g;
-                                                    B = origin.b;
-                                                    A = origin.a;
-                                                } else {
-                                                    GData4 origin = (GData4) origin2;
-                                                    CN = origin.colourNumber;
-                                                    R = origin.r;
-                                                    G = origin.g;
-                                                    B = origin.b;
-                                                    A = origin.a;
-                                                }
 
-                                                switch (pointsToTriangulate) {
-                                                case 3:
-                                                    newTriangles.add(new GData3(CN, R, G, B, A,
-                                                            av.get(0).x, av.get(0).y, av.get(0).z,
-                                                            av.get(1).x, av.get(1).y, av.get(1).z,
-                                                            av.get(2).x, av.get(2).y, av.get(2).z,
-                                                            View.DUMMY_REFERENCE, linkedDatFile, true));
-                                                    break;
-                                                case 4, 5, 6, 7:
-                                                    newTriangles.addAll(MathHelper.triangulateNPoints(CN, R, G, B, A, pointsToTriangulate, av, View.DUMMY_REFERENCE, linkedDatFile));
-                                                    break;
-                                                default:
-                                                    break;
-                                                }
+                                            switch (pointsToTriangulate) {
+                                            case 3:
+                                                newTriangles.add(new GData3(CN, R, G, B, A,
+                                                        av.get(0).x, av.get(0).y, av.get(0).z,
+                                                        av.get(1).x, av.get(1).y, av.get(1).z,
+                                                        av.get(2).x, av.get(2).y, av.get(2).z,
+                                                        View.DUMMY_REFERENCE, linkedDatFile, true));
+                                                break;
+                                            case 4, 5, 6, 7:
+                                                newTriangles.addAll(MathHelper.triangulateNPoints(CN, R, G, B, A, pointsToTriangulate, av, View.DUMMY_REFERENCE, linkedDatFile));
+                                                break;
+                                            default:
+                                                break;
                                             }
                                         }
-                                    });
-                                    threads[j].start();
-                                }
-                                boolean isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
-                                    }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
                                     }
-                                }
+                                }).awaitOrCancel(monitor);
                             }
 
                         }
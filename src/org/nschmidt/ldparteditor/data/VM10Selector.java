@@ -33,6 +33,7 @@ import org.lwjgl.util.vector.Vector4f;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.helper.composite3d.SelectorSettings;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
+import org.nschmidt.ldparteditor.helper.math.VertexGrid;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -126,23 +127,20 @@ class VM10Selector extends VM09WindingChange {
 
         if (ss.isDistance() && ss.getEqualDistance().compareTo(BigDecimal.ZERO) != 0) {
             final BigDecimal ds = ss.getEqualDistance().multiply(ss.getEqualDistance());
-            int i = 0;
-            int j = 0;
-            for (Vertex v1 : vertexLinkedToPositionInFile.keySet()) {
+            final VertexGrid grid = new VertexGrid(vertexLinkedToPositionInFile.keySet(), ss.getEqualDistance());
+            for (int i = 0; i < grid.size(); i++) {
+                final Vertex v1 = grid.get(i);
                 SortedSet<Vertex> newSet = new TreeSet<>();
                 newSet.add(v1);
-                for (Vertex v2 : vertexLinkedToPositionInFile.keySet()) {
-                    if (j > i) {
-                        Vector3d v3d1 = new Vector3d(v1);
-                        Vector3d v3d2 = new Vector3d(v2);
-                        if (Vector3d.distSquare(v3d1, v3d2).compareTo(ds) < 0) {
-                            newSet.add(v2);
-                        }
+                Vector3d v3d1 = new Vector3d(v1);
+                for (int j : grid.getCandidates(v1, ss.getEqualDistance())) {
+                    Vertex v2 = grid.get(j);
+                    Vector3d v3d2 = new Vector3d(v2);
+                    if (Vector3d.distSquare(v3d1, v3d2).compareTo(ds) < 0) {
+                        newSet.add(v2);
                     }
-                    j++;
                 }
                 adjaencyByPrecision.put(v1, newSet);
-                i++;
             }
         } else {
             for (Vertex v1 : vertexLinkedToPositionInFile.keySet()) {
@@ -66,6 +66,7 @@ class VM11HideShow extends VM10Selector {
                 hiddenVertices.add(vert);
         }
         clearSelection();
+        visibilityChanged();
     }
 
     public void showSelection() {
@@ -86,6 +87,7 @@ class VM11HideShow extends VM10Selector {
         }
         hiddenVertices.removeAll(selectedVertices);
         clearSelection();
+        visibilityChanged();
     }
 
     private void hide(GData gdata) {
@@ -116,6 +118,7 @@ class VM11HideShow extends VM10Selector {
         }
         hiddenVertices.clear();
         hiddenData.clear();
+        visibilityChanged();
     }
 
     public Map<String, List<Boolean>> backupHideShowState() {
@@ -206,6 +209,7 @@ class VM11HideShow extends VM10Selector {
         if (state.size() > 0) {
             restore(linkedDatFile.getDrawChainStart(), state, ""); //$NON-NLS-1$
             state.clear();
+            visibilityChanged();
         }
     }
 
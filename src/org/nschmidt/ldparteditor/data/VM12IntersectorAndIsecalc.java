@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -105,16 +106,29 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                 {
                     try
                     {
-                        monitor.beginTask(I18n.VM_SEARCH_INTERSECTION, IProgressMonitor.UNKNOWN);
-                        for(int i = 0; i < surfsSize; i++) {
-                            /* Check if the monitor has been canceled */
-                            if (monitor.isCanceled()) break;
-                            NLogger.debug(getClass(), "Checked {0}  of {1} surfaces.", i + 1, surfsSize); //$NON-NLS-1$
-                            for(int j = i + 1; j < surfsSize; j++) {
-                                GData s1 = surfsToParse.get(i);
-                                GData s2 = surfsToParse.get(j);
-                                if (isConnected2(s1, s2)) continue;
-                                newLines.addAll(intersectionLines(s1, s2));
+                        monitor.beginTask(I18n.VM_SEARCH_INTERSECTION, surfsSize);
+                        final BoundingBoxGrid grid = new BoundingBoxGrid(getSurfaceVertices(surfsToParse));
+                        // Only surfaces with overlapping bounding boxes can intersect
+                        final List<List<GData2>> linesPerSurface = new ArrayList<>(Collections.nCopies(surfsSize, null));
+                        WorkerPool.parallelFor(0, surfsSize, (start, end) -> {
+                            for (int i = start; i < end; i++) {
+                                /* Check if the monitor has been canceled */
+                                if (monitor.isCanceled()) return;
+                                final GData s1 = surfsToParse.get(i);
+                                final List<GData2> result = new ArrayList<>();
+                                for (int j : grid.getOverlapping(i)) {
+                                    if (j <= i) continue;
+                                    GData s2 = surfsToParse.get(j);
+                                    if (isConnected2(s1, s2)) continue;
+                                    result.addAll(intersectionLines(s1, s2));
+                                }
+                                linesPerSurface.set(i, result);
+                                monitor.worked(1);
+                            }
+                        }).awaitOrCancel(monitor);
+                        for (List<GData2> result : linesPerSurface) {
+                            if (result != null) {
+                                newLines.addAll(result);
                             }
                         }
                     }
@@ -406,73 +420,60 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                     {
                         try
                         {
-                            monitor.beginTask(I18n.VM_INTERSECTOR, IProgressMonitor.UNKNOWN);
+                            monitor.beginTask(I18n.VM_INTERSECTOR, originObjects.size() * 2);
 
                             {
 
                                 final Set<IntersectionInfoWithColour> intersectionSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
 
                                 final int iterations = originObjects.size();
-                                final int chunks = View.NUM_CORES;
-                                final Thread[] threads = new Thread[chunks];
-
                                 final String surfCount = "/" + iterations;//$NON-NLS-1$
                                 final AtomicInteger counter2 = new AtomicInteger(0);
 
-                                int lastend = 0;
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { lastend };
-                                    lastend = iterations / chunks * (j + 1);
-                                    final int[] end = new int[] { lastend };
-                                    if (j == chunks - 1) {
-                                        end[0] = iterations;
-                                    }
-                                    threads[j] = new Thread(() -> {
-                                        for (int k = start[0]; k < end[0]; k++) {
-                                            monitor.subTask(counter2.toString() + surfCount);
-                                            GData o = originObjects.get(k);
-                                            /* Check if the monitor has been canceled */
-                                            if (monitor.isCanceled()) {
-                                                isCancelled[0] = 1;
-                                                return;
-                                            }
-                                            counter2.incrementAndGet();
-                                            IntersectionInfoWithColour ii = getIntersectionInfo(o, targetSurfs, ins);
-                                            if (ii != null) {
-                                                intersectionSet.add(ii);
-                                                switch (o.type()) {
-                                                case 2:
-                                                    linesToDelete.add((GData2) o);
-                                                    break;
-                                                case 3:
-                                                    trisToDelete.add((GData3) o);
-                                                    break;
-                                                case 4:
-                                                    quadsToDelete.add((GData4) o);
-                                                    break;
-                                                case 5:
-                                                    condlinesToDelete.add((GData5) o);
-                                                    break;
-                                                default:
-                                                    break;
-                                                }
-                                            }
+                                // Only targets with overlapping bounding boxes can intersect
+                                final List<GData> targetList = new ArrayList<>(targetSurfs);
+                                final BoundingBoxGrid grid = new BoundingBoxGrid(getSurfaceVertices(targetList));
+                                final IntersectionInfoWithColour[] infos = new IntersectionInfoWithColour[iterations];
+
+                                WorkerPool.parallelFor(0, iterations, (start, end) -> {
+                                    for (int k = start; k < end; k++) {
+                                        /* Check if the monitor has been canceled */
+                                        if (monitor.isCanceled()) {
+                                            isCancelled[0] = 1;
+                                            return;
                                         }
-                                    });
-                                    threads[j].start();
-                                }
-                                boolean isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
+                                        monitor.subTask(counter2.incrementAndGet() + surfCount);
+                                        GData o = originObjects.get(k);
+                                        final Set<GData> candidates = new LinkedHashSet<>();
+                                        for (int i : grid.getOverlapping(getVertices(o))) {
+                                            candidates.add(targetList.get(i));
+                                        }
+                                        infos[k] = getIntersectionInfo(o, candidates, ins);
+                                        monitor.worked(1);
                                     }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
+                                }).awaitOrCancel(monitor);
+
+                                for (int k = 0; k < iterations; k++) {
+                                    IntersectionInfoWithColour ii = infos[k];
+                                    if (ii != null) {
+                                        GData o = originObjects.get(k);
+                                        intersectionSet.add(ii);
+                                        switch (o.type()) {
+                                        case 2:
+                                            linesToDelete.add((GData2) o);
+                                            break;
+                                        case 3:
+                                            trisToDelete.add((GData3) o);
+                                            break;
+                                        case 4:
+                                            quadsToDelete.add((GData4) o);
+                                            break;
+                                        case 5:
+                                            condlinesToDelete.add((GData5) o);
+                                            break;
+                                        default:
+                                            break;
+                                        }
                                     }
                                 }
                                 intersections.addAll(intersectionSet);
@@ -497,62 +498,36 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
                             {
                                 final int iterations = intersections.size();
-                                final int chunks = View.NUM_CORES;
-                                final Thread[] threads = new Thread[chunks];
-                                
+
                                 if (NLogger.debugging) {
                                     for (IntersectionInfoWithColour intersection : intersections) {
                                         NLogger.debug(getClass(), "Intersection:\n" + intersection.toString()); //$NON-NLS-1$
                                     }
                                 }
 
-
                                 final String maxIterations = "/" + iterations;//$NON-NLS-1$
                                 final AtomicInteger counter2 = new AtomicInteger(0);
+                                monitor.worked(originObjects.size() - iterations);
 
-                                int lastend = 0;
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { lastend };
-                                    lastend = iterations / chunks * (j + 1);
-                                    final int[] end = new int[] { lastend };
-                                    if (j == chunks - 1) {
-                                        end[0] = iterations;
-                                    }
-                                    threads[j] = new Thread(() -> {
-                                        for (int k = start[0]; k < end[0]; k++) {
-                                            monitor.subTask(counter2.toString() + maxIterations);
-                                            IntersectionInfoWithColour info = intersections.get(k);
-                                            if (monitor.isCanceled()) {
-                                                isCancelled[0] = 2;
-                                                return;
-                                            }
-                                            counter2.incrementAndGet();
+                                WorkerPool.parallelFor(0, iterations, (start, end) -> {
+                                    for (int k = start; k < end; k++) {
+                                        if (monitor.isCanceled()) {
+                                            isCancelled[0] = 2;
+                                            return;
+                                        }
+                                        monitor.subTask(counter2.incrementAndGet() + maxIterations);
+                                        IntersectionInfoWithColour info = intersections.get(k);
 
-                                            final List<Vector3dd> av = info.getAllVertices();
-                                            final List<GColour> cols = info.getColours();
-                                            final List<Integer> ts = info.getIsLine();
+                                        final List<Vector3dd> av = info.getAllVertices();
+                                        final List<GColour> cols = info.getColours();
+                                        final List<Integer> ts = info.getIsLine();
 
-                                            newTriangles.addAll(MathHelper.triangulatePointGroups(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
-                                            newLines.addAll(MathHelper.triangulatePointGroups2(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
-                                            newCondlines.addAll(MathHelper.triangulatePointGroups5(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
-                                        }
-                                    });
-                                    threads[j].start();
-                                }
-                                boolean isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
+                                        newTriangles.addAll(MathHelper.triangulatePointGroups(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
+                                        newLines.addAll(MathHelper.triangulatePointGroups2(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
+                                        newCondlines.addAll(MathHelper.triangulatePointGroups5(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
+                                        monitor.worked(1);
                                     }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
-                                    }
-                                }
+                                }).awaitOrCancel(monitor);
                             }
 
                         }
@@ -582,9 +557,9 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                     SortedSet<Vertex> verts2 = new TreeSet<>();
                     verts2.addAll(Arrays.asList(verts));
                     for (Vertex v : verts2) {
-                        sb.append(v.xp.setScale(6, RoundingMode.HALF_UP));
-                        sb.append(v.yp.setScale(6, RoundingMode.HALF_UP));
-                        sb.append(v.zp.setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.xp().setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.yp().setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.zp().setScale(6, RoundingMode.HALF_UP));
                     }
                     
                     String triString = sb.toString();
@@ -606,9 +581,9 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                     SortedSet<Vertex> verts2 = new TreeSet<>();
                     verts2.addAll(Arrays.asList(verts));
                     for (Vertex v : verts2) {
-                        sb.append(v.xp.setScale(6, RoundingMode.HALF_UP));
-                        sb.append(v.yp.setScale(6, RoundingMode.HALF_UP));
-                        sb.append(v.zp.setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.xp().setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.yp().setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.zp().setScale(6, RoundingMode.HALF_UP));
                     }
                     
                     String lineString = sb.toString();
@@ -630,9 +605,9 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                     SortedSet<Vertex> verts2 = new TreeSet<>();
                     verts2.addAll(Arrays.asList(verts));
                     for (Vertex v : verts2) {
-                        sb.append(v.xp.setScale(6, RoundingMode.HALF_UP));
-                        sb.append(v.yp.setScale(6, RoundingMode.HALF_UP));
-                        sb.append(v.zp.setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.xp().setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.yp().setScale(6, RoundingMode.HALF_UP));
+                        sb.append(v.zp().setScale(6, RoundingMode.HALF_UP));
                     }
                     
                     String lineString = sb.toString();
@@ -732,6 +707,29 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
         return new int[] {0, 0, 0, 0, 0, 0, 0};
     }
 
+    private List<Vertex[]> getSurfaceVertices(List<GData> surfaces) {
+        final List<Vertex[]> result = new ArrayList<>(surfaces.size());
+        for (GData g : surfaces) {
+            result.add(getVertices(g));
+        }
+        return result;
+    }
+
+    private Vertex[] getVertices(GData g) {
+        switch (g.type()) {
+        case 2:
+            return lines.get(g);
+        case 3:
+            return triangles.get(g);
+        case 4:
+            return quads.get(g);
+        case 5:
+            return condlines.get(g);
+        default:
+            return new Vertex[0];
+        }
+    }
+
     private Set<GData2> intersectionLines(GData g1, GData g2) {
 
         GColour c = new GColour(24, Colour.lineColourR, Colour.lineColourG, Colour.lineColourB, 1f);
@@ -1798,9 +1796,9 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                             }
                         }
                         if (p3 == null) return;
-                        Vector3d a = new Vector3d(p1.xp.add(s.xp), p1.yp.add(s.yp),p1.zp.add(s.zp));
-                        Vector3d b = new Vector3d(p2.xp.add(s.xp), p2.yp.add(s.yp),p2.zp.add(s.zp));
-                        Vector3d c = new Vector3d(p3.xp.add(s.xp), p3.yp.add(s.yp),p3.zp.add(s.zp));
+                        Vector3d a = new Vector3d(p1.xp().add(s.xp()), p1.yp().add(s.yp()),p1.zp().add(s.zp()));
+                        Vector3d b = new Vector3d(p2.xp().add(s.xp()), p2.yp().add(s.yp()),p2.zp().add(s.zp()));
+                        Vector3d c = new Vector3d(p3.xp().add(s.xp()), p3.yp().add(s.yp()),p3.zp().add(s.zp()));
 
                         Vector3d pOrigin = new Vector3d(p1);
                         Vector3d n = Vector3d.cross(Vector3d.sub(a, c), Vector3d.sub(b, c));
@@ -1889,7 +1887,7 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
         final Set<List<Vector3dd>> colourLines2 = Collections.newSetFromMap(new ThreadsafeHashMap<>());
         final ThreadsafeHashMap<List<Vector3dd> , GColour> colours2 = new ThreadsafeHashMap<>();
-        final Thread[] colourThreads = new Thread[chunks];
+        final WorkerPool.Job colourJob = WorkerPool.newJob();
 
         // Spread coloured lines
         {
@@ -1946,61 +1944,57 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
                                 final AtomicInteger counter2 = new AtomicInteger(0);
 
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { j };
-                                    colourThreads[j] = new Thread(() -> {
-                                        int counter = start[0];
-                                        for (int i = 0; i < vc; i++) {
-                                            if (counter == 0) {
-                                                counter = chunks;
-                                                counter2.incrementAndGet();
-                                                if (monitor.isCanceled()) {
-                                                    return;
-                                                }
-                                                Vector3dd v1 = colourVertices.get(i);
-                                                for (int vi = 0; vi < vc2; vi++) {
-                                                    boolean intersect = false;
-                                                    Vector3dd v2 = fixedVertices.get(vi);
-                                                    Vector3d sp = Vector3d.sub(v2, v1);
-                                                    Vector3d dir = new Vector3d();
-                                                    BigDecimal len = sp.normalise(dir);
-                                                    int lc = fixedLinesToParse.size();
-                                                    for (int k = 0; k < lc; k++) {
-                                                        List<Vector3dd> l = fixedLinesToParse.get(k);
-                                                        Vector3dd v3 = l.get(0);
-                                                        Vector3dd v4 = l.get(1);
-                                                        if (!v1.equals(v3) && !v1.equals(v4) && !v2.equals(v3) && !v2.equals(v4) && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, v3, v4)) {
-                                                            intersect = true;
-                                                            break;
-                                                        }
+                                colourJob.run(chunks, j -> {
+                                    int counter = j;
+                                    for (int i = 0; i < vc; i++) {
+                                        if (counter == 0) {
+                                            counter = chunks;
+                                            counter2.incrementAndGet();
+                                            if (monitor.isCanceled() || colourJob.isCancelled()) {
+                                                return;
+                                            }
+                                            Vector3dd v1 = colourVertices.get(i);
+                                            for (int vi = 0; vi < vc2; vi++) {
+                                                boolean intersect = false;
+                                                Vector3dd v2 = fixedVertices.get(vi);
+                                                Vector3d sp = Vector3d.sub(v2, v1);
+                                                Vector3d dir = new Vector3d();
+                                                BigDecimal len = sp.normalise(dir);
+                                                int lc = fixedLinesToParse.size();
+                                                for (int k = 0; k < lc; k++) {
+                                                    List<Vector3dd> l = fixedLinesToParse.get(k);
+                                                    Vector3dd v3 = l.get(0);
+                                                    Vector3dd v4 = l.get(1);
+                                                    if (!v1.equals(v3) && !v1.equals(v4) && !v2.equals(v3) && !v2.equals(v4) && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, v3, v4)) {
+                                                        intersect = true;
+                                                        break;
                                                     }
-                                                    if (intersect) {
-                                                        continue;
-                                                    } else {
-                                                        BigDecimal dist = Vector3d.manhattan(v1, v2);
-                                                        if (dist.compareTo(minDist) > 0) {
-                                                            if (vertexColour.containsKey(v1) && vertexColour.get(v1) != null) {
-                                                                List<Vector3dd> nl = new ArrayList<>();
-                                                                nl.add(v1);
-                                                                nl.add(v2);
-                                                                colours2.put(nl, vertexColour.get(v1));
-                                                                colourLines2.add(nl);
-                                                            } else if (vertexColour.containsKey(v2) && vertexColour.get(v2) != null) {
-                                                                List<Vector3dd> nl = new ArrayList<>();
-                                                                nl.add(v1);
-                                                                nl.add(v2);
-                                                                colours2.put(nl, vertexColour.get(v2));
-                                                                colourLines2.add(nl);
-                                                            }
+                                                }
+                                                if (intersect) {
+                                                    continue;
+                                                } else {
+                                                    BigDecimal dist = Vector3d.manhattan(v1, v2);
+                                                    if (dist.compareTo(minDist) > 0) {
+                                                        if (vertexColour.containsKey(v1) && vertexColour.get(v1) != null) {
+                                                            List<Vector3dd> nl = new ArrayList<>();
+                                                            nl.add(v1);
+                                                            nl.add(v2);
+                                                            colours2.put(nl, vertexColour.get(v1));
+                                                            colourLines2.add(nl);
+                                                        } else if (vertexColour.containsKey(v2) && vertexColour.get(v2) != null) {
+                                                            List<Vector3dd> nl = new ArrayList<>();
+                                                            nl.add(v1);
+                                                            nl.add(v2);
+                                                            colours2.put(nl, vertexColour.get(v2));
+                                                            colourLines2.add(nl);
                                                         }
                                                     }
                                                 }
                                             }
-                                            counter -= 1;
                                         }
-                                    });
-                                    colourThreads[j].start();
-                                }
+                                        counter -= 1;
+                                    }
+                                });
                             }
                         } finally {
                             monitor.done();
@@ -2042,8 +2036,6 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                         {
                             monitor.beginTask(I18n.VM_LINES_2_PATTERN, IProgressMonitor.UNKNOWN);
 
-                            final Thread[] threads = new Thread[1];
-
                             {
                                 SortedMap<Vector3dd, Vector3dh> hashedRelation = new TreeMap<>();
                                 for (Vector3dd v : fixedVertices) {
@@ -2090,7 +2082,7 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                             final int vc = fixedVertices2.size();
                             final String vertCount = "/" + vc + ")"; //$NON-NLS-1$ //$NON-NLS-2$
 
-                            threads[0] = new Thread(() -> {
+                            WorkerPool.run(() -> {
 
                                 for (int i = 0; i < vc; i++) {
 
@@ -2135,35 +2127,9 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                                         }
                                     }
                                 }
-                            });
-                            threads[0].start();
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                if (threads[0].isAlive())
-                                    isRunning = true;
-                            }
+                            }).awaitOrCancel(monitor);
                             if (!colourLines.isEmpty()) {
-                                isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
-                                    }
-                                    isRunning = false;
-                                    for (Thread thread : colourThreads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
-                                    }
-                                }
+                                colourJob.awaitOrCancel(monitor);
                             }
                             if (monitor.isCanceled()) {
                                 selectedLines.addAll(originalSelectionLines);
@@ -2318,178 +2284,158 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
                             final int lc = linesToParseHashed.size();
 
-                            final Thread[] threads = new Thread[chunks];
-
                             final String vertCount = "/" + lc + ")"; //$NON-NLS-1$ //$NON-NLS-2$
                             final AtomicInteger counter2 = new AtomicInteger(0);
 
                             final Lock rlock = new ReentrantLock(true);
 
-                            for (int t = 0; t < chunks; ++t) {
-                                final int[] start = new int[] { t };
-                                threads[t] = new Thread(() -> {
-                                    int counter = start[0];
-                                    Set<Vector3dh> allVertices = new HashSet<>();
-                                    Vector3d normal = null;
-                                    for (int i = 0; i < lc; i++) {
-                                        if (counter == 0) {
-                                            counter = chunks;
-
-                                            Object[] messageArguments = {counter2.toString(), vertCount};
-                                            MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                                            formatter.setLocale(MyLanguage.getLocale());
-                                            formatter.applyPattern(I18n.VM_TRIANGULATE);
-
-                                            monitor.subTask(formatter.format(messageArguments));
-                                            counter2.incrementAndGet();
-                                            if (monitor.isCanceled()) {
-                                                return;
-                                            }
-                                            for (int j = i + 1; j < lc; j++) {
-                                                for (int k = j + 1; k < lc; k++) {
-                                                    for(int l = 0; l < 2; l++) {
-                                                        allVertices.add(linesToParseHashed.get(i).get(l));
-                                                        allVertices.add(linesToParseHashed.get(j).get(l));
-                                                        allVertices.add(linesToParseHashed.get(k).get(l));
+                            WorkerPool.newJob().run(chunks, t -> {
+                                int counter = t;
+                                Set<Vector3dh> allVertices = new HashSet<>();
+                                Vector3d normal = null;
+                                for (int i = 0; i < lc; i++) {
+                                    if (counter == 0) {
+                                        counter = chunks;
+
+                                        Object[] messageArguments = {counter2.toString(), vertCount};
+                                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
+                                        formatter.setLocale(MyLanguage.getLocale());
+                                        formatter.applyPattern(I18n.VM_TRIANGULATE);
+
+                                        monitor.subTask(formatter.format(messageArguments));
+                                        counter2.incrementAndGet();
+                                        if (monitor.isCanceled()) {
+                                            return;
+                                        }
+                                        for (int j = i + 1; j < lc; j++) {
+                                            for (int k = j + 1; k < lc; k++) {
+                                                for(int l = 0; l < 2; l++) {
+                                                    allVertices.add(linesToParseHashed.get(i).get(l));
+                                                    allVertices.add(linesToParseHashed.get(j).get(l));
+                                                    allVertices.add(linesToParseHashed.get(k).get(l));
+                                                }
+                                                if (allVertices.size() == 3) {
+                                                    Vector3dh[] triVerts = new Vector3dh[3];
+                                                    int l = 0;
+                                                    for (Vector3dh v : allVertices) {
+                                                        triVerts[l] = v;
+                                                        l++;
                                                     }
-                                                    if (allVertices.size() == 3) {
-                                                        Vector3dh[] triVerts = new Vector3dh[3];
-                                                        int l = 0;
-                                                        for (Vector3dh v : allVertices) {
-                                                            triVerts[l] = v;
-                                                            l++;
-                                                        }
-                                                        allVertices.clear();
-                                                        boolean isInsideTriangle = false;
-                                                        if (normal == null) {
-                                                            normal = Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0]));
-                                                            normal.normalise(normal);
+                                                    allVertices.clear();
+                                                    boolean isInsideTriangle = false;
+                                                    if (normal == null) {
+                                                        normal = Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0]));
+                                                        normal.normalise(normal);
+                                                    }
+                                                    for (Vector3dh fixed : fixedVertices2) {
+                                                        if (fixed.equals(triVerts[0])) continue;
+                                                        if (fixed.equals(triVerts[1])) continue;
+                                                        if (fixed.equals(triVerts[2])) continue;
+                                                        Set<Vector3dh> n1 = neighbours.get(triVerts[0]);
+                                                        Set<Vector3dh> n2 = neighbours.get(triVerts[1]);
+                                                        Set<Vector3dh> n3 = neighbours.get(triVerts[2]);
+                                                        int nc = 0;
+                                                        if (n1.contains(fixed)) nc += 1;
+                                                        if (n2.contains(fixed)) nc += 1;
+                                                        if (n3.contains(fixed)) nc += 1;
+                                                        if (nc > 1 && intersectRayTriangle(fixed, normal, triVerts[0], triVerts[1], triVerts[2])) {
+                                                            isInsideTriangle = true;
+                                                            break;
                                                         }
-                                                        for (Vector3dh fixed : fixedVertices2) {
-                                                            if (fixed.equals(triVerts[0])) continue;
-                                                            if (fixed.equals(triVerts[1])) continue;
-                                                            if (fixed.equals(triVerts[2])) continue;
-                                                            Set<Vector3dh> n1 = neighbours.get(triVerts[0]);
-                                                            Set<Vector3dh> n2 = neighbours.get(triVerts[1]);
-                                                            Set<Vector3dh> n3 = neighbours.get(triVerts[2]);
-                                                            int nc = 0;
-                                                            if (n1.contains(fixed)) nc += 1;
-                                                            if (n2.contains(fixed)) nc += 1;
-                                                            if (n3.contains(fixed)) nc += 1;
-                                                            if (nc > 1 && intersectRayTriangle(fixed, normal, triVerts[0], triVerts[1], triVerts[2])) {
-                                                                isInsideTriangle = true;
-                                                                break;
-                                                            }
+                                                    }
+                                                    if (isInsideTriangle) continue;
+
+                                                    // Check collinearity
+                                                    {
+                                                        double angle;
+                                                        Vector3d vertexA = new Vector3d(triVerts[0]);
+                                                        Vector3d vertexB = new Vector3d(triVerts[1]);
+                                                        Vector3d vertexC = new Vector3d(triVerts[2]);
+                                                        Vector3d a = new Vector3d();
+                                                        Vector3d b = new Vector3d();
+                                                        Vector3d c = new Vector3d();
+                                                        Vector3d.sub(vertexB, vertexA, a);
+                                                        Vector3d.sub(vertexC, vertexB, b);
+                                                        Vector3d.sub(vertexC, vertexA, c);
+
+                                                        angle = Vector3d.angle(a, c);
+                                                        double sumAngle = angle;
+                                                        if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
+                                                            continue;
                                                         }
-                                                        if (isInsideTriangle) continue;
-
-                                                        // Check collinearity
-                                                        {
-                                                            double angle;
-                                                            Vector3d vertexA = new Vector3d(triVerts[0]);
-                                                            Vector3d vertexB = new Vector3d(triVerts[1]);
-                                                            Vector3d vertexC = new Vector3d(triVerts[2]);
-                                                            Vector3d a = new Vector3d();
-                                                            Vector3d b = new Vector3d();
-                                                            Vector3d c = new Vector3d();
-                                                            Vector3d.sub(vertexB, vertexA, a);
-                                                            Vector3d.sub(vertexC, vertexB, b);
-                                                            Vector3d.sub(vertexC, vertexA, c);
-
-                                                            angle = Vector3d.angle(a, c);
-                                                            double sumAngle = angle;
-                                                            if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
-                                                                continue;
-                                                            }
 
-                                                            a.negate();
-                                                            angle = Vector3d.angle(a, b);
-                                                            sumAngle = sumAngle + angle;
-                                                            if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
-                                                                continue;
-                                                            }
+                                                        a.negate();
+                                                        angle = Vector3d.angle(a, b);
+                                                        sumAngle = sumAngle + angle;
+                                                        if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
+                                                            continue;
+                                                        }
 
-                                                            angle = 180.0 - sumAngle;
-                                                            if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
-                                                                continue;
-                                                            }
+                                                        angle = 180.0 - sumAngle;
+                                                        if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
+                                                            continue;
                                                         }
+                                                    }
 
-                                                        {
-                                                            Set<List<Vector3dd>> threeLines = new HashSet<>();
-                                                            threeLines.add(linesToParse.get(i));
-                                                            threeLines.add(linesToParse.get(j));
-                                                            threeLines.add(linesToParse.get(k));
-                                                            List<Vector3dd> intersected = null;
-                                                            for (Iterator<List<Vector3dd>> iterator = threeLines.iterator(); iterator.hasNext();) {
-                                                                List<Vector3dd> line = iterator.next();
-                                                                Vector3dd v1 = line.get(0);
-                                                                Vector3dd v2 = line.get(1);
-                                                                Vector3d sp = Vector3d.sub(v2, v1);
-                                                                Vector3d dir = new Vector3d();
-                                                                BigDecimal len = sp.normalise(dir);
-                                                                for (List<Vector3dd> line2 : colourLines) {
-                                                                    if (line2 != line) {
-                                                                        SortedSet<Vector3dd> allVertices1 = new TreeSet<>();
-                                                                        for(int l1 = 0; l1 < 2; l1++) {
-                                                                            allVertices1.add(line.get(l1));
-                                                                            allVertices1.add(line2.get(l1));
-                                                                        }
-                                                                        if (allVertices1.size() == 4 && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, line2.get(0), line2.get(1))) {
-                                                                            intersected = line2;
-                                                                            break;
-                                                                        }
+                                                    {
+                                                        Set<List<Vector3dd>> threeLines = new HashSet<>();
+                                                        threeLines.add(linesToParse.get(i));
+                                                        threeLines.add(linesToParse.get(j));
+                                                        threeLines.add(linesToParse.get(k));
+                                                        List<Vector3dd> intersected = null;
+                                                        for (Iterator<List<Vector3dd>> iterator = threeLines.iterator(); iterator.hasNext();) {
+                                                            List<Vector3dd> line = iterator.next();
+                                                            Vector3dd v1 = line.get(0);
+                                                            Vector3dd v2 = line.get(1);
+                                                            Vector3d sp = Vector3d.sub(v2, v1);
+                                                            Vector3d dir = new Vector3d();
+                                                            BigDecimal len = sp.normalise(dir);
+                                                            for (List<Vector3dd> line2 : colourLines) {
+                                                                if (line2 != line) {
+                                                                    SortedSet<Vector3dd> allVertices1 = new TreeSet<>();
+                                                                    for(int l1 = 0; l1 < 2; l1++) {
+                                                                        allVertices1.add(line.get(l1));
+                                                                        allVertices1.add(line2.get(l1));
+                                                                    }
+                                                                    if (allVertices1.size() == 4 && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, line2.get(0), line2.get(1))) {
+                                                                        intersected = line2;
+                                                                        break;
                                                                     }
                                                                 }
-                                                                if (intersected != null) {
-                                                                    break;
-                                                                }
-                                                            }
-
-                                                            rlock.lock();
-                                                            if (MathHelper.directionOfVectors(Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0])), originalNormal) == 1) {
-                                                                resultVertices.add(triVerts[0]);
-                                                                resultVertices.add(triVerts[1]);
-                                                                resultVertices.add(triVerts[2]);
-                                                            } else {
-                                                                resultVertices.add(triVerts[0]);
-                                                                resultVertices.add(triVerts[2]);
-                                                                resultVertices.add(triVerts[1]);
                                                             }
-
                                                             if (intersected != null) {
-                                                                resultColours.add(colours.get(intersected) != null ? colours.get(intersected) : LDConfig.getColour16());
-                                                            } else {
-                                                                resultColours.add(LDConfig.getColour16());
+                                                                break;
                                                             }
-                                                            resultIsLine.add(0);
-                                                            rlock.unlock();
                                                         }
-                                                    } else {
-                                                        allVertices.clear();
+
+                                                        rlock.lock();
+                                                        if (MathHelper.directionOfVectors(Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0])), originalNormal) == 1) {
+                                                            resultVertices.add(triVerts[0]);
+                                                            resultVertices.add(triVerts[1]);
+                                                            resultVertices.add(triVerts[2]);
+                                                        } else {
+                                                            resultVertices.add(triVerts[0]);
+                                                            resultVertices.add(triVerts[2]);
+                                                            resultVertices.add(triVerts[1]);
+                                                        }
+
+                                                        if (intersected != null) {
+                                                            resultColours.add(colours.get(intersected) != null ? colours.get(intersected) : LDConfig.getColour16());
+                                                        } else {
+                                                            resultColours.add(LDConfig.getColour16());
+                                                        }
+                                                        resultIsLine.add(0);
+                                                        rlock.unlock();
                                                     }
+                                                } else {
+                                                    allVertices.clear();
                                                 }
                                             }
                                         }
-                                        counter -= 1;
                                     }
-                                });
-                                threads[t].start();
-                            }
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
+                                    counter -= 1;
                                 }
-                                isRunning = false;
-                                for (Thread thread : threads) {
-                                    if (thread.isAlive())
-                                        isRunning = true;
-                                }
-                            }
+                            }).awaitOrCancel(monitor);
                             if (monitor.isCanceled()) {
                                 selectedLines.addAll(originalSelectionLines);
                                 selectedTriangles.addAll(originalSelectionTriangles);
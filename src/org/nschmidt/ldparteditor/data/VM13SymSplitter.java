@@ -115,42 +115,42 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                     for (Vertex v : verts) {
                         switch (sp) {
                         case SymSplitterSettings.Z_PLUS:
-                            if (v.zp.compareTo(o) > 0) {
+                            if (v.zp().compareTo(o) > 0) {
                                 pos++;
                             } else {
                                 neg++;
                             }
                             break;
                         case SymSplitterSettings.Z_MINUS:
-                            if (v.zp.compareTo(o) > 0) {
+                            if (v.zp().compareTo(o) > 0) {
                                 neg++;
                             } else {
                                 pos++;
                             }
                             break;
                         case SymSplitterSettings.Y_PLUS:
-                            if (v.yp.compareTo(o) > 0) {
+                            if (v.yp().compareTo(o) > 0) {
                                 pos++;
                             } else {
                                 neg++;
                             }
                             break;
                         case SymSplitterSettings.Y_MINUS:
-                            if (v.yp.compareTo(o) > 0) {
+                            if (v.yp().compareTo(o) > 0) {
                                 neg++;
                             } else {
                                 pos++;
                             }
                             break;
                         case SymSplitterSettings.X_PLUS:
-                            if (v.xp.compareTo(o) > 0) {
+                            if (v.xp().compareTo(o) > 0) {
                                 pos++;
                             } else {
                                 neg++;
                             }
                             break;
                         case SymSplitterSettings.X_MINUS:
-                            if (v.xp.compareTo(o) > 0) {
+                            if (v.xp().compareTo(o) > 0) {
                                 neg++;
                             } else {
                                 pos++;
@@ -249,18 +249,18 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
             for (Vertex v : allVertices) {
                 switch (sp) {
                 case SymSplitterSettings.Z_PLUS, SymSplitterSettings.Z_MINUS:
-                    if (p.compareTo(v.zp.subtract(o).abs()) > 0) {
-                        wasModified = changeVertexDirectFast(v, new Vertex(v.xp, v.yp, o), true) || wasModified;
+                    if (p.compareTo(v.zp().subtract(o).abs()) > 0) {
+                        wasModified = changeVertexDirectFast(v, new Vertex(v.xp(), v.yp(), o), true) || wasModified;
                     }
                     break;
                 case SymSplitterSettings.Y_PLUS, SymSplitterSettings.Y_MINUS:
-                    if (p.compareTo(v.yp.subtract(o).abs()) > 0) {
-                        wasModified = changeVertexDirectFast(v, new Vertex(v.xp, o, v.zp), true) || wasModified;
+                    if (p.compareTo(v.yp().subtract(o).abs()) > 0) {
+                        wasModified = changeVertexDirectFast(v, new Vertex(v.xp(), o, v.zp()), true) || wasModified;
                     }
                     break;
                 case SymSplitterSettings.X_PLUS, SymSplitterSettings.X_MINUS:
-                    if (p.compareTo(v.xp.subtract(o).abs()) > 0) {
-                        wasModified = changeVertexDirectFast(v, new Vertex(o, v.yp, v.zp), true) || wasModified;
+                    if (p.compareTo(v.xp().subtract(o).abs()) > 0) {
+                        wasModified = changeVertexDirectFast(v, new Vertex(o, v.yp(), v.zp()), true) || wasModified;
                     }
                     break;
                 default:
@@ -351,7 +351,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                 for (Vertex v : verts) {
                     switch (sp) {
                     case SymSplitterSettings.Z_PLUS:
-                        switch (v.zp.compareTo(o)) {
+                        switch (v.zp().compareTo(o)) {
                         case -1:
                             neg++;
                             break;
@@ -367,7 +367,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                         }
                         break;
                     case SymSplitterSettings.Z_MINUS:
-                        switch (v.zp.compareTo(o)) {
+                        switch (v.zp().compareTo(o)) {
                         case -1:
                             pos++;
                             break;
@@ -383,7 +383,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                         }
                         break;
                     case SymSplitterSettings.Y_PLUS:
-                        switch (v.yp.compareTo(o)) {
+                        switch (v.yp().compareTo(o)) {
                         case -1:
                             neg++;
                             break;
@@ -399,7 +399,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                         }
                         break;
                     case SymSplitterSettings.Y_MINUS:
-                        switch (v.yp.compareTo(o)) {
+                        switch (v.yp().compareTo(o)) {
                         case -1:
                             pos++;
                             break;
@@ -415,7 +415,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                         }
                         break;
                     case SymSplitterSettings.X_PLUS:
-                        switch (v.xp.compareTo(o)) {
+                        switch (v.xp().compareTo(o)) {
                         case -1:
                             neg++;
                             break;
@@ -431,7 +431,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                         }
                         break;
                     case SymSplitterSettings.X_MINUS:
-                        switch (v.xp.compareTo(o)) {
+                        switch (v.xp().compareTo(o)) {
                         case -1:
                             pos++;
                             break;
@@ -558,8 +558,8 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                     case SymSplitterSettings.Z_PLUS, SymSplitterSettings.Z_MINUS:
                                         for (int i = 0; i < verts.length - 1; i++) {
                                             int j = (i + 1) % verts.length;
-                                            BigDecimal di = verts[i].zp.subtract(o);
-                                            BigDecimal dj = verts[j].zp.subtract(o);
+                                            BigDecimal di = verts[i].zp().subtract(o);
+                                            BigDecimal dj = verts[j].zp().subtract(o);
                                             if (di.signum() != dj.signum() && di.abs().subtract(dj.abs()).abs().compareTo(p) > 0) {
                                                 isSymmetrical = false;
                                                 break;
@@ -569,8 +569,8 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                     case SymSplitterSettings.Y_PLUS, SymSplitterSettings.Y_MINUS:
                                         for (int i = 0; i < verts.length - 1; i++) {
                                             int j = (i + 1) % verts.length;
-                                            BigDecimal di = verts[i].yp.subtract(o);
-                                            BigDecimal dj = verts[j].yp.subtract(o);
+                                            BigDecimal di = verts[i].yp().subtract(o);
+                                            BigDecimal dj = verts[j].yp().subtract(o);
                                             if (di.signum() != dj.signum() && di.abs().subtract(dj.abs()).abs().compareTo(p) > 0) {
                                                 isSymmetrical = false;
                                                 break;
@@ -580,8 +580,8 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                     case SymSplitterSettings.X_PLUS, SymSplitterSettings.X_MINUS:
                                         for (int i = 0; i < verts.length - 1; i++) {
                                             int j = (i + 1) % verts.length;
-                                            BigDecimal di = verts[i].xp.subtract(o);
-                                            BigDecimal dj = verts[j].xp.subtract(o);
+                                            BigDecimal di = verts[i].xp().subtract(o);
+                                            BigDecimal dj = verts[j].xp().subtract(o);
                                             if (di.signum() != dj.signum() && di.abs().subtract(dj.abs()).abs().compareTo(p) > 0) {
                                                 isSymmetrical = false;
                                                 break;
@@ -791,7 +791,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                         for (Vertex v : verts) {
                             switch (sp) {
                             case SymSplitterSettings.Z_PLUS:
-                                switch (v.zp.compareTo(o)) {
+                                switch (v.zp().compareTo(o)) {
                                 case -1:
                                     neg++;
                                     break;
@@ -807,7 +807,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                 }
                                 break;
                             case SymSplitterSettings.Z_MINUS:
-                                switch (v.zp.compareTo(o)) {
+                                switch (v.zp().compareTo(o)) {
                                 case -1:
                                     pos++;
                                     break;
@@ -823,7 +823,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                 }
                                 break;
                             case SymSplitterSettings.Y_PLUS:
-                                switch (v.yp.compareTo(o)) {
+                                switch (v.yp().compareTo(o)) {
                                 case -1:
                                     neg++;
                                     break;
@@ -839,7 +839,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                 }
                                 break;
                             case SymSplitterSettings.Y_MINUS:
-                                switch (v.yp.compareTo(o)) {
+                                switch (v.yp().compareTo(o)) {
                                 case -1:
                                     pos++;
                                     break;
@@ -855,7 +855,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                 }
                                 break;
                             case SymSplitterSettings.X_PLUS:
-                                switch (v.xp.compareTo(o)) {
+                                switch (v.xp().compareTo(o)) {
                                 case -1:
                                     neg++;
                                     break;
@@ -871,7 +871,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
                                 }
                                 break;
                             case SymSplitterSettings.X_MINUS:
-                                switch (v.xp.compareTo(o)) {
+                                switch (v.xp().compareTo(o)) {
                                 case -1:
                                     pos++;
                                     break;
@@ -957,6 +957,7 @@ class VM13SymSplitter extends VM12IntersectorAndIsecalc {
     private void hide(GData gdata) {
         gdata.hide();
         hiddenData.add(gdata);
+        visibilityChanged();
         if (gdata.type() == 1) {
             hide((GData1) gdata);
         }
@@ -321,9 +321,9 @@ class VM14Splitter extends VM13SymSplitter {
                     a.y.multiply(oneMinusNext).add(b.y.multiply(next)),
                     a.z.multiply(oneMinusNext).add(b.z.multiply(next)),
 
-                    v4.xp,
-                    v4.yp,
-                    v4.zp,
+                    v4.xp(),
+                    v4.yp(),
+                    v4.zp(),
 
                     View.DUMMY_REFERENCE, linkedDatFile, true));
             cur = next;
@@ -351,9 +351,9 @@ class VM14Splitter extends VM13SymSplitter {
                     a.y.multiply(oneMinusNext).add(b.y.multiply(next)),
                     a.z.multiply(oneMinusNext).add(b.z.multiply(next)),
 
-                    v3.xp,
-                    v3.yp,
-                    v3.zp,
+                    v3.xp(),
+                    v3.yp(),
+                    v3.zp(),
 
                     View.DUMMY_REFERENCE, linkedDatFile, true));
             cur = next;
@@ -371,13 +371,13 @@ class VM14Splitter extends VM13SymSplitter {
                     a.y.multiply(oneMinusCur).add(b.y.multiply(cur)),
                     a.z.multiply(oneMinusCur).add(b.z.multiply(cur)),
 
-                    v3.xp,
-                    v3.yp,
-                    v3.zp,
+                    v3.xp(),
+                    v3.yp(),
+                    v3.zp(),
 
-                    v4.xp,
-                    v4.yp,
-                    v4.zp,
+                    v4.xp(),
+                    v4.yp(),
+                    v4.zp(),
 
                     View.DUMMY_REFERENCE, linkedDatFile, true));
         }
@@ -868,9 +868,9 @@ class VM14Splitter extends VM13SymSplitter {
                     a.y.multiply(oneMinusNext).add(b.y.multiply(next)),
                     a.z.multiply(oneMinusNext).add(b.z.multiply(next)),
 
-                    v3.xp,
-                    v3.yp,
-                    v3.zp,
+                    v3.xp(),
+                    v3.yp(),
+                    v3.zp(),
 
                     View.DUMMY_REFERENCE, linkedDatFile, true));
             cur = next;
@@ -903,9 +903,9 @@ class VM14Splitter extends VM13SymSplitter {
             if (i == 0) {
                 result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a,
 
-                        v1.xp,
-                        v1.yp,
-                        v1.zp,
+                        v1.xp(),
+                        v1.yp(),
+                        v1.zp(),
 
                         a.x.multiply(oneMinusNext).add(b.x.multiply(next)),
                         a.y.multiply(oneMinusNext).add(b.y.multiply(next)),
@@ -1123,8 +1123,8 @@ class VM14Splitter extends VM13SymSplitter {
 
     private List<GData3> splitTri(Vertex v1, Vertex v2, Vertex v3, Vertex target, GData3 g) {
         List<GData3> result = new ArrayList<>();
-        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, v3.xp, v3.yp, v3.zp, v1.xp, v1.yp, v1.zp, target.xp, target.yp, target.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
-        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, target.xp, target.yp, target.zp, v2.xp, v2.yp, v2.zp, v3.xp, v3.yp, v3.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
+        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, v3.xp(), v3.yp(), v3.zp(), v1.xp(), v1.yp(), v1.zp(), target.xp(), target.yp(), target.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
+        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, target.xp(), target.yp(), target.zp(), v2.xp(), v2.yp(), v2.zp(), v3.xp(), v3.yp(), v3.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
         return result;
     }
 
@@ -1133,8 +1133,8 @@ class VM14Splitter extends VM13SymSplitter {
         if (!start.equals(end)) {
             Vertex[] verts = lines.get(g);
             if ((verts[0].equals(start) || verts[0].equals(end)) && (verts[1].equals(start) || verts[1].equals(end))) {
-                result.add(new GData2(g.colourNumber, g.r, g.g, g.b, g.a, start.xp, start.yp, start.zp, target.xp, target.yp, target.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
-                result.add(new GData2(g.colourNumber, g.r, g.g, g.b, g.a, target.xp, target.yp, target.zp, end.xp, end.yp, end.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
+                result.add(new GData2(g.colourNumber, g.r, g.g, g.b, g.a, start.xp(), start.yp(), start.zp(), target.xp(), target.yp(), target.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
+                result.add(new GData2(g.colourNumber, g.r, g.g, g.b, g.a, target.xp(), target.yp(), target.zp(), end.xp(), end.yp(), end.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
             }
         }
         return result;
@@ -1287,9 +1287,9 @@ class VM14Splitter extends VM13SymSplitter {
 
     private List<GData3> splitQuad(Vertex v1, Vertex v2, Vertex v3, Vertex v4, Vertex target, GData4 g) {
         List<GData3> result = new ArrayList<>();
-        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, v4.xp, v4.yp, v4.zp, v1.xp, v1.yp, v1.zp, target.xp, target.yp, target.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
-        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, target.xp, target.yp, target.zp, v2.xp, v2.yp, v2.zp, v4.xp, v4.yp, v4.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
-        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, v2.xp, v2.yp, v2.zp, v3.xp, v3.yp, v3.zp, v4.xp, v4.yp, v4.zp, View.DUMMY_REFERENCE, linkedDatFile, true));
+        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, v4.xp(), v4.yp(), v4.zp(), v1.xp(), v1.yp(), v1.zp(), target.xp(), target.yp(), target.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
+        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, target.xp(), target.yp(), target.zp(), v2.xp(), v2.yp(), v2.zp(), v4.xp(), v4.yp(), v4.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
+        result.add(new GData3(g.colourNumber, g.r, g.g, g.b, g.a, v2.xp(), v2.yp(), v2.zp(), v3.xp(), v3.yp(), v3.zp(), v4.xp(), v4.yp(), v4.zp(), View.DUMMY_REFERENCE, linkedDatFile, true));
         return result;
     }
 
@@ -1299,8 +1299,8 @@ class VM14Splitter extends VM13SymSplitter {
         if (!start.equals(end)) {
             Vertex[] verts = condlines.get(g);
             if ((verts[0].equals(start) || verts[0].equals(end)) && (verts[1].equals(start) || verts[1].equals(end))) {
-                result.add(new GData5(g.colourNumber, g.r, g.g, g.b, g.a, start.xp, start.yp, start.zp, target.xp, target.yp, target.zp, g.x3p, g.y3p, g.z3p, g.x4p, g.y4p, g.z4p, View.DUMMY_REFERENCE, linkedDatFile));
-                result.add(new GData5(g.colourNumber, g.r, g.g, g.b, g.a, target.xp, target.yp, target.zp, end.xp, end.yp, end.zp, g.x3p, g.y3p, g.z3p, g.x4p, g.y4p, g.z4p, View.DUMMY_REFERENCE, linkedDatFile));
+                result.add(new GData5(g.colourNumber, g.r, g.g, g.b, g.a, start.xp(), start.yp(), start.zp(), target.xp(), target.yp(), target.zp(), g.x3p, g.y3p, g.z3p, g.x4p, g.y4p, g.z4p, View.DUMMY_REFERENCE, linkedDatFile));
+                result.add(new GData5(g.colourNumber, g.r, g.g, g.b, g.a, target.xp(), target.yp(), target.zp(), end.xp(), end.yp(), end.zp(), g.x3p, g.y3p, g.z3p, g.x4p, g.y4p, g.z4p, View.DUMMY_REFERENCE, linkedDatFile));
             }
         }
         return result;
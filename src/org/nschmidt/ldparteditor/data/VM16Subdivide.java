@@ -389,9 +389,9 @@ class VM16Subdivide extends VM15Flipper {
                 for (Vector3d vd : midEdge) {
                     np = Vector3d.add(np, vd);
                 }
-                np.setX(v.xp.multiply(alphaN2).add(np.x.multiply(oneMinusAlphaDivN, Threshold.MC)));
-                np.setY(v.yp.multiply(alphaN2).add(np.y.multiply(oneMinusAlphaDivN, Threshold.MC)));
-                np.setZ(v.zp.multiply(alphaN2).add(np.z.multiply(oneMinusAlphaDivN, Threshold.MC)));
+                np.setX(v.xp().multiply(alphaN2).add(np.x.multiply(oneMinusAlphaDivN, Threshold.MC)));
+                np.setY(v.yp().multiply(alphaN2).add(np.y.multiply(oneMinusAlphaDivN, Threshold.MC)));
+                np.setZ(v.zp().multiply(alphaN2).add(np.z.multiply(oneMinusAlphaDivN, Threshold.MC)));
                 newPoints.put(v, new Vertex(np));
             }
         }
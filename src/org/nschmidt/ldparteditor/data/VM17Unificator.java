@@ -33,6 +33,7 @@ import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.helper.composite3d.UnificatorSettings;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
+import org.nschmidt.ldparteditor.helper.math.VertexGrid;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -139,13 +140,13 @@ class VM17Unificator extends VM16Subdivide {
                     if (us.getSnapOn() == VERTICES || us.getSnapOn() == VERTICES_AND_SUBPART_VERTICES) {
                         monitor.subTask(I18n.VM_UNIFY);
                         int i = 0;
-                        int j = 0;
 
                         SortedMap<Vertex, Vertex> mergeTargets = new TreeMap<>();
                         {
                             SortedMap<Vertex, SortedSet<Vertex>> unifyGroups = new TreeMap<>();
                             SortedSet<Vertex> inGroup = new TreeSet<>();
 
+                            final VertexGrid grid = new VertexGrid(fileVertices, us.getVertexThreshold());
                             for (Vertex v1 : fileVertices) {
                                 if (us.getSnapOn() == VERTICES_AND_SUBPART_VERTICES && subfileVertices.contains(v1)) {
                                     i++;
@@ -153,17 +154,16 @@ class VM17Unificator extends VM16Subdivide {
                                 }
                                 SortedSet<Vertex> group = new TreeSet<>();
                                 group.add(v1);
-                                j = 0;
-                                for (Vertex v2 : fileVertices) {
+                                Vector3d v3d1 = new Vector3d(v1);
+                                for (int j : grid.getCandidates(v1, us.getVertexThreshold())) {
+                                    Vertex v2 = grid.get(j);
                                     if (j > i && !inGroup.contains(v2)) {
-                                        Vector3d v3d1 = new Vector3d(v1);
                                         Vector3d v3d2 = new Vector3d(v2);
                                         if (Vector3d.distSquare(v3d1, v3d2).compareTo(vt) < 0) {
                                             group.add(v2);
                                             inGroup.add(v2);
                                         }
                                     }
-                                    j++;
                                 }
                                 unifyGroups.put(v1, group);
                                 i++;
@@ -180,9 +180,9 @@ class VM17Unificator extends VM16Subdivide {
                                     BigDecimal z = BigDecimal.ZERO;
                                     BigDecimal gc = new BigDecimal(group.size());
                                     for (Vertex gv : group) {
-                                        x = x.add(gv.xp);
-                                        y = y.add(gv.yp);
-                                        z = z.add(gv.zp);
+                                        x = x.add(gv.xp());
+                                        y = y.add(gv.yp());
+                                        z = z.add(gv.zp());
                                     }
                                     x = x.divide(gc, Threshold.MC);
                                     y = y.divide(gc, Threshold.MC);
@@ -217,11 +217,13 @@ class VM17Unificator extends VM16Subdivide {
                             SortedMap<Vertex, SortedSet<Vertex>> unifyGroups = new TreeMap<>();
                             SortedSet<Vertex> inGroup = new TreeSet<>();
 
+                            final VertexGrid grid = new VertexGrid(fileVertices, us.getSubvertexThreshold());
                             for (Vertex v1 : subfileVertices) {
                                 SortedSet<Vertex> group = new TreeSet<>();
-                                for (Vertex v2 : fileVertices) {
+                                Vector3d v3d1 = new Vector3d(v1);
+                                for (int j : grid.getCandidates(v1, us.getSubvertexThreshold())) {
+                                    Vertex v2 = grid.get(j);
                                     if (!inGroup.contains(v2)) {
-                                        Vector3d v3d1 = new Vector3d(v1);
                                         Vector3d v3d2 = new Vector3d(v2);
                                         if (Vector3d.distSquare(v3d1, v3d2).compareTo(st) < 0) {
                                             group.add(v2);
@@ -76,15 +76,15 @@ public class VM20Manipulator extends VM19ColourChanger {
         // Calculate the new vertex position
         if (newVertex == null) {
             for (Vertex v : allVertices) {
-                BigDecimal[] temp = transformation.transform(v.xp, v.yp, v.zp);
+                BigDecimal[] temp = transformation.transform(v.xp(), v.yp(), v.zp());
                 oldToNewVertex.put(v, new Vertex(temp[0], temp[1], temp[2]));
             }
         } else {
             for (Vertex v : allVertices) {
                 oldToNewVertex.put(v, new Vertex(
-                        newVertex.x == null ? v.xp : newVertex.x,
-                                newVertex.y == null ? v.yp : newVertex.y,
-                                        newVertex.z == null ? v.zp : newVertex.z
+                        newVertex.x == null ? v.xp() : newVertex.x,
+                                newVertex.y == null ? v.yp() : newVertex.y,
+                                        newVertex.z == null ? v.zp() : newVertex.z
                         ));
             }
         }
@@ -620,7 +620,7 @@ public class VM20Manipulator extends VM19ColourChanger {
         boolean swapWinding = false;
         Matrix transformation = null;
         Vertex offset = null;
-        if (tm == TransformationMode.TRANSLATE) offset = new Vertex(target.xp, target.yp, target.zp);
+        if (tm == TransformationMode.TRANSLATE) offset = new Vertex(target.xp(), target.yp(), target.zp());
 
         if (pivot == null) pivot = new Vertex(0f, 0f, 0f);
 
@@ -629,7 +629,7 @@ public class VM20Manipulator extends VM19ColourChanger {
             RotationSnap flag;
             if (x) {
                 try {
-                    final int angle = target.xp.intValueExact();
+                    final int angle = target.xp().intValueExact();
                     switch (Math.abs(angle)) {
                     case 90:
                         flag = RotationSnap.DEG90;
@@ -650,10 +650,10 @@ public class VM20Manipulator extends VM19ColourChanger {
                 } catch (ArithmeticException ae) {
                     flag = RotationSnap.COMPLEX;
                 }
-                transformation = View.ACCURATE_ID.rotate(target.xp.divide(new BigDecimal(180), Threshold.MC).multiply(BigDecimal.valueOf(Math.PI)), flag, new BigDecimal[] { BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO });
+                transformation = View.ACCURATE_ID.rotate(target.xp().divide(new BigDecimal(180), Threshold.MC).multiply(BigDecimal.valueOf(Math.PI)), flag, new BigDecimal[] { BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO });
             } else if (y) {
                 try {
-                    final int angle = target.yp.intValueExact();
+                    final int angle = target.yp().intValueExact();
                     switch (Math.abs(angle)) {
                     case 90:
                         flag = RotationSnap.DEG90;
@@ -674,10 +674,10 @@ public class VM20Manipulator extends VM19ColourChanger {
                 } catch (ArithmeticException ae) {
                     flag = RotationSnap.COMPLEX;
                 }
-                transformation = View.ACCURATE_ID.rotate(target.yp.divide(new BigDecimal(180), Threshold.MC).multiply(BigDecimal.valueOf(Math.PI)), flag, new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO });
+                transformation = View.ACCURATE_ID.rotate(target.yp().divide(new BigDecimal(180), Threshold.MC).multiply(BigDecimal.valueOf(Math.PI)), flag, new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO });
             } else {
                 try {
-                    final int angle = target.zp.intValueExact();
+                    final int angle = target.zp().intValueExact();
                     switch (Math.abs(angle)) {
                     case 90:
                         flag = RotationSnap.DEG90;
@@ -698,13 +698,13 @@ public class VM20Manipulator extends VM19ColourChanger {
                 } catch (ArithmeticException ae) {
                     flag = RotationSnap.COMPLEX;
                 }
-                transformation = View.ACCURATE_ID.rotate(target.zp.divide(new BigDecimal(180), Threshold.MC).multiply(BigDecimal.valueOf(Math.PI)), flag, new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE });
+                transformation = View.ACCURATE_ID.rotate(target.zp().divide(new BigDecimal(180), Threshold.MC).multiply(BigDecimal.valueOf(Math.PI)), flag, new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE });
             }
             break;
         case SCALE:
-            BigDecimal sx = target.xp;
-            BigDecimal sy = target.yp;
-            BigDecimal sz = target.zp;
+            BigDecimal sx = target.xp();
+            BigDecimal sy = target.yp();
+            BigDecimal sz = target.zp();
 
             int count = 0;
             int cmp1 = 0;
@@ -731,7 +731,7 @@ public class VM20Manipulator extends VM19ColourChanger {
                     BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
                     BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO,
                     BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO,
-                    x ? offset.xp : BigDecimal.ZERO, y ? offset.yp : BigDecimal.ZERO, z ? offset.zp : BigDecimal.ZERO, BigDecimal.ONE);
+                    x ? offset.xp() : BigDecimal.ZERO, y ? offset.yp() : BigDecimal.ZERO, z ? offset.zp() : BigDecimal.ZERO, BigDecimal.ONE);
             break;
         default:
             break;
@@ -739,7 +739,7 @@ public class VM20Manipulator extends VM19ColourChanger {
 
         if (tm == TransformationMode.SET) {
 
-            transformSelection(View.ACCURATE_ID, new Vector3d(x ? target.xp : null,  y ? target.yp : null, z ? target.zp : null), moveAdjacentData);
+            transformSelection(View.ACCURATE_ID, new Vector3d(x ? target.xp() : null,  y ? target.yp() : null, z ? target.zp() : null), moveAdjacentData);
 
         } else {
 
@@ -759,8 +759,8 @@ public class VM20Manipulator extends VM19ColourChanger {
                 transformation = Matrix.mul(transformation, mi);
             }
 
-            final Matrix forward = Matrix.mul(View.ACCURATE_ID.translate(new BigDecimal[] { pivot.xp.negate(), pivot.yp.negate(), pivot.zp.negate() }), View.ACCURATE_ID);
-            final Matrix backward = Matrix.mul(View.ACCURATE_ID.translate(new BigDecimal[] { pivot.xp, pivot.yp, pivot.zp }), View.ACCURATE_ID);
+            final Matrix forward = Matrix.mul(View.ACCURATE_ID.translate(new BigDecimal[] { pivot.xp().negate(), pivot.yp().negate(), pivot.zp().negate() }), View.ACCURATE_ID);
+            final Matrix backward = Matrix.mul(View.ACCURATE_ID.translate(new BigDecimal[] { pivot.xp(), pivot.yp(), pivot.zp() }), View.ACCURATE_ID);
 
             transformation = Matrix.mul(backward, transformation);
             transformation = Matrix.mul(transformation, forward);
@@ -802,12 +802,14 @@ public class VM20Manipulator extends VM19ColourChanger {
         }
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         GData1 reloadedSubfile = (GData1) DatParser
                 .parseLine("1 " + colourBuilder.toString() + m.toLDrawString() + g.shortName , 0, 0, col16.getR(), col16.getG(), col16.getB(), 1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, linkedDatFile, false, //$NON-NLS-1$
                         new HashSet<>()).get(0).getGraphicalData();
         // Clear the cache..
         GData.parsedLines.clear();
+        GData.CACHE_subfileTemplates.clear();
         GData.CACHE_parsedFilesSource.clear();
         // The transformation can be invalid!
         if (reloadedSubfile != null) {
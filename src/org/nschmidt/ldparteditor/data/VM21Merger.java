@@ -35,6 +35,7 @@ import org.nschmidt.ldparteditor.helper.composite3d.SelectorSettings;
 import org.nschmidt.ldparteditor.helper.math.Rational;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.helper.math.Vector3r;
+import org.nschmidt.ldparteditor.helper.math.VertexGrid;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 
 public class VM21Merger extends VM20Manipulator {
@@ -247,29 +248,26 @@ public class VM21Merger extends VM20Manipulator {
                 allVerticesMinusSelection.addAll(getVertices());
                 allVerticesMinusSelection.removeAll(originVerts);
                 clearSelection();
+                final VertexGrid grid = new VertexGrid(allVerticesMinusSelection, BigDecimal.ZERO);
                 for (Vertex vertex2 : originVerts) {
                     selectedVertices.clear();
                     selectedVertices.add(vertex2);
                     Vertex minVertex = new Vertex(0f, 0f, 0f);
                     Vector4f next = vertex2.toVector4fm();
-                    for (Vertex vertex : allVerticesMinusSelection) {
-                        Vector4f sub = Vector4f.sub(next, vertex.toVector4fm(), null);
-                        float d2 = sub.lengthSquared();
-                        if (d2 < minDist) {
-                            // Don't merge to condline control points
-                            boolean dontMerge = true;
-                            for (VertexManifestation mani : vertexLinkedToPositionInFile.getOrDefault(vertex, Set.of())) {
-                                if (!(mani.gdata() instanceof GData5) || mani.position() < 2) {
-                                    dontMerge = false;
-                                    break;
+                    final int nearest = grid.getNearest(vertex2, minDist,
+                            index -> Vector4f.sub(next, grid.get(index).toVector4fm(), null).lengthSquared(),
+                            index -> {
+                                // Don't merge to condline control points
+                                for (VertexManifestation mani : vertexLinkedToPositionInFile.getOrDefault(grid.get(index), Set.of())) {
+                                    if (!(mani.gdata() instanceof GData5) || mani.position() < 2) {
+                                        return true;
+                                    }
                                 }
-                            }
-                            
-                            if (dontMerge) continue;
-                            
-                            minVertex = vertex;
-                            minDist = d2;
-                        }
+                                return false;
+                            });
+                    if (nearest != -1) {
+                        minVertex = grid.get(nearest);
+                        minDist = Vector4f.sub(next, minVertex.toVector4fm(), null).lengthSquared();
                     }
                     newVertex = new Vector3d(minVertex);
                     Merger.mergeTo(new Vertex(newVertex), this, linkedDatFile, false);
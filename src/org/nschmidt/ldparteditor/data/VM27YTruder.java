@@ -106,12 +106,12 @@ class VM27YTruder extends VM26LineIntersector {
         for (GData2 gData2 : originalSelection) {
             Vertex[] verts = lines.get(gData2);
             if (verts != null) {
-                inLine[originalLineCount][0][x] = verts[0].xp.doubleValue();
-                inLine[originalLineCount][0][y] = verts[0].yp.doubleValue();
-                inLine[originalLineCount][0][z] = verts[0].zp.doubleValue();
-                inLine[originalLineCount][1][x] = verts[1].xp.doubleValue();
-                inLine[originalLineCount][1][y] = verts[1].yp.doubleValue();
-                inLine[originalLineCount][1][z] = verts[1].zp.doubleValue();
+                inLine[originalLineCount][0][x] = verts[0].xp().doubleValue();
+                inLine[originalLineCount][0][y] = verts[0].yp().doubleValue();
+                inLine[originalLineCount][0][z] = verts[0].zp().doubleValue();
+                inLine[originalLineCount][1][x] = verts[1].xp().doubleValue();
+                inLine[originalLineCount][1][y] = verts[1].yp().doubleValue();
+                inLine[originalLineCount][1][z] = verts[1].zp().doubleValue();
                 lineUsed[originalLineCount] = 0;
                 originalLineCount++;
             }
@@ -404,7 +404,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
             }
 
             for (Vertex v : singleVertices) {
-                CLIPBOARD.add(new GData0("0 !LPE VERTEX " + bigDecimalToString(v.xp) + " " + bigDecimalToString(v.yp) + " " + bigDecimalToString(v.zp), View.DUMMY_REFERENCE)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$)
+                CLIPBOARD.add(new GData0("0 !LPE VERTEX " + bigDecimalToString(v.xp()) + " " + bigDecimalToString(v.yp()) + " " + bigDecimalToString(v.zp()), View.DUMMY_REFERENCE)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$)
             }
 
             // 5. Create text data entry in the OS clipboard
@@ -893,11 +893,11 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
         CLIPBOARD_InvNext.clear();
         final StringBuilder sb = new StringBuilder();
         sb.append("0 !LPE VERTEX "); //$NON-NLS-1$
-        sb.append(MathHelper.bigDecimalToString(vertex.xp));
+        sb.append(MathHelper.bigDecimalToString(vertex.xp()));
         sb.append(" "); //$NON-NLS-1$
-        sb.append(MathHelper.bigDecimalToString(vertex.yp));
+        sb.append(MathHelper.bigDecimalToString(vertex.yp()));
         sb.append(" "); //$NON-NLS-1$
-        sb.append(MathHelper.bigDecimalToString(vertex.zp));
+        sb.append(MathHelper.bigDecimalToString(vertex.zp()));
         CLIPBOARD.add(new GData0(sb.toString(), View.DUMMY_REFERENCE));
     }
 
@@ -16,7 +16,6 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.data;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 import org.lwjgl.util.vector.Vector4f;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
@@ -27,11 +26,14 @@ import org.nschmidt.ldparteditor.helper.math.Vector3r;
  */
 public class Vertex implements Comparable<Vertex> {
 
-    private static final float EPSILON = 0.0001f;
-
-    public final BigDecimal xp;
-    public final BigDecimal yp;
-    public final BigDecimal zp;
+    private BigDecimal xp;
+    private BigDecimal yp;
+    private BigDecimal zp;
+    /**
+     * The transformation which has to be applied to {@link #xp}, {@link #yp}
+     * and {@link #zp} before they can be read (or {@code null})
+     */
+    private volatile Matrix pendingTransformation;
     public final float x;
     public final float y;
     public final float z;
@@ -48,21 +50,13 @@ public class Vertex implements Comparable<Vertex> {
         this.y = vertex.y;
         this.z = vertex.z;
 
-        BigDecimal rx = new BigDecimal(this.x);
-        xp = rx.scaleByPowerOfTen(-3);
-        rx = rx.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal ry = new BigDecimal(this.y);
-        yp = ry.scaleByPowerOfTen(-3);
-        ry = ry.setScale(2, RoundingMode.HALF_UP);
+        xp = new BigDecimal(this.x).scaleByPowerOfTen(-3);
+        yp = new BigDecimal(this.y).scaleByPowerOfTen(-3);
+        zp = new BigDecimal(this.z).scaleByPowerOfTen(-3);
 
-        BigDecimal rz = new BigDecimal(this.z);
-        zp = rz.scaleByPowerOfTen(-3);
-        rz = rz.setScale(2, RoundingMode.HALF_UP);
-
-        this.roundedX = rx.floatValue();
-        this.roundedY = ry.floatValue();
-        this.roundedZ = rz.floatValue();
+        this.roundedX = round(this.x);
+        this.roundedY = round(this.y);
+        this.roundedZ = round(this.z);
 
         this.vector4f = new Vector4f(vertex);
 
@@ -74,7 +68,6 @@ public class Vertex implements Comparable<Vertex> {
     }
 
     // High accuracy version
-    @SuppressWarnings("java:S2111")
     public Vertex(BigDecimal bx, BigDecimal by, BigDecimal bz) {
 
         this.x = bx.floatValue() * 1000f;
@@ -87,22 +80,12 @@ public class Vertex implements Comparable<Vertex> {
         this.yp = by;
         this.zp = bz;
 
-        BigDecimal rx = new BigDecimal(this.x);
-        rx = rx.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal ry = new BigDecimal(this.y);
-        ry = ry.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal rz = new BigDecimal(this.z);
-        rz = rz.setScale(2, RoundingMode.HALF_UP);
-
-        this.roundedX = rx.floatValue();
-        this.roundedY = ry.floatValue();
-        this.roundedZ = rz.floatValue();
+        this.roundedX = round(this.x);
+        this.roundedY = round(this.y);
+        this.roundedZ = round(this.z);
     }
 
     // High performance version / only for texture rendering, primitive preview
-    @SuppressWarnings("java:S2111")
     public Vertex(float vx, float vy, float vz, boolean hp) {
 
         this.x = vx;
@@ -114,23 +97,33 @@ public class Vertex implements Comparable<Vertex> {
         this.yp = null;
         this.zp = null;
 
-        BigDecimal rx = new BigDecimal(this.x);
-        rx = rx.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal ry = new BigDecimal(this.y);
-        ry = ry.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal rz = new BigDecimal(this.z);
-        rz = rz.setScale(2, RoundingMode.HALF_UP);
-
-        this.roundedX = rx.floatValue();
-        this.roundedY = ry.floatValue();
-        this.roundedZ = rz.floatValue();
+        this.roundedX = round(this.x);
+        this.roundedY = round(this.y);
+        this.roundedZ = round(this.z);
     }
 
     // High accuracy version (better performance)
-    @SuppressWarnings("java:S2111")
     Vertex(BigDecimal bx, BigDecimal by, BigDecimal bz, Vector4f vertex) {
+        this(bx, by, bz, null, vertex);
+    }
+
+    /**
+     * High accuracy version for transformed vertices (e.g. from subfiles).
+     * The accurate transformation is only calculated when the accurate
+     * coordinates are read for the first time.
+     *
+     * @param bx
+     *            the untransformed x coordinate
+     * @param by
+     *            the untransformed y coordinate
+     * @param bz
+     *            the untransformed z coordinate
+     * @param transformation
+     *            the accurate transformation (can be {@code null})
+     * @param vertex
+     *            the already transformed vertex
+     */
+    Vertex(BigDecimal bx, BigDecimal by, BigDecimal bz, Matrix transformation, Vector4f vertex) {
 
         this.x = vertex.x;
         this.y = vertex.y;
@@ -141,19 +134,11 @@ public class Vertex implements Comparable<Vertex> {
         this.xp = bx;
         this.yp = by;
         this.zp = bz;
+        this.pendingTransformation = transformation;
 
-        BigDecimal rx = new BigDecimal(this.x);
-        rx = rx.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal ry = new BigDecimal(this.y);
-        ry = ry.setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal rz = new BigDecimal(this.z);
-        rz = rz.setScale(2, RoundingMode.HALF_UP);
-
-        this.roundedX = rx.floatValue();
-        this.roundedY = ry.floatValue();
-        this.roundedZ = rz.floatValue();
+        this.roundedX = round(this.x);
+        this.roundedY = round(this.y);
+        this.roundedZ = round(this.z);
     }
 
     public Vertex(float x, float y, float z) {
@@ -168,6 +153,41 @@ public class Vertex implements Comparable<Vertex> {
         this(vector3r.x.bigDecimalValue(), vector3r.y.bigDecimalValue(), vector3r.z.bigDecimalValue());
     }
 
+    /**
+     * @return the accurate x coordinate
+     */
+    public final BigDecimal xp() {
+        if (pendingTransformation != null) applyTransformation();
+        return xp;
+    }
+
+    /**
+     * @return the accurate y coordinate
+     */
+    public final BigDecimal yp() {
+        if (pendingTransformation != null) applyTransformation();
+        return yp;
+    }
+
+    /**
+     * @return the accurate z coordinate
+     */
+    public final BigDecimal zp() {
+        if (pendingTransformation != null) applyTransformation();
+        return zp;
+    }
+
+    private synchronized void applyTransformation() {
+        final Matrix transformation = pendingTransformation;
+        if (transformation != null) {
+            final BigDecimal[] result = transformation.transform(xp, yp, zp);
+            xp = result[0];
+            yp = result[1];
+            zp = result[2];
+            pendingTransformation = null;
+        }
+    }
+
     public final Vector4f toVector4f() {
         return new Vector4f(vector4f);
     }
@@ -176,9 +196,27 @@ public class Vertex implements Comparable<Vertex> {
         return vector4f;
     }
 
+    /**
+     * Rounds the value to two decimal places (half up, like
+     * {@code new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).floatValue()}).
+     * The product with 100 is exact in double precision. The quotient is
+     * rounded twice (to double, then to float), but a value with two decimal
+     * places is never close enough to the middle between two floats for the
+     * second rounding to differ from BigDecimal.floatValue().
+     */
+    private static float round(float value) {
+        final double scaled = Math.floor(Math.abs((double) value) * 100.0 + 0.5) / 100.0;
+        // Adding 0f turns -0f into 0f
+        return (float) (value < 0f ? -scaled : scaled) + 0f;
+    }
+
     @Override
     public int hashCode() {
-        return 1337;
+        // Two different rounded values are at least 0.0078 apart,
+        // therefore equal vertices have the same rounded values.
+        int result = Float.floatToIntBits(roundedX);
+        result = 31 * result + Float.floatToIntBits(roundedY);
+        return 31 * result + Float.floatToIntBits(roundedZ);
     }
 
     @Override
@@ -188,8 +226,7 @@ public class Vertex implements Comparable<Vertex> {
         }
 
         Vertex other = (Vertex) obj;
-        return Math.abs(roundedX - other.roundedX) < EPSILON && Math.abs(roundedY - other.roundedY) < EPSILON
-                && Math.abs(roundedZ - other.roundedZ) < EPSILON;
+        return roundedX == other.roundedX && roundedY == other.roundedY && roundedZ == other.roundedZ;
     }
 
     @Override
@@ -199,35 +236,14 @@ public class Vertex implements Comparable<Vertex> {
 
     @Override
     public int compareTo(Vertex o) {
-        {
-            float d1 = roundedX - o.roundedX;
-            int c1 = Float.compare(Math.abs(d1), EPSILON);
-            switch (c1) {
-            case 0, 1:
-                return d1 < 0f ? -1 : 1;
-            default:
-                break;
-            }
+        if (roundedX != o.roundedX) {
+            return roundedX < o.roundedX ? -1 : 1;
         }
-        {
-            float d1 = roundedY - o.roundedY;
-            int c1 = Float.compare(Math.abs(d1), EPSILON);
-            switch (c1) {
-            case 0, 1:
-                return d1 < 0f ? -1 : 1;
-            default:
-                break;
-            }
+        if (roundedY != o.roundedY) {
+            return roundedY < o.roundedY ? -1 : 1;
         }
-        {
-            float d1 = roundedZ - o.roundedZ;
-            int c1 = Float.compare(Math.abs(d1), EPSILON);
-            switch (c1) {
-            case 0, 1:
-                return d1 < 0f ? -1 : 1;
-            default:
-                break;
-            }
+        if (roundedZ != o.roundedZ) {
+            return roundedZ < o.roundedZ ? -1 : 1;
         }
         return 0;
     }
@@ -0,0 +1,249 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.nschmidt.ldparteditor.enumtype.View;
+import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+import org.nschmidt.ldparteditor.logger.NLogger;
+
+/**
+ * The shared (work-stealing) thread pool for the parallel operations of the
+ * data layer. It replaces the threads which were created for every single
+ * operation.
+ */
+public enum WorkerPool {
+    INSTANCE;
+
+    @FunctionalInterface
+    public interface RangeTask {
+        /**
+         * Processes the indices from {@code start} (inclusive) to {@code end}
+         * (exclusive)
+         */
+        void run(int start, int end);
+    }
+
+    /** How long a monitor waits before it checks the cancel button again */
+    private static final long POLL_MILLIS = 20L;
+    /** More chunks than cores, so that idle workers can steal work */
+    private static final int CHUNKS_PER_CORE = 4;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(View.NUM_CORES, pool -> {
+        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("LDPartEditor worker " + thread.getPoolIndex()); //$NON-NLS-1$
+        thread.setDaemon(true);
+        return thread;
+    }, (thread, t) -> NLogger.error(WorkerPool.class, t), false);
+
+    private static final AtomicLong COMPLETED_TASKS = new AtomicLong();
+    private static final AtomicLong TASK_NANOS = new AtomicLong();
+
+    /**
+     * A group of tasks. The tasks can check {@link #isCancelled()} to return
+     * early when the job was cancelled.
+     */
+    public static final class Job {
+
+        private final AtomicInteger remaining = new AtomicInteger(0);
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+        private final Object doneLock = new Object();
+        private final long startTime = System.nanoTime();
+
+        private Job() {
+        }
+
+        /**
+         * Runs {@code task.accept(i)} for each {@code i} from {@code 0} to
+         * {@code taskCount - 1} on the pool
+         */
+        public Job run(int taskCount, IntConsumer task) {
+            remaining.addAndGet(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                final int index = i;
+                POOL.execute(() -> {
+                    final long start = System.nanoTime();
+                    try {
+                        task.accept(index);
+                    } catch (RuntimeException re) {
+                        NLogger.error(WorkerPool.class, re);
+                    } finally {
+                        taskDone(System.nanoTime() - start);
+                    }
+                });
+            }
+            return this;
+        }
+
+        /**
+         * Runs a single task on the pool
+         */
+        public Job run(Runnable task) {
+            return run(1, i -> task.run());
+        }
+
+        /**
+         * Splits the index range into chunks and processes them on the pool
+         */
+        public Job parallelFor(int start, int end, RangeTask task) {
+            final int count = Math.max(end - start, 0);
+            final int chunks = Math.clamp(count, 1, View.NUM_CORES * CHUNKS_PER_CORE);
+            return run(chunks, chunk -> {
+                final int chunkStart = start + (int) ((long) count * chunk / chunks);
+                final int chunkEnd = start + (int) ((long) count * (chunk + 1) / chunks);
+                if (chunkStart < chunkEnd) {
+                    task.run(chunkStart, chunkEnd);
+                }
+            });
+        }
+
+        /**
+         * Processes the elements of the list in chunks on the pool
+         */
+        public <T> Job parallelFor(List<T> items, Consumer<? super T> action) {
+            return parallelFor(0, items.size(), (start, end) -> {
+                for (int i = start; i < end; i++) {
+                    action.accept(items.get(i));
+                }
+            });
+        }
+
+        /**
+         * Requests the cancellation. The tasks have to check
+         * {@link #isCancelled()} and return early.
+         */
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        public boolean isDone() {
+            return remaining.get() == 0;
+        }
+
+        /**
+         * Waits until all tasks are done
+         */
+        public void await() {
+            while (!await(Long.MAX_VALUE)) {
+                // Wait
+            }
+        }
+
+        /**
+         * Waits until all tasks are done or the timeout has elapsed
+         *
+         * @return {@code true} if all tasks are done
+         */
+        public boolean await(long timeoutMillis) {
+            final long deadline = System.currentTimeMillis() + Math.min(timeoutMillis, Long.MAX_VALUE / 2);
+            synchronized (doneLock) {
+                while (!isDone()) {
+                    final long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0L) return false;
+                    try {
+                        doneLock.wait(wait);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new LDPartEditorException(ie);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Waits until all tasks are done and cancels the job when the user
+         * presses the cancel button of the progress monitor
+         */
+        public void awaitOrCancel(IProgressMonitor monitor) {
+            while (!await(POLL_MILLIS)) {
+                if (monitor.isCanceled()) {
+                    cancel();
+                }
+            }
+        }
+
+        private void taskDone(long nanos) {
+            COMPLETED_TASKS.incrementAndGet();
+            TASK_NANOS.addAndGet(nanos);
+            if (remaining.decrementAndGet() == 0) {
+                synchronized (doneLock) {
+                    doneLock.notifyAll();
+                }
+                NLogger.debug(WorkerPool.class, "Job finished after {0}ms, queue depth {1}, average task time {2}ms", //$NON-NLS-1$
+                        (System.nanoTime() - startTime) / 1_000_000L, getQueueDepth(), getAverageTaskMillis());
+            }
+        }
+    }
+
+    /**
+     * @return a new job, the tasks are added with the run and parallelFor
+     *         methods of the job
+     */
+    public static Job newJob() {
+        return new Job();
+    }
+
+    /**
+     * Runs a single task on the pool
+     */
+    public static Job run(Runnable task) {
+        return new Job().run(task);
+    }
+
+    /**
+     * Splits the index range into chunks and processes them on the pool
+     */
+    public static Job parallelFor(int start, int end, RangeTask task) {
+        return new Job().parallelFor(start, end, task);
+    }
+
+    /**
+     * Processes the elements of the list in chunks on the pool
+     */
+    public static <T> Job parallelFor(List<T> items, Consumer<? super T> action) {
+        return new Job().parallelFor(items, action);
+    }
+
+    /**
+     * @return the number of tasks which are waiting for a worker
+     */
+    public static long getQueueDepth() {
+        return POOL.getQueuedSubmissionCount() + POOL.getQueuedTaskCount();
+    }
+
+    public static long getCompletedTaskCount() {
+        return COMPLETED_TASKS.get();
+    }
+
+    public static double getAverageTaskMillis() {
+        final long count = COMPLETED_TASKS.get();
+        return count == 0L ? 0.0 : TASK_NANOS.get() / 1_000_000.0 / count;
+    }
+}
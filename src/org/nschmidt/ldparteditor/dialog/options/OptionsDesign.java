@@ -89,6 +89,7 @@ class OptionsDesign extends ApplicationWindow {
     NButton[] btnDisableMADtextPtr = new NButton[1];
     NButton[] btnInvertInvertWheelZoomDirectionPtr = new NButton[1];
     NButton[] btnShowAxisLabelsPtr = new NButton[1];
+    NButton[] btnUseLibraryCachePtr = new NButton[1];
     NButton[] btnOkPtr = new NButton[1];
 
     final Combo[] cmbTextWinArrPtr = new Combo[1];
@@ -106,6 +107,8 @@ class OptionsDesign extends ApplicationWindow {
     final BigDecimalSpinner[] spnCoplanarityWarningPtr = new BigDecimalSpinner[1];
     final BigDecimalSpinner[] spnCoplanarityErrorPtr = new BigDecimalSpinner[1];
     final IntegerSpinner[] spnDataFileSizeLimitPtr = new IntegerSpinner[1];
+    final IntegerSpinner[] spnUndoHistoryLimitPtr = new IntegerSpinner[1];
+    final BigDecimalSpinner[] spnStlWeldDistancePtr = new BigDecimalSpinner[1];
     final BigDecimalSpinner[] spnViewportScalePtr = new BigDecimalSpinner[1];
     final Map<String, Locale> localeMap = new HashMap<>();
 
@@ -215,6 +218,11 @@ class OptionsDesign extends ApplicationWindow {
                 btnShowAxisLabels.setText(I18n.KEYBOARD_SHOW_AXIS_LABELS);
                 btnShowAxisLabels.setSelection(userSettings.isShowingAxisLabels());
 
+                NButton btnUseLibraryCache = new NButton(cmpContainer, SWT.CHECK);
+                this.btnUseLibraryCachePtr[0] = btnUseLibraryCache;
+                btnUseLibraryCache.setText(I18n.OPTIONS_LIBRARY_CACHE);
+                btnUseLibraryCache.setSelection(userSettings.isUsingLibraryCache());
+
                 {
                     Label lblSeparator = new Label(cmpContainer, SWT.SEPARATOR | SWT.HORIZONTAL);
                     lblSeparator.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
@@ -271,6 +279,28 @@ class OptionsDesign extends ApplicationWindow {
                 spnDataFileSizeLimit.setMinimum(45);
                 spnDataFileSizeLimit.setValue(userSettings.getDataFileSizeLimit());
                 spnDataFileSizeLimit.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+
+                Label lblUndoHistoryLimit = new Label(cmpContainer, SWT.NONE);
+                lblUndoHistoryLimit.setText(I18n.OPTIONS_UNDO_HISTORY_LIMIT);
+                lblUndoHistoryLimit.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+
+                IntegerSpinner spnUndoHistoryLimit = new IntegerSpinner(cmpContainer, Cocoa.getStyle());
+                this.spnUndoHistoryLimitPtr[0] = spnUndoHistoryLimit;
+                spnUndoHistoryLimit.setMaximum(4096);
+                spnUndoHistoryLimit.setMinimum(8);
+                spnUndoHistoryLimit.setValue(userSettings.getUndoHistoryLimit());
+                spnUndoHistoryLimit.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+
+                Label lblStlWeldDistance = new Label(cmpContainer, SWT.NONE);
+                lblStlWeldDistance.setText(I18n.OPTIONS_STL_WELD_DISTANCE);
+                lblStlWeldDistance.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+
+                BigDecimalSpinner spnStlWeldDistance = new BigDecimalSpinner(cmpContainer, Cocoa.getStyle());
+                this.spnStlWeldDistancePtr[0] = spnStlWeldDistance;
+                spnStlWeldDistance.setMaximum(BigDecimal.TEN);
+                spnStlWeldDistance.setMinimum(BigDecimal.ZERO);
+                spnStlWeldDistance.setValue(new BigDecimal(userSettings.getStlWeldDistance()));
+                spnStlWeldDistance.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
                 
                 {
                     Label lblSeparator = new Label(cmpContainer, SWT.SEPARATOR | SWT.HORIZONTAL);
@@ -59,6 +59,7 @@ public class OptionsDialog extends OptionsDesign {
         widgetUtil(btnTranslateViewByCursorPtr[0]).addSelectionListener(e -> WorkbenchManager.getUserSettingState().setTranslatingViewByCursor( btnTranslateViewByCursorPtr[0].getSelection()));
         widgetUtil(btnDisableMAD3DPtr[0]).addSelectionListener(e -> WorkbenchManager.getUserSettingState().setDisableMAD3D(btnDisableMAD3DPtr[0].getSelection()));
         widgetUtil(btnDisableMADtextPtr[0]).addSelectionListener(e -> WorkbenchManager.getUserSettingState().setDisableMADtext(btnDisableMADtextPtr[0].getSelection()));
+        widgetUtil(btnUseLibraryCachePtr[0]).addSelectionListener(e -> WorkbenchManager.getUserSettingState().setUsingLibraryCache(btnUseLibraryCachePtr[0].getSelection()));
         widgetUtil(btnInvertInvertWheelZoomDirectionPtr[0]).addSelectionListener(e -> WorkbenchManager.getUserSettingState().setInvertingWheelZoomDirection(btnInvertInvertWheelZoomDirectionPtr[0].getSelection()));
         widgetUtil(btnShowAxisLabelsPtr[0]).addSelectionListener(e -> {
             WorkbenchManager.getUserSettingState().setShowingAxisLabels(btnShowAxisLabelsPtr[0].getSelection());
@@ -182,6 +183,14 @@ public class OptionsDialog extends OptionsDesign {
             final int sizeLimitInKiloBytes = spnDataFileSizeLimitPtr[0].getValue();
             userSettingState.setDataFileSizeLimit(sizeLimitInKiloBytes);
         });
+        spnUndoHistoryLimitPtr[0].addValueChangeListener(spn -> {
+            final int sizeLimitInMegaBytes = spnUndoHistoryLimitPtr[0].getValue();
+            userSettingState.setUndoHistoryLimit(sizeLimitInMegaBytes);
+        });
+        spnStlWeldDistancePtr[0].addValueChangeListener(spn -> {
+            final double weldDistance = spnStlWeldDistancePtr[0].getValue().doubleValue();
+            userSettingState.setStlWeldDistance(weldDistance);
+        });
         spnViewportScalePtr[0].addValueChangeListener(spn -> {
             final double scaleFactor = spnViewportScalePtr[0].getValue().doubleValue();
             userSettingState.setViewportScaleFactor(scaleFactor);
@@ -58,13 +58,13 @@ public class RotateDialog extends RotateDesign {
         if (v == null) {
             setAngles(new Vertex(0f, 0f, 0f));
         } else {
-            setAngles(new Vertex(v.xp, v.yp, v.zp));
+            setAngles(new Vertex(v.xp(), v.yp(), v.zp()));
         }
         if (clipboardVertices.size() == 1) {
             p = clipboardVertices.iterator().next();
-            c = new Vertex(p.xp, p.yp, p.zp);
+            c = new Vertex(p.xp(), p.yp(), p.zp());
         } else if (transformationMode == ManipulatorScope.LOCAL && manipulatorPosition != null) {
-            pivot = new Vertex(m.xp, m.yp, m.zp);
+            pivot = new Vertex(m.xp(), m.yp(), m.zp());
         }
     }
 
@@ -136,14 +136,14 @@ public class RotateDialog extends RotateDesign {
         spnPYPtr[0].addValueChangeListener(spn -> setPivot(new Vertex(spnPXPtr[0].getValue(), spnPYPtr[0].getValue(), spnPZPtr[0].getValue())));
         spnPZPtr[0].addValueChangeListener(spn -> setPivot(new Vertex(spnPXPtr[0].getValue(), spnPYPtr[0].getValue(), spnPZPtr[0].getValue())));
         widgetUtil(btnPivotManipulatorPtr[0]).addSelectionListener(e -> {
-            spnPXPtr[0].setValue(m.xp);
-            spnPYPtr[0].setValue(m.yp);
-            spnPZPtr[0].setValue(m.zp);
+            spnPXPtr[0].setValue(m.xp());
+            spnPYPtr[0].setValue(m.yp());
+            spnPZPtr[0].setValue(m.zp());
         });
         widgetUtil(btnPivotClipboardPtr[0]).addSelectionListener(e -> {
-            spnPXPtr[0].setValue(c.xp);
-            spnPYPtr[0].setValue(c.yp);
-            spnPZPtr[0].setValue(c.zp);
+            spnPXPtr[0].setValue(c.xp());
+            spnPYPtr[0].setValue(c.yp());
+            spnPZPtr[0].setValue(c.zp());
         });
         widgetUtil(btnCopyPtr[0]).addSelectionListener(e -> {
             creatingCopy = true;
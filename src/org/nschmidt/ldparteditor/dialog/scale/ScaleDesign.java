@@ -92,11 +92,11 @@ class ScaleDesign extends Dialog {
         }
         if (clipboardVertices.size() == 1) {
             p = clipboardVertices.iterator().next();
-            c = new Vertex(p.xp, p.yp, p.zp);
+            c = new Vertex(p.xp(), p.yp(), p.zp());
             isLoadingClipboardVertex = true;
             isLoadingManipulatorPosition = false;
         } else if (transformationMode == ManipulatorScope.LOCAL && manipulatorPosition != null) {
-            p = new Vertex(m.xp, m.yp, m.zp);
+            p = new Vertex(m.xp(), m.yp(), m.zp());
             isLoadingClipboardVertex = false;
             isLoadingManipulatorPosition = true;
         } else {
@@ -168,7 +168,7 @@ class ScaleDesign extends Dialog {
             spnX.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnX.setMaximum(new BigDecimal(1000000));
             spnX.setMinimum(new BigDecimal(-1000000));
-            spnX.setValue(v.xp);
+            spnX.setValue(v.xp());
         }
 
         {
@@ -186,7 +186,7 @@ class ScaleDesign extends Dialog {
             spnY.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnY.setMaximum(new BigDecimal(1000000));
             spnY.setMinimum(new BigDecimal(-1000000));
-            spnY.setValue(v.yp);
+            spnY.setValue(v.yp());
         }
 
         {
@@ -204,7 +204,7 @@ class ScaleDesign extends Dialog {
             spnZ.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnZ.setMaximum(new BigDecimal(1000000));
             spnZ.setMinimum(new BigDecimal(-1000000));
-            spnZ.setValue(v.zp);
+            spnZ.setValue(v.zp());
         }
 
         Label lblPivot = new Label(cmpContainer, SWT.NONE);
@@ -254,7 +254,7 @@ class ScaleDesign extends Dialog {
             spnPX.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
             spnPX.setMaximum(new BigDecimal(1000000));
             spnPX.setMinimum(new BigDecimal(-1000000));
-            spnPX.setValue(p.xp);
+            spnPX.setValue(p.xp());
         }
 
 
@@ -268,7 +268,7 @@ class ScaleDesign extends Dialog {
             spnPY.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
             spnPY.setMaximum(new BigDecimal(1000000));
             spnPY.setMinimum(new BigDecimal(-1000000));
-            spnPY.setValue(p.yp);
+            spnPY.setValue(p.yp());
         }
 
         {
@@ -281,7 +281,7 @@ class ScaleDesign extends Dialog {
             spnPZ.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
             spnPZ.setMaximum(new BigDecimal(1000000));
             spnPZ.setMinimum(new BigDecimal(-1000000));
-            spnPZ.setValue(p.zp);
+            spnPZ.setValue(p.zp());
         }
 
         cmpContainer.pack();
@@ -79,7 +79,7 @@ class VertexDesign extends Dialog {
             spnX.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnX.setMaximum(new BigDecimal(1000000));
             spnX.setMinimum(new BigDecimal(-1000000));
-            spnX.setValue(v.xp);
+            spnX.setValue(v.xp());
         }
 
         {
@@ -92,7 +92,7 @@ class VertexDesign extends Dialog {
             spnY.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnY.setMaximum(new BigDecimal(1000000));
             spnY.setMinimum(new BigDecimal(-1000000));
-            spnY.setValue(v.yp);
+            spnY.setValue(v.yp());
         }
 
         {
@@ -105,7 +105,7 @@ class VertexDesign extends Dialog {
             spnZ.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnZ.setMaximum(new BigDecimal(1000000));
             spnZ.setMinimum(new BigDecimal(-1000000));
-            spnZ.setValue(v.zp);
+            spnZ.setValue(v.zp());
         }
 
         cmpContainer.pack();
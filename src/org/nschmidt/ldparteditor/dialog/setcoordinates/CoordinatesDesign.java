@@ -83,7 +83,7 @@ class CoordinatesDesign extends Dialog {
             if (clipboardVertex == null) {
                 c = new Vertex(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
             } else {
-                c = new Vertex(clipboardVertex.xp, clipboardVertex.yp, clipboardVertex.zp);
+                c = new Vertex(clipboardVertex.xp(), clipboardVertex.yp(), clipboardVertex.zp());
             }
            
         }
@@ -167,7 +167,7 @@ class CoordinatesDesign extends Dialog {
             spnX.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnX.setMaximum(new BigDecimal(1000000));
             spnX.setMinimum(new BigDecimal(-1000000));
-            spnX.setValue(v.xp);
+            spnX.setValue(v.xp());
         }
 
         {
@@ -185,7 +185,7 @@ class CoordinatesDesign extends Dialog {
             spnY.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnY.setMaximum(new BigDecimal(1000000));
             spnY.setMinimum(new BigDecimal(-1000000));
-            spnY.setValue(v.yp);
+            spnY.setValue(v.yp());
         }
 
         {
@@ -203,7 +203,7 @@ class CoordinatesDesign extends Dialog {
             spnZ.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 5, 1));
             spnZ.setMaximum(new BigDecimal(1000000));
             spnZ.setMinimum(new BigDecimal(-1000000));
-            spnZ.setValue(v.zp);
+            spnZ.setValue(v.zp());
         }
 
         cmpContainer.pack();
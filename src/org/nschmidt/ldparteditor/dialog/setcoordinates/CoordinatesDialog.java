@@ -65,7 +65,7 @@ public class CoordinatesDialog extends CoordinatesDesign {
         if (v == null) {
             vertex = new Vertex(0f, 0f, 0f);
         } else {
-            vertex = new Vertex(v.xp, v.yp, v.zp);
+            vertex = new Vertex(v.xp(), v.yp(), v.zp());
         }
         this.mani = mani;
         if (transformationMode == ManipulatorScope.LOCAL) {
@@ -117,17 +117,17 @@ public class CoordinatesDialog extends CoordinatesDesign {
         });
         widgetUtil(btnManipulatorPtr[0]).addSelectionListener(e -> {
             if (transformationMode == ManipulatorScope.GLOBAL) {
-                vertex = new Vertex(m.xp, m.yp, m.zp);
+                vertex = new Vertex(m.xp(), m.yp(), m.zp());
             } else {
-                vertex = globalToLocal(new Vertex(m.xp, m.yp, m.zp));
+                vertex = globalToLocal(new Vertex(m.xp(), m.yp(), m.zp()));
             }
             updateXYZ();
         });
         widgetUtil(btnClipboardPtr[0]).addSelectionListener(e -> {
             if (transformationMode == ManipulatorScope.GLOBAL) {
-                vertex = new Vertex(c.xp, c.yp, c.zp);
+                vertex = new Vertex(c.xp(), c.yp(), c.zp());
             } else {
-                vertex = globalToLocal(new Vertex(c.xp, c.yp, c.zp));
+                vertex = globalToLocal(new Vertex(c.xp(), c.yp(), c.zp()));
             }
             updateXYZ();
         });
@@ -206,7 +206,7 @@ public class CoordinatesDialog extends CoordinatesDesign {
     }
 
     private void updateXYZ() {
-        Vector3d v2 = new Vector3d(vertex.xp, vertex.yp, vertex.zp);
+        Vector3d v2 = new Vector3d(vertex.xp(), vertex.yp(), vertex.zp());
         spnXPtr[0].setValue(v2.x);
         spnYPtr[0].setValue(v2.y);
         spnZPtr[0].setValue(v2.z);
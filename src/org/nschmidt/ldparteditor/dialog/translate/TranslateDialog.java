@@ -77,18 +77,18 @@ public class TranslateDialog extends TranslateDesign {
             btnGlobalPtr[0].setSelection(true);
             transformationMode = ManipulatorScope.GLOBAL;
             TransformationModeToolItem.setWorkingAction(WorkingMode.MOVE_GLOBAL);
-            spnXPtr[0].setValue(manipulator.xp);
-            spnYPtr[0].setValue(manipulator.yp);
-            spnZPtr[0].setValue(manipulator.zp);
+            spnXPtr[0].setValue(manipulator.xp());
+            spnYPtr[0].setValue(manipulator.yp());
+            spnZPtr[0].setValue(manipulator.zp());
         });
         widgetUtil(btnToManipulatorPositionInvertedPtr[0]).addSelectionListener(e -> {
             WidgetSelectionHelper.unselectAllChildButtons((ToolItem) btnGlobalPtr[0].getParent());
             btnGlobalPtr[0].setSelection(true);
             transformationMode = ManipulatorScope.GLOBAL;
             TransformationModeToolItem.setWorkingAction(WorkingMode.MOVE_GLOBAL);
-            spnXPtr[0].setValue(manipulator.xp.negate());
-            spnYPtr[0].setValue(manipulator.yp.negate());
-            spnZPtr[0].setValue(manipulator.zp.negate());
+            spnXPtr[0].setValue(manipulator.xp().negate());
+            spnYPtr[0].setValue(manipulator.yp().negate());
+            spnZPtr[0].setValue(manipulator.zp().negate());
         });
 
         widgetUtil(cbXaxisPtr[0]).addSelectionListener(e -> x = cbXaxisPtr[0].getSelection());
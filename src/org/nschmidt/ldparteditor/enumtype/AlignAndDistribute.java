@@ -307,28 +307,28 @@ public enum AlignAndDistribute {
                     // Don't look at condline control points
                     if (data.type() == 5 && vi.getPosition() > 1) continue;
                     final Vertex v = vi.getVertex();
-                    if (xAxis && (min != null && min.compareTo(v.xp) > 0 || min == null)) {
-                        min = v.xp;
+                    if (xAxis && (min != null && min.compareTo(v.xp()) > 0 || min == null)) {
+                        min = v.xp();
                     }
                     
-                    if (yAxis && (min != null && min.compareTo(v.yp) > 0 || min == null)) {
-                        min = v.yp;
+                    if (yAxis && (min != null && min.compareTo(v.yp()) > 0 || min == null)) {
+                        min = v.yp();
                     }
                     
-                    if (zAxis && (min != null && min.compareTo(v.zp) > 0 || min == null)) {
-                        min = v.zp;
+                    if (zAxis && (min != null && min.compareTo(v.zp()) > 0 || min == null)) {
+                        min = v.zp();
                     }
                     
-                    if (xAxis && (max != null && max.compareTo(v.xp) < 0 || max == null)) {
-                        max = v.xp;
+                    if (xAxis && (max != null && max.compareTo(v.xp()) < 0 || max == null)) {
+                        max = v.xp();
                     }
                     
-                    if (yAxis && (max != null && max.compareTo(v.yp) < 0 || max == null)) {
-                        max = v.yp;
+                    if (yAxis && (max != null && max.compareTo(v.yp()) < 0 || max == null)) {
+                        max = v.yp();
                     }
                     
-                    if (zAxis && (max != null && max.compareTo(v.zp) < 0 || max == null)) {
-                        max = v.zp;
+                    if (zAxis && (max != null && max.compareTo(v.zp()) < 0 || max == null)) {
+                        max = v.zp();
                     }
                     
                     vertices.add(v);
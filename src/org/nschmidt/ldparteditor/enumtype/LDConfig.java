@@ -52,6 +52,16 @@ public enum LDConfig {
 
     private static final Map<IndexedEntry, Integer> indexFromColour = new HashMap<>();
 
+    /** Counts the colour changes */
+    private static volatile int revision = 0;
+
+    /**
+     * @return a number which changes whenever the colours are loaded or colour 16 is overridden
+     */
+    public static int getRevision() {
+        return revision;
+    }
+
     public static final GColour getColour(int index) {
         GColour result =  colourFromIndex.get(index);
         if (result == null) result = new GColour(index, 0f, 0f, 0f, 1f);
@@ -308,8 +318,10 @@ public enum LDConfig {
                        colourNameFromIndex.put(index, dataSegments[2].replace('_', ' ' ));
                    }
                }
+               revision++;
                return true;
            } catch (Exception e) {
+               revision++;
                NLogger.debug(View.class, e);
            }
        }
@@ -336,5 +348,6 @@ public enum LDConfig {
        indexFromColour.remove(LDConfig.col16IndexedEntry);
        LDConfig.col16IndexedEntry = new IndexedEntry(r + .000016f, g + .000016f, b + .000016f);
        indexFromColour.put(LDConfig.col16IndexedEntry, 16);
+       revision++;
    }
 }
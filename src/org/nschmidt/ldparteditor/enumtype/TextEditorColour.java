@@ -52,6 +52,8 @@ public enum TextEditorColour {
     private static Color textForeground = SWTResourceManager.getColor(0, 0, 0);
     /** The main foreground colour of the text from hidden objects */
     private static Color textForegroundHidden = SWTResourceManager.getColor(240, 240, 240);
+    /** Counts the colour changes */
+    private static volatile int revision = 0;
 
     /**
      * Disposes all colours
@@ -73,12 +75,20 @@ public enum TextEditorColour {
         getTextForegroundHidden().dispose();
     }
 
+    /**
+     * @return a number which changes whenever one of the colours is changed
+     */
+    public static int getRevision() {
+        return revision;
+    }
+
     public static Color getLineHighlightBackground() {
         return lineHighlightBackground;
     }
 
     public static void loadLineHighlightBackground(Color lineHighlightBackground) {
         TextEditorColour.lineHighlightBackground = lineHighlightBackground;
+        revision++;
     }
 
     public static Color getLineHighlightSelectedBackground() {
@@ -87,6 +97,7 @@ public enum TextEditorColour {
 
     public static void loadLineHighlightSelectedBackground(Color lineHighlightSelectedBackground) {
         TextEditorColour.lineHighlightSelectedBackground = lineHighlightSelectedBackground;
+        revision++;
     }
 
     public static Color getLineErrorUnderline() {
@@ -95,6 +106,7 @@ public enum TextEditorColour {
 
     public static void loadLineErrorUnderline(Color lineErrorUnderline) {
         TextEditorColour.lineErrorUnderline = lineErrorUnderline;
+        revision++;
     }
 
     public static Color getLineWarningUnderline() {
@@ -103,6 +115,7 @@ public enum TextEditorColour {
 
     public static void loadLineWarningUnderline(Color lineWarningUnderline) {
         TextEditorColour.lineWarningUnderline = lineWarningUnderline;
+        revision++;
     }
 
     public static Color getLineHintUnderline() {
@@ -111,6 +124,7 @@ public enum TextEditorColour {
 
     public static void loadLineHintUnderline(Color lineHintUnderline) {
         TextEditorColour.lineHintUnderline = lineHintUnderline;
+        revision++;
     }
 
     public static Color getLineCommentFont() {
@@ -119,6 +133,7 @@ public enum TextEditorColour {
 
     public static void loadLineCommentFont(Color lineCommentFont) {
         TextEditorColour.lineCommentFont = lineCommentFont;
+        revision++;
     }
 
     public static Color getLinePrimaryFont() {
@@ -127,6 +142,7 @@ public enum TextEditorColour {
 
     public static void loadLinePrimaryFont(Color linePrimaryFont) {
         TextEditorColour.linePrimaryFont = linePrimaryFont;
+        revision++;
     }
 
     public static Color getLineSecondaryFont() {
@@ -135,6 +151,7 @@ public enum TextEditorColour {
 
     public static void loadLineSecondaryFont(Color lineSecondaryFont) {
         TextEditorColour.lineSecondaryFont = lineSecondaryFont;
+        revision++;
     }
 
     public static Color getLineColourAttrFont() {
@@ -143,6 +160,7 @@ public enum TextEditorColour {
 
     public static void loadLineColourAttrFont(Color lineColourAttrFont) {
         TextEditorColour.lineColourAttrFont = lineColourAttrFont;
+        revision++;
     }
 
     public static Color getLineQuadFont() {
@@ -151,6 +169,7 @@ public enum TextEditorColour {
 
     public static void loadLineQuadFont(Color lineQuadFont) {
         TextEditorColour.lineQuadFont = lineQuadFont;
+        revision++;
     }
 
     public static Color getLineBoxFont() {
@@ -159,6 +178,7 @@ public enum TextEditorColour {
 
     public static void loadLineBoxFont(Color lineBoxFont) {
         TextEditorColour.lineBoxFont = lineBoxFont;
+        revision++;
     }
 
     public static Color getTextBackground() {
@@ -167,6 +187,7 @@ public enum TextEditorColour {
 
     public static void loadTextBackground(Color textBackground) {
         TextEditorColour.textBackground = textBackground;
+        revision++;
     }
 
     public static Color getTextForeground() {
@@ -175,6 +196,7 @@ public enum TextEditorColour {
 
     public static void loadTextForeground(Color textForeground) {
         TextEditorColour.textForeground = textForeground;
+        revision++;
     }
 
     public static Color getTextForegroundHidden() {
@@ -183,5 +205,6 @@ public enum TextEditorColour {
 
     public static void loadTextForegroundHidden(Color textForegroundHidden) {
         TextEditorColour.textForegroundHidden = textForegroundHidden;
+        revision++;
     }
 }
@@ -191,7 +191,7 @@ public enum GuiStatusManager {
         try {
             while (vsi.hasNext()) {
                 Vertex v = vsi.next();
-                result.add(new ScreenVertex(v, pc.getScreenCoordinatesFrom3D(v.xp, v.yp, v.zp)));
+                result.add(new ScreenVertex(v, pc.getScreenCoordinatesFrom3D(v.xp(), v.yp(), v.zp())));
             }
         } catch (NoSuchElementException consumed) {
             NLogger.debug(GuiStatusManager.class, consumed);
@@ -203,11 +203,11 @@ public enum GuiStatusManager {
         try {
             Vertex v = vsi.next().getVertex3D();
             sb.append(" " + I18n.C3D_SELECTED_VERTEX + " @  ["); //$NON-NLS-1$ //$NON-NLS-2$
-            sb.append(DF4F.format(v.xp.multiply(View.unitFactor)));
+            sb.append(DF4F.format(v.xp().multiply(View.unitFactor)));
             sb.append("; "); //$NON-NLS-1$
-            sb.append(DF4F.format(v.yp.multiply(View.unitFactor)));
+            sb.append(DF4F.format(v.yp().multiply(View.unitFactor)));
             sb.append("; "); //$NON-NLS-1$
-            sb.append(DF4F.format(v.zp.multiply(View.unitFactor)));
+            sb.append(DF4F.format(v.zp().multiply(View.unitFactor)));
             sb.append("]"); //$NON-NLS-1$
         } catch (NoSuchElementException consumed) {
             NLogger.debug(GuiStatusManager.class, consumed);
@@ -218,11 +218,11 @@ public enum GuiStatusManager {
         try {
             Vertex v = vsi.next().getVertex3D();
             sb.append("["); //$NON-NLS-1$
-            sb.append(DF2F.format(v.xp.multiply(View.unitFactor)));
+            sb.append(DF2F.format(v.xp().multiply(View.unitFactor)));
             sb.append("; "); //$NON-NLS-1$
-            sb.append(DF2F.format(v.yp.multiply(View.unitFactor)));
+            sb.append(DF2F.format(v.yp().multiply(View.unitFactor)));
             sb.append("; "); //$NON-NLS-1$
-            sb.append(DF2F.format(v.zp.multiply(View.unitFactor)));
+            sb.append(DF2F.format(v.zp().multiply(View.unitFactor)));
             sb.append("]"); //$NON-NLS-1$
         } catch (NoSuchElementException consumed) {
             NLogger.debug(GuiStatusManager.class, consumed);
@@ -233,11 +233,11 @@ public enum GuiStatusManager {
         try {
             Vertex v = vsi.next().getVertex3D();
             sb.append("["); //$NON-NLS-1$
-            sb.append(DF1F.format(v.xp.multiply(View.unitFactor)));
+            sb.append(DF1F.format(v.xp().multiply(View.unitFactor)));
             sb.append(";"); //$NON-NLS-1$
-            sb.append(DF1F.format(v.yp.multiply(View.unitFactor)));
+            sb.append(DF1F.format(v.yp().multiply(View.unitFactor)));
             sb.append(";"); //$NON-NLS-1$
-            sb.append(DF1F.format(v.zp.multiply(View.unitFactor)));
+            sb.append(DF1F.format(v.zp().multiply(View.unitFactor)));
             sb.append("]"); //$NON-NLS-1$
         } catch (NoSuchElementException consumed) {
             NLogger.debug(GuiStatusManager.class, consumed);
@@ -248,11 +248,11 @@ public enum GuiStatusManager {
         try {
             Vertex v = vsi.next().getVertex3D();
             sb.append("["); //$NON-NLS-1$
-            sb.append(DF0F.format(v.xp.multiply(View.unitFactor)));
+            sb.append(DF0F.format(v.xp().multiply(View.unitFactor)));
             sb.append(";"); //$NON-NLS-1$
-            sb.append(DF0F.format(v.yp.multiply(View.unitFactor)));
+            sb.append(DF0F.format(v.yp().multiply(View.unitFactor)));
             sb.append(";"); //$NON-NLS-1$
-            sb.append(DF0F.format(v.zp.multiply(View.unitFactor)));
+            sb.append(DF0F.format(v.zp().multiply(View.unitFactor)));
             sb.append("]"); //$NON-NLS-1$
         } catch (NoSuchElementException consumed) {
             NLogger.debug(GuiStatusManager.class, consumed);
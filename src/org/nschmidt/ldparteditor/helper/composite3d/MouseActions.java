@@ -410,7 +410,7 @@ public class MouseActions {
                         c3d.getLockableDatFileReference().setObjVertex1(nv);
                         c3d.getLockableDatFileReference().setObjVertex2(nv);
                         c3d.getCursorSnapped3D().set(nv.x, nv.y, nv.z, 1f);
-                        c3d.setCursorSnapped3Dprecise(nv.xp, nv.yp, nv.zp);
+                        c3d.setCursorSnapped3Dprecise(nv.xp(), nv.yp(), nv.zp());
                     } else if (!keyboard.isCtrlPressed()) {
                         Vertex v2 = c3d.getLockableDatFileReference().getObjVertex2();
                         Vector3f v13 = new Vector3f(v1.x, v1.y, v1.z);
@@ -1370,9 +1370,9 @@ public class MouseActions {
                         } else {
                             state.setReplacingVertex(!datfile.isReadOnly());
                             vm.setVertexToReplace(v);
-                            state.setToReplaceX(v.xp);
-                            state.setToReplaceY(v.yp);
-                            state.setToReplaceZ(v.zp);
+                            state.setToReplaceX(v.xp());
+                            state.setToReplaceY(v.yp());
+                            state.setToReplaceZ(v.zp());
                         }
                     }
                 }
@@ -19,6 +19,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.lwjgl.opengl.swt.GLCanvas;
 import org.nschmidt.ldparteditor.composite.Composite3D;
+import org.nschmidt.ldparteditor.data.GL33RenderScheduler;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
 
 /**
@@ -39,6 +40,8 @@ public enum ViewIdleManager {
     public static void refresh(GLCanvas canvas, OpenGLRenderer renderer) {
         firstCanvas[0] = canvas;
         firstRender[0] = renderer;
+        // User input can change the selection (or anything else) of the displayed file
+        GL33RenderScheduler.requestRender(renderer.getC3D().getLockableDatFileReference());
     }
 
 }
@@ -0,0 +1,112 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.nschmidt.ldparteditor.data.Vertex;
+
+/**
+ * Shared calculations for the spatial structures which work with the float
+ * coordinates of the vertices (the bounding box grid, the surface BVH and the
+ * vertex grid)
+ */
+public enum GridHelper {
+    INSTANCE;
+
+    /**
+     * The margin covers the tolerances of the intersection tests and the
+     * float rounding of the vertex coordinates
+     *
+     * @param extent
+     *            the largest extent of the box
+     * @param magnitude
+     *            the largest absolute coordinate of the box
+     * @return the margin which has to be added on each side of the box
+     */
+    public static float margin(float extent, float magnitude) {
+        return 0.001f + extent * 0.0001f + magnitude * 0.00001f;
+    }
+
+    /**
+     * Calculates the bounding box of the vertices with the {@link #margin}.
+     * The box of an empty shape is filled with {@code NaN}, so it will never
+     * overlap.
+     *
+     * @param box
+     *            the target array (minX, minY, minZ, maxX, maxY, maxZ)
+     * @param offset
+     *            the position of the box in the target array
+     * @return the largest extent of the box (without the margin)
+     */
+    public static float calculateBox(Vertex[] shape, float[] box, int offset) {
+        if (shape.length == 0) {
+            Arrays.fill(box, offset, offset + 6, Float.NaN);
+            return 0f;
+        }
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        float maxZ = Float.NEGATIVE_INFINITY;
+        for (Vertex v : shape) {
+            minX = Math.min(minX, v.x);
+            minY = Math.min(minY, v.y);
+            minZ = Math.min(minZ, v.z);
+            maxX = Math.max(maxX, v.x);
+            maxY = Math.max(maxY, v.y);
+            maxZ = Math.max(maxZ, v.z);
+        }
+        final float extent = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+        final float magnitude = Math.max(Math.max(Math.abs(minX), Math.abs(maxX)), Math.max(Math.max(Math.abs(minY), Math.abs(maxY)), Math.max(Math.abs(minZ), Math.abs(maxZ))));
+        final float margin = margin(extent, magnitude);
+        box[offset] = minX - margin;
+        box[offset + 1] = minY - margin;
+        box[offset + 2] = minZ - margin;
+        box[offset + 3] = maxX + margin;
+        box[offset + 4] = maxY + margin;
+        box[offset + 5] = maxZ + margin;
+        return extent;
+    }
+
+    /**
+     * @return the index of the grid cell which contains the coordinate (it is
+     *         clamped to +-1,000,000, so it fits into {@link #cellKey})
+     */
+    public static int cellIndex(float value, float cellSize) {
+        return (int) Math.max(Math.min(Math.floor(value / cellSize), 1_000_000), -1_000_000);
+    }
+
+    /**
+     * @return the hash key of the grid cell (21 bits per axis)
+     */
+    public static long cellKey(int x, int y, int z) {
+        return ((x & 0x1FFFFFL) << 42) | ((y & 0x1FFFFFL) << 21) | (z & 0x1FFFFFL);
+    }
+
+    /**
+     * Converts the lists of a cell map into arrays, which need less memory
+     * and are faster to iterate
+     */
+    public static void toCellArrays(Map<Long, List<Integer>> cellLists, Map<Long, int[]> cells) {
+        for (Map.Entry<Long, List<Integer>> entry : cellLists.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
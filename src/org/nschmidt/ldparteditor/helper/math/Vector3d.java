@@ -69,9 +69,9 @@ public class Vector3d {
     }
 
     public Vector3d(Vertex vertex) {
-        this.x = vertex.xp;
-        this.y = vertex.yp;
-        this.z = vertex.zp;
+        this.x = vertex.xp();
+        this.y = vertex.yp();
+        this.z = vertex.zp();
     }
 
     @SuppressWarnings("java:S2111")
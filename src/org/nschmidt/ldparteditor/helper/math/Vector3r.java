@@ -40,7 +40,7 @@ public class Vector3r {
     }
 
     public Vector3r(Vertex tmp) {
-        this(tmp.xp, tmp.yp, tmp.zp);
+        this(tmp.xp(), tmp.yp(), tmp.zp());
     }
 
     private Vector3r(BigDecimal x, BigDecimal y, BigDecimal z) {
@@ -95,9 +95,9 @@ public class Vector3r {
     }
 
     public void set(Vertex v) {
-        this.x = new Rational(v.xp);
-        this.y = new Rational(v.yp);
-        this.z = new Rational(v.zp);
+        this.x = new Rational(v.xp());
+        this.y = new Rational(v.yp());
+        this.z = new Rational(v.zp());
     }
 
     @Override
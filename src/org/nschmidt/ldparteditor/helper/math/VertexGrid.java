@@ -0,0 +1,218 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+import org.nschmidt.ldparteditor.data.Vertex;
+
+/**
+ * A spatial hash over a fixed set of vertices for neighbour queries. The grid
+ * works with the float coordinates of the vertices and returns a superset of
+ * the vertices within the query range. The callers have to do the exact
+ * (BigDecimal) distance check on these candidates. The grid is immutable and
+ * can be queried from multiple threads.
+ */
+public final class VertexGrid {
+
+    /** Queries which span more cells than this test all vertices */
+    private static final int MAX_CELLS_PER_QUERY = 4096;
+
+    private final Vertex[] vertices;
+    private final float cellSize;
+    private final Map<Long, int[]> cells = new HashMap<>();
+
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float maxX;
+    private final float maxY;
+    private final float maxZ;
+
+    /**
+     * @param vertices
+     *            the vertices (the index of a vertex is its position in the
+     *            iteration order of the collection)
+     * @param range
+     *            the typical query range in LDU. The grid chooses a cell size
+     *            based on the vertex density if the range is zero.
+     */
+    public VertexGrid(Collection<Vertex> vertices, BigDecimal range) {
+        this.vertices = vertices.toArray(new Vertex[0]);
+        float tMinX = Float.POSITIVE_INFINITY;
+        float tMinY = Float.POSITIVE_INFINITY;
+        float tMinZ = Float.POSITIVE_INFINITY;
+        float tMaxX = Float.NEGATIVE_INFINITY;
+        float tMaxY = Float.NEGATIVE_INFINITY;
+        float tMaxZ = Float.NEGATIVE_INFINITY;
+        for (Vertex v : this.vertices) {
+            tMinX = Math.min(tMinX, v.x);
+            tMinY = Math.min(tMinY, v.y);
+            tMinZ = Math.min(tMinZ, v.z);
+            tMaxX = Math.max(tMaxX, v.x);
+            tMaxY = Math.max(tMaxY, v.y);
+            tMaxZ = Math.max(tMaxZ, v.z);
+        }
+        minX = tMinX;
+        minY = tMinY;
+        minZ = tMinZ;
+        maxX = tMaxX;
+        maxY = tMaxY;
+        maxZ = tMaxZ;
+
+        float size = toGridUnits(range);
+        if (!(size > 0f) || !Float.isFinite(size)) {
+            // Roughly one vertex per cell
+            final float extent = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+            size = (float) (extent / Math.cbrt(Math.max(this.vertices.length, 1)));
+        }
+        cellSize = size > 0f && Float.isFinite(size) ? size : 1f;
+
+        final Map<Long, List<Integer>> cellLists = new HashMap<>();
+        for (int i = 0; i < this.vertices.length; i++) {
+            final Vertex v = this.vertices[i];
+            cellLists.computeIfAbsent(GridHelper.cellKey(cellIndex(v.x), cellIndex(v.y), cellIndex(v.z)), k -> new ArrayList<>(4)).add(i);
+        }
+        GridHelper.toCellArrays(cellLists, cells);
+    }
+
+    public int size() {
+        return vertices.length;
+    }
+
+    public Vertex get(int index) {
+        return vertices[index];
+    }
+
+    /**
+     * @return the indices of all vertices (in ascending order) which can be
+     *         within the given range (in LDU) around the center
+     */
+    public int[] getCandidates(Vertex center, BigDecimal range) {
+        return getCandidates(center, toGridUnits(range));
+    }
+
+    /**
+     * Searches the nearest vertex. Vertices with the same distance are resolved
+     * by their index (the lowest index wins), like a linear search over all
+     * vertices would do.
+     *
+     * @param center
+     *            the center of the search
+     * @param maxDistanceSquared
+     *            only vertices with a smaller distance are considered
+     * @param distanceSquared
+     *            calculates the squared distance between the center and the
+     *            vertex with the given index (in float units, see
+     *            {@link Vertex#x})
+     * @param filter
+     *            accepts the index of a vertex which can be the result
+     * @return the index of the nearest vertex or {@code -1} if there is no
+     *         such vertex
+     */
+    public int getNearest(Vertex center, double maxDistanceSquared, IntToDoubleFunction distanceSquared, IntPredicate filter) {
+        if (vertices.length == 0) return -1;
+        final float coverRange = Math.max(
+                Math.max(Math.abs(center.x - minX), Math.abs(center.x - maxX)),
+                Math.max(Math.max(Math.abs(center.y - minY), Math.abs(center.y - maxY)),
+                        Math.max(Math.abs(center.z - minZ), Math.abs(center.z - maxZ))));
+        float range = cellSize;
+        while (true) {
+            int result = -1;
+            double minDistanceSquared = maxDistanceSquared;
+            for (int i : getCandidates(center, range)) {
+                final double d2 = distanceSquared.applyAsDouble(i);
+                if (d2 < minDistanceSquared && filter.test(i)) {
+                    result = i;
+                    minDistanceSquared = d2;
+                }
+            }
+            // Every vertex outside of the query box is farther away than the range
+            if (range >= coverRange || minDistanceSquared < (double) range * range) {
+                return result;
+            }
+            range *= 2f;
+        }
+    }
+
+    private int[] getCandidates(Vertex center, float range) {
+        final float magnitude = Math.max(Math.abs(center.x), Math.max(Math.abs(center.y), Math.abs(center.z)));
+        final float r = range + GridHelper.margin(0f, magnitude + range);
+        final float qMinX = center.x - r;
+        final float qMinY = center.y - r;
+        final float qMinZ = center.z - r;
+        final float qMaxX = center.x + r;
+        final float qMaxY = center.y + r;
+        final float qMaxZ = center.z + r;
+
+        final int x1 = cellIndex(qMinX);
+        final int y1 = cellIndex(qMinY);
+        final int z1 = cellIndex(qMinZ);
+        final int x2 = cellIndex(qMaxX);
+        final int y2 = cellIndex(qMaxY);
+        final int z2 = cellIndex(qMaxZ);
+        final long cellCount = ((long) x2 - x1 + 1) * ((long) y2 - y1 + 1) * ((long) z2 - z1 + 1);
+
+        int[] result = new int[16];
+        int count = 0;
+        if (cellCount > MAX_CELLS_PER_QUERY || cellCount > cells.size()) {
+            for (int i = 0; i < vertices.length; i++) {
+                final Vertex v = vertices[i];
+                if (v.x >= qMinX && v.x <= qMaxX && v.y >= qMinY && v.y <= qMaxY && v.z >= qMinZ && v.z <= qMaxZ) {
+                    if (count == result.length) result = Arrays.copyOf(result, count * 2);
+                    result[count++] = i;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        for (int x = x1; x <= x2; x++) {
+            for (int y = y1; y <= y2; y++) {
+                for (int z = z1; z <= z2; z++) {
+                    final int[] entries = cells.get(GridHelper.cellKey(x, y, z));
+                    if (entries == null) continue;
+                    for (int i : entries) {
+                        final Vertex v = vertices[i];
+                        if (v.x >= qMinX && v.x <= qMaxX && v.y >= qMinY && v.y <= qMaxY && v.z >= qMinZ && v.z <= qMaxZ) {
+                            if (count == result.length) result = Arrays.copyOf(result, count * 2);
+                            result[count++] = i;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Each vertex is stored in exactly one cell, only the order is wrong
+        Arrays.sort(result, 0, count);
+        return Arrays.copyOf(result, count);
+    }
+
+    private int cellIndex(float value) {
+        return GridHelper.cellIndex(value, cellSize);
+    }
+
+    private static float toGridUnits(BigDecimal ldu) {
+        return Math.abs(ldu.floatValue()) * 1000f;
+    }
+}
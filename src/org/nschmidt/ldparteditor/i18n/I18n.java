@@ -1070,18 +1070,21 @@ public final class I18n {
     public static final String OPTIONS_KEY_COMBO_IN_USE = OPTIONS.getString(getProperty());
     public static final String OPTIONS_LDRAW_FOLDER = OPTIONS.getString(getProperty());
     public static final String OPTIONS_LDRAW_NAME = OPTIONS.getString(getProperty());
+    public static final String OPTIONS_LIBRARY_CACHE = OPTIONS.getString(getProperty());
     public static final String OPTIONS_LICENSE = OPTIONS.getString(getProperty());
     public static final String OPTIONS_MAD_1 = OPTIONS.getString(getProperty());
     public static final String OPTIONS_MAD_2 = OPTIONS.getString(getProperty());
     public static final String OPTIONS_MISC_OPTIONS = OPTIONS.getString(getProperty());
     public static final String OPTIONS_REAL_NAME = OPTIONS.getString(getProperty());
     public static final String OPTIONS_SCALE_FACTOR = OPTIONS.getString(getProperty());
+    public static final String OPTIONS_STL_WELD_DISTANCE = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TEXT_WINDOW_ARR = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TEXT_WINDOW_LEFT = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TEXT_WINDOW_RIGHT = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TEXT_WINDOW_SEPARATE = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TEXT_WINDOW_SINGLE = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TRANSLATE_BY_CURSOR = OPTIONS.getString(getProperty());
+    public static final String OPTIONS_UNDO_HISTORY_LIMIT = OPTIONS.getString(getProperty());
     public static final String OPTIONS_UNOFFICIAL_FOLDER = OPTIONS.getString(getProperty());
     public static final String OPTIONS_UNOFFICIAL_WHERE = OPTIONS.getString(getProperty());
     public static final String PARTREVIEW_ALREADY = PARTREVIEW.getString(getProperty());
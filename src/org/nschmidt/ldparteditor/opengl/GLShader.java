@@ -123,6 +123,14 @@ public class GLShader {
         GL20.glUniform1f(getUniformLocation("texmapswitch"), 0f); //$NON-NLS-1$
     }
 
+    public void instancingOn() {
+        GL20.glUniform1f(getUniformLocation("instanced"), 1f); //$NON-NLS-1$
+    }
+
+    public void instancingOff() {
+        GL20.glUniform1f(getUniformLocation("instanced"), 0f); //$NON-NLS-1$
+    }
+
     public void transparentOn() {
         GL20.glUniform1f(getUniformLocation("alphaswitch"), 1f); //$NON-NLS-1$
     }
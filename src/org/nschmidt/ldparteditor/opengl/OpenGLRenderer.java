@@ -20,8 +20,10 @@ import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.swt.GLCanvas;
 import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
 import org.nschmidt.ldparteditor.composite.Composite3D;
 import org.nschmidt.ldparteditor.data.GTexture;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -44,6 +46,9 @@ public abstract class OpenGLRenderer {
     /** The set, which stores already loaded textures in-memory. */
     protected Set<GTexture> textureSet = new HashSet<>();
 
+    /** A transparent 1x1 texture, which is bound while a texture image is still decoding */
+    private int placeholderTexture = -1;
+
     public static AtomicBoolean getSmoothing() {
         return smoothing;
     }
@@ -94,6 +99,30 @@ public abstract class OpenGLRenderer {
         }
     }
 
+    /**
+     * @return the transparent placeholder texture of this renderer
+     */
+    public int getPlaceholderTexture() {
+        if (placeholderTexture == -1) {
+            placeholderTexture = GL11.glGenTextures();
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, placeholderTexture);
+            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, 1, 1, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, BufferUtils.createByteBuffer(4));
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+        }
+        return placeholderTexture;
+    }
+
+    /**
+     * Disposes the placeholder texture
+     */
+    protected void disposePlaceholderTexture() {
+        if (placeholderTexture != -1) {
+            GL11.glDeleteTextures(placeholderTexture);
+            placeholderTexture = -1;
+        }
+    }
+
     public boolean containsOnlyCubeMaps() {
         int counter = 0;
         for (GTexture tex : textureSet) {
@@ -56,10 +56,12 @@ import org.nschmidt.ldparteditor.data.GData;
 import org.nschmidt.ldparteditor.data.GData1;
 import org.nschmidt.ldparteditor.data.GData3;
 import org.nschmidt.ldparteditor.data.GData4;
+import org.nschmidt.ldparteditor.data.GL20DrawCache;
 import org.nschmidt.ldparteditor.data.GTexture;
 import org.nschmidt.ldparteditor.data.PGData3;
 import org.nschmidt.ldparteditor.data.Primitive;
 import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.data.WorkerPool;
 import org.nschmidt.ldparteditor.data.colour.GCGlitter;
 import org.nschmidt.ldparteditor.data.colour.GCSpeckle;
 import org.nschmidt.ldparteditor.data.colour.GCType;
@@ -113,6 +115,8 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
     private final AtomicInteger needData = new AtomicInteger(0);
     private Thread raytracer = null;
 
+    private final GL20DrawCache drawCache = new GL20DrawCache();
+
     private static long hoverSettingsTime = System.currentTimeMillis();
 
     public FloatBuffer getRotationInverse() {
@@ -123,6 +127,10 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
         super(c3d);
     }
 
+    public GL20DrawCache getDrawCache() {
+        return drawCache;
+    }
+
     @Override
     public Composite3D getC3D() {
         return c3d;
@@ -704,52 +712,275 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                 final Lock tmpLock = new ReentrantLock();
 
                                 final int chunks = Math.max(View.NUM_CORES - 1, 1);
-                                final Thread[] threads = new Thread[chunks];
-                                for (int j = 0; j < chunks; ++j) {
+                                WorkerPool.newJob().run(chunks, j -> {
                                     final int[] startIndices = new int[] { j };
                                     final int[] ti = new int[] { startIndices[0] * 4 * cw};
-                                    threads[j] = new Thread(() -> {
-                                        final SortedMap<Float, float[]>  zSort = new TreeMap<>();
-                                        final SortedMap<Float, Vector4f>  hitSort = new TreeMap<>();
-                                        final Random tRnd = new Random(12348729642643L * startIndices[0]);
-                                        List<float[]> points2 = new ArrayList<>(10000 / chunks);
-                                        final PowerRay pr = new PowerRay();
-                                        final int s = startIndices[0];
-                                        int i = ti[0];
-                                        int skip = 0;
-                                        for (int y = s; y < ch; y += chunks) {
-                                            final int sy = ch - y - 1;
-                                            for (int x = 0; x < cw; x++) {
-                                                final int sx = cw - x - 1;
-                                                float rS = sc[i];
-                                                float gS = sc[i + 1];
-                                                float bS = sc[i + 2];
-                                                float rT = tc[i];
-                                                float gT = tc[i + 1];
-                                                float bT = tc[i + 2];
-                                                if (rS != rT || gS != gT || bS != bT) {
-                                                    zSort.clear();
-                                                    hitSort.clear();
-                                                    final Vector4f posv = get3DCoordinatesFromScreen(x, y, z, cw, ch, vInverse);
-                                                    for (float[] tri : tris) {
-                                                        float[] zHit = pr.triangleIntersect(posv, ray, tri);
-                                                        if (zHit.length != 0) {
-                                                            Vector4f sz = getScreenZFrom3D(zHit[0], zHit[1], zHit[2], cw, ch, vM);
-                                                            hitSort.put(sz.z, sz);
-                                                            zSort.put(sz.z, tri);
-                                                        }
+                                    final SortedMap<Float, float[]>  zSort = new TreeMap<>();
+                                    final SortedMap<Float, Vector4f>  hitSort = new TreeMap<>();
+                                    final Random tRnd = new Random(12348729642643L * startIndices[0]);
+                                    List<float[]> points2 = new ArrayList<>(10000 / chunks);
+                                    final PowerRay pr = new PowerRay();
+                                    final int s = startIndices[0];
+                                    int i = ti[0];
+                                    int skip = 0;
+                                    for (int y = s; y < ch; y += chunks) {
+                                        final int sy = ch - y - 1;
+                                        for (int x = 0; x < cw; x++) {
+                                            final int sx = cw - x - 1;
+                                            float rS = sc[i];
+                                            float gS = sc[i + 1];
+                                            float bS = sc[i + 2];
+                                            float rT = tc[i];
+                                            float gT = tc[i + 1];
+                                            float bT = tc[i + 2];
+                                            if (rS != rT || gS != gT || bS != bT) {
+                                                zSort.clear();
+                                                hitSort.clear();
+                                                final Vector4f posv = get3DCoordinatesFromScreen(x, y, z, cw, ch, vInverse);
+                                                for (float[] tri : tris) {
+                                                    float[] zHit = pr.triangleIntersect(posv, ray, tri);
+                                                    if (zHit.length != 0) {
+                                                        Vector4f sz = getScreenZFrom3D(zHit[0], zHit[1], zHit[2], cw, ch, vM);
+                                                        hitSort.put(sz.z, sz);
+                                                        zSort.put(sz.z, tri);
                                                     }
+                                                }
+
+
+                                                final int size = zSort.size();
+
+                                                switch(size) {
+                                                case 0:
+                                                {
+                                                    float[] point = new float[11];
+                                                    point[0] = rT;
+                                                    point[1] = gT;
+                                                    point[2] = bT;
+                                                    point[3] = sx;
+                                                    point[4] = sy;
+                                                    point[5] = sx;
+                                                    point[6] = sy + 1f;
+                                                    point[7] = sx + 1f;
+                                                    point[8] = sy + 1f;
+                                                    point[9] = sx + 1f;
+                                                    point[10] = sy;
+                                                    points2.add(point);
+                                                    break;
+                                                }
+                                                case 1:
+                                                {
+                                                    float[] ze = zSort.get(zSort.firstKey());
+                                                    GColour c = LDConfig.getColour((int) ze[16]);
+                                                    GColourType ct = c.getType();
+                                                    if (ct == null) {
+                                                        float[] point = new float[11];
+                                                        float a = ze[15];
+                                                        float oneMinusAlpha = 1f - a;
+                                                        point[0] = rT * a + rS * oneMinusAlpha;
+                                                        point[1] = gT * a + gS * oneMinusAlpha;
+                                                        point[2] = bT * a + bS * oneMinusAlpha;
+                                                        point[3] = sx;
+                                                        point[4] = sy;
+                                                        point[5] = sx;
+                                                        point[6] = sy + 1f;
+                                                        point[7] = sx + 1f;
+                                                        point[8] = sy + 1f;
+                                                        point[9] = sx + 1f;
+                                                        point[10] = sy;
+                                                        points2.add(point);
+                                                    } else {
+                                                        // Compute light (with specular!)
+                                                        float light = 0f;
+                                                        float lightSpecular = 0f;
+                                                        final Vector3f normal = new Vector3f(ze[9], ze[10], ze[11]);
+                                                        final Vector4f pos = hitSort.get(hitSort.firstKey());
+                                                        if (lights) {
+                                                            Vector3f position = new Vector3f(pos.x, pos.y, pos.z);
+                                                            Vector3f lightDir1 = Vector3f.sub(lp1, position, null);
+                                                            Vector3f lightDir2 = Vector3f.sub(lp2, position, null);
+                                                            Vector3f lightDir3 = Vector3f.sub(lp3, position, null);
+                                                            Vector3f lightDir4 = Vector3f.sub(lp4, position, null);
+                                                            lightDir1.normalise();
+                                                            lightDir2.normalise();
+                                                            lightDir3.normalise();
+                                                            lightDir4.normalise();
+                                                            // attenuation and light direction
+                                                            // ambient + diffuse
+                                                            light = 0.09f; // Ambient
+                                                            light += 0.80f * .6f * Math.max(Vector3f.dot(normal, lightDir1), 0.0);
+                                                            light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir2), 0.0);
+                                                            light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir3), 0.0);
+                                                            light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir4), 0.0);
+                                                            lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
+                                                        }
+                                                        float colourR = ze[12];
+                                                        float colourG = ze[13];
+                                                        float colourB = ze[14];
+                                                        switch (ct.type()) {
+                                                        case PEARL:
+                                                        {
+                                                            Vector3f normal2 = new Vector3f(
+                                                                    normal.x * (.8f + .2f * tRnd.nextFloat()),
+                                                                    normal.y * (.8f + .2f * tRnd.nextFloat()),
+                                                                    normal.z * (.8f + .2f * tRnd.nextFloat())
+                                                                    );
+                                                            float sp = Vector3f.dot(normal2, ray3f);
+                                                            float spI = 1f - sp;
+                                                            Vector3f v = Vector3f.cross(ray3f, normal2, null);
+                                                            Random rnd = new Random((long) (129642643f * (1f + colourR) * (1f + colourG) * (1f + colourB)));
+                                                            colourR = colourR + Math.abs(sp + v.x * spI) * rnd.nextFloat() / 4f;
+                                                            colourG = colourG + Math.abs(sp + v.y * spI) * rnd.nextFloat() / 4f;
+                                                            colourB = colourB + Math.abs(sp + v.z * spI) * rnd.nextFloat() / 4f;
+                                                            if (lights) {
+                                                                colourR = (light + lightSpecular) / 4f + colourR;
+                                                                colourG = (light + lightSpecular) / 4f + colourG;
+                                                                colourB = (light + lightSpecular) / 4f + colourB;
+                                                            }
+                                                            break;
+                                                        }
+                                                        case GLITTER:
+                                                        {
+                                                            float a = ze[15];
+                                                            GCGlitter type = (GCGlitter) ct;
+                                                            final int sSize = glitters.size();
+                                                            float radi = 1000f * type.getMinSize() + (type.getMaxSize() - type.getMinSize()) * tRnd.nextFloat();
+                                                            boolean hit = false;
+                                                            final int glitterCount = 30000;
+                                                            boolean buildable = sSize < glitterCount;
+                                                            Vector4f v = get3DCoordinatesFromScreen(pos.x, pos.y, pos.z, vInverse);
+                                                            final float px = v.x;
+                                                            final float py = v.y;
+                                                            final float pz = v.z;
+                                                            float[] newGlitter = new float[]{px + tRnd.nextFloat() * radi, py + tRnd.nextFloat() * radi, pz + tRnd.nextFloat() * radi, radi};
+                                                            lockGlitter.lock();
+                                                            try {
+                                                                final long now = System.currentTimeMillis();
+                                                                for (Iterator<float[]> iterator = glitters.iterator(); iterator.hasNext();) {
+                                                                    float[] glitter = iterator.next();
+                                                                    final long age = now - glittersCreation.get(glitter);
+                                                                    if (age > 500L) {
+                                                                        iterator.remove();
+                                                                    } else {
+                                                                        float dx = glitter[0] - px;
+                                                                        float dy = glitter[1] - py;
+                                                                        float dz = glitter[2] - pz;
+                                                                        float dist = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
+                                                                        if (dist < glitter[3]) {
+                                                                            hit = true;
+                                                                            break;
+                                                                        }
+                                                                        if (buildable && dist * 0.5 < radi) {
+                                                                            buildable = false;
+                                                                        }
+                                                                    }
+                                                                }
+                                                                if (buildable && !hit) {
+                                                                    glittersCreation.put(newGlitter, System.currentTimeMillis());
+                                                                    glitters.add(newGlitter);
+                                                                }
+                                                            } finally {
+                                                                lockGlitter.unlock();
+                                                            }
 
+                                                            float vari = tRnd.nextFloat();
+                                                            if (hit) {
+                                                                lightSpecular *= 1f + vari;
+                                                                colourR = type.getR();
+                                                                colourG = type.getG();
+                                                                colourB = type.getB();
+                                                                a = 1f;
+                                                            } else {
+                                                                colourR = colourR * .8f + vari * .2f * colourR;
+                                                                colourG = colourG * .8f + vari * .2f * colourG;
+                                                                colourB = colourB * .8f + vari * .2f * colourB;
+                                                            }
+                                                            float oneMinusAlpha = 1f - a;
+                                                            if (lights) {
+                                                                float resLight = light + lightSpecular * 2f;
+                                                                colourR = resLight + colourR;
+                                                                colourG = resLight + colourG;
+                                                                colourB = resLight + colourB;
+                                                            }
+                                                            colourR = colourR * a + rS * oneMinusAlpha;
+                                                            colourG = colourG * a + gS * oneMinusAlpha;
+                                                            colourB = colourB * a + bS * oneMinusAlpha;
+                                                            break;
+                                                        }
+                                                        case SPECKLE:
+                                                        {
+                                                            float a = ze[15];
+                                                            GCSpeckle type = (GCSpeckle) ct;
+                                                            final int sSize = speckles.size();
+                                                            float radi = 1000f * type.getMinSize() + (type.getMaxSize() - type.getMinSize()) * tRnd.nextFloat();
+                                                            boolean hit = false;
+                                                            final int speckleCount = 30000;
+                                                            boolean buildable = sSize < speckleCount;
+                                                            Vector4f v = get3DCoordinatesFromScreen(pos.x, pos.y, pos.z, vInverse);
+                                                            final float px = v.x;
+                                                            final float py = v.y;
+                                                            final float pz = v.z;
+                                                            float[] newSpeckle = new float[]{px + tRnd.nextFloat() * radi, py + tRnd.nextFloat() * radi, pz + tRnd.nextFloat() * radi, radi};
+                                                            lockSpeckle.lock();
+                                                            try {
+                                                                final long now = System.currentTimeMillis();
+                                                                for (Iterator<float[]> iterator = speckles.iterator(); iterator.hasNext();) {
+                                                                    float[] speckle = iterator.next();
+                                                                    final long age = now - specklesCreation.get(speckle);
+                                                                    if (age > 500L) {
+                                                                        iterator.remove();
+                                                                    } else {
+                                                                        double dx = speckle[0] - px;
+                                                                        double dy = speckle[1] - py;
+                                                                        double dz = speckle[2] - pz;
+                                                                        float dist = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+                                                                        if (dist < speckle[3]) {
+                                                                            hit = true;
+                                                                            break;
+                                                                        }
+                                                                        if (buildable && dist * 0.5 < radi) {
+                                                                            buildable = false;
+                                                                        }
+                                                                    }
+                                                                }
+                                                                if (buildable && !hit) {
+                                                                    specklesCreation.put(newSpeckle, System.currentTimeMillis());
+                                                                    speckles.add(newSpeckle);
+                                                                }
+                                                            } finally {
+                                                                lockSpeckle.unlock();
+                                                            }
 
-                                                    final int size = zSort.size();
+                                                            float vari = tRnd.nextFloat();
+                                                            if (hit) {
+                                                                colourR = (type.getR() * .8f + vari * .2f * type.getR()) * .5f + colourR * .5f;
+                                                                colourG = (type.getG() * .8f + vari * .2f * type.getG()) * .5f + colourG * .5f;
+                                                                colourB = (type.getB() * .8f + vari * .2f * type.getB()) * .5f + colourB * .5f;
+                                                                a = 1f;
+                                                            } else {
+                                                                colourR = colourR * .8f + vari * .2f * colourR;
+                                                                colourG = colourG * .8f + vari * .2f * colourG;
+                                                                colourB = colourB * .8f + vari * .2f * colourB;
+                                                            }
+                                                            float oneMinusAlpha = 1f - a;
+                                                            if (lights) {
+                                                                float resLight = light + lightSpecular * 2f;
+                                                                colourR = resLight + colourR;
+                                                                colourG = resLight + colourG;
+                                                                colourB = resLight + colourB;
+                                                            }
+                                                            colourR = colourR * a + rS * oneMinusAlpha;
+                                                            colourG = colourG * a + gS * oneMinusAlpha;
+                                                            colourB = colourB * a + bS * oneMinusAlpha;
+                                                            break;
+                                                        }
+                                                        default:
+                                                            break;
+                                                        }
 
-                                                    switch(size) {
-                                                    case 0:
-                                                    {
                                                         float[] point = new float[11];
-                                                        point[0] = rT;
-                                                        point[1] = gT;
-                                                        point[2] = bT;
+                                                        point[0] = colourR;
+                                                        point[1] = colourG;
+                                                        point[2] = colourB;
                                                         point[3] = sx;
                                                         point[4] = sy;
                                                         point[5] = sx;
@@ -759,29 +990,75 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                                         point[9] = sx + 1f;
                                                         point[10] = sy;
                                                         points2.add(point);
-                                                        break;
                                                     }
-                                                    case 1:
-                                                    {
-                                                        float[] ze = zSort.get(zSort.firstKey());
+                                                    break;
+                                                }
+                                                default:
+                                                    float[] point = new float[11];
+                                                    int k = 0;
+
+                                                    point[0] = 1f;
+                                                    point[1] = 1f;
+                                                    point[2] = 1f;
+
+                                                    for (Entry<Float, float[]> entry : zSort.entrySet()) {
+                                                        Float f = entry.getKey();
+                                                        k++;
+                                                        float[] ze = entry.getValue();
+                                                        float colourA = ze[15];
+                                                        float colourR = ze[12];
+                                                        float colourG = ze[13];
+                                                        float colourB = ze[14];
+
                                                         GColour c = LDConfig.getColour((int) ze[16]);
                                                         GColourType ct = c.getType();
-                                                        if (ct == null) {
-                                                            float[] point = new float[11];
-                                                            float a = ze[15];
-                                                            float oneMinusAlpha = 1f - a;
-                                                            point[0] = rT * a + rS * oneMinusAlpha;
-                                                            point[1] = gT * a + gS * oneMinusAlpha;
-                                                            point[2] = bT * a + bS * oneMinusAlpha;
-                                                            point[3] = sx;
-                                                            point[4] = sy;
-                                                            point[5] = sx;
-                                                            point[6] = sy + 1f;
-                                                            point[7] = sx + 1f;
-                                                            point[8] = sy + 1f;
-                                                            point[9] = sx + 1f;
-                                                            point[10] = sy;
-                                                            points2.add(point);
+                                                        if (ct == null || GCType.hasCubeMap(ct.type())) {
+                                                            float oneMinusAlpha = 1f - colourA;
+                                                            if (colourA == 1f) {
+                                                                point[0] = rS;
+                                                                point[1] = gS;
+                                                                point[2] = bS;
+                                                            } else if (k < size) {
+                                                                // Compute light (with specular!)
+                                                                float lightSpecular = 0f;
+                                                                if (lights) {
+                                                                    Vector4f pos = hitSort.get(f);
+                                                                    Vector3f position = new Vector3f(pos.x, pos.y, pos.z);
+                                                                    Vector3f normal = new Vector3f(ze[9], ze[10], ze[11]);
+                                                                    Vector3f lightDir1 = Vector3f.sub(lp1, position, null);
+                                                                    Vector3f lightDir2 = Vector3f.sub(lp2, position, null);
+                                                                    Vector3f lightDir3 = Vector3f.sub(lp3, position, null);
+                                                                    Vector3f lightDir4 = Vector3f.sub(lp4, position, null);
+                                                                    lightDir1.normalise();
+                                                                    lightDir2.normalise();
+                                                                    lightDir3.normalise();
+                                                                    lightDir4.normalise();
+                                                                    // attenuation and light direction
+                                                                    // ambient + diffuse
+                                                                    float light = 0.09f; // Ambient
+                                                                    light += 0.80f * .6f * Math.max(Vector3f.dot(normal, lightDir1), 0.0);
+                                                                    light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir2), 0.0);
+                                                                    light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir3), 0.0);
+                                                                    light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir4), 0.0);
+                                                                    lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
+                                                                    // compute final color
+                                                                    colourR = colourR + light;
+                                                                    colourG = colourG + light;
+                                                                    colourB = colourB + light;
+                                                                }
+
+                                                                point[0] = (colourR + lightSpecular) * colourA + point[0] * oneMinusAlpha;
+                                                                point[1] = (colourG + lightSpecular)  * colourA + point[1] * oneMinusAlpha;
+                                                                point[2] = (colourB + lightSpecular) * colourA + point[2] * oneMinusAlpha;
+
+                                                            } else {
+                                                                float lightSpecular = 0f;
+                                                                Vector3f normal = new Vector3f(ze[9], ze[10], ze[11]);
+                                                                lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
+                                                                point[0] = (rT + lightSpecular) * colourA + point[0] * oneMinusAlpha;
+                                                                point[1] = (gT + lightSpecular) * colourA + point[1] * oneMinusAlpha;
+                                                                point[2] = (bT + lightSpecular) * colourA + point[2] * oneMinusAlpha;
+                                                            }
                                                         } else {
                                                             // Compute light (with specular!)
                                                             float light = 0f;
@@ -807,9 +1084,6 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                                                 light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir4), 0.0);
                                                                 lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
                                                             }
-                                                            float colourR = ze[12];
-                                                            float colourG = ze[13];
-                                                            float colourB = ze[14];
                                                             switch (ct.type()) {
                                                             case PEARL:
                                                             {
@@ -834,7 +1108,6 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                                             }
                                                             case GLITTER:
                                                             {
-                                                                float a = ze[15];
                                                                 GCGlitter type = (GCGlitter) ct;
                                                                 final int sSize = glitters.size();
                                                                 float radi = 1000f * type.getMinSize() + (type.getMaxSize() - type.getMinSize()) * tRnd.nextFloat();
@@ -882,27 +1155,26 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                                                     colourR = type.getR();
                                                                     colourG = type.getG();
                                                                     colourB = type.getB();
-                                                                    a = 1f;
+                                                                    colourA = 1f;
                                                                 } else {
                                                                     colourR = colourR * .8f + vari * .2f * colourR;
                                                                     colourG = colourG * .8f + vari * .2f * colourG;
                                                                     colourB = colourB * .8f + vari * .2f * colourB;
                                                                 }
-                                                                float oneMinusAlpha = 1f - a;
+                                                                float oneMinusAlpha = 1f - colourA;
                                                                 if (lights) {
                                                                     float resLight = light + lightSpecular * 2f;
                                                                     colourR = resLight + colourR;
                                                                     colourG = resLight + colourG;
                                                                     colourB = resLight + colourB;
                                                                 }
-                                                                colourR = colourR * a + rS * oneMinusAlpha;
-                                                                colourG = colourG * a + gS * oneMinusAlpha;
-                                                                colourB = colourB * a + bS * oneMinusAlpha;
+                                                                colourR = colourR * colourA + point[0] * oneMinusAlpha;
+                                                                colourG = colourG * colourA + point[1] * oneMinusAlpha;
+                                                                colourB = colourB * colourA + point[2] * oneMinusAlpha;
                                                                 break;
                                                             }
                                                             case SPECKLE:
                                                             {
-                                                                float a = ze[15];
                                                                 GCSpeckle type = (GCSpeckle) ct;
                                                                 final int sSize = speckles.size();
                                                                 float radi = 1000f * type.getMinSize() + (type.getMaxSize() - type.getMinSize()) * tRnd.nextFloat();
@@ -949,359 +1221,77 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                                                     colourR = (type.getR() * .8f + vari * .2f * type.getR()) * .5f + colourR * .5f;
                                                                     colourG = (type.getG() * .8f + vari * .2f * type.getG()) * .5f + colourG * .5f;
                                                                     colourB = (type.getB() * .8f + vari * .2f * type.getB()) * .5f + colourB * .5f;
-                                                                    a = 1f;
+                                                                    colourA = 1f;
                                                                 } else {
                                                                     colourR = colourR * .8f + vari * .2f * colourR;
                                                                     colourG = colourG * .8f + vari * .2f * colourG;
                                                                     colourB = colourB * .8f + vari * .2f * colourB;
                                                                 }
-                                                                float oneMinusAlpha = 1f - a;
+                                                                float oneMinusAlpha = 1f - colourA;
                                                                 if (lights) {
                                                                     float resLight = light + lightSpecular * 2f;
                                                                     colourR = resLight + colourR;
                                                                     colourG = resLight + colourG;
                                                                     colourB = resLight + colourB;
                                                                 }
-                                                                colourR = colourR * a + rS * oneMinusAlpha;
-                                                                colourG = colourG * a + gS * oneMinusAlpha;
-                                                                colourB = colourB * a + bS * oneMinusAlpha;
+                                                                colourR = colourR * colourA + point[0] * oneMinusAlpha;
+                                                                colourG = colourG * colourA + point[1] * oneMinusAlpha;
+                                                                colourB = colourB * colourA + point[2] * oneMinusAlpha;
                                                                 break;
                                                             }
                                                             default:
                                                                 break;
                                                             }
-
-                                                            float[] point = new float[11];
                                                             point[0] = colourR;
                                                             point[1] = colourG;
                                                             point[2] = colourB;
-                                                            point[3] = sx;
-                                                            point[4] = sy;
-                                                            point[5] = sx;
-                                                            point[6] = sy + 1f;
-                                                            point[7] = sx + 1f;
-                                                            point[8] = sy + 1f;
-                                                            point[9] = sx + 1f;
-                                                            point[10] = sy;
-                                                            points2.add(point);
                                                         }
-                                                        break;
-                                                    }
-                                                    default:
-                                                        float[] point = new float[11];
-                                                        int k = 0;
-
-                                                        point[0] = 1f;
-                                                        point[1] = 1f;
-                                                        point[2] = 1f;
-
-                                                        for (Entry<Float, float[]> entry : zSort.entrySet()) {
-                                                            Float f = entry.getKey();
-                                                            k++;
-                                                            float[] ze = entry.getValue();
-                                                            float colourA = ze[15];
-                                                            float colourR = ze[12];
-                                                            float colourG = ze[13];
-                                                            float colourB = ze[14];
-
-                                                            GColour c = LDConfig.getColour((int) ze[16]);
-                                                            GColourType ct = c.getType();
-                                                            if (ct == null || GCType.hasCubeMap(ct.type())) {
-                                                                float oneMinusAlpha = 1f - colourA;
-                                                                if (colourA == 1f) {
-                                                                    point[0] = rS;
-                                                                    point[1] = gS;
-                                                                    point[2] = bS;
-                                                                } else if (k < size) {
-                                                                    // Compute light (with specular!)
-                                                                    float lightSpecular = 0f;
-                                                                    if (lights) {
-                                                                        Vector4f pos = hitSort.get(f);
-                                                                        Vector3f position = new Vector3f(pos.x, pos.y, pos.z);
-                                                                        Vector3f normal = new Vector3f(ze[9], ze[10], ze[11]);
-                                                                        Vector3f lightDir1 = Vector3f.sub(lp1, position, null);
-                                                                        Vector3f lightDir2 = Vector3f.sub(lp2, position, null);
-                                                                        Vector3f lightDir3 = Vector3f.sub(lp3, position, null);
-                                                                        Vector3f lightDir4 = Vector3f.sub(lp4, position, null);
-                                                                        lightDir1.normalise();
-                                                                        lightDir2.normalise();
-                                                                        lightDir3.normalise();
-                                                                        lightDir4.normalise();
-                                                                        // attenuation and light direction
-                                                                        // ambient + diffuse
-                                                                        float light = 0.09f; // Ambient
-                                                                        light += 0.80f * .6f * Math.max(Vector3f.dot(normal, lightDir1), 0.0);
-                                                                        light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir2), 0.0);
-                                                                        light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir3), 0.0);
-                                                                        light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir4), 0.0);
-                                                                        lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
-                                                                        // compute final color
-                                                                        colourR = colourR + light;
-                                                                        colourG = colourG + light;
-                                                                        colourB = colourB + light;
-                                                                    }
-
-                                                                    point[0] = (colourR + lightSpecular) * colourA + point[0] * oneMinusAlpha;
-                                                                    point[1] = (colourG + lightSpecular)  * colourA + point[1] * oneMinusAlpha;
-                                                                    point[2] = (colourB + lightSpecular) * colourA + point[2] * oneMinusAlpha;
-
-                                                                } else {
-                                                                    float lightSpecular = 0f;
-                                                                    Vector3f normal = new Vector3f(ze[9], ze[10], ze[11]);
-                                                                    lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
-                                                                    point[0] = (rT + lightSpecular) * colourA + point[0] * oneMinusAlpha;
-                                                                    point[1] = (gT + lightSpecular) * colourA + point[1] * oneMinusAlpha;
-                                                                    point[2] = (bT + lightSpecular) * colourA + point[2] * oneMinusAlpha;
-                                                                }
-                                                            } else {
-                                                                // Compute light (with specular!)
-                                                                float light = 0f;
-                                                                float lightSpecular = 0f;
-                                                                final Vector3f normal = new Vector3f(ze[9], ze[10], ze[11]);
-                                                                final Vector4f pos = hitSort.get(hitSort.firstKey());
-                                                                if (lights) {
-                                                                    Vector3f position = new Vector3f(pos.x, pos.y, pos.z);
-                                                                    Vector3f lightDir1 = Vector3f.sub(lp1, position, null);
-                                                                    Vector3f lightDir2 = Vector3f.sub(lp2, position, null);
-                                                                    Vector3f lightDir3 = Vector3f.sub(lp3, position, null);
-                                                                    Vector3f lightDir4 = Vector3f.sub(lp4, position, null);
-                                                                    lightDir1.normalise();
-                                                                    lightDir2.normalise();
-                                                                    lightDir3.normalise();
-                                                                    lightDir4.normalise();
-                                                                    // attenuation and light direction
-                                                                    // ambient + diffuse
-                                                                    light = 0.09f; // Ambient
-                                                                    light += 0.80f * .6f * Math.max(Vector3f.dot(normal, lightDir1), 0.0);
-                                                                    light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir2), 0.0);
-                                                                    light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir3), 0.0);
-                                                                    light += 0.25f * .6f * Math.max(Vector3f.dot(normal, lightDir4), 0.0);
-                                                                    lightSpecular += Math.pow(Math.max(Vector3f.dot(normal, ray3f2), 0.0), 128f);
-                                                                }
-                                                                switch (ct.type()) {
-                                                                case PEARL:
-                                                                {
-                                                                    Vector3f normal2 = new Vector3f(
-                                                                            normal.x * (.8f + .2f * tRnd.nextFloat()),
-                                                                            normal.y * (.8f + .2f * tRnd.nextFloat()),
-                                                                            normal.z * (.8f + .2f * tRnd.nextFloat())
-                                                                            );
-                                                                    float sp = Vector3f.dot(normal2, ray3f);
-                                                                    float spI = 1f - sp;
-                                                                    Vector3f v = Vector3f.cross(ray3f, normal2, null);
-                                                                    Random rnd = new Random((long) (129642643f * (1f + colourR) * (1f + colourG) * (1f + colourB)));
-                                                                    colourR = colourR + Math.abs(sp + v.x * spI) * rnd.nextFloat() / 4f;
-                                                                    colourG = colourG + Math.abs(sp + v.y * spI) * rnd.nextFloat() / 4f;
-                                                                    colourB = colourB + Math.abs(sp + v.z * spI) * rnd.nextFloat() / 4f;
-                                                                    if (lights) {
-                                                                        colourR = (light + lightSpecular) / 4f + colourR;
-                                                                        colourG = (light + lightSpecular) / 4f + colourG;
-                                                                        colourB = (light + lightSpecular) / 4f + colourB;
-                                                                    }
-                                                                    break;
-                                                                }
-                                                                case GLITTER:
-                                                                {
-                                                                    GCGlitter type = (GCGlitter) ct;
-                                                                    final int sSize = glitters.size();
-                                                                    float radi = 1000f * type.getMinSize() + (type.getMaxSize() - type.getMinSize()) * tRnd.nextFloat();
-                                                                    boolean hit = false;
-                                                                    final int glitterCount = 30000;
-                                                                    boolean buildable = sSize < glitterCount;
-                                                                    Vector4f v = get3DCoordinatesFromScreen(pos.x, pos.y, pos.z, vInverse);
-                                                                    final float px = v.x;
-                                                                    final float py = v.y;
-                                                                    final float pz = v.z;
-                                                                    float[] newGlitter = new float[]{px + tRnd.nextFloat() * radi, py + tRnd.nextFloat() * radi, pz + tRnd.nextFloat() * radi, radi};
-                                                                    lockGlitter.lock();
-                                                                    try {
-                                                                        final long now = System.currentTimeMillis();
-                                                                        for (Iterator<float[]> iterator = glitters.iterator(); iterator.hasNext();) {
-                                                                            float[] glitter = iterator.next();
-                                                                            final long age = now - glittersCreation.get(glitter);
-                                                                            if (age > 500L) {
-                                                                                iterator.remove();
-                                                                            } else {
-                                                                                float dx = glitter[0] - px;
-                                                                                float dy = glitter[1] - py;
-                                                                                float dz = glitter[2] - pz;
-                                                                                float dist = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
-                                                                                if (dist < glitter[3]) {
-                                                                                    hit = true;
-                                                                                    break;
-                                                                                }
-                                                                                if (buildable && dist * 0.5 < radi) {
-                                                                                    buildable = false;
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                        if (buildable && !hit) {
-                                                                            glittersCreation.put(newGlitter, System.currentTimeMillis());
-                                                                            glitters.add(newGlitter);
-                                                                        }
-                                                                    } finally {
-                                                                        lockGlitter.unlock();
-                                                                    }
-
-                                                                    float vari = tRnd.nextFloat();
-                                                                    if (hit) {
-                                                                        lightSpecular *= 1f + vari;
-                                                                        colourR = type.getR();
-                                                                        colourG = type.getG();
-                                                                        colourB = type.getB();
-                                                                        colourA = 1f;
-                                                                    } else {
-                                                                        colourR = colourR * .8f + vari * .2f * colourR;
-                                                                        colourG = colourG * .8f + vari * .2f * colourG;
-                                                                        colourB = colourB * .8f + vari * .2f * colourB;
-                                                                    }
-                                                                    float oneMinusAlpha = 1f - colourA;
-                                                                    if (lights) {
-                                                                        float resLight = light + lightSpecular * 2f;
-                                                                        colourR = resLight + colourR;
-                                                                        colourG = resLight + colourG;
-                                                                        colourB = resLight + colourB;
-                                                                    }
-                                                                    colourR = colourR * colourA + point[0] * oneMinusAlpha;
-                                                                    colourG = colourG * colourA + point[1] * oneMinusAlpha;
-                                                                    colourB = colourB * colourA + point[2] * oneMinusAlpha;
-                                                                    break;
-                                                                }
-                                                                case SPECKLE:
-                                                                {
-                                                                    GCSpeckle type = (GCSpeckle) ct;
-                                                                    final int sSize = speckles.size();
-                                                                    float radi = 1000f * type.getMinSize() + (type.getMaxSize() - type.getMinSize()) * tRnd.nextFloat();
-                                                                    boolean hit = false;
-                                                                    final int speckleCount = 30000;
-                                                                    boolean buildable = sSize < speckleCount;
-                                                                    Vector4f v = get3DCoordinatesFromScreen(pos.x, pos.y, pos.z, vInverse);
-                                                                    final float px = v.x;
-                                                                    final float py = v.y;
-                                                                    final float pz = v.z;
-                                                                    float[] newSpeckle = new float[]{px + tRnd.nextFloat() * radi, py + tRnd.nextFloat() * radi, pz + tRnd.nextFloat() * radi, radi};
-                                                                    lockSpeckle.lock();
-                                                                    try {
-                                                                        final long now = System.currentTimeMillis();
-                                                                        for (Iterator<float[]> iterator = speckles.iterator(); iterator.hasNext();) {
-                                                                            float[] speckle = iterator.next();
-                                                                            final long age = now - specklesCreation.get(speckle);
-                                                                            if (age > 500L) {
-                                                                                iterator.remove();
-                                                                            } else {
-                                                                                double dx = speckle[0] - px;
-                                                                                double dy = speckle[1] - py;
-                                                                                double dz = speckle[2] - pz;
-                                                                                float dist = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
-                                                                                if (dist < speckle[3]) {
-                                                                                    hit = true;
-                                                                                    break;
-                                                                                }
-                                                                                if (buildable && dist * 0.5 < radi) {
-                                                                                    buildable = false;
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                        if (buildable && !hit) {
-                                                                            specklesCreation.put(newSpeckle, System.currentTimeMillis());
-                                                                            speckles.add(newSpeckle);
-                                                                        }
-                                                                    } finally {
-                                                                        lockSpeckle.unlock();
-                                                                    }
-
-                                                                    float vari = tRnd.nextFloat();
-                                                                    if (hit) {
-                                                                        colourR = (type.getR() * .8f + vari * .2f * type.getR()) * .5f + colourR * .5f;
-                                                                        colourG = (type.getG() * .8f + vari * .2f * type.getG()) * .5f + colourG * .5f;
-                                                                        colourB = (type.getB() * .8f + vari * .2f * type.getB()) * .5f + colourB * .5f;
-                                                                        colourA = 1f;
-                                                                    } else {
-                                                                        colourR = colourR * .8f + vari * .2f * colourR;
-                                                                        colourG = colourG * .8f + vari * .2f * colourG;
-                                                                        colourB = colourB * .8f + vari * .2f * colourB;
-                                                                    }
-                                                                    float oneMinusAlpha = 1f - colourA;
-                                                                    if (lights) {
-                                                                        float resLight = light + lightSpecular * 2f;
-                                                                        colourR = resLight + colourR;
-                                                                        colourG = resLight + colourG;
-                                                                        colourB = resLight + colourB;
-                                                                    }
-                                                                    colourR = colourR * colourA + point[0] * oneMinusAlpha;
-                                                                    colourG = colourG * colourA + point[1] * oneMinusAlpha;
-                                                                    colourB = colourB * colourA + point[2] * oneMinusAlpha;
-                                                                    break;
-                                                                }
-                                                                default:
-                                                                    break;
-                                                                }
-                                                                point[0] = colourR;
-                                                                point[1] = colourG;
-                                                                point[2] = colourB;
-                                                            }
-                                                        }
-                                                        point[3] = sx;
-                                                        point[4] = sy;
-                                                        point[5] = sx;
-                                                        point[6] = sy + 1f;
-                                                        point[7] = sx + 1f;
-                                                        point[8] = sy + 1f;
-                                                        point[9] = sx + 1f;
-                                                        point[10] = sy;
-                                                        points2.add(point);
                                                     }
+                                                    point[3] = sx;
+                                                    point[4] = sy;
+                                                    point[5] = sx;
+                                                    point[6] = sy + 1f;
+                                                    point[7] = sx + 1f;
+                                                    point[8] = sy + 1f;
+                                                    point[9] = sx + 1f;
+                                                    point[10] = sy;
+                                                    points2.add(point);
                                                 }
-                                                i += 4;
                                             }
-                                            if (s < 1) {
-                                                int size = points2.size();
-                                                int size2 = renderedPoints[0] == null ? -1 : renderedPoints[0].length;
-                                                float[][] r;
-                                                if (size2 < size) {
-                                                    r = new float[size][];
-                                                    skip = 0;
-                                                } else {
-                                                    r = renderedPoints[0];
-                                                }
-                                                for (int k = skip; k < size; k++) {
-                                                    r[k] = points2.get(k);
-                                                }
-                                                skip = size;
-                                                tmpLock.lock();
-                                                try {
-                                                    // Update renderedPoints here!
-                                                    renderedPoints[0] = r;
-                                                } finally {
-                                                    tmpLock.unlock();
-                                                }
+                                            i += 4;
+                                        }
+                                        if (s < 1) {
+                                            int size = points2.size();
+                                            int size2 = renderedPoints[0] == null ? -1 : renderedPoints[0].length;
+                                            float[][] r;
+                                            if (size2 < size) {
+                                                r = new float[size][];
+                                                skip = 0;
+                                            } else {
+                                                r = renderedPoints[0];
+                                            }
+                                            for (int k = skip; k < size; k++) {
+                                                r[k] = points2.get(k);
+                                            }
+                                            skip = size;
+                                            tmpLock.lock();
+                                            try {
+                                                // Update renderedPoints here!
+                                                renderedPoints[0] = r;
+                                            } finally {
+                                                tmpLock.unlock();
                                             }
-                                            i += 4 * cw * (chunks - 1);
                                         }
+                                        i += 4 * cw * (chunks - 1);
+                                    }
 
-                                        tmpLock.lock();
-                                        try {
-                                            points.addAll(points2);
-                                        } finally {
-                                            tmpLock.unlock();
-                                        }
-                                    });
-                                    threads[j].start();
-                                }
-                                boolean isRunning = true;
-                                while (isRunning) {
+                                    tmpLock.lock();
                                     try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
+                                        points.addAll(points2);
+                                    } finally {
+                                        tmpLock.unlock();
                                     }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
-                                    }
-                                }
+                                }).await();
                             }
 
                             final int size = points.size();
@@ -2142,6 +2132,8 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
             tex.dispose(this);
             it.remove();
         }
+        disposePlaceholderTexture();
+        drawCache.dispose();
     }
 
     private int loadGlossFragmentShader() {
@@ -1501,6 +1501,7 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
             tex.dispose(this);
             it.remove();
         }
+        disposePlaceholderTexture();
     }
 
     public Matrix4f getRotationInverse() {
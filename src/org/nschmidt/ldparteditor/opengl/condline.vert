@@ -5,10 +5,13 @@ layout(location = 1) in vec3 in_B;
 layout(location = 2) in vec3 in_C;
 layout(location = 3) in vec3 in_D;
 layout(location = 4) in vec3 in_color;
+layout(location = 5) in vec4 in_preview;
 
 uniform mat4 projection;
 uniform mat4 view;
 uniform mat4 model;
+uniform mat4 preview;
+uniform float previewing;
 uniform float zoom;
 
 uniform float showAll;
@@ -19,11 +22,13 @@ out vec4 sceneColor;
 void main()
 {
 	mat4 pvm = projection * view * model;
-	gl_Position = pvm * vec4(in_position, 1.0f);	
+	// A disabled attribute array reads (0, 0, 0, 1), so the flags are only valid while previewing
+	bvec4 moved = previewing > 0.5f ? greaterThan(in_preview, vec4(0.5f)) : bvec4(false);
+	gl_Position = pvm * (moved.x ? preview : mat4(1.0f)) * vec4(in_position, 1.0f);
 	vec4 A = gl_Position;
-	vec4 B = pvm * vec4(in_B, 1.0f);
-	vec4 C = pvm * vec4(in_C, 1.0f);
-	vec4 D = pvm * vec4(in_D, 1.0f);	
+	vec4 B = pvm * (moved.y ? preview : mat4(1.0f)) * vec4(in_B, 1.0f);
+	vec4 C = pvm * (moved.z ? preview : mat4(1.0f)) * vec4(in_C, 1.0f);
+	vec4 D = pvm * (moved.w ? preview : mat4(1.0f)) * vec4(in_D, 1.0f);
 	
 	vec4 N = vec4(A.y - B.y, B.x - A.x, 0.0f, 1.0f);
 	
@@ -4,15 +4,20 @@ layout(location = 0) in vec3 in_position;
 layout(location = 1) in vec3 in_normal;
 layout(location = 2) in vec4 in_color;
 layout(location = 3) in vec2 in_tex;
+layout(location = 4) in mat4 in_instance;
+layout(location = 8) in float in_preview;
 
 uniform float factor;
 uniform float pngswitch;
 uniform float texmapswitch;
+uniform float instanced;
 
 uniform mat4 projection;
 uniform mat4 view;
 uniform mat4 model;
 uniform mat4 rotation;
+uniform mat4 preview;
+uniform float previewing;
 
 out vec4 sceneColor;
 out vec3 normal;
@@ -25,25 +30,32 @@ void main()
         tex = in_tex;
     }
     
-    gl_Position = projection * view * model * vec4(in_position, 1.0f);
-    position = vec3(view * model * vec4(in_position, 1.0f));
+    mat4 modelMatrix = instanced > 0.5f ? in_instance : model;
+    vec4 worldPosition = vec4(in_position, 1.0f);
+    vec3 worldNormal = in_normal;
+    if (previewing > 0.5f && in_preview > 0.5f) {
+        worldPosition = preview * worldPosition;
+        worldNormal = mat3(preview) * worldNormal;
+    }
+    gl_Position = projection * view * modelMatrix * worldPosition;
+    position = vec3(view * modelMatrix * worldPosition);
     sceneColor = vec4(in_color.r * factor, in_color.g * factor, in_color.b * factor, in_color.a);
     
     mat4 glNormalMatrix_m;
     vec3 n1;
     vec3 n2;
     vec3 n3;
-    n1.x = model[0][0];
-    n1.y = model[0][1];
-    n1.z = model[0][2];
+    n1.x = modelMatrix[0][0];
+    n1.y = modelMatrix[0][1];
+    n1.z = modelMatrix[0][2];
     
-    n2.x = model[1][0];
-    n2.y = model[1][1];
-    n2.z = model[1][2];
+    n2.x = modelMatrix[1][0];
+    n2.y = modelMatrix[1][1];
+    n2.z = modelMatrix[1][2];
     
-    n3.x = model[2][0];
-    n3.y = model[2][1];
-    n3.z = model[2][2];
+    n3.x = modelMatrix[2][0];
+    n3.y = modelMatrix[2][1];
+    n3.z = modelMatrix[2][2];
     
     n1 = normalize(n1);
     n2 = normalize(n2);
@@ -57,5 +69,5 @@ void main()
     }
     glNormalMatrix_m[3][3] = 1.0f;
     
-    normal = vec3(rotation * glNormalMatrix_m * vec4(normalize(in_normal), 1.0f));
+    normal = vec3(rotation * glNormalMatrix_m * vec4(normalize(worldNormal), 1.0f));
 }
\ No newline at end of file
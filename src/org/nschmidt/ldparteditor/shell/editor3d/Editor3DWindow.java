@@ -137,6 +137,7 @@ import org.nschmidt.ldparteditor.shell.editor3d.toolitem.NewOpenSaveProjectToolI
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 import org.nschmidt.ldparteditor.shell.searchnreplace.SearchWindow;
 import org.nschmidt.ldparteditor.text.LDParsingException;
+import org.nschmidt.ldparteditor.text.LibraryCache;
 import org.nschmidt.ldparteditor.text.References;
 import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
 import org.nschmidt.ldparteditor.vertexwindow.VertexWindow;
@@ -1836,7 +1837,7 @@ public class Editor3DWindow extends Editor3DDesign {
                         updateBgPictureTab();
                     }
 
-                    Vertex newScale = new Vertex(spn.getValue(), png.scale.yp, png.scale.zp);
+                    Vertex newScale = new Vertex(spn.getValue(), png.scale.yp(), png.scale.zp());
                     String newText = png.getString(png.offset, png.angleA, png.angleB, png.angleC, newScale, png.texturePath);
 
                     GDataPNG newPngPicture = new GDataPNG(newText, png.offset, png.angleA, png.angleB, png.angleC, newScale, png.texturePath, View.DUMMY_REFERENCE);
@@ -1876,7 +1877,7 @@ public class Editor3DWindow extends Editor3DDesign {
                         updateBgPictureTab();
                     }
 
-                    Vertex newScale = new Vertex(png.scale.xp, spn.getValue(), png.scale.zp);
+                    Vertex newScale = new Vertex(png.scale.xp(), spn.getValue(), png.scale.zp());
                     String newText = png.getString(png.offset, png.angleA, png.angleB, png.angleC, newScale, png.texturePath);
 
                     GDataPNG newPngPicture = new GDataPNG(newText, png.offset, png.angleA, png.angleB, png.angleC, newScale, png.texturePath, View.DUMMY_REFERENCE);
@@ -1909,7 +1910,7 @@ public class Editor3DWindow extends Editor3DDesign {
                     }
 
 
-                    Vertex newOffset = new Vertex(spn.getValue(), png.offset.yp, png.offset.zp);
+                    Vertex newOffset = new Vertex(spn.getValue(), png.offset.yp(), png.offset.zp());
                     String newText = png.getString(newOffset, png.angleA, png.angleB, png.angleC, png.scale, png.texturePath);
 
                     GDataPNG newPngPicture = new GDataPNG(newText, newOffset, png.angleA, png.angleB, png.angleC, png.scale, png.texturePath, View.DUMMY_REFERENCE);
@@ -1949,7 +1950,7 @@ public class Editor3DWindow extends Editor3DDesign {
                         updateBgPictureTab();
                     }
 
-                    Vertex newOffset = new Vertex(png.offset.xp, spn.getValue(), png.offset.zp);
+                    Vertex newOffset = new Vertex(png.offset.xp(), spn.getValue(), png.offset.zp());
                     String newText = png.getString(newOffset, png.angleA, png.angleB, png.angleC, png.scale, png.texturePath);
 
                     GDataPNG newPngPicture = new GDataPNG(newText, newOffset, png.angleA, png.angleB, png.angleC, png.scale, png.texturePath, View.DUMMY_REFERENCE);
@@ -1989,7 +1990,7 @@ public class Editor3DWindow extends Editor3DDesign {
                         updateBgPictureTab();
                     }
 
-                    Vertex newOffset = new Vertex(png.offset.xp, png.offset.yp, spn.getValue());
+                    Vertex newOffset = new Vertex(png.offset.xp(), png.offset.yp(), spn.getValue());
                     String newText = png.getString(newOffset, png.angleA, png.angleB, png.angleC, png.scale, png.texturePath);
 
                     GDataPNG newPngPicture = new GDataPNG(newText, newOffset, png.angleA, png.angleB, png.angleC, png.scale, png.texturePath, View.DUMMY_REFERENCE);
@@ -2354,6 +2355,7 @@ public class Editor3DWindow extends Editor3DDesign {
 
         WorkbenchManager.getPrimitiveCache().setPrimitiveCache(CompositePrimitive.getCache());
         WorkbenchManager.getPrimitiveCache().setPrimitiveFileCache(CompositePrimitive.getFileCache());
+        LibraryCache.save();
 
         WorkbenchManager.getUserSettingState().setRecentItems(NewOpenSaveProjectToolItem.getRecentItems());
         // Save the workbench
@@ -3021,6 +3023,7 @@ public class Editor3DWindow extends Editor3DDesign {
         if (!deadFiles.isEmpty()) {
             GData.CACHE_viewByProjection.clear();
             GData.parsedLines.clear();
+            GData.CACHE_subfileTemplates.clear();
             GData.CACHE_parsedFilesSource.clear();
         }
         for (DatFile datFile : deadFiles) {
@@ -3224,16 +3227,16 @@ public class Editor3DWindow extends Editor3DDesign {
                 txtPngPathPtr[0].setText(png.texturePath);
                 txtPngPathPtr[0].setToolTipText(png.texturePath);
 
-                spnPngXPtr[0].setValue(png.offset.xp);
-                spnPngYPtr[0].setValue(png.offset.yp);
-                spnPngZPtr[0].setValue(png.offset.zp);
+                spnPngXPtr[0].setValue(png.offset.xp());
+                spnPngYPtr[0].setValue(png.offset.yp());
+                spnPngZPtr[0].setValue(png.offset.zp());
 
                 spnPngA1Ptr[0].setValue(png.angleA);
                 spnPngA2Ptr[0].setValue(png.angleB);
                 spnPngA3Ptr[0].setValue(png.angleC);
 
-                spnPngSXPtr[0].setValue(png.scale.xp);
-                spnPngSYPtr[0].setValue(png.scale.yp);
+                spnPngSXPtr[0].setValue(png.scale.xp());
+                spnPngSYPtr[0].setValue(png.scale.yp());
 
                 spnPngA1Ptr[0].getParent().update();
                 updatingPngPictureTab = false;
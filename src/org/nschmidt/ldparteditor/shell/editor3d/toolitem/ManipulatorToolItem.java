@@ -570,7 +570,7 @@ public class ManipulatorToolItem extends ToolItem {
                     }
                 }
                 c3d.getManipulator().getPosition().set(min.x, min.y, min.z, 1f);
-                c3d.getManipulator().setAccuratePosition(minVertex.xp, minVertex.yp, minVertex.zp);
+                c3d.getManipulator().setAccuratePosition(minVertex.xp(), minVertex.yp(), minVertex.zp());
             }
         }
         regainFocus();
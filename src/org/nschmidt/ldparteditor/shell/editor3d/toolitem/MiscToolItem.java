@@ -1796,9 +1796,9 @@ public class MiscToolItem extends ToolItem {
                     final Set<GData> linkedData = vm.getLinkedSurfacesSubfilesAndLines(v);
                     if (linkedData.stream().anyMatch(g -> g.type() == 1)) continue;
                     
-                    final BigDecimal newX = snapOnX ? snapToNearest(gridSize, gridSizePrecise, v.xp.abs()).multiply(new BigDecimal(v.xp.signum())) : v.xp;
-                    final BigDecimal newY = snapOnY ? snapToNearest(gridSize, gridSizePrecise, v.yp.abs()).multiply(new BigDecimal(v.yp.signum())) : v.yp;
-                    final BigDecimal newZ = snapOnZ ? snapToNearest(gridSize, gridSizePrecise, v.zp.abs()).multiply(new BigDecimal(v.zp.signum())) : v.zp;
+                    final BigDecimal newX = snapOnX ? snapToNearest(gridSize, gridSizePrecise, v.xp().abs()).multiply(new BigDecimal(v.xp().signum())) : v.xp();
+                    final BigDecimal newY = snapOnY ? snapToNearest(gridSize, gridSizePrecise, v.yp().abs()).multiply(new BigDecimal(v.yp().signum())) : v.yp();
+                    final BigDecimal newZ = snapOnZ ? snapToNearest(gridSize, gridSizePrecise, v.zp().abs()).multiply(new BigDecimal(v.zp().signum())) : v.zp();
                     
                     modified = vm.changeVertexDirectFast(v, new Vertex(new BigDecimal[]{newX, newY, newZ}), true) || modified;
                 }
@@ -1913,13 +1913,13 @@ public class MiscToolItem extends ToolItem {
                                 Vector3d v11 = CoordinatesDialog.getStart();
                                 if (CoordinatesDialog.isX() && delta1.x.compareTo(BigDecimal.ZERO) != 0) {
                                     doMoveOnLine1 = true;
-                                    s1 = v21.xp.subtract(CoordinatesDialog.getStart().x).divide(delta1.x, Threshold.MC);
+                                    s1 = v21.xp().subtract(CoordinatesDialog.getStart().x).divide(delta1.x, Threshold.MC);
                                 } else if (CoordinatesDialog.isY() && delta1.y.compareTo(BigDecimal.ZERO) != 0) {
                                     doMoveOnLine1 = true;
-                                    s1 = v21.yp.subtract(CoordinatesDialog.getStart().y).divide(delta1.y, Threshold.MC);
+                                    s1 = v21.yp().subtract(CoordinatesDialog.getStart().y).divide(delta1.y, Threshold.MC);
                                 } else if (CoordinatesDialog.isZ() && delta1.z.compareTo(BigDecimal.ZERO) != 0) {
                                     doMoveOnLine1 = true;
-                                    s1 = v21.zp.subtract(CoordinatesDialog.getStart().z).divide(delta1.z, Threshold.MC);
+                                    s1 = v21.zp().subtract(CoordinatesDialog.getStart().z).divide(delta1.z, Threshold.MC);
                                 }
                                 if (doMoveOnLine1) {
                                     CoordinatesDialog.setVertex(new Vertex(v11.x.add(delta1.x.multiply(s1)), v11.y.add(delta1.y.multiply(s1)), v11.z.add(delta1.z.multiply(s1))));
@@ -1948,17 +1948,17 @@ public class MiscToolItem extends ToolItem {
                                 Vector3d v12 = CoordinatesDialog.getStart();
                                 if (CoordinatesDialog.isX() && delta2.x.compareTo(BigDecimal.ZERO) != 0) {
                                     doMoveOnLine2 = true;
-                                    s2 = v22.xp.subtract(CoordinatesDialog.getStart().x).divide(delta2.x, Threshold.MC);
+                                    s2 = v22.xp().subtract(CoordinatesDialog.getStart().x).divide(delta2.x, Threshold.MC);
                                 } else if (CoordinatesDialog.isY() && delta2.y.compareTo(BigDecimal.ZERO) != 0) {
                                     doMoveOnLine2 = true;
-                                    s2 = v22.yp.subtract(CoordinatesDialog.getStart().y).divide(delta2.y, Threshold.MC);
+                                    s2 = v22.yp().subtract(CoordinatesDialog.getStart().y).divide(delta2.y, Threshold.MC);
                                 } else if (CoordinatesDialog.isZ() && delta2.z.compareTo(BigDecimal.ZERO) != 0) {
                                     doMoveOnLine2 = true;
-                                    s2 = v22.zp.subtract(CoordinatesDialog.getStart().z).divide(delta2.z, Threshold.MC);
+                                    s2 = v22.zp().subtract(CoordinatesDialog.getStart().z).divide(delta2.z, Threshold.MC);
                                 }
-                                BigDecimal xP = !CoordinatesDialog.isX() ? v12.x.add(delta2.x.multiply(s2)) : v22.xp;
-                                BigDecimal yP = !CoordinatesDialog.isY() ? v12.y.add(delta2.y.multiply(s2)) : v22.yp;
-                                BigDecimal zP = !CoordinatesDialog.isZ() ? v12.z.add(delta2.z.multiply(s2)) : v22.zp;
+                                BigDecimal xP = !CoordinatesDialog.isX() ? v12.x.add(delta2.x.multiply(s2)) : v22.xp();
+                                BigDecimal yP = !CoordinatesDialog.isY() ? v12.y.add(delta2.y.multiply(s2)) : v22.yp();
+                                BigDecimal zP = !CoordinatesDialog.isZ() ? v12.z.add(delta2.z.multiply(s2)) : v22.zp();
                                 if (doMoveOnLine2) {
                                     CoordinatesDialog.setVertex(new Vertex(xP, yP, zP));
                                     CoordinatesDialog.setX(true);
@@ -19,6 +19,10 @@ import static org.nschmidt.ldparteditor.helper.WidgetUtility.widgetUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.List;
 
@@ -48,7 +52,6 @@ import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 import org.nschmidt.ldparteditor.state.KeyStateManager;
 import org.nschmidt.ldparteditor.text.Stl2Dat;
-import org.nschmidt.ldparteditor.text.UTF8PrintWriter;
 import org.nschmidt.ldparteditor.widget.NButton;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
@@ -338,9 +341,9 @@ public class NewOpenSaveDatfileToolItem extends ToolItem {
                 NLogger.debug(NewOpenSaveDatfileToolItem.class, "Convert stl-file to dat-file..."); //$NON-NLS-1$
                 String stlFilePath = new File(fd.getFilterPath() + File.separator + fileName).getAbsolutePath();
                 absoluteFilePath = new File(fd.getFilterPath() + File.separator + fileName).getAbsolutePath() + ".dat"; //$NON-NLS-1$
-                try (UTF8PrintWriter r = new UTF8PrintWriter(absoluteFilePath)) {
-                    r.println(Stl2Dat.convertStlToDatFile(stlFilePath, WorkbenchManager.getUserSettingState()));
-                    r.flush();
+                try (Writer w = Files.newBufferedWriter(Paths.get(absoluteFilePath), StandardCharsets.UTF_8)) {
+                    Stl2Dat.convertStlToDatFile(stlFilePath, WorkbenchManager.getUserSettingState(), w);
+                    w.write("\r\n"); //$NON-NLS-1$
                 } catch (IOException ioe) {
                     NLogger.debug(NewOpenSaveDatfileToolItem.class, ioe);
                 }
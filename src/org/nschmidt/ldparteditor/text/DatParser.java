@@ -26,7 +26,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.regex.Pattern;
 
 import org.lwjgl.util.vector.Matrix4f;
@@ -73,58 +73,75 @@ import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 public enum DatParser {
     INSTANCE;
 
-    private static boolean updatePngImages = false;
+    private static volatile boolean updatePngImages = false;
 
-    private static GColour cValue = new GColour();
     private static final Pattern WHITESPACE = Pattern.compile("\\s+"); //$NON-NLS-1$
+    private static final Map<String, String> constants = new ConcurrentSkipListMap<>();
+    private static final ThreadLocal<ParserContext> CONTEXT = ThreadLocal.withInitial(ParserContext::new);
 
-    private static final Vector3d start = new Vector3d();
-    private static final Vector3d end = new Vector3d();
-    private static final Vector3d vertexA = new Vector3d();
-    private static final Vector3d vertexB = new Vector3d();
-    private static final Vector3d vertexC = new Vector3d();
-    private static final Vector3d vertexD = new Vector3d();
-    private static final Vector3d controlI = new Vector3d();
-    private static final Vector3d controlII = new Vector3d();
-
-    private static final Vector3d vertexA2 = new Vector3d();
-    private static final Vector3d vertexB2 = new Vector3d();
-    private static final Vector3d vertexC2 = new Vector3d();
-    private static final Vector3d vertexD2 = new Vector3d();
-    
-    private static final Map<String, String> constants = new TreeMap<>();
+    /**
+     * The scratch objects of the parser. Each thread has its own context, so
+     * lines can be parsed concurrently.
+     */
+    private static final class ParserContext {
+        private final GColour cValue = new GColour();
+        private final LineTokenizer tokenizer = new LineTokenizer();
+
+        private final Vector3d start = new Vector3d();
+        private final Vector3d end = new Vector3d();
+        private final Vector3d vertexA = new Vector3d();
+        private final Vector3d vertexB = new Vector3d();
+        private final Vector3d vertexC = new Vector3d();
+        private final Vector3d vertexD = new Vector3d();
+        private final Vector3d controlI = new Vector3d();
+        private final Vector3d controlII = new Vector3d();
+
+        private final Vector3d vertexA2 = new Vector3d();
+        private final Vector3d vertexB2 = new Vector3d();
+        private final Vector3d vertexC2 = new Vector3d();
+        private final Vector3d vertexD2 = new Vector3d();
+    }
 
     public static List<ParsingResult> parseLine(String line, int lineNumber, int depth, float r, float g, float b, float a, GData1 parent, Matrix4f productMatrix, Matrix accurateProductMatrix,
             DatFile datFile, boolean errorCheckOnly, Set<String> alreadyParsed) {
+        return parseLine(line, null, lineNumber, depth, r, g, b, a, parent, productMatrix, accurateProductMatrix, datFile, errorCheckOnly, alreadyParsed);
+    }
+
+    /**
+     * Parses a line of a cached library file, whose numbers were already
+     * parsed (see {@link LibraryCache.ParsedLines#getDecimals(int)})
+     */
+    public static List<ParsingResult> parseLine(String line, BigDecimal[] decimals, int lineNumber, int depth, float r, float g, float b, float a, GData1 parent, Matrix4f productMatrix, Matrix accurateProductMatrix,
+            DatFile datFile, boolean errorCheckOnly, Set<String> alreadyParsed) {
         List<ParsingResult> result = new ArrayList<>();
         // Get the linetype
         int linetype = 0;
-        final String[] dataSegments = WHITESPACE.split(line.trim());
-        char c;
-        if (dataSegments.length < 1 || dataSegments[0].length() >  1 || !Character.isDigit(c = dataSegments[0].charAt(0))) {
+        final LineTokenizer tokens = CONTEXT.get().tokenizer.tokenize(line, decimals);
+        linetype = tokens.digitAt(0);
+        if (linetype == -1) {
             result.add(new ParsingResult(I18n.DATPARSER_INVALID_TYPE, "[E0D] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
             return new ArrayList<>(result);
         }
-        linetype = Character.getNumericValue(c);
         // Parse the line according to its type
+        // (only comments and references need the segments as strings)
         switch (linetype) {
         case 0:
-            result.addAll(parseComment(line, dataSegments, depth, r, g, b, a, parent, productMatrix, datFile, errorCheckOnly, alreadyParsed));
+            result.addAll(parseComment(line, tokens.toArray(), depth, r, g, b, a, parent, productMatrix, datFile, errorCheckOnly, alreadyParsed));
             break;
         case 1:
-            result.addAll(parseReference(dataSegments, depth, r, g, b, a, parent, productMatrix, accurateProductMatrix, datFile, errorCheckOnly, alreadyParsed, lineNumber));
+            result.addAll(parseReference(tokens.toArray(), depth, r, g, b, a, parent, productMatrix, accurateProductMatrix, datFile, errorCheckOnly, alreadyParsed, lineNumber));
             break;
         case 2:
-            result.addAll(parseLine(dataSegments, r, g, b, a, parent, datFile, errorCheckOnly));
+            result.addAll(parseLine(tokens, r, g, b, a, parent, datFile, errorCheckOnly));
             break;
         case 3:
-            result.addAll(parseTriangle(dataSegments, r, g, b, a, parent, datFile, errorCheckOnly, depth));
+            result.addAll(parseTriangle(tokens, r, g, b, a, parent, datFile, errorCheckOnly, depth));
             break;
         case 4:
-            result.addAll(parseQuad(dataSegments, r, g, b, a, parent, datFile, errorCheckOnly, depth));
+            result.addAll(parseQuad(tokens, r, g, b, a, parent, datFile, errorCheckOnly, depth));
             break;
         case 5:
-            result.addAll(parseCondline(dataSegments, r, g, b, a, parent, datFile, errorCheckOnly, depth));
+            result.addAll(parseCondline(tokens, r, g, b, a, parent, datFile, errorCheckOnly, depth));
             break;
         default:
             // Mark unknown linetypes as error
@@ -149,6 +166,8 @@ public enum DatParser {
      * @return {@code null} if the colour is invalid
      */
     public static GColour validateColour(String arg, float r, float g, float b, float a) {
+        final ParserContext context = CONTEXT.get();
+        final GColour cValue = context.cValue;
         int colourValue;
         try {
             colourValue = Integer.parseInt(arg);
@@ -201,6 +220,13 @@ public enum DatParser {
         return cValue;
     }
 
+    private static GColour validateColour(LineTokenizer tokens, int index, float r, float g, float b, float a) {
+        if (tokens.isInteger(index)) {
+            return validateColour(tokens.getInt(index), r, g, b, a);
+        }
+        return validateColour(tokens.get(index), r, g, b, a);
+    }
+
     /**
      * Validates the colour argument and highlights possible errors
      *
@@ -213,6 +239,8 @@ public enum DatParser {
      * @return {@code null} if the colour is invalid
      */
     public static GColour validateColour(int arg, float r, float g, float b, float a) {
+        final ParserContext context = CONTEXT.get();
+        final GColour cValue = context.cValue;
         switch (arg) {
         case 16:
             cValue.set(16, r, g, b, a);
@@ -253,6 +281,12 @@ public enum DatParser {
      */
     private static List<ParsingResult> parseComment(String line, String[] dataSegments, int depth, float r, float g, float b, float a, GData1 parent, Matrix4f productMatrix, DatFile datFile,
             boolean errorCheckOnly, Set<String> alreadyParsed) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3d start = context.start;
+        final Vector3d end = context.end;
+        final Vector3d vertexA = context.vertexA;
+        final Vector3d vertexB = context.vertexB;
+        final Vector3d vertexC = context.vertexC;
 
         List<ParsingResult> result = new ArrayList<>();
         line = WHITESPACE.matcher(line).replaceAll(" ").trim(); //$NON-NLS-1$
@@ -491,6 +525,7 @@ public enum DatParser {
                 
                 // Clear the cache when a constant was changed/defined 
                 GData.parsedLines.clear();
+                GData.CACHE_subfileTemplates.clear();
             }
         } else if (line.startsWith("0 BFC ")) { //$NON-NLS-1$
             if (line.startsWith("INVERTNEXT", 6) && line.equals("0 BFC INVERTNEXT")) { //$NON-NLS-1$ //$NON-NLS-2$
@@ -685,10 +720,9 @@ public enum DatParser {
                     String s2 = middle[a2];
                     for (int a3 = 0; a3 < suffix.length; a3++) {
                         String s3 = suffix[a3];
-                        File f = new File(s1 + s2 + s3);
-                        fileExists = f.exists() && f.isFile();
+                        fileExists = LibraryPathIndex.isFile(s1, s2 + s3);
                         if (fileExists) {
-                            fileToOpen = f;
+                            fileToOpen = new File(s1 + s2 + s3);
                             break;
                         }
                     }
@@ -764,18 +798,24 @@ public enum DatParser {
                 result.add(new ParsingResult(I18n.DATPARSER_FILE_NOT_FOUND, "[E01] " + I18n.DATPARSER_DATA_ERROR, ResultType.ERROR)); //$NON-NLS-1$
             } else {
                 absoluteFilename = fileToOpen.getAbsolutePath();
-                String line = null;
-                lines = new ArrayList<>(4096);
-                try (UTF8BufferedReader reader = new UTF8BufferedReader(absoluteFilename)) {
-                    while (true) {
-                        line = reader.readLine();
-                        if (line == null) {
-                            break;
+                lines = readOnly ? LibraryCache.getLines(fileToOpen) : null;
+                if (lines == null) {
+                    String line = null;
+                    lines = new ArrayList<>(4096);
+                    try (UTF8BufferedReader reader = new UTF8BufferedReader(absoluteFilename)) {
+                        while (true) {
+                            line = reader.readLine();
+                            if (line == null) {
+                                break;
+                            }
+                            lines.add(line);
+                        }
+                        if (readOnly) {
+                            LibraryCache.putLines(fileToOpen, lines);
                         }
-                        lines.add(line);
+                    } catch (FileNotFoundException | LDParsingException ex) {
+                        NLogger.debug(DatParser.class, ex);
                     }
-                } catch (FileNotFoundException | LDParsingException ex) {
-                    NLogger.debug(DatParser.class, ex);
                 }
 
                 if (result.isEmpty()) {
@@ -848,19 +888,22 @@ public enum DatParser {
      * @param errorCheckOnly
      * @return an empty list if there was no error
      */
-    private static List<ParsingResult> parseLine(String[] dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly) {
+    private static List<ParsingResult> parseLine(LineTokenizer dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3d start = context.start;
+        final Vector3d end = context.end;
         List<ParsingResult> result = new ArrayList<>();
         boolean parseError = false;
         // [ERROR] Check argument count
-        if (dataSegments.length != 8) {
-            Object[] messageArguments = {dataSegments.length, 8};
+        if (dataSegments.size() != 8) {
+            Object[] messageArguments = {dataSegments.size(), 8};
             MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
             formatter.setLocale(MyLanguage.getLocale());
             formatter.applyPattern(I18n.DATPARSER_WRONG_ARGUMENT_COUNT);
             result.add(new ParsingResult(formatter.format(messageArguments), "[E47] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
         } else {
             // [ERROR] Check colour
-            GColour colour = validateColour(dataSegments[1], r, g, b, a);
+            GColour colour = validateColour(dataSegments, 1, r, g, b, a);
             if (colour == null) {
                 result.add(new ParsingResult(I18n.DATPARSER_INVALID_COLOUR, "[E99] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
                 return result;
@@ -868,13 +911,13 @@ public enum DatParser {
             // [ERROR] Check identical vertices
             try {
                 // Start vertex
-                start.setX(parseDecimal(dataSegments[2], Threshold.MC));
-                start.setY(parseDecimal(dataSegments[3], Threshold.MC));
-                start.setZ(parseDecimal(dataSegments[4], Threshold.MC));
+                start.setX(parseDecimal(dataSegments, 2, Threshold.MC));
+                start.setY(parseDecimal(dataSegments, 3, Threshold.MC));
+                start.setZ(parseDecimal(dataSegments, 4, Threshold.MC));
                 // End vertex
-                end.setX(parseDecimal(dataSegments[5], Threshold.MC));
-                end.setY(parseDecimal(dataSegments[6], Threshold.MC));
-                end.setZ(parseDecimal(dataSegments[7], Threshold.MC));
+                end.setX(parseDecimal(dataSegments, 5, Threshold.MC));
+                end.setY(parseDecimal(dataSegments, 6, Threshold.MC));
+                end.setZ(parseDecimal(dataSegments, 7, Threshold.MC));
 
                 parseError = Vector3d.sub(start, end).length().compareTo(Threshold.IDENTICAL_VERTEX_DISTANCE) < 0;
                 if (parseError) {
@@ -912,18 +955,25 @@ public enum DatParser {
      * @param isCCW
      * @return an empty list if there was no error
      */
-    private static List<ParsingResult> parseTriangle(String[] dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly, int depth) {
+    private static List<ParsingResult> parseTriangle(LineTokenizer dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly, int depth) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3d vertexA = context.vertexA;
+        final Vector3d vertexB = context.vertexB;
+        final Vector3d vertexC = context.vertexC;
+        final Vector3d vertexA2 = context.vertexA2;
+        final Vector3d vertexB2 = context.vertexB2;
+        final Vector3d vertexC2 = context.vertexC2;
         List<ParsingResult> result = new ArrayList<>();
         // [ERROR] Check argument count
-        if (dataSegments.length != 11) {
-            Object[] messageArguments = {dataSegments.length, 11};
+        if (dataSegments.size() != 11) {
+            Object[] messageArguments = {dataSegments.size(), 11};
             MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
             formatter.setLocale(MyLanguage.getLocale());
             formatter.applyPattern(I18n.DATPARSER_WRONG_ARGUMENT_COUNT);
             result.add(new ParsingResult(formatter.format(messageArguments), "[E47] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
         } else {
             // [ERROR] Check colour
-            GColour colour = validateColour(dataSegments[1], r, g, b, a);
+            GColour colour = validateColour(dataSegments, 1, r, g, b, a);
             if (colour == null) {
                 result.add(new ParsingResult(I18n.DATPARSER_INVALID_COLOUR, "[E99] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
                 return result;
@@ -931,17 +981,17 @@ public enum DatParser {
             // [ERROR] Check identical vertices
             try {
                 // 1st vertex
-                vertexA.setX(parseDecimal(dataSegments[2], Threshold.MC));
-                vertexA.setY(parseDecimal(dataSegments[3], Threshold.MC));
-                vertexA.setZ(parseDecimal(dataSegments[4], Threshold.MC));
+                vertexA.setX(parseDecimal(dataSegments, 2, Threshold.MC));
+                vertexA.setY(parseDecimal(dataSegments, 3, Threshold.MC));
+                vertexA.setZ(parseDecimal(dataSegments, 4, Threshold.MC));
                 // 2nd vertex
-                vertexB.setX(parseDecimal(dataSegments[5], Threshold.MC));
-                vertexB.setY(parseDecimal(dataSegments[6], Threshold.MC));
-                vertexB.setZ(parseDecimal(dataSegments[7], Threshold.MC));
+                vertexB.setX(parseDecimal(dataSegments, 5, Threshold.MC));
+                vertexB.setY(parseDecimal(dataSegments, 6, Threshold.MC));
+                vertexB.setZ(parseDecimal(dataSegments, 7, Threshold.MC));
                 // 3rd vertex
-                vertexC.setX(parseDecimal(dataSegments[8], Threshold.MC));
-                vertexC.setY(parseDecimal(dataSegments[9], Threshold.MC));
-                vertexC.setZ(parseDecimal(dataSegments[10], Threshold.MC));
+                vertexC.setX(parseDecimal(dataSegments, 8, Threshold.MC));
+                vertexC.setY(parseDecimal(dataSegments, 9, Threshold.MC));
+                vertexC.setZ(parseDecimal(dataSegments, 10, Threshold.MC));
 
                 if (!errorCheckOnly) { // result.size() < 1 &&
                     GData3 data = new GData3(colour.getColourNumber(), colour.getR(), colour.getG(), colour.getB(), colour.getA(), vertexA.x, vertexA.y, vertexA.z, vertexB.x, vertexB.y, vertexB.z,
@@ -1011,18 +1061,27 @@ public enum DatParser {
      * @param isCCW
      * @return an empty list if there was no error
      */
-    private static List<ParsingResult> parseQuad(String[] dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly, int depth) {
+    private static List<ParsingResult> parseQuad(LineTokenizer dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly, int depth) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3d vertexA = context.vertexA;
+        final Vector3d vertexB = context.vertexB;
+        final Vector3d vertexC = context.vertexC;
+        final Vector3d vertexD = context.vertexD;
+        final Vector3d vertexA2 = context.vertexA2;
+        final Vector3d vertexB2 = context.vertexB2;
+        final Vector3d vertexC2 = context.vertexC2;
+        final Vector3d vertexD2 = context.vertexD2;
         List<ParsingResult> result = new ArrayList<>();
         // [ERROR] Check argument count
-        if (dataSegments.length != 14) {
-            Object[] messageArguments = {dataSegments.length, 14};
+        if (dataSegments.size() != 14) {
+            Object[] messageArguments = {dataSegments.size(), 14};
             MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
             formatter.setLocale(MyLanguage.getLocale());
             formatter.applyPattern(I18n.DATPARSER_WRONG_ARGUMENT_COUNT);
             result.add(new ParsingResult(formatter.format(messageArguments), "[E47] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
         } else {
             // [ERROR] Check colour
-            GColour colour = validateColour(dataSegments[1], r, g, b, a);
+            GColour colour = validateColour(dataSegments, 1, r, g, b, a);
             if (colour == null) {
                 result.add(new ParsingResult(I18n.DATPARSER_INVALID_COLOUR, "[E99] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
                 return result;
@@ -1031,21 +1090,21 @@ public enum DatParser {
             // vertices
             try {
                 // 1st vertex
-                vertexA.setX(parseDecimal(dataSegments[2], Threshold.MC));
-                vertexA.setY(parseDecimal(dataSegments[3], Threshold.MC));
-                vertexA.setZ(parseDecimal(dataSegments[4], Threshold.MC));
+                vertexA.setX(parseDecimal(dataSegments, 2, Threshold.MC));
+                vertexA.setY(parseDecimal(dataSegments, 3, Threshold.MC));
+                vertexA.setZ(parseDecimal(dataSegments, 4, Threshold.MC));
                 // 2nd vertex
-                vertexB.setX(parseDecimal(dataSegments[5], Threshold.MC));
-                vertexB.setY(parseDecimal(dataSegments[6], Threshold.MC));
-                vertexB.setZ(parseDecimal(dataSegments[7], Threshold.MC));
+                vertexB.setX(parseDecimal(dataSegments, 5, Threshold.MC));
+                vertexB.setY(parseDecimal(dataSegments, 6, Threshold.MC));
+                vertexB.setZ(parseDecimal(dataSegments, 7, Threshold.MC));
                 // 3rd vertex
-                vertexC.setX(parseDecimal(dataSegments[8], Threshold.MC));
-                vertexC.setY(parseDecimal(dataSegments[9], Threshold.MC));
-                vertexC.setZ(parseDecimal(dataSegments[10], Threshold.MC));
+                vertexC.setX(parseDecimal(dataSegments, 8, Threshold.MC));
+                vertexC.setY(parseDecimal(dataSegments, 9, Threshold.MC));
+                vertexC.setZ(parseDecimal(dataSegments, 10, Threshold.MC));
                 // 4th vertex
-                vertexD.setX(parseDecimal(dataSegments[11], Threshold.MC));
-                vertexD.setY(parseDecimal(dataSegments[12], Threshold.MC));
-                vertexD.setZ(parseDecimal(dataSegments[13], Threshold.MC));
+                vertexD.setX(parseDecimal(dataSegments, 11, Threshold.MC));
+                vertexD.setY(parseDecimal(dataSegments, 12, Threshold.MC));
+                vertexD.setZ(parseDecimal(dataSegments, 13, Threshold.MC));
 
 
                 final boolean depthLower1 = depth < 1;
@@ -1211,18 +1270,23 @@ public enum DatParser {
      * @param isCCW
      * @return an empty list if there was no error
      */
-    private static List<ParsingResult> parseCondline(String[] dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly, int depth) {
+    private static List<ParsingResult> parseCondline(LineTokenizer dataSegments, float r, float g, float b, float a, GData1 parent, DatFile datFile, boolean errorCheckOnly, int depth) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3d start = context.start;
+        final Vector3d end = context.end;
+        final Vector3d controlI = context.controlI;
+        final Vector3d controlII = context.controlII;
         List<ParsingResult> result = new ArrayList<>();
         // [ERROR] Check argument count
-        if (dataSegments.length != 14) {
-            Object[] messageArguments = {dataSegments.length, 14};
+        if (dataSegments.size() != 14) {
+            Object[] messageArguments = {dataSegments.size(), 14};
             MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
             formatter.setLocale(MyLanguage.getLocale());
             formatter.applyPattern(I18n.DATPARSER_WRONG_ARGUMENT_COUNT);
             result.add(new ParsingResult(formatter.format(messageArguments), "[E47] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
         } else {
             // [ERROR] Check colour
-            GColour colour = validateColour(dataSegments[1], r, g, b, a);
+            GColour colour = validateColour(dataSegments, 1, r, g, b, a);
             if (colour == null) {
                 result.add(new ParsingResult(I18n.DATPARSER_INVALID_COLOUR, "[E99] " + I18n.DATPARSER_SYNTAX_ERROR, ResultType.ERROR)); //$NON-NLS-1$
                 return result;
@@ -1230,21 +1294,21 @@ public enum DatParser {
             // [ERROR] Check identical vertices
             try {
                 // start vertex
-                start.setX(parseDecimal(dataSegments[2], Threshold.MC));
-                start.setY(parseDecimal(dataSegments[3], Threshold.MC));
-                start.setZ(parseDecimal(dataSegments[4], Threshold.MC));
+                start.setX(parseDecimal(dataSegments, 2, Threshold.MC));
+                start.setY(parseDecimal(dataSegments, 3, Threshold.MC));
+                start.setZ(parseDecimal(dataSegments, 4, Threshold.MC));
                 // end vertex
-                end.setX(parseDecimal(dataSegments[5], Threshold.MC));
-                end.setY(parseDecimal(dataSegments[6], Threshold.MC));
-                end.setZ(parseDecimal(dataSegments[7], Threshold.MC));
+                end.setX(parseDecimal(dataSegments, 5, Threshold.MC));
+                end.setY(parseDecimal(dataSegments, 6, Threshold.MC));
+                end.setZ(parseDecimal(dataSegments, 7, Threshold.MC));
                 // control vertex I
-                controlI.setX(parseDecimal(dataSegments[8], Threshold.MC));
-                controlI.setY(parseDecimal(dataSegments[9], Threshold.MC));
-                controlI.setZ(parseDecimal(dataSegments[10], Threshold.MC));
+                controlI.setX(parseDecimal(dataSegments, 8, Threshold.MC));
+                controlI.setY(parseDecimal(dataSegments, 9, Threshold.MC));
+                controlI.setZ(parseDecimal(dataSegments, 10, Threshold.MC));
                 // control vertex II
-                controlII.setX(parseDecimal(dataSegments[11], Threshold.MC));
-                controlII.setY(parseDecimal(dataSegments[12], Threshold.MC));
-                controlII.setZ(parseDecimal(dataSegments[13], Threshold.MC));
+                controlII.setX(parseDecimal(dataSegments, 11, Threshold.MC));
+                controlII.setY(parseDecimal(dataSegments, 12, Threshold.MC));
+                controlII.setZ(parseDecimal(dataSegments, 13, Threshold.MC));
 
                 if (Vector3d.sub(start, end).length().compareTo(Threshold.IDENTICAL_VERTEX_DISTANCE) < 0) {
                     result.add(new ParsingResult(I18n.DATPARSER_IDENTICAL_VERTICES, "[E0D] " + I18n.DATPARSER_DATA_ERROR, ResultType.ERROR)); //$NON-NLS-1$
@@ -1267,6 +1331,14 @@ public enum DatParser {
         return result;
     }
     
+    private static BigDecimal parseDecimal(final LineTokenizer tokens, final int index, final MathContext mc) {
+        try {
+            return tokens.getDecimal(index, mc);
+        } catch (NumberFormatException nfe) {
+            return substituteDecimal(tokens.get(index), nfe);
+        }
+    }
+
     private static BigDecimal parseDecimal(final String segment, final MathContext mc) {
         try {
             return new BigDecimal(segment, mc);
@@ -0,0 +1,410 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.text;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+import org.nschmidt.ldparteditor.logger.NLogger;
+import org.nschmidt.ldparteditor.win32appdata.AppData;
+import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
+
+/**
+ * Persistent cache for the content of read-only library files. It holds the
+ * lines of a file together with the pre-parsed numbers of its line, triangle,
+ * quad and condline statements. The cache file is memory-mapped on the first
+ * lookup and only the requested entries are decoded. An entry is only valid if
+ * the size and the modification time of the library file did not change,
+ * otherwise the caller has to read the file. This is checked once per session.
+ */
+public enum LibraryCache {
+    INSTANCE;
+
+    private static final String CACHE_FILE = AppData.getPath() + "library_cache.bin"; //$NON-NLS-1$
+    private static final String CACHE_FILE_NEW = AppData.getPath() + "library_cache.new"; //$NON-NLS-1$
+
+    /** "LPEC" */
+    private static final int MAGIC = 0x4C504543;
+    private static final int VERSION = 2;
+    /** The cache file is not extended beyond this size (in bytes) */
+    private static final long MAX_CACHE_SIZE = 256L * 1024L * 1024L;
+
+    private record Entry(long size, long lastModified, int offset, int length) {}
+    private record NewEntry(long size, long lastModified, byte[] data) {}
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final Map<String, NewEntry> newEntries = new ConcurrentHashMap<>();
+    /** The entries which were already compared with their library file */
+    private static final Set<String> validated = ConcurrentHashMap.newKeySet();
+
+    private static ByteBuffer mappedCache = null;
+    private static volatile boolean loaded = false;
+    private static volatile boolean modified = false;
+    private static long cacheSize = 0L;
+
+    /**
+     * The lines of a cached library file. The numbers of the geometry lines
+     * (types 2 to 5) are already parsed, so the parser does not have to read
+     * them from the text again.
+     */
+    public static final class ParsedLines extends AbstractList<String> implements RandomAccess {
+
+        private final String[] lines;
+        private final BigDecimal[][] decimals;
+
+        private ParsedLines(String[] lines, BigDecimal[][] decimals) {
+            this.lines = lines;
+            this.decimals = decimals;
+        }
+
+        @Override
+        public String get(int index) {
+            return lines[index];
+        }
+
+        @Override
+        public int size() {
+            return lines.length;
+        }
+
+        /**
+         * @param index
+         *            the index of the line
+         * @return the parsed number tokens of the line (with the same index as
+         *         the token, see {@link LineTokenizer#tokenize(String, BigDecimal[])})
+         *         or {@code null} if the line has to be parsed from its text
+         */
+        public BigDecimal[] getDecimals(int index) {
+            return decimals[index];
+        }
+    }
+
+    /**
+     * Returns the cached lines of a library file
+     *
+     * @param file
+     *            the library file
+     * @return the lines of the file or {@code null} if the file is not cached
+     *         (or if the cached lines are outdated)
+     */
+    public static ParsedLines getLines(File file) {
+        if (!WorkbenchManager.getUserSettingState().isUsingLibraryCache()) {
+            return null;
+        }
+        load();
+        final String path = file.getAbsolutePath();
+        final Entry entry = entries.get(path);
+        final NewEntry newEntry = entry == null ? newEntries.get(path) : null;
+        if (entry == null && newEntry == null) {
+            return null;
+        }
+        // Library files don't change while they are in use, so each entry is only validated once
+        if (!validated.contains(path)) {
+            final long[] attributes = readAttributes(file);
+            if (attributes == null) {
+                return null;
+            }
+            if (entry != null && (entry.size() != attributes[0] || entry.lastModified() != attributes[1])) {
+                remove(path, entries, entry.length());
+                return null;
+            }
+            if (newEntry != null && (newEntry.size() != attributes[0] || newEntry.lastModified() != attributes[1])) {
+                remove(path, newEntries, newEntry.data().length);
+                return null;
+            }
+            validated.add(path);
+        }
+        final byte[] data;
+        if (entry != null) {
+            data = new byte[entry.length()];
+            mappedCache.get(entry.offset(), data);
+        } else {
+            data = newEntry.data();
+        }
+        try {
+            return decode(data);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            NLogger.debug(LibraryCache.class, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Adds the lines of a library file to the cache (it will be written to
+     * disk with {@link #save()})
+     *
+     * @param file
+     *            the library file
+     * @param lines
+     *            the complete content of the file
+     */
+    public static void putLines(File file, List<String> lines) {
+        if (!WorkbenchManager.getUserSettingState().isUsingLibraryCache()) {
+            return;
+        }
+        load();
+        final String path = file.getAbsolutePath();
+        if (entries.containsKey(path) || newEntries.containsKey(path)) {
+            return;
+        }
+        final long[] attributes = readAttributes(file);
+        if (attributes == null) {
+            return;
+        }
+        final byte[] data;
+        try {
+            data = encode(lines);
+        } catch (IOException ioe) {
+            NLogger.debug(LibraryCache.class, ioe);
+            return;
+        }
+        synchronized (INSTANCE) {
+            if (cacheSize + data.length > MAX_CACHE_SIZE) {
+                return;
+            }
+            cacheSize += data.length;
+        }
+        if (newEntries.putIfAbsent(path, new NewEntry(attributes[0], attributes[1], data)) == null) {
+            validated.add(path);
+            modified = true;
+        } else {
+            synchronized (INSTANCE) {
+                cacheSize -= data.length;
+            }
+        }
+    }
+
+    /**
+     * Writes the cache to disk (only if it has changed)
+     */
+    public static synchronized void save() {
+        if (!loaded || !modified) {
+            return;
+        }
+        final Path newCacheFile = Path.of(CACHE_FILE_NEW);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(newCacheFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size() + newEntries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                final Entry entry = e.getValue();
+                final byte[] data = new byte[entry.length()];
+                mappedCache.get(entry.offset(), data);
+                writeEntry(out, e.getKey(), entry.size(), entry.lastModified(), data);
+            }
+            for (Map.Entry<String, NewEntry> e : newEntries.entrySet()) {
+                final NewEntry entry = e.getValue();
+                writeEntry(out, e.getKey(), entry.size(), entry.lastModified(), entry.data());
+            }
+        } catch (IOException ioe) {
+            NLogger.error(LibraryCache.class, ioe);
+            return;
+        }
+        modified = false;
+        // The old cache file is still mapped and can't be replaced on every platform.
+        // In this case the new cache file replaces the old one on the next start.
+        try {
+            Files.move(newCacheFile, Path.of(CACHE_FILE), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ioe) {
+            NLogger.debug(LibraryCache.class, ioe);
+        }
+    }
+
+    private static synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        final Path cacheFile = Path.of(CACHE_FILE);
+        final Path newCacheFile = Path.of(CACHE_FILE_NEW);
+        try {
+            if (Files.exists(newCacheFile)) {
+                Files.move(newCacheFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (!Files.exists(cacheFile)) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+                mappedCache = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (mappedCache.getInt() != MAGIC || mappedCache.getInt() != VERSION) {
+                NLogger.debug(LibraryCache.class, "Discarding library cache with an unknown format."); //$NON-NLS-1$
+                mappedCache = null;
+                modified = true;
+                return;
+            }
+            final int entryCount = mappedCache.getInt();
+            for (int i = 0; i < entryCount; i++) {
+                final String path = readUTF(mappedCache);
+                final long size = mappedCache.getLong();
+                final long lastModified = mappedCache.getLong();
+                final int length = mappedCache.getInt();
+                entries.put(path, new Entry(size, lastModified, mappedCache.position(), length));
+                mappedCache.position(mappedCache.position() + length);
+                cacheSize += length;
+            }
+            NLogger.debug(LibraryCache.class, "Mapped {0} library files from the cache.", entryCount); //$NON-NLS-1$
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+            // A broken cache is not fatal, the files are parsed from text instead
+            NLogger.debug(LibraryCache.class, ex);
+            entries.clear();
+            cacheSize = 0L;
+            mappedCache = null;
+            modified = true;
+        }
+    }
+
+    private static <T> void remove(String path, Map<String, T> map, int length) {
+        if (map.remove(path) != null) {
+            synchronized (INSTANCE) {
+                cacheSize -= length;
+            }
+            modified = true;
+        }
+    }
+
+    private static long[] readAttributes(File file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return new long[]{attributes.size(), attributes.lastModifiedTime().toMillis()};
+        } catch (IOException ioe) {
+            NLogger.debug(LibraryCache.class, ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Encodes the lines and the numbers of their geometry statements. Each line
+     * is followed by the count of its parsed tokens (starting with the third
+     * token) and their unscaled values and scales.
+     */
+    private static byte[] encode(List<String> lines) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final LineTokenizer tokens = new LineTokenizer();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(lines.size());
+            for (String line : lines) {
+                final byte[] utf8 = line.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+                final BigDecimal[] decimals = parseDecimals(tokens.tokenize(line));
+                if (decimals == null) {
+                    out.writeByte(0);
+                    continue;
+                }
+                out.writeByte(decimals.length);
+                for (BigDecimal decimal : decimals) {
+                    out.writeLong(decimal.unscaledValue().longValue());
+                    out.writeInt(decimal.scale());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the numbers of a line, triangle, quad or condline statement
+     *         (starting with the third token) or {@code null} if the line is
+     *         something else or if one of its numbers can't be stored exactly
+     */
+    private static BigDecimal[] parseDecimals(LineTokenizer tokens) {
+        final int expectedSize = switch (tokens.digitAt(0)) {
+        case 2 -> 8;
+        case 3 -> 11;
+        case 4, 5 -> 14;
+        default -> -1;
+        };
+        if (tokens.size() != expectedSize) {
+            return null;
+        }
+        final BigDecimal[] result = new BigDecimal[expectedSize - 2];
+        try {
+            for (int i = 0; i < result.length; i++) {
+                // The parser rounds the numbers with the same context
+                result[i] = tokens.getDecimal(i + 2, Threshold.MC);
+                if (result[i].unscaledValue().bitLength() > 63) {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException nfe) {
+            // The token is a constant, the parser will substitute it
+            return null;
+        }
+        return result;
+    }
+
+    private static ParsedLines decode(byte[] data) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final int lineCount = buffer.getInt();
+        final String[] lines = new String[lineCount];
+        final BigDecimal[][] decimals = new BigDecimal[lineCount][];
+        for (int i = 0; i < lineCount; i++) {
+            final int length = buffer.getInt();
+            lines[i] = new String(data, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            final int decimalCount = buffer.get();
+            if (decimalCount > 0) {
+                // The first two tokens are the line type and the colour
+                final BigDecimal[] lineDecimals = new BigDecimal[decimalCount + 2];
+                for (int j = 2; j < lineDecimals.length; j++) {
+                    final long unscaledValue = buffer.getLong();
+                    lineDecimals[j] = BigDecimal.valueOf(unscaledValue, buffer.getInt());
+                }
+                decimals[i] = lineDecimals;
+            }
+        }
+        return new ParsedLines(lines, decimals);
+    }
+
+    private static void writeEntry(DataOutputStream out, String path, long size, long lastModified, byte[] data) throws IOException {
+        out.writeUTF(path);
+        out.writeLong(size);
+        out.writeLong(lastModified);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    private static String readUTF(ByteBuffer buffer) throws IOException {
+        final int length = Short.toUnsignedInt(buffer.getShort());
+        final byte[] utf = new byte[length + 2];
+        utf[0] = (byte) (length >>> 8);
+        utf[1] = (byte) length;
+        buffer.get(utf, 2, length);
+        return new DataInputStream(new ByteArrayInputStream(utf)).readUTF();
+    }
+}
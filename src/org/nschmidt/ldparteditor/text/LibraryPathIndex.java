@@ -0,0 +1,255 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.text;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nschmidt.ldparteditor.logger.NLogger;
+
+/**
+ * In-memory index of the files within the folders which are searched for
+ * subfiles: the official and the unofficial LDraw library folder, the project
+ * folder and the folders of the opened files. Subfile lookups for these
+ * folders need no filesystem access (which is slow on a networked library).
+ * The index is built once per folder and kept up to date with a
+ * {@linkplain WatchService}. Files which are saved by the editor are added
+ * right away, because the watch service reports them with a delay.
+ */
+public enum LibraryPathIndex {
+    INSTANCE;
+
+    private static final boolean CASE_INSENSITIVE;
+    static {
+        final String os = System.getProperty("os.name", "").toLowerCase(Locale.ENGLISH); //$NON-NLS-1$ //$NON-NLS-2$
+        CASE_INSENSITIVE = os.contains("win") || os.contains("mac"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /** The sub-directories of a library folder which can contain subfiles */
+    private static final String[] LIBRARY_DIRECTORIES = new String[]{"PARTS", "parts", "P", "p"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+    private static final Map<String, Set<String>> indexPerFolder = new ConcurrentHashMap<>();
+    private static final Map<WatchKey, Path[]> watchedDirectories = new ConcurrentHashMap<>();
+    private static WatchService watcher = null;
+
+    /**
+     * Checks if a subfile candidate is an existing file. Candidates within the
+     * indexed parts of the folder (the root and the library directories) are
+     * answered by the index, all other candidates by the filesystem.
+     *
+     * @param folder
+     *            the folder to search in (e.g. the LDraw library folder)
+     * @param relativePath
+     *            the path within this folder (starts with a file separator)
+     * @return {@code true} if the file exists
+     */
+    public static boolean isFile(String folder, String relativePath) {
+        final Set<String> index = getIndex(folder);
+        if (index == null || relativePath.contains("..") || !isIndexed(relativePath)) { //$NON-NLS-1$
+            final File f = new File(folder + relativePath);
+            return f.exists() && f.isFile();
+        }
+        return index.contains(normalise(relativePath));
+    }
+
+    private static Set<String> getIndex(String folder) {
+        if (folder == null) {
+            return null;
+        }
+        Set<String> index = indexPerFolder.get(folder);
+        if (index == null) {
+            index = buildIndex(folder);
+        }
+        return index;
+    }
+
+    /**
+     * Adds a file which was saved by the editor to the index of its folder.
+     *
+     * @param path
+     *            the absolute path of the file
+     */
+    public static void fileCreated(String path) {
+        for (Map.Entry<String, Set<String>> entry : indexPerFolder.entrySet()) {
+            final String folder = entry.getKey();
+            if (path.startsWith(folder + File.separator)) {
+                final String relativePath = path.substring(folder.length());
+                if (!relativePath.contains("..") && isIndexed(relativePath)) { //$NON-NLS-1$
+                    entry.getValue().add(normalise(relativePath));
+                }
+            }
+        }
+    }
+
+    private static synchronized Set<String> buildIndex(String folder) {
+        Set<String> index = indexPerFolder.get(folder);
+        if (index != null) {
+            return index;
+        }
+        final Path root = Path.of(folder);
+        if (!Files.isDirectory(root)) {
+            return null;
+        }
+        index = ConcurrentHashMap.newKeySet();
+        try {
+            watch(root, root, folder);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                for (Path p : stream) {
+                    if (Files.isRegularFile(p)) {
+                        index.add(key(root, p));
+                    } else if (Files.isDirectory(p) && isLibraryDirectory(p)) {
+                        addTree(root, p, folder, index);
+                    }
+                }
+            }
+        } catch (IOException | UnsupportedOperationException ex) {
+            // Without a watch service (or a readable folder) the index can't be trusted
+            NLogger.debug(LibraryPathIndex.class, ex);
+            return null;
+        }
+        indexPerFolder.put(folder, index);
+        NLogger.debug(LibraryPathIndex.class, "Indexed {0} files in {1}", index.size(), folder); //$NON-NLS-1$
+        return index;
+    }
+
+    private static void addTree(final Path root, Path directory, final String folder, final Set<String> index) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                watch(dir, root, folder);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    index.add(key(root, file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static synchronized void watch(Path directory, Path root, String folder) throws IOException {
+        if (watcher == null) {
+            watcher = FileSystems.getDefault().newWatchService();
+            final Thread watchThread = new Thread(LibraryPathIndex::processEvents, "LibraryPathIndex"); //$NON-NLS-1$
+            watchThread.setDaemon(true);
+            watchThread.start();
+        }
+        final WatchKey watchKey = directory.register(watcher, ENTRY_CREATE, ENTRY_DELETE);
+        watchedDirectories.put(watchKey, new Path[]{directory, root, Path.of(folder)});
+    }
+
+    private static void processEvents() {
+        while (true) {
+            final WatchKey watchKey;
+            try {
+                watchKey = watcher.take();
+            } catch (ClosedWatchServiceException cwse) {
+                return;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            final Path[] paths = watchedDirectories.get(watchKey);
+            if (paths != null) {
+                final Path directory = paths[0];
+                final Path root = paths[1];
+                final String folder = paths[2].toString();
+                final Set<String> index = indexPerFolder.get(folder);
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (index == null) {
+                        break;
+                    }
+                    if (event.kind() == OVERFLOW) {
+                        // Events were lost, the index has to be rebuilt
+                        indexPerFolder.remove(folder);
+                        break;
+                    }
+                    final Path child = directory.resolve((Path) event.context());
+                    final String key = key(root, child);
+                    if (event.kind() == ENTRY_CREATE) {
+                        try {
+                            if (Files.isRegularFile(child)) {
+                                index.add(key);
+                            } else if (Files.isDirectory(child) && (!directory.equals(root) || isLibraryDirectory(child))) {
+                                addTree(root, child, folder, index);
+                            }
+                        } catch (IOException ioe) {
+                            NLogger.debug(LibraryPathIndex.class, ioe);
+                            indexPerFolder.remove(folder);
+                        }
+                    } else if (event.kind() == ENTRY_DELETE) {
+                        final String directoryPrefix = key + File.separator;
+                        index.removeIf(k -> k.equals(key) || k.startsWith(directoryPrefix));
+                    }
+                }
+            }
+
+            if (!watchKey.reset()) {
+                watchedDirectories.remove(watchKey);
+            }
+        }
+    }
+
+    private static boolean isIndexed(String relativePath) {
+        // Only root-level files and the trees of the library directories are indexed
+        final int end = relativePath.indexOf(File.separatorChar, 1);
+        return end == -1 || isLibraryDirectory(relativePath.substring(1, end));
+    }
+
+    private static boolean isLibraryDirectory(Path directory) {
+        return isLibraryDirectory(directory.getFileName().toString());
+    }
+
+    private static boolean isLibraryDirectory(String name) {
+        for (String libraryDirectory : LIBRARY_DIRECTORIES) {
+            if (CASE_INSENSITIVE ? libraryDirectory.equalsIgnoreCase(name) : libraryDirectory.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(Path root, Path file) {
+        return normalise(File.separator + root.relativize(file).toString());
+    }
+
+    private static String normalise(String relativePath) {
+        return CASE_INSENSITIVE ? relativePath.toLowerCase(Locale.ENGLISH) : relativePath;
+    }
+}
@@ -0,0 +1,64 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.custom.StyleRange;
+import org.nschmidt.ldparteditor.enumtype.LDConfig;
+import org.nschmidt.ldparteditor.enumtype.TextEditorColour;
+
+/**
+ * The syntax highlighting of the most recently formatted lines of one
+ * {@code DatFile}. The cache is cleared when the text editor colours or the
+ * LDConfig colours change, since the styles contain these colours.
+ */
+public final class LineStyleCache {
+
+    private static final int MAX_CACHED_LINES = 16384;
+
+    record StyleKey(String lineText, float vx, float vy, float vz, float replaceEpsilon, boolean replaceVertex, double coplanarityAngleWarning, double coplanarityAngleError) {}
+
+    record LineStyles(StyleRange[] styles, boolean decorate) {}
+
+    private final Map<StyleKey, LineStyles> styles = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<StyleKey, LineStyles> eldest) {
+            return size() > MAX_CACHED_LINES;
+        }
+    };
+
+    private int textColourRevision = -1;
+    private int ldConfigRevision = -1;
+
+    LineStyles get(StyleKey key) {
+        final int textRevision = TextEditorColour.getRevision();
+        final int configRevision = LDConfig.getRevision();
+        if (textRevision != textColourRevision || configRevision != ldConfigRevision) {
+            styles.clear();
+            textColourRevision = textRevision;
+            ldConfigRevision = configRevision;
+        }
+        return styles.get(key);
+    }
+
+    void put(StyleKey key, LineStyles lineStyles) {
+        styles.put(key, lineStyles);
+    }
+}
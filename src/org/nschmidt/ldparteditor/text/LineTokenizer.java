@@ -0,0 +1,198 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.text;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+
+/**
+ * Splits a line of an LDraw file into whitespace separated tokens without
+ * creating a {@code String} for each token. The instance (and its buffers) can
+ * be re-used for the next line, but it is not thread-safe.
+ */
+public final class LineTokenizer {
+
+    private char[] chars = new char[256];
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count = 0;
+    private BigDecimal[] decimals = null;
+
+    /**
+     * Tokenizes the line. The result is equal to
+     * {@code Pattern.compile("\\s+").split(line.trim())}.
+     *
+     * @param line
+     *            the line to tokenize
+     * @return this tokenizer
+     */
+    public LineTokenizer tokenize(String line) {
+        return tokenize(line, null);
+    }
+
+    /**
+     * Tokenizes the line, whose number tokens were already parsed (see
+     * {@link LibraryCache.ParsedLines})
+     *
+     * @param line
+     *            the line to tokenize
+     * @param decimals
+     *            the parsed tokens, with the same index as the token
+     *            ({@code null} for a token which was not parsed), can be
+     *            {@code null}
+     * @return this tokenizer
+     */
+    public LineTokenizer tokenize(String line, BigDecimal[] decimals) {
+        this.decimals = decimals;
+        final int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        // Same bounds as String.trim()
+        int pos = 0;
+        int end = length;
+        while (pos < end && chars[pos] <= ' ') {
+            pos++;
+        }
+        while (pos < end && chars[end - 1] <= ' ') {
+            end--;
+        }
+        count = 0;
+        while (pos < end) {
+            final int start = pos;
+            while (pos < end && !isWhitespace(chars[pos])) {
+                pos++;
+            }
+            addToken(start, pos);
+            while (pos < end && isWhitespace(chars[pos])) {
+                pos++;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of tokens
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the value of the token if it is a single digit, otherwise -1
+     */
+    public int digitAt(int index) {
+        if (index < count && ends[index] - starts[index] == 1) {
+            final char c = chars[starts[index]];
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return {@code true} if the token is a (small) integer which can't
+     *         overflow {@link #getInt(int)}
+     */
+    public boolean isInteger(int index) {
+        int pos = starts[index];
+        final int end = ends[index];
+        if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+            pos++;
+        }
+        if (pos == end || end - pos > 9) {
+            return false;
+        }
+        while (pos < end) {
+            final char c = chars[pos++];
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a token which was checked with {@link #isInteger(int)}
+     */
+    public int getInt(int index) {
+        int pos = starts[index];
+        final int end = ends[index];
+        final boolean negative = chars[pos] == '-';
+        if (negative || chars[pos] == '+') {
+            pos++;
+        }
+        int result = 0;
+        while (pos < end) {
+            result = result * 10 + chars[pos++] - '0';
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parses the token with the same rules as
+     * {@link BigDecimal#BigDecimal(String, MathContext)}
+     *
+     * @throws NumberFormatException
+     *             if the token is not a valid number
+     */
+    public BigDecimal getDecimal(int index, MathContext mc) {
+        if (decimals != null && index < decimals.length && decimals[index] != null) {
+            return decimals[index];
+        }
+        return new BigDecimal(chars, starts[index], ends[index] - starts[index], mc);
+    }
+
+    /**
+     * @return the token as a new {@code String}
+     */
+    public String get(int index) {
+        return new String(chars, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * @return all tokens as a new array (it contains one empty token for a
+     *         blank line, like {@code String.split()})
+     */
+    public String[] toArray() {
+        if (count == 0) {
+            return new String[]{""}; //$NON-NLS-1$
+        }
+        final String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    private void addToken(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    private static boolean isWhitespace(char c) {
+        // The characters of the regular expression "\s"
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -15,29 +15,69 @@ FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TOR
 ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
 package org.nschmidt.ldparteditor.text;
 
-import java.io.DataInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
+import org.nschmidt.ldparteditor.data.WorkerPool;
+import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.workbench.UserSettingState;
 
 public enum Stl2Dat {
     INSTANCE;
-    
+
     private static final Pattern WHITESPACE = Pattern.compile("\\s+"); //$NON-NLS-1$
-    
+
+    /** 80 bytes text and the number of facets */
+    private static final int BINARY_HEADER_SIZE = 84;
+    /** Normal, three vertices and the attribute byte count */
+    private static final int BINARY_FACET_SIZE = 50;
+    /** The number of facets which are converted by one task */
+    private static final int FACETS_PER_CHUNK = 16384;
+
     public static String convertStlToDatFile(String path, UserSettingState userSetting) {
-        final StringBuilder result = new StringBuilder();
-        appendPartHeader(result, userSetting);
-        
+        final StringWriter result = new StringWriter();
+        try {
+            convertStlToDatFile(path, userSetting, result);
+        } catch (IOException ex) {
+            // A StringWriter does not throw IOExceptions
+            NLogger.error(Stl2Dat.class, ex);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Converts a STL file and writes the result directly to {@code out}. A
+     * binary STL file is read window by window and each window is converted in
+     * chunks on the worker pool, so the whole file is never held in memory.
+     * Vertices of a binary STL file which are closer than the weld distance of
+     * the user settings are merged, degenerated and duplicated triangles are
+     * removed ({@code 0} disables welding).
+     */
+    public static void convertStlToDatFile(String path, UserSettingState userSetting, Writer out) throws IOException {
+        final StringBuilder header = new StringBuilder();
+        appendPartHeader(header, userSetting);
+        out.write(header.toString());
+
         boolean readBinaryStl = false;
-        
+
         try (UTF8BufferedReader reader = new UTF8BufferedReader(path)) {
             String firstLine = reader.readLine();
             if (firstLine.startsWith("solid ")) { //$NON-NLS-1$
-                readAsciiStlFile(result, reader);
+                readAsciiStlFile(out, reader);
             } else {
                 readBinaryStl = true;
             }
@@ -45,12 +85,10 @@ public enum Stl2Dat {
             NLogger.debug(Stl2Dat.class, ex);
             readBinaryStl = true;
         }
-        
+
         if (readBinaryStl) {
-            readBinaryStlFile(result, path);
+            readBinaryStlFile(out, path, (float) userSetting.getStlWeldDistance());
         }
-        
-        return result.toString();
     }
 
     private static void appendPartHeader(StringBuilder result, UserSettingState userSetting) {
@@ -77,7 +115,7 @@ public enum Stl2Dat {
         result.append("\r\n"); //$NON-NLS-1$
     }
     
-    private static void readAsciiStlFile(StringBuilder result, UTF8BufferedReader reader) throws LDParsingException {
+    private static void readAsciiStlFile(Writer out, UTF8BufferedReader reader) throws IOException {
         String line;
         
         int counter = 0;
@@ -96,8 +134,8 @@ public enum Stl2Dat {
                 String[] lineSegments = WHITESPACE.split(line);
                 lineSb.append(lineSegments[1] + " " + lineSegments[2] + " " + lineSegments[3]); //$NON-NLS-1$ //$NON-NLS-2$
             } else if (counter == 7) {
-                result.append(lineSb.toString());
-                result.append("\r\n"); //$NON-NLS-1$
+                lineSb.append("\r\n"); //$NON-NLS-1$
+                out.write(lineSb.toString());
                 
                 lineSb.setLength(0);
                 lineSb.append("3 16 "); //$NON-NLS-1$
@@ -106,58 +144,169 @@ public enum Stl2Dat {
         }
     }
     
-    private static void readBinaryStlFile(StringBuilder result, String path) {
-        try (DataInputStream is = new DataInputStream(new FileInputStream(path))) {
-            // Read header
-            is.readNBytes(80);
-            // Read number of facets in file
-            is.readNBytes(4);
-            // Read bytes for normal (ignored)
-            while (is.readNBytes(12).length != 0) {
-                // Read triangle
-                result.append("3 16 "); //$NON-NLS-1$
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append('\r');
-                result.append('\n');
-                // Read attribute byte count (usually zero, ignored)
-                is.readNBytes(2);
+    private static void readBinaryStlFile(Writer out, String path, float weldDistance) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            // The number of facets from the header is not reliable.
+            // An incomplete facet at the end of the file is filled with zeros.
+            final long facetCount = size > BINARY_HEADER_SIZE ? (size - BINARY_HEADER_SIZE + BINARY_FACET_SIZE - 1) / BINARY_FACET_SIZE : 0;
+            final VertexWelder welder = weldDistance > 0f ? new VertexWelder(weldDistance) : null;
+            final int facetsPerWindow = FACETS_PER_CHUNK * View.NUM_CORES * 2;
+            // The file is not memory-mapped, because a mapping is only released by the
+            // garbage collector and locks the file on Windows until then.
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(facetsPerWindow, facetCount) * BINARY_FACET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            for (long firstFacet = 0; firstFacet < facetCount; firstFacet += facetsPerWindow) {
+                final int count = (int) Math.min(facetsPerWindow, facetCount - firstFacet);
+                final long position = BINARY_HEADER_SIZE + firstFacet * BINARY_FACET_SIZE;
+                buffer.clear();
+                buffer.limit(count * BINARY_FACET_SIZE);
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) != -1) {
+                    // Read until the window is full or the file ends
+                }
+                buffer.flip();
+
+                final int chunks = (count + FACETS_PER_CHUNK - 1) / FACETS_PER_CHUNK;
+                final float[] vertices = new float[count * 9];
+                WorkerPool.newJob().run(chunks, chunk -> readFacets(buffer, vertices, chunk * FACETS_PER_CHUNK, Math.min(count, (chunk + 1) * FACETS_PER_CHUNK))).await();
+
+                final boolean[] skip = welder == null ? null : welder.weld(vertices, count);
+
+                final String[] lines = new String[chunks];
+                WorkerPool.newJob().run(chunks, chunk -> lines[chunk] = formatFacets(vertices, skip, chunk * FACETS_PER_CHUNK, Math.min(count, (chunk + 1) * FACETS_PER_CHUNK))).await();
+                for (String chunkLines : lines) {
+                    out.write(chunkLines);
+                }
             }
         } catch (IOException ex) {
             NLogger.debug(Stl2Dat.class, ex);
-            result.append("0 // "); //$NON-NLS-1$
-            result.append(ex.getMessage());
+            out.write("0 // "); //$NON-NLS-1$
+            out.write(String.valueOf(ex.getMessage()));
+            out.write("\r\n"); //$NON-NLS-1$
+        }
+    }
+
+    private static void readFacets(ByteBuffer buffer, float[] vertices, int start, int end) {
+        final int limit = buffer.limit();
+        for (int i = start; i < end; i++) {
+            // Skip the normal (12 bytes)
+            int offset = i * BINARY_FACET_SIZE + 12;
+            for (int j = i * 9; j < i * 9 + 9; j++) {
+                vertices[j] = offset + 4 <= limit ? buffer.getFloat(offset) : 0f;
+                offset += 4;
+            }
+        }
+    }
+
+    private static String formatFacets(float[] vertices, boolean[] skip, int start, int end) {
+        final StringBuilder result = new StringBuilder((end - start) * 80);
+        for (int i = start; i < end; i++) {
+            if (skip != null && skip[i]) {
+                continue;
+            }
+            result.append("3 16 "); //$NON-NLS-1$
+            for (int j = i * 9; j < i * 9 + 9; j++) {
+                if (j > i * 9) {
+                    result.append(' ');
+                }
+                result.append(vertices[j]);
+            }
             result.append('\r');
             result.append('\n');
         }
+        return result.toString();
     }
 
-    private static float readFloat(DataInputStream is) throws IOException {
-        final byte[] bytes = is.readNBytes(4);
-        if (bytes.length != 4) return 0f;
-        
-        int value = bytes[3] & 0xFF;
-        value = (value << 8) + (bytes[2] & 0xFF);
-        value = (value << 8) + (bytes[1] & 0xFF);
-        value = (value << 8) + (bytes[0] & 0xFF);
-        
-        return Float.intBitsToFloat(value);
+    /**
+     * Merges vertices which are closer than the weld distance. The first vertex
+     * (in file order) of a cluster is kept. The state is kept across all
+     * chunks of one file.
+     */
+    private static final class VertexWelder {
+
+        private record Cell(long x, long y, long z) {}
+        private record Facet(int a, int b, int c) {}
+
+        private final float distance;
+        private final float distanceSquared;
+        private final Map<Cell, List<Integer>> cells = new HashMap<>();
+        private final List<float[]> representatives = new ArrayList<>();
+        private final Set<Facet> facets = new HashSet<>();
+
+        private VertexWelder(float distance) {
+            this.distance = distance;
+            this.distanceSquared = distance * distance;
+        }
+
+        /**
+         * Replaces the vertices with their representatives
+         *
+         * @return which facets are degenerated or duplicates
+         */
+        private boolean[] weld(float[] vertices, int count) {
+            final boolean[] skip = new boolean[count];
+            final int[] ids = new int[3];
+            for (int i = 0; i < count; i++) {
+                for (int v = 0; v < 3; v++) {
+                    final int offset = i * 9 + v * 3;
+                    final int id = weld(vertices[offset], vertices[offset + 1], vertices[offset + 2]);
+                    final float[] r = representatives.get(id);
+                    vertices[offset] = r[0];
+                    vertices[offset + 1] = r[1];
+                    vertices[offset + 2] = r[2];
+                    ids[v] = id;
+                }
+                if (ids[0] == ids[1] || ids[1] == ids[2] || ids[2] == ids[0]) {
+                    skip[i] = true;
+                    continue;
+                }
+                // Rotate the smallest id to the front, but keep the winding
+                final Facet facet;
+                if (ids[0] < ids[1] && ids[0] < ids[2]) {
+                    facet = new Facet(ids[0], ids[1], ids[2]);
+                } else if (ids[1] < ids[2]) {
+                    facet = new Facet(ids[1], ids[2], ids[0]);
+                } else {
+                    facet = new Facet(ids[2], ids[0], ids[1]);
+                }
+                skip[i] = !facets.add(facet);
+            }
+            return skip;
+        }
+
+        private int weld(float x, float y, float z) {
+            final long cx = (long) Math.floor(x / distance);
+            final long cy = (long) Math.floor(y / distance);
+            final long cz = (long) Math.floor(z / distance);
+            int nearest = -1;
+            float nearestDistanceSquared = distanceSquared;
+            for (long ix = cx - 1; ix <= cx + 1; ix++) {
+                for (long iy = cy - 1; iy <= cy + 1; iy++) {
+                    for (long iz = cz - 1; iz <= cz + 1; iz++) {
+                        final List<Integer> cell = cells.get(new Cell(ix, iy, iz));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int id : cell) {
+                            final float[] r = representatives.get(id);
+                            final float dx = r[0] - x;
+                            final float dy = r[1] - y;
+                            final float dz = r[2] - z;
+                            final float d = dx * dx + dy * dy + dz * dz;
+                            if (d < nearestDistanceSquared || d == nearestDistanceSquared && nearest != -1 && id < nearest) {
+                                nearest = id;
+                                nearestDistanceSquared = d;
+                            }
+                        }
+                    }
+                }
+            }
+            if (nearest == -1) {
+                nearest = representatives.size();
+                representatives.add(new float[] { x, y, z });
+                cells.computeIfAbsent(new Cell(cx, cy, cz), c -> new ArrayList<>()).add(nearest);
+            }
+            return nearest;
+        }
     }
 }
@@ -38,6 +38,8 @@ import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
+import org.nschmidt.ldparteditor.text.LineStyleCache.LineStyles;
+import org.nschmidt.ldparteditor.text.LineStyleCache.StyleKey;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
 /**
@@ -63,6 +65,8 @@ public class SyntaxFormatter {
     private final Vector3d controlI = new Vector3d();
     private final Vector3d controlII = new Vector3d();
 
+    private final LineTokenizer tokenizer = new LineTokenizer();
+
     public SyntaxFormatter(StyledText compositeText) {
         this.compositeText = compositeText;
     }
@@ -98,10 +102,82 @@ public class SyntaxFormatter {
             return;
         }
 
-        float vx = vxPrecise.floatValue();
-        float vy = vyPrecise.floatValue();
-        float vz = vzPrecise.floatValue();
+        final LineStyles lineStyles = getLineStyles(e, vxPrecise.floatValue(), vyPrecise.floatValue(), vzPrecise.floatValue(), replaceEpsilon, replaceVertex, df);
+        for (StyleRange sr : lineStyles.styles()) {
+            final StyleRange range = (StyleRange) sr.clone();
+            range.start += e.lineOffset;
+            styles.add(range);
+        }
 
+        if (!lineStyles.decorate()) {
+            e.styles = styles.toArray(new StyleRange[0]);
+            return;
+        }
+
+        if (isSelected) {
+            for (StyleRange sr : styles) {
+                if (sr.background == null) {
+                    sr.background = TextEditorColour.getLineHighlightSelectedBackground();
+                } else if (replaceVertex) {
+                    sr.fontStyle = SWT.BOLD;
+                }
+            }
+        } else if (replaceVertex) {
+            for (StyleRange sr : styles) {
+                sr.fontStyle = SWT.BOLD;
+            }
+        } else if (!isVisible) {
+            for (StyleRange sr : styles) {
+                sr.foreground = TextEditorColour.getTextForegroundHidden();
+                if (sr.borderStyle == SWT.NONE) {
+                    sr.background = TextEditorColour.getTextBackground();
+                }
+            }
+        }
+        e.styles = styles.toArray(new StyleRange[0]);
+    }
+    
+    /**
+     * Returns the styles of a line without the selection, replace and
+     * visibility decorations. The start of each range is relative to the
+     * beginning of the line. The styles are cached per file, line text and
+     * replace parameters, so unchanged lines are not parsed again on scrolling
+     * and typing. Only references are checked each time, since the referenced
+     * files can be created or deleted at any time.
+     */
+    private LineStyles getLineStyles(LineStyleEvent e, float vx, float vy, float vz, float replaceEpsilon, boolean replaceVertex, DatFile df) {
+        final LineStyleCache styleCache = df == null ? null : df.getLineStyleCache();
+
+        final StyleKey key;
+        if (replaceVertex) {
+            key = new StyleKey(e.lineText, vx, vy, vz, replaceEpsilon, true, Threshold.coplanarityAngleWarning, Threshold.coplanarityAngleError);
+        } else {
+            key = new StyleKey(e.lineText, 0f, 0f, 0f, 0f, false, Threshold.coplanarityAngleWarning, Threshold.coplanarityAngleError);
+        }
+
+        LineStyles result = styleCache == null ? null : styleCache.get(key);
+        if (result == null) {
+            final List<StyleRange> styles = new ArrayList<>();
+            final int linetype = formatStyles(styles, e, vx, vy, vz, replaceEpsilon, replaceVertex, df);
+            final StyleRange[] ranges = new StyleRange[styles.size()];
+            for (int i = 0; i < ranges.length; i++) {
+                ranges[i] = styles.get(i);
+                ranges[i].start -= e.lineOffset;
+            }
+            result = new LineStyles(ranges, linetype != -1);
+            if (linetype != 1 && styleCache != null) {
+                styleCache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Formats the line according to its line type
+     *
+     * @return the line type or {@code -1} if the line type is not a number
+     */
+    private int formatStyles(List<StyleRange> styles, LineStyleEvent e, float vx, float vy, float vz, float replaceEpsilon, boolean replaceVertex, DatFile df) {
         String[] textSegments = e.lineText.split(" "); //$NON-NLS-1$
 
         // Get the linetype
@@ -119,8 +195,7 @@ public class SyntaxFormatter {
                     errStyleRange.underlineColor = TextEditorColour.getLineErrorUnderline();
                     errStyleRange.underlineStyle = SWT.UNDERLINE_ERROR;
                     styles.add(errStyleRange);
-                    e.styles = styles.toArray(new StyleRange[0]);
-                    return;
+                    return -1;
                 }
             }
         }
@@ -155,29 +230,9 @@ public class SyntaxFormatter {
             styles.add(errStyleRange);
             break;
         }
-        if (isSelected) {
-            for (StyleRange sr : styles) {
-                if (sr.background == null) {
-                    sr.background = TextEditorColour.getLineHighlightSelectedBackground();
-                } else if (replaceVertex) {
-                    sr.fontStyle = SWT.BOLD;
-                }
-            }
-        } else if (replaceVertex) {
-            for (StyleRange sr : styles) {
-                sr.fontStyle = SWT.BOLD;
-            }
-        } else if (!isVisible) {
-            for (StyleRange sr : styles) {
-                sr.foreground = TextEditorColour.getTextForegroundHidden();
-                if (sr.borderStyle == SWT.NONE) {
-                    sr.background = TextEditorColour.getTextBackground();
-                }
-            }
-        }
-        e.styles = styles.toArray(new StyleRange[0]);
+        return linetype;
     }
-    
+
     /**
      * Extends the style range of the text with a hint-underline-style.
      *
@@ -553,7 +608,7 @@ public class SyntaxFormatter {
                 segmentNumber++;
             }
         }
-        String[] dataSegments = e.lineText.replaceAll("\\s+", " ").trim().split(" "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        String[] dataSegments = tokenizer.tokenize(e.lineText).toArray();
         // [ERROR] Check less argument count
         if (dataSegments.length < 15) {
             parseError = true;
@@ -689,8 +744,7 @@ public class SyntaxFormatter {
                     String s2 = middle[a2];
                     for (int a3 = 0; a3 < suffix.length; a3++) {
                         String s3 = suffix[a3];
-                        File f = new File(s1 + s2 + s3);
-                        fileExists = f.exists() && f.isFile();
+                        fileExists = LibraryPathIndex.isFile(s1, s2 + s3);
                         if (fileExists) break;
                     }
                     if (fileExists) break;
@@ -789,7 +843,7 @@ public class SyntaxFormatter {
                 segmentNumber++;
             }
         }
-        String[] dataSegments = e.lineText.replaceAll("\\s+", " ").trim().split(" "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        String[] dataSegments = tokenizer.tokenize(e.lineText).toArray();
         // [ERROR] Check argument count
         if (dataSegments.length != 8) {
             parseError = true;
@@ -925,7 +979,7 @@ public class SyntaxFormatter {
                 segmentNumber++;
             }
         }
-        String[] dataSegments = e.lineText.replaceAll("\\s+", " ").trim().split(" "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        String[] dataSegments = tokenizer.tokenize(e.lineText).toArray();
         // [ERROR] Check argument count
         if (dataSegments.length != 11) {
             parseError = true;
@@ -1115,7 +1169,7 @@ public class SyntaxFormatter {
                 segmentNumber++;
             }
         }
-        String[] dataSegments = e.lineText.replaceAll("\\s+", " ").trim().split(" "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        String[] dataSegments = tokenizer.tokenize(e.lineText).toArray();
         // [ERROR] Check argument count
         if (dataSegments.length != 14) {
             parseError = true;
@@ -1377,7 +1431,7 @@ public class SyntaxFormatter {
                 segmentNumber++;
             }
         }
-        String[] dataSegments = e.lineText.replaceAll("\\s+", " ").trim().split(" "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        String[] dataSegments = tokenizer.tokenize(e.lineText).toArray();
         // [ERROR] Check argument count
         if (dataSegments.length != 14) {
             parseError = true;
@@ -285,15 +285,20 @@ public enum TexMapParser {
 
     // What follows now is a very minimalistic DAT file parser (<500LOC)
 
-    private static GColour cValue = new GColour();
-    private static final Vector3f start = new Vector3f();
-    private static final Vector3f end = new Vector3f();
-    private static final Vector3f vertexA = new Vector3f();
-    private static final Vector3f vertexB = new Vector3f();
-    private static final Vector3f vertexC = new Vector3f();
-    private static final Vector3f vertexD = new Vector3f();
-    private static final Vector3f controlI = new Vector3f();
-    private static final Vector3f controlII = new Vector3f();
+    private static final ThreadLocal<ParserContext> CONTEXT = ThreadLocal.withInitial(ParserContext::new);
+
+    /** The scratch objects of the parser (one per thread) */
+    private static final class ParserContext {
+        private final GColour cValue = new GColour();
+        private final Vector3f start = new Vector3f();
+        private final Vector3f end = new Vector3f();
+        private final Vector3f vertexA = new Vector3f();
+        private final Vector3f vertexB = new Vector3f();
+        private final Vector3f vertexC = new Vector3f();
+        private final Vector3f vertexD = new Vector3f();
+        private final Vector3f controlI = new Vector3f();
+        private final Vector3f controlII = new Vector3f();
+    }
 
     public static GData parseLine(String[] dataSegments, String line, int depth, float r, float g, float b, float a, GData1 parent, Matrix4f productMatrix, Set<String> alreadyParsed, DatFile datFile) {
         // Get the linetype
@@ -324,6 +329,8 @@ public enum TexMapParser {
     }
 
     private static GColour validateColour(String arg, float r, float g, float b, float a) {
+        final ParserContext context = CONTEXT.get();
+        final GColour cValue = context.cValue;
         int colourValue;
         try {
             colourValue = Integer.parseInt(arg);
@@ -487,10 +494,9 @@ public enum TexMapParser {
                     String s2 = middle[a2];
                     for (int a3 = 0; a3 < suffix.length; a3++) {
                         String s3 = suffix[a3];
-                        File f = new File(s1 + s2 + s3);
-                        fileExists = f.exists() && f.isFile();
+                        fileExists = LibraryPathIndex.isFile(s1, s2 + s3);
                         if (fileExists) {
-                            fileToOpen = f;
+                            fileToOpen = new File(s1 + s2 + s3);
                             break;
                         }
                     }
@@ -573,6 +579,9 @@ public enum TexMapParser {
     }
 
     private static GData parseLine(String[] dataSegments, float r, float g, float b, float a, GData1 parent) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3f start = context.start;
+        final Vector3f end = context.end;
         if (dataSegments.length != 8) {
             return null;
         } else {
@@ -597,6 +606,10 @@ public enum TexMapParser {
     }
 
     private static GData parseTriangle(String[] dataSegments, float r, float g, float b, float a, GData1 parent) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3f vertexA = context.vertexA;
+        final Vector3f vertexB = context.vertexB;
+        final Vector3f vertexC = context.vertexC;
         if (dataSegments.length != 11) {
             return null;
         } else {
@@ -626,6 +639,11 @@ public enum TexMapParser {
     }
 
     private static GData parseQuad(String[] dataSegments, float r, float g, float b, float a, GData1 parent) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3f vertexA = context.vertexA;
+        final Vector3f vertexB = context.vertexB;
+        final Vector3f vertexC = context.vertexC;
+        final Vector3f vertexD = context.vertexD;
         if (dataSegments.length != 14) {
             return null;
         } else {
@@ -654,6 +672,11 @@ public enum TexMapParser {
     }
 
     private static GData parseCondline(String[] dataSegments, float r, float g, float b, float a, GData1 parent) {
+        final ParserContext context = CONTEXT.get();
+        final Vector3f start = context.start;
+        final Vector3f end = context.end;
+        final Vector3f controlI = context.controlI;
+        final Vector3f controlII = context.controlII;
         if (dataSegments.length != 14) {
             return null;
         } else {
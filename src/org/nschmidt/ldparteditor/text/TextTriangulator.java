@@ -38,6 +38,7 @@ import org.nschmidt.ldparteditor.data.GData0;
 import org.nschmidt.ldparteditor.data.GData1;
 import org.nschmidt.ldparteditor.data.GData3;
 import org.nschmidt.ldparteditor.data.PGData3;
+import org.nschmidt.ldparteditor.data.WorkerPool;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.i18n.I18n;
@@ -67,7 +68,6 @@ public enum TextTriangulator {
         }
 
         final double scale = fontHeight / maxHeight;
-        final Thread[] threads = new Thread[vector.getNumGlyphs()];
         final AtomicInteger counter = new AtomicInteger(vector.getNumGlyphs());
 
         try
@@ -93,41 +93,22 @@ public enum TextTriangulator {
                                 finalTriangleSet.addAll(characterTriangleSet);
                             }
                         } else {
-                            for (int j = 0; j < vector.getNumGlyphs(); j++) {
-                                final int[] i = new int[1];
-                                i[0] = j;
-                                threads[j] = new Thread(() -> {
-                                    Shape characterShape = vector.getGlyphOutline(i[0]);
-                                    NLogger.debug(TextTriangulator.class, "Triangulating {0}", text.charAt(i[0])); //$NON-NLS-1$
-                                    List<Shape> shapes = new ArrayList<>();
-                                    shapes.add(characterShape);
-                                    Set<GData> characterTriangleSet = triangulateShape(monitor, shapes, parent, datFile, flatness, marginPercentage, scale, r, g, b, mode);
-                                    if (characterTriangleSet.isEmpty()) {
-                                        counter.decrementAndGet();
-                                    }
-    
-                                    NLogger.debug(TextTriangulator.class, "Triangulating [Done] {0}", text.charAt(i[0])); //$NON-NLS-1$
-    
-                                    synchronized (finalTriangleSet) {
-                                        finalTriangleSet.addAll(characterTriangleSet);
-                                    }
-                                });
-                                threads[j].start();
-                            }
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
+                            WorkerPool.newJob().run(vector.getNumGlyphs(), j -> {
+                                Shape characterShape = vector.getGlyphOutline(j);
+                                NLogger.debug(TextTriangulator.class, "Triangulating {0}", text.charAt(j)); //$NON-NLS-1$
+                                List<Shape> shapes = new ArrayList<>();
+                                shapes.add(characterShape);
+                                Set<GData> characterTriangleSet = triangulateShape(monitor, shapes, parent, datFile, flatness, marginPercentage, scale, r, g, b, mode);
+                                if (characterTriangleSet.isEmpty()) {
+                                    counter.decrementAndGet();
                                 }
-                                isRunning = false;
-                                for (Thread thread : threads) {
-                                    if (thread.isAlive())
-                                        isRunning = true;
+
+                                NLogger.debug(TextTriangulator.class, "Triangulating [Done] {0}", text.charAt(j)); //$NON-NLS-1$
+
+                                synchronized (finalTriangleSet) {
+                                    finalTriangleSet.addAll(characterTriangleSet);
                                 }
-                            }
+                            }).awaitOrCancel(monitor);
                         }
                     } catch (Exception ex) {
                         NLogger.error(TextTriangulator.class, ex);
@@ -213,9 +213,9 @@ public class VertexWindow extends ApplicationWindow {
         if (!selectedVertex.equals(selected)) {
             selectedVertex = selected;
             isUpdating = true;
-            spnXPtr[0].setValue(selectedVertex.xp);
-            spnYPtr[0].setValue(selectedVertex.yp);
-            spnZPtr[0].setValue(selectedVertex.zp);
+            spnXPtr[0].setValue(selectedVertex.xp());
+            spnYPtr[0].setValue(selectedVertex.yp());
+            spnZPtr[0].setValue(selectedVertex.zp());
             isUpdating = false;
         }
     }
@@ -266,7 +266,7 @@ public class VertexWindow extends ApplicationWindow {
                 spnX.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
                 spnX.setMaximum(new BigDecimal(1000000));
                 spnX.setMinimum(new BigDecimal(-1000000));
-                spnX.setValue(selectedVertex.xp);
+                spnX.setValue(selectedVertex.xp());
             }
 
             {
@@ -279,7 +279,7 @@ public class VertexWindow extends ApplicationWindow {
                 spnY.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
                 spnY.setMaximum(new BigDecimal(1000000));
                 spnY.setMinimum(new BigDecimal(-1000000));
-                spnY.setValue(selectedVertex.yp);
+                spnY.setValue(selectedVertex.yp());
             }
 
             {
@@ -292,7 +292,7 @@ public class VertexWindow extends ApplicationWindow {
                 spnZ.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
                 spnZ.setMaximum(new BigDecimal(1000000));
                 spnZ.setMinimum(new BigDecimal(-1000000));
-                spnZ.setValue(selectedVertex.zp);
+                spnZ.setValue(selectedVertex.zp());
             }
 
             {
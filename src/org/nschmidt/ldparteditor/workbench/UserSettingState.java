@@ -148,6 +148,9 @@ public class UserSettingState implements Serializable {
     private boolean disableMAD3D = false;
     private boolean disableMADtext = false;
 
+    /** {@code true} if the parsed library files should not be cached on disk */
+    private boolean disableLibraryCache = false;
+
     //  I need the arrays to detect if the value was not initialised before.
     // Otherwise it would be just 0 on new fields.
     private float[] color16OverrideColour = null;
@@ -254,6 +257,8 @@ public class UserSettingState implements Serializable {
     private boolean verboseUnificator = false;
     
     private int dataFileSizeLimit = 45;
+    private int undoHistoryLimit = 64;
+    private double stlWeldDistance = 0d;
     
     private boolean showingAxisLabels = false;
 
@@ -1302,6 +1307,14 @@ public class UserSettingState implements Serializable {
         this.movingAdjacentData = movingAdjacentData;
     }
 
+    public boolean isUsingLibraryCache() {
+        return !disableLibraryCache;
+    }
+
+    public void setUsingLibraryCache(boolean usingLibraryCache) {
+        this.disableLibraryCache = !usingLibraryCache;
+    }
+
     public boolean isTranslatingViewByCursor() {
         return translateViewByCursor;
     }
@@ -1469,7 +1482,23 @@ public class UserSettingState implements Serializable {
     public void setDataFileSizeLimit(int dataFileSizeLimit) {
         this.dataFileSizeLimit = dataFileSizeLimit;
     }
-    
+
+    public int getUndoHistoryLimit() {
+        return undoHistoryLimit;
+    }
+
+    public void setUndoHistoryLimit(int undoHistoryLimit) {
+        this.undoHistoryLimit = undoHistoryLimit;
+    }
+
+    public double getStlWeldDistance() {
+        return stlWeldDistance;
+    }
+
+    public void setStlWeldDistance(double stlWeldDistance) {
+        this.stlWeldDistance = stlWeldDistance;
+    }
+
     public void setShowingAxisLabels(boolean showingAxisLabels) {
         this.showingAxisLabels = showingAxisLabels;
     }
@@ -138,7 +138,12 @@ public enum WorkbenchManager {
             WorkbenchManager.userSettingState.setStudScaleSnap(BigDecimal.ONE);
         }
 
+        if (WorkbenchManager.userSettingState.getUndoHistoryLimit() == 0) {
+            WorkbenchManager.userSettingState.setUndoHistoryLimit(64);
+        }
+
         WorkbenchManager.userSettingState.setDataFileSizeLimit(Math.clamp(WorkbenchManager.userSettingState.getDataFileSizeLimit(), 45, 1024_000));
+        WorkbenchManager.userSettingState.setUndoHistoryLimit(Math.clamp(WorkbenchManager.userSettingState.getUndoHistoryLimit(), 8, 4096));
 
         Threshold.coplanarityAngleWarning = WorkbenchManager.userSettingState.getCoplanarityAngleWarning();
         Threshold.coplanarityAngleError = WorkbenchManager.userSettingState.getCoplanarityAngleError();
@@ -0,0 +1,90 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+import org.nschmidt.ldparteditor.text.LineTokenizer;
+
+@SuppressWarnings("java:S5960")
+public class LineTokenizerTest {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+"); //$NON-NLS-1$
+
+    @Test
+    public void testTokensAreEqualToRegexSplit() {
+        final LineTokenizer tokenizer = new LineTokenizer();
+        for (String fileName : new String[]{"fulltest.txt", "61071s04.dat", "ccw.dat", "cw.dat", "nocertify.dat"}) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+            for (String line : readLines(fileName)) {
+                assertArrayEquals(line, WHITESPACE.split(line.trim()), tokenizer.tokenize(line).toArray());
+            }
+        }
+        assertArrayEquals(WHITESPACE.split(" \t3  16\t0 0\r".trim()), tokenizer.tokenize(" \t3  16\t0 0\r").toArray()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertArrayEquals(WHITESPACE.split(""), tokenizer.tokenize("").toArray()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void testNumbers() {
+        final LineTokenizer tokenizer = new LineTokenizer().tokenize("2 24 -1.5 +2 1e3 0x2FF00FF 1234567890 -"); //$NON-NLS-1$
+        assertEquals(2, tokenizer.digitAt(0));
+        assertEquals(-1, tokenizer.digitAt(1));
+        assertEquals(24, tokenizer.getInt(1));
+        assertEquals(0, new BigDecimal("-1.5").compareTo(tokenizer.getDecimal(2, Threshold.MC))); //$NON-NLS-1$
+        assertEquals(2, tokenizer.getInt(3));
+        assertEquals(0, new BigDecimal("1000").compareTo(tokenizer.getDecimal(4, Threshold.MC))); //$NON-NLS-1$
+        assertEquals(false, tokenizer.isInteger(5));
+        assertEquals(false, tokenizer.isInteger(6));
+        assertEquals(false, tokenizer.isInteger(7));
+    }
+
+    @Test
+    public void testParsedDecimals() {
+        final BigDecimal parsed = new BigDecimal("0.5"); //$NON-NLS-1$
+        final LineTokenizer tokenizer = new LineTokenizer().tokenize("2 24 0 0 0 1 1 1", new BigDecimal[]{null, null, parsed}); //$NON-NLS-1$
+        assertSame(parsed, tokenizer.getDecimal(2, Threshold.MC));
+        assertEquals(0, BigDecimal.ONE.compareTo(tokenizer.getDecimal(5, Threshold.MC)));
+        // The next line is parsed from its text again
+        tokenizer.tokenize("2 24 0 0 0 1 1 1"); //$NON-NLS-1$
+        assertEquals(0, BigDecimal.ZERO.compareTo(tokenizer.getDecimal(2, Threshold.MC)));
+    }
+
+    private List<String> readLines(String fileName) {
+        URL resource = Thread.currentThread().getContextClassLoader().getResource(fileName);
+        try {
+            Path path = Paths.get(resource.toURI());
+            return Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (URISyntaxException | IOException e) {
+            fail("Resource " + fileName + " was not found."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return List.of();
+    }
+}
@@ -18,8 +18,13 @@ package org.nschmidt.ldparteditor;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.Test;
 import org.nschmidt.ldparteditor.text.Stl2Dat;
@@ -44,6 +49,41 @@ public class StlToDatTest {
         assertEquals(EXPECTED_BINARY.replace("\r", "").replace("\n", "\r\n"), result); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
     }
     
+    @Test
+    public void testStlImportOfBinaryFileWithWelding() throws IOException {
+        final float[][] facets = {
+                {0f, 0f, 0f, 10f, 0f, 0f, 0f, 10f, 0f},
+                // A duplicate of the first facet after welding
+                {0.01f, 0f, 0f, 10f, 0.01f, 0f, 0f, 10f, 0f},
+                // Degenerated after welding
+                {0f, 0f, 0f, 0.05f, 0f, 0f, 0f, 10f, 0f},
+                {10f, 0f, 0f, 10f, 10f, 0f, 0f, 10f, 0f}};
+        final ByteBuffer buffer = ByteBuffer.allocate(84 + facets.length * 50).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(80, facets.length);
+        buffer.position(84);
+        for (float[] facet : facets) {
+            // Normal
+            buffer.position(buffer.position() + 12);
+            for (float value : facet) {
+                buffer.putFloat(value);
+            }
+            // Attribute byte count
+            buffer.putShort((short) 0);
+        }
+        final Path stlFile = Files.createTempFile("stl2dat_weld", ".stl"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            Files.write(stlFile, buffer.array());
+            UserSettingState userSettings = createTestUserSettings();
+            String result = Stl2Dat.convertStlToDatFile(stlFile.toString(), userSettings);
+            assertEquals(4, result.lines().filter(line -> line.startsWith("3 ")).count()); //$NON-NLS-1$
+            userSettings.setStlWeldDistance(0.1);
+            result = Stl2Dat.convertStlToDatFile(stlFile.toString(), userSettings);
+            assertEquals(EXPECTED_WELDED.replace("\r", "").replace("\n", "\r\n"), result); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        } finally {
+            Files.delete(stlFile);
+        }
+    }
+
     private UserSettingState createTestUserSettings() {
         UserSettingState userSettings = new UserSettingState();
         userSettings.setLdrawUserName("BlackBrick89"); //$NON-NLS-1$
@@ -63,6 +103,19 @@ public class StlToDatTest {
         return resPath;
     }
     
+    private static final String EXPECTED_WELDED = """
+0 STL-Import
+0 Name: stl.dat
+0 Author: Nils Schmidt [BlackBrick89]
+0 !LDRAW_ORG Unofficial_
+0 !LICENSE Licensed under CC BY 4.0 : see CAreadme.txt
+
+0 BFC CERTIFY CCW
+
+3 16 0.0 0.0 0.0 10.0 0.0 0.0 0.0 10.0 0.0
+3 16 10.0 0.0 0.0 10.0 10.0 0.0 0.0 10.0 0.0
+"""; //$NON-NLS-1$
+
     private static final String EXPECTED_ASCII = """
 0 STL-Import
 0 Name: stl.dat
@@ -0,0 +1,151 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.helper.math.VertexGrid;
+
+@SuppressWarnings("java:S5960")
+public class VertexGridTest {
+
+    @Test
+    public void testCandidatesContainAllVerticesInRange() {
+        final Random random = new Random(11);
+        final List<Vertex> vertices = randomVertices(random, 2000);
+        for (BigDecimal range : new BigDecimal[]{new BigDecimal("0.001"), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO}) { //$NON-NLS-1$
+            final VertexGrid grid = new VertexGrid(vertices, range);
+            assertEquals(vertices.size(), grid.size());
+            for (int q = 0; q < 200; q++) {
+                // Every second query is centered on a vertex, so the zero range finds something
+                final Vertex center = q % 2 == 0 ? vertices.get(random.nextInt(vertices.size())) : randomVertex(random);
+                final int[] candidates = grid.getCandidates(center, range);
+                assertSorted(candidates);
+                for (int i = 0; i < vertices.size(); i++) {
+                    if (distance(center, vertices.get(i)).compareTo(range) <= 0) {
+                        assertTrue("Missing vertex " + i, Arrays.binarySearch(candidates, i) >= 0); //$NON-NLS-1$
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCandidatesOnCellBoundaries() {
+        // The vertices lie exactly on the borders of the cells (the cell size is the range)
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int x = -3; x <= 3; x++) {
+            for (int y = -3; y <= 3; y++) {
+                vertices.add(new Vertex(BigDecimal.valueOf(x), BigDecimal.valueOf(y), BigDecimal.ZERO));
+            }
+        }
+        final VertexGrid grid = new VertexGrid(vertices, BigDecimal.ONE);
+        for (int i = 0; i < vertices.size(); i++) {
+            final Vertex center = vertices.get(i);
+            final int[] candidates = grid.getCandidates(center, BigDecimal.ONE);
+            final List<Integer> expected = new ArrayList<>();
+            for (int j = 0; j < vertices.size(); j++) {
+                if (distance(center, vertices.get(j)).compareTo(BigDecimal.ONE) <= 0) {
+                    expected.add(j);
+                    assertTrue(Arrays.binarySearch(candidates, j) >= 0);
+                }
+            }
+            // The center and its direct neighbours
+            assertTrue(expected.size() >= 3);
+        }
+    }
+
+    @Test
+    public void testNearestIsEqualToLinearSearch() {
+        final Random random = new Random(5);
+        final List<Vertex> vertices = randomVertices(random, 1000);
+        // Duplicates have the same distance, the lower index has to win
+        vertices.addAll(vertices.subList(0, 100));
+        final VertexGrid grid = new VertexGrid(vertices, BigDecimal.ZERO);
+        for (int q = 0; q < 500; q++) {
+            final Vertex center = randomVertex(random);
+            final double maxDistanceSquared = q % 5 == 0 ? 1e6 : Double.MAX_VALUE;
+            final int skipped = q % 3;
+            final int nearest = grid.getNearest(center, maxDistanceSquared, i -> floatDistanceSquared(center, grid.get(i)), i -> i % 3 != skipped);
+            int expected = -1;
+            double minDistanceSquared = maxDistanceSquared;
+            for (int i = 0; i < vertices.size(); i++) {
+                final double d2 = floatDistanceSquared(center, vertices.get(i));
+                if (d2 < minDistanceSquared && i % 3 != skipped) {
+                    expected = i;
+                    minDistanceSquared = d2;
+                }
+            }
+            assertEquals(expected, nearest);
+        }
+    }
+
+    @Test
+    public void testEmptyGrid() {
+        final VertexGrid grid = new VertexGrid(List.of(), BigDecimal.ONE);
+        final Vertex center = new Vertex(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        assertArrayEquals(new int[0], grid.getCandidates(center, BigDecimal.TEN));
+        assertEquals(-1, grid.getNearest(center, Double.MAX_VALUE, i -> 0.0, i -> true));
+    }
+
+    private static List<Vertex> randomVertices(Random random, int count) {
+        final List<Vertex> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(randomVertex(random));
+        }
+        return result;
+    }
+
+    private static Vertex randomVertex(Random random) {
+        // Up to 50 LDU from the origin with three decimal places
+        return new Vertex(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+    }
+
+    private static BigDecimal randomCoordinate(Random random) {
+        return BigDecimal.valueOf(random.nextInt(100_001) - 50_000L, 3);
+    }
+
+    private static BigDecimal distance(Vertex a, Vertex b) {
+        final BigDecimal dx = a.xp().subtract(b.xp());
+        final BigDecimal dy = a.yp().subtract(b.yp());
+        final BigDecimal dz = a.zp().subtract(b.zp());
+        return dx.multiply(dx).add(dy.multiply(dy)).add(dz.multiply(dz)).sqrt(MathContext.DECIMAL64);
+    }
+
+    private static double floatDistanceSquared(Vertex a, Vertex b) {
+        final double dx = (double) a.x - b.x;
+        final double dy = (double) a.y - b.y;
+        final double dz = (double) a.z - b.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static void assertSorted(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i - 1] < indices[i]);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.Vertex;
+
+@SuppressWarnings("java:S5960")
+public class VertexTest {
+
+    @Test
+    public void testRoundingIsHalfUpToTwoDecimalPlaces() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            assertSameRoundingAsBigDecimal((random.nextFloat() - 0.5f) * 20_000f);
+            assertSameRoundingAsBigDecimal(Float.intBitsToFloat(random.nextInt()));
+        }
+    }
+
+    @Test
+    public void testRoundingIsHalfUpAtEveryBoundary() {
+        // Every boundary between two rounded values in [-10000, 10000]
+        // together with its neighbouring floats. A second rounding (from
+        // double to float) could only change the result next to these
+        // boundaries.
+        for (int k = -1_000_000; k <= 1_000_000; k++) {
+            final float boundary = (k + 0.5f) / 100f;
+            assertSameRoundingAsBigDecimal(Math.nextDown(boundary));
+            assertSameRoundingAsBigDecimal(boundary);
+            assertSameRoundingAsBigDecimal(Math.nextUp(boundary));
+        }
+    }
+
+    @Test
+    public void testRoundingOfExactHalvesAndNegativeZero() {
+        // 0.125 and -0.125 are exact floats, half up rounds them away from zero
+        assertEqualVertices(new Vertex(0.125f, -0.125f, 0f, true), new Vertex(0.13f, -0.13f, 0f, true));
+        assertNotEquals(new Vertex(0.125f, 0f, 0f, true), new Vertex(0.12f, 0f, 0f, true));
+        assertNotEquals(new Vertex(0f, -0.125f, 0f, true), new Vertex(0f, -0.12f, 0f, true));
+        // The neighbours of an exact boundary are rounded to different values
+        assertEqualVertices(new Vertex(0f, 0f, Math.nextDown(0.375f), true), new Vertex(0f, 0f, 0.37f, true));
+        assertEqualVertices(new Vertex(0f, 0f, 0.375f, true), new Vertex(0f, 0f, 0.38f, true));
+        // The float 1.005f is slightly smaller than 1.005
+        assertEqualVertices(new Vertex(0f, 0f, 1.005f, true), new Vertex(0f, 0f, 1f, true));
+        assertEqualVertices(new Vertex(0f, 0f, Math.nextUp(1.005f), true), new Vertex(0f, 0f, 1.01f, true));
+        // -0 and 0 are the same vertex
+        assertEqualVertices(new Vertex(-0f, -0.001f, -0.004f, true), new Vertex(0f, 0f, 0f, true));
+    }
+
+    @Test
+    public void testEqualsIsConsistentWithHashCodeAndCompareTo() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            final Vertex a = new Vertex(random.nextInt(200) / 100f, random.nextInt(3) / 100f, 0.005f, true);
+            // Differs by less than one hundredth, so it can end up in the same or in the next cell
+            final Vertex b = new Vertex(a.x + random.nextFloat() * 0.01f, a.y, a.z, true);
+            assertEquals(a.equals(b), b.equals(a));
+            assertEquals(a.equals(b), a.compareTo(b) == 0);
+            assertEquals(-Integer.signum(a.compareTo(b)), Integer.signum(b.compareTo(a)));
+            if (a.equals(b)) {
+                assertEquals(a.hashCode(), b.hashCode());
+            }
+        }
+    }
+
+    @Test
+    public void testAccurateConstructorUsesTheSameRounding() {
+        // The accurate coordinates are stored in LDU, the float coordinates are scaled by 1000
+        final Vertex accurate = new Vertex(new BigDecimal("0.00001"), new BigDecimal("-0.0000125"), BigDecimal.ONE); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEqualVertices(accurate, new Vertex(0.01f, -0.0125f, 1000f, true));
+    }
+
+    private void assertSameRoundingAsBigDecimal(float value) {
+        if (!Float.isFinite(value)) {
+            return;
+        }
+        // The rounded value is idempotent, so the expected vertex keeps it
+        final float expected = new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).floatValue();
+        assertEqualVertices(new Vertex(expected, 0f, 0f, true), new Vertex(value, 0f, 0f, true));
+    }
+
+    private void assertEqualVertices(Vertex expected, Vertex actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(0, expected.compareTo(actual));
+    }
+}
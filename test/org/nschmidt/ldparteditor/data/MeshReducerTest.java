@@ -0,0 +1,146 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+@SuppressWarnings("java:S5960")
+public class MeshReducerTest {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+"); //$NON-NLS-1$
+
+    @Test
+    public void testReduceMeshreduceFile() {
+        final Map<Vertex, Vertex> withColours = reduceFile(false);
+        assertEquals(90, withColours.size());
+        assertReplacementsAreKept(withColours);
+
+        final Map<Vertex, Vertex> withoutColours = reduceFile(true);
+        assertEquals(112, withoutColours.size());
+        assertReplacementsAreKept(withoutColours);
+    }
+
+    @Test
+    public void testOnlyFlatCapsOfCylinderAreReduced() {
+        // A closed cylinder with 16 segments and 4 rings. The wall turns by
+        // 22.5 degrees per segment, so only the centres of the flat caps can
+        // be removed.
+        final MeshReducer reducer = new MeshReducer(true);
+        final int segments = 16;
+        final int rings = 4;
+        final Vertex[][] wall = new Vertex[rings + 1][segments];
+        for (int h = 0; h <= rings; h++) {
+            for (int s = 0; s < segments; s++) {
+                final double angle = 2.0 * Math.PI * s / segments;
+                wall[h][s] = new Vertex((float) (10.0 * Math.cos(angle)), h * 5f, (float) (10.0 * Math.sin(angle)));
+            }
+        }
+        final Vertex top = new Vertex(0f, rings * 5f, 0f);
+        final Vertex bottom = new Vertex(0f, 0f, 0f);
+        for (int s = 0; s < segments; s++) {
+            final int n = (s + 1) % segments;
+            for (int h = 0; h < rings; h++) {
+                reducer.addFace(new Vertex[]{wall[h][s], wall[h][n], wall[h + 1][n], wall[h + 1][s]}, null, true);
+            }
+            reducer.addFace(new Vertex[]{bottom, wall[0][n], wall[0][s]}, null, true);
+            reducer.addFace(new Vertex[]{top, wall[rings][s], wall[rings][n]}, null, true);
+        }
+        assertEquals(82, reducer.getVertexCount());
+
+        final Map<Vertex, Vertex> result = reducer.reduce(new NullProgressMonitor());
+        assertEquals(2, result.size());
+        assertTrue(result.containsKey(top));
+        assertTrue(result.containsKey(bottom));
+    }
+
+    @Test
+    public void testSubfileFacesAreKept() {
+        final Vertex[][] grid = new Vertex[5][5];
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                grid[i][j] = new Vertex(i * 1f, 0f, j * 1f);
+            }
+        }
+
+        final MeshReducer movable = new MeshReducer(true);
+        final MeshReducer locked = new MeshReducer(true);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                movable.addFace(new Vertex[]{grid[i][j], grid[i + 1][j], grid[i + 1][j + 1]}, null, true);
+                movable.addFace(new Vertex[]{grid[i][j], grid[i + 1][j + 1], grid[i][j + 1]}, null, true);
+                locked.addFace(new Vertex[]{grid[i][j], grid[i + 1][j], grid[i + 1][j + 1]}, null, false);
+                locked.addFace(new Vertex[]{grid[i][j], grid[i + 1][j + 1], grid[i][j + 1]}, null, false);
+            }
+        }
+
+        assertFalse(movable.reduce(new NullProgressMonitor()).isEmpty());
+        assertTrue(locked.reduce(new NullProgressMonitor()).isEmpty());
+    }
+
+    private Map<Vertex, Vertex> reduceFile(boolean ignoreColours) {
+        final MeshReducer reducer = new MeshReducer(ignoreColours);
+        for (String line : readLines("meshreduce.txt")) { //$NON-NLS-1$
+            final String[] segments = WHITESPACE.split(line.trim());
+            final int type = segments[0].isEmpty() ? 0 : Integer.parseInt(segments[0]);
+            if (type != 3 && type != 4) {
+                continue;
+            }
+            final Vertex[] verts = new Vertex[type];
+            for (int i = 0; i < type; i++) {
+                verts[i] = new Vertex(new BigDecimal(segments[2 + i * 3]), new BigDecimal(segments[3 + i * 3]), new BigDecimal(segments[4 + i * 3]));
+            }
+            final int colourNumber = Integer.parseInt(segments[1]);
+            reducer.addFace(verts, new GColour(colourNumber, colourNumber, 0f, 0f, 1f), true);
+        }
+        assertEquals(802, reducer.getVertexCount());
+        return reducer.reduce(new NullProgressMonitor());
+    }
+
+    private static void assertReplacementsAreKept(Map<Vertex, Vertex> result) {
+        for (Vertex target : result.values()) {
+            assertFalse(result.containsKey(target));
+        }
+    }
+
+    private List<String> readLines(String fileName) {
+        URL resource = Thread.currentThread().getContextClassLoader().getResource(fileName);
+        try {
+            Path path = Paths.get(resource.toURI());
+            return Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (URISyntaxException | IOException e) {
+            fail("Resource " + fileName + " was not found."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return List.of();
+    }
+}
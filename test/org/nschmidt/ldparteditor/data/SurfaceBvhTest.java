@@ -0,0 +1,179 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+@SuppressWarnings("java:S5960")
+public class SurfaceBvhTest {
+
+    /** The edge length of the triangles (in float units, see {@link Vertex#x}) */
+    private static final float SIZE = 8000f;
+    /** The distance between the triangles */
+    private static final float SPACING = 10000f;
+    private static final int COLUMNS = 30;
+
+    @Test
+    public void testIncrementalChangesAndRebuild() {
+        final Random random = new Random(13);
+        final SurfaceBvh bvh = new SurfaceBvh();
+        final Map<GData, Vertex[]> live = new LinkedHashMap<>();
+        final List<GData> keys = new ArrayList<>();
+        bvh.update(new HashMap<>(), new HashMap<>());
+
+        // A few new surfaces are kept in the pending list, every ray visits them
+        addSurfaces(bvh, live, keys, 100);
+        bvh.update(new HashMap<>(), new HashMap<>());
+        assertEquals(100, visitAwayFromGrid(bvh).size());
+        assertRaysHitLiveSurfaces(bvh, live, random);
+
+        // More changes rebuild the tree, a ray pointing away hits nothing
+        addSurfaces(bvh, live, keys, 200);
+        bvh.update(new HashMap<>(), new HashMap<>());
+        assertTrue(visitAwayFromGrid(bvh).isEmpty());
+        assertRaysHitLiveSurfaces(bvh, live, random);
+
+        // An infinite line still hits the surfaces behind its origin
+        final Set<GData> visited = new HashSet<>();
+        bvh.visitRay(SPACING * 0.5f, SPACING * 0.5f, 100_000f, 0f, 0f, 1f, false, (gdata, verts) -> !visited.add(gdata));
+        assertTrue(visited.contains(keys.get(0)));
+
+        // Removed surfaces of the tree are dead
+        for (int i = 0; i < 50; i++) {
+            final GData key = keys.get(random.nextInt(keys.size()));
+            bvh.remove(key);
+            live.remove(key);
+        }
+        assertRaysHitLiveSurfaces(bvh, live, random);
+
+        // Removed pending surfaces are gone
+        addSurfaces(bvh, live, keys, 5);
+        for (int i = keys.size() - 2; i < keys.size(); i++) {
+            bvh.remove(keys.get(i));
+            live.remove(keys.get(i));
+        }
+        assertEquals(3, visitAwayFromGrid(bvh).size());
+        assertRaysHitLiveSurfaces(bvh, live, random);
+
+        // A surface of the tree which is added again is only visited with its new vertices
+        final GData moved = keys.get(0);
+        final Vertex[] movedVertices = triangle(COLUMNS + 1, 0);
+        bvh.add(moved, movedVertices);
+        live.put(moved, movedVertices);
+        final List<GData> pending = visitAwayFromGrid(bvh);
+        assertEquals(4, pending.size());
+        assertTrue(pending.contains(moved));
+        assertRaysHitLiveSurfaces(bvh, live, random);
+
+        // The rebuilt tree keeps all live surfaces
+        addSurfaces(bvh, live, keys, 300);
+        bvh.update(new HashMap<>(), new HashMap<>());
+        assertTrue(visitAwayFromGrid(bvh).isEmpty());
+        assertRaysHitLiveSurfaces(bvh, live, random);
+    }
+
+    @Test
+    public void testVisitorCanStopTheQuery() {
+        final SurfaceBvh bvh = new SurfaceBvh();
+        bvh.update(new HashMap<>(), new HashMap<>());
+        addSurfaces(bvh, new HashMap<>(), new ArrayList<>(), 300);
+        bvh.update(new HashMap<>(), new HashMap<>());
+        final int[] count = new int[1];
+        assertTrue(bvh.visitRay(0f, 0f, 0f, 1f, 1f, 0f, true, (gdata, verts) -> ++count[0] == 3));
+        assertEquals(3, count[0]);
+        assertFalse(bvh.visitRay(0f, 0f, 0f, 1f, 1f, 0f, true, (gdata, verts) -> false));
+    }
+
+    @Test
+    public void testChangesAreIgnoredUntilTheTreeIsBuilt() {
+        final SurfaceBvh bvh = new SurfaceBvh();
+        addSurfaces(bvh, new HashMap<>(), new ArrayList<>(), 10);
+        assertTrue(visitAwayFromGrid(bvh).isEmpty());
+
+        bvh.update(new HashMap<>(), new HashMap<>());
+        addSurfaces(bvh, new HashMap<>(), new ArrayList<>(), 10);
+        assertEquals(10, visitAwayFromGrid(bvh).size());
+
+        bvh.clear();
+        addSurfaces(bvh, new HashMap<>(), new ArrayList<>(), 10);
+        assertTrue(visitAwayFromGrid(bvh).isEmpty());
+    }
+
+    private static void addSurfaces(SurfaceBvh bvh, Map<GData, Vertex[]> live, List<GData> keys, int count) {
+        for (int i = 0; i < count; i++) {
+            final int index = keys.size();
+            final GData key = new GData0("0 // " + index, null); //$NON-NLS-1$
+            final Vertex[] verts = triangle(index % COLUMNS, index / COLUMNS);
+            bvh.add(key, verts);
+            live.put(key, verts);
+            keys.add(key);
+        }
+    }
+
+    private static Vertex[] triangle(int column, int row) {
+        final float x = column * SPACING;
+        final float y = row * SPACING;
+        return new Vertex[] { new Vertex(x, y, 0f), new Vertex(x + SIZE, y, 0f), new Vertex(x, y + SIZE, 0f) };
+    }
+
+    /**
+     * @return the surfaces which are visited by a ray which points away from
+     *         all surfaces (only the pending ones)
+     */
+    private static List<GData> visitAwayFromGrid(SurfaceBvh bvh) {
+        final List<GData> result = new ArrayList<>();
+        bvh.visitRay(SPACING * 0.5f, SPACING * 0.5f, 100_000f, 0f, 0f, 1f, true, (gdata, verts) -> !result.add(gdata));
+        return result;
+    }
+
+    /**
+     * Shoots rays along the z axis and compares the visited surfaces with the
+     * surfaces whose bounding box contains the ray
+     */
+    private static void assertRaysHitLiveSurfaces(SurfaceBvh bvh, Map<GData, Vertex[]> live, Random random) {
+        final float extent = (COLUMNS + 2) * SPACING;
+        for (int r = 0; r < 500; r++) {
+            final float ox = random.nextFloat() * extent - SPACING;
+            final float oy = random.nextFloat() * extent - SPACING;
+            final Set<GData> visited = new HashSet<>();
+            bvh.visitRay(ox, oy, -100_000f, 0f, 0f, 1f, true, (gdata, verts) -> {
+                assertTrue("Visited twice", visited.add(gdata)); //$NON-NLS-1$
+                assertSame(live.get(gdata), verts);
+                return false;
+            });
+            for (Map.Entry<GData, Vertex[]> entry : live.entrySet()) {
+                final Vertex v = entry.getValue()[0];
+                if (ox >= v.x && ox <= v.x + SIZE && oy >= v.y && oy <= v.y + SIZE) {
+                    assertTrue("Missing surface", visited.contains(entry.getKey())); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+}
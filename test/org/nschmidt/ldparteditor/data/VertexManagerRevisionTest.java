@@ -0,0 +1,59 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.enumtype.View;
+
+@SuppressWarnings("java:S5960")
+public class VertexManagerRevisionTest {
+
+    @Test
+    public void testTextEditChangesTheBuildState() {
+        final DatFile df = new DatFile("revision.dat"); //$NON-NLS-1$
+        final VertexManager vm = df.getVertexManager();
+        final GData2 line = new GData2(24, 0f, 0f, 0f, 1f, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, View.DUMMY_REFERENCE, df, true);
+        final GL33GeometrySnapshot.State before = state(vm);
+
+        // The text editor replaces the line and marks the file as updated (not as modified)
+        vm.remove(line);
+        new GData2(24, 0f, 0f, 0f, 1f, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, View.DUMMY_REFERENCE, df, true);
+        vm.setUpdated(true);
+
+        assertNotEquals(before, state(vm));
+    }
+
+    @Test
+    public void testRemovedLineChangesTheBuildState() {
+        final DatFile df = new DatFile("revision.dat"); //$NON-NLS-1$
+        final VertexManager vm = df.getVertexManager();
+        final GData2 line = new GData2(24, 0f, 0f, 0f, 1f, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, View.DUMMY_REFERENCE, df, true);
+        final GL33GeometrySnapshot.State before = state(vm);
+        vm.remove(line);
+        assertNotEquals(before, state(vm));
+    }
+
+    /**
+     * @return the build state of a view with fixed settings
+     */
+    private static GL33GeometrySnapshot.State state(VertexManager vm) {
+        return new GL33GeometrySnapshot.State(0, 0, false, false, false, false, false, false, false, vm.getRevision(), vm.getSelectionRevision(), null);
+    }
+}